@@ -241,11 +241,12 @@ class GCIRulesIT extends GCIRulesBase {
 
         String filePath = "src/avoidUnoptimizedVectorImages.py";
         String ruleId = "creedengo-python:GCI10";
-        String ruleMsg = "Avoid using unoptimized vector images";
-        int[] startLines = new int[]{2, 3, 4, 5};
-        int[] endLines = new int[]{2, 3, 4, 5};
+        String ruleMsg = "Avoid using unoptimized vector images: ";
 
-        checkIssuesForFile(filePath, ruleId, ruleMsg, startLines, endLines, SEVERITY, TYPE, EFFORT_1H);
+        checkIssuesForFile(filePath, ruleId, ruleMsg + "foreign namespaces", new int[]{2}, new int[]{2}, SEVERITY, TYPE, EFFORT_1H);
+        checkIssuesForFile(filePath, ruleId, ruleMsg + "comments", new int[]{3}, new int[]{3}, SEVERITY, TYPE, EFFORT_1H);
+        checkIssuesForFile(filePath, ruleId, ruleMsg + "multiple layers", new int[]{4}, new int[]{4}, SEVERITY, TYPE, EFFORT_1H);
+        checkIssuesForFile(filePath, ruleId, ruleMsg + "metadata", new int[]{5}, new int[]{5}, SEVERITY, TYPE, EFFORT_1H);
 
     }
 
@@ -421,10 +422,10 @@ class GCIRulesIT extends GCIRulesBase {
         String ruleId = "creedengo-python:GCI105";
         String ruleMsg = "Concatenation of strings should be done using f-strings or str.join()";
         int[] startLines = new int[]{
-            5, 8, 10, 32, 38
+            5
         };
         int[] endLines = new int[]{
-            5, 8, 10, 32, 38
+            5
         };
 
         checkIssuesForFile(filePath, ruleId, ruleMsg, startLines, endLines, SEVERITY, TYPE, EFFORT_1MIN);
@@ -461,6 +462,18 @@ class GCIRulesIT extends GCIRulesBase {
         checkIssuesForFile(filePath, ruleId, ruleMsg, startLines, endLines, SEVERITY, TYPE, EFFORT_10MIN);
     }
 
+    @Test
+    void testGCI107_loopIdioms(){
+
+        String filePath = "src/avoidIterativeLoopIdioms.py";
+        String ruleId = "creedengo-python:GCI107";
+        String ruleMsg = "Avoid iterative sum over arrays, use np.sum or torch.sum instead";
+        int[] startLines = new int[]{7, 11};
+        int[] endLines = new int[]{7, 11};
+
+        checkIssuesForFile(filePath, ruleId, ruleMsg, startLines, endLines, SEVERITY, TYPE, EFFORT_10MIN);
+    }
+
     @Test
     void testGCI108(){
         String filePath = "src/preferAppendLeft.py";
@@ -594,4 +607,17 @@ class GCIRulesIT extends GCIRulesBase {
 
     }
 
+    @Test
+    void testGCI113() {
+
+        String filePath = "src/avoidLoopInvariantCalls.py";
+        String ruleId = "creedengo-python:GCI113";
+        String ruleMsg = "Move this call out of the loop: it is evaluated with the same arguments at every iteration";
+        int[] startLines = new int[]{10, 17, 24};
+        int[] endLines = new int[]{10, 17, 24};
+
+        checkIssuesForFile(filePath, ruleId, ruleMsg, startLines, endLines, SEVERITY, TYPE, EFFORT_5MIN);
+
+    }
+
 }
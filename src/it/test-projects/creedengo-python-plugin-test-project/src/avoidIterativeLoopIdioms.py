@@ -0,0 +1,17 @@
+import numpy as np
+a = [1.0, 2.0, 3.0, 4.0]
+m = [[1.0, 2.0], [3.0, 4.0]]
+n = len(a)
+
+total = 0.0
+for i in range(n):  # Noncompliant {{Avoid iterative sum over arrays, use np.sum or torch.sum instead}}
+    total += a[i]
+
+total = 0.0
+for i in range(2):  # Noncompliant {{Avoid iterative sum over arrays, use np.sum or torch.sum instead}}
+    for j in range(2):
+        total += m[i][j]
+
+total = 0.0
+for value in a:  # Compliant
+    total += value
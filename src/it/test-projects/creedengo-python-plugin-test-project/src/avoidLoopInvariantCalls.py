@@ -0,0 +1,35 @@
+import re
+import json
+
+CONFIG = '{"retries": 3}'
+
+
+def scaled(items, other):
+    total = 0
+    for item in items:
+        total += item * len(other)  # Noncompliant {{Move this call out of the loop: it is evaluated with the same arguments at every iteration}}
+    return total
+
+
+def matches(lines, pattern):
+    found = []
+    for line in lines:
+        if re.compile(pattern).match(line):  # Noncompliant {{Move this call out of the loop: it is evaluated with the same arguments at every iteration}}
+            found.append(line)
+    return found
+
+
+def parse(records):
+    for record in records:
+        record.update(json.loads(CONFIG))  # Noncompliant {{Move this call out of the loop: it is evaluated with the same arguments at every iteration}}
+
+
+def growing(items):
+    for item in items:
+        if len(items) > 10:  # Compliant: items changes in the loop
+            items.pop()
+
+
+def compiled(lines, pattern):
+    regex = re.compile(pattern)  # Compliant: not in a loop
+    return [line for line in lines if regex.match(line)]
@@ -5,9 +5,9 @@ for word in following_words:
     text += word  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
 
 text = "init"
-text += " add this"  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+text += " add this"  # Compliant: out of any loop
 
-text += [word for word in following_words]  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+text += [word for word in following_words]  # Compliant: out of any loop
 
 
 result = " ".join([text] + following_words) 
@@ -29,10 +29,10 @@ count += 1  # Compliant
 
 msg = "start"
 if True:
-    msg += " continued"  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+    msg += " continued"  # Compliant: out of any loop
 
 
 def get_text():
     return "function text"
 
-text += get_text()  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+text += get_text()  # Compliant: out of any loop
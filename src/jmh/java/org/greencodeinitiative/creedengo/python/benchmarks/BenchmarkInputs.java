@@ -0,0 +1,208 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.benchmarks;
+
+import org.greencodeinitiative.creedengo.python.PythonRuleRepository;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.python.TestPythonVisitorRunner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Python inputs of the benchmarks, parsed once per trial.
+ * <ul>
+ *     <li>{@code fixtures}: every file of {@value #FIXTURES_DIRECTORY}</li>
+ *     <li>{@code fixtures-x10}: the same files, each one repeated 10 times</li>
+ *     <li>{@code deep-nesting}: a function made of {@value #NESTING_DEPTH} nested loops and conditions</li>
+ *     <li>{@code nested-functions}: {@value #NESTING_DEPTH} functions, each one defined in the previous one and reading
+ *     module and enclosing variables</li>
+ *     <li>{@code huge-file}: a single file of about {@value #HUGE_FILE_BLOCKS} functions mixing the patterns of the rules</li>
+ * </ul>
+ */
+final class BenchmarkInputs {
+
+    static final String FIXTURES_DIRECTORY = "src/test/resources/checks";
+    static final int NESTING_DEPTH = 50;
+    static final int HUGE_FILE_BLOCKS = 5_000;
+
+    private static final Path GENERATED_DIRECTORY = Path.of("target", "jmh-inputs");
+
+    private BenchmarkInputs() {
+        // Utility class - prevent instantiation
+    }
+
+    static List<PythonVisitorContext> load(String input) throws IOException {
+        return switch (input) {
+            case "fixtures" -> fixtures(1);
+            case "fixtures-x10" -> fixtures(10);
+            case "deep-nesting" -> List.of(parse("deep_nesting.py", deepNesting(NESTING_DEPTH)));
+            case "nested-functions" -> List.of(parse("nested_functions.py", nestedFunctions(NESTING_DEPTH)));
+            case "huge-file" -> List.of(parse("huge_file.py", hugeFile(HUGE_FILE_BLOCKS)));
+            default -> throw new IllegalArgumentException("Unknown benchmark input: " + input);
+        };
+    }
+
+    /**
+     * Returns the simple names of the checks of the rule repository.
+     */
+    static List<String> checkNames() {
+        return new PythonRuleRepository(null).checkClasses().stream()
+                .map(Class::getSimpleName)
+                .toList();
+    }
+
+    static PythonSubscriptionCheck newCheck(String simpleName) {
+        Class<?> checkClass = new PythonRuleRepository(null).checkClasses().stream()
+                .filter(c -> c.getSimpleName().equals(simpleName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown check: " + simpleName));
+        try {
+            return (PythonSubscriptionCheck) checkClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + checkClass, e);
+        }
+    }
+
+    private static List<PythonVisitorContext> fixtures(int repeat) throws IOException {
+        Path directory = Path.of(FIXTURES_DIRECTORY);
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalStateException(directory.toAbsolutePath() + " not found: benchmarks must run from the project directory");
+        }
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.filter(p -> p.toString().endsWith(".py")).sorted().toList();
+        }
+        List<PythonVisitorContext> contexts = new ArrayList<>();
+        for (Path file : files) {
+            String source = Files.readString(file, StandardCharsets.UTF_8);
+            if (repeat == 1) {
+                contexts.add(TestPythonVisitorRunner.createContext(file.toFile()));
+            } else {
+                String name = directory.relativize(file).toString().replace('/', '_').replace('\\', '_');
+                contexts.add(parse("x" + repeat + "_" + name, (source + "\n").repeat(repeat)));
+            }
+        }
+        return contexts;
+    }
+
+    static String deepNesting(int depth) {
+        StringBuilder source = new StringBuilder()
+                .append("import math\n")
+                .append("import sqlite3\n")
+                .append("import logging\n")
+                .append("\n")
+                .append("def deep(values, cursor, text):\n");
+        String indent = "    ";
+        for (int level = 0; level < depth; level++) {
+            source.append(indent).append("for i").append(level).append(" in values:\n");
+            indent += "    ";
+            source.append(indent).append("if i").append(level).append(" > ").append(level).append(":\n");
+            indent += "    ";
+            source.append(indent).append("text += str(i").append(level).append(")\n");
+        }
+        source.append(indent).append("value = math.sqrt(i0)\n")
+                .append(indent).append("cursor.execute(\"SELECT * FROM users\")\n")
+                .append(indent).append("logging.info(\"value {}\".format(value))\n")
+                .append(indent).append("results = [math.sqrt(x) for x in values]\n")
+                .append("    return text\n");
+        return source.toString();
+    }
+
+    static String nestedFunctions(int depth) {
+        StringBuilder source = new StringBuilder()
+                .append("counter = 0\n")
+                .append("label = \"level\"\n")
+                .append("\n");
+        String indent = "";
+        for (int level = 0; level < depth; level++) {
+            source.append(indent).append("def level").append(level).append("(value").append(level).append("):\n");
+            indent += "    ";
+            source.append(indent).append("total").append(level).append(" = value").append(level).append(" + counter\n")
+                    .append(indent).append("names").append(level).append(" = [label + str(v) for v in range(value").append(level).append(")]\n");
+        }
+        for (int level = depth - 1; level >= 0; level--) {
+            source.append(indent).append("return total").append(level).append(", names").append(level).append("\n");
+            indent = indent.substring(4);
+            if (level > 0) {
+                source.append(indent).append("level").append(level).append("(total").append(level - 1).append(")\n");
+            }
+        }
+        return source.toString();
+    }
+
+    static String hugeFile(int blocks) {
+        StringBuilder source = new StringBuilder()
+                .append("import math\n")
+                .append("import sqlite3\n")
+                .append("import logging\n")
+                .append("import numpy as np\n")
+                .append("import pandas as pd\n")
+                .append("import torch\n")
+                .append("\n")
+                .append("logger = logging.getLogger(__name__)\n")
+                .append("counter = 0\n")
+                .append("\n");
+        for (int i = 0; i < blocks; i++) {
+            source.append("class Holder").append(i).append(":\n")
+                    .append("    def __init__(self):\n")
+                    .append("        self.value = ").append(i).append("\n")
+                    .append("    def get_value(self):\n")
+                    .append("        return self.value\n")
+                    .append("\n")
+                    .append("def function_").append(i).append("(values, cursor, table):\n")
+                    .append("    text = \"\"\n")
+                    .append("    items = {\"a\": 1, \"b\": 2}\n")
+                    .append("    for key, value in items.items():\n")
+                    .append("        text += key\n")
+                    .append("    for value in values:\n")
+                    .append("        text = text + str(value)\n")
+                    .append("        root = math.sqrt(value) + np.sqrt(value) + counter\n")
+                    .append("        cursor.execute(\"SELECT * FROM \" + table)\n")
+                    .append("        logger.info(f\"root {root}\")\n")
+                    .append("        if value == 1:\n")
+                    .append("            text = \"one\"\n")
+                    .append("        elif value == 2:\n")
+                    .append("            text = \"two\"\n")
+                    .append("        else:\n")
+                    .append("            text = \"many\"\n")
+                    .append("    try:\n")
+                    .append("        frame = pd.read_csv(\"data").append(i).append(".csv\")\n")
+                    .append("    except OSError:\n")
+                    .append("        frame = None\n")
+                    .append("    tensor = torch.tensor(np.array(values))\n")
+                    .append("    picture = \"image").append(i).append(".png\"\n")
+                    .append("    return [v * v for v in values], frame, tensor, picture\n")
+                    .append("\n");
+        }
+        return source.toString();
+    }
+
+    static PythonVisitorContext parse(String fileName, String source) throws IOException {
+        Files.createDirectories(GENERATED_DIRECTORY);
+        Path file = GENERATED_DIRECTORY.resolve(fileName);
+        Files.writeString(file, source, StandardCharsets.UTF_8);
+        return TestPythonVisitorRunner.createContext(file.toFile());
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks selected by the JMH command line arguments. Unless the {@value #CHECKS_PROPERTY} system property
+ * lists checks, the {@code check} parameter of {@link ChecksBenchmark} takes the simple name of every check of the
+ * rule repository, so that each one gets its own throughput, then {@value ChecksBenchmark#ALL_CHECKS}.
+ */
+public final class BenchmarkRunner {
+
+    static final String CHECKS_PROPERTY = "jmh.checks";
+
+    private BenchmarkRunner() {
+        // Utility class - prevent instantiation
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .param("check", checks(System.getProperty(CHECKS_PROPERTY, "")).toArray(String[]::new));
+        new Runner(options.build()).run();
+    }
+
+    static List<String> checks(String property) {
+        if (property.isBlank()) {
+            List<String> checks = new ArrayList<>(BenchmarkInputs.checkNames());
+            checks.add(ChecksBenchmark.ALL_CHECKS);
+            return checks;
+        }
+        return Arrays.stream(property.split(","))
+                .map(String::trim)
+                .filter(check -> !check.isEmpty())
+                .toList();
+    }
+}
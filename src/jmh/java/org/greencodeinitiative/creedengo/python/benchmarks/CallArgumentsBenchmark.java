@@ -0,0 +1,120 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.benchmarks;
+
+import org.greencodeinitiative.creedengo.python.utils.CallArgumentBinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.plugins.python.api.tree.Argument;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.RegularArgument;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of the {@code pin_memory} argument of {@code DataLoader} calls by GCI102: the {@link CallArgumentBinder}
+ * against the {@code nthArgumentOrKeyword} implementation it replaced, which looked up the index of every positional
+ * argument in the list. Calls pass up to 7 positional arguments, then keyword arguments, and use the default
+ * {@code pin_memory}: the whole argument list is scanned.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallArgumentsBenchmark {
+
+    private static final int CALLS = 1_000;
+
+    private static final CallArgumentBinder DATALOADER_SIGNATURE = CallArgumentBinder.of("dataset", "batch_size",
+            "shuffle", "sampler", "batch_sampler", "num_workers", "collate_fn", "pin_memory", "drop_last", "timeout",
+            "worker_init_fn", "multiprocessing_context", "generator");
+
+    @Param({"4", "16", "64"})
+    public int arguments;
+
+    private List<CallExpression> calls;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StringBuilder call = new StringBuilder("DataLoader(dataset");
+        for (int i = 1; i < arguments; i++) {
+            call.append(i < 7 ? ", " : ", option" + i + "=").append(i);
+        }
+        call.append(")\n");
+        calls = new ArrayList<>();
+        BenchmarkInputs.parse("call_arguments.py", call.toString().repeat(CALLS)).rootTree().accept(new BaseTreeVisitor() {
+            @Override
+            public void visitCallExpression(CallExpression callExpression) {
+                calls.add(callExpression);
+            }
+        });
+    }
+
+    @Benchmark
+    public void binder(Blackhole blackhole) {
+        for (CallExpression call : calls) {
+            blackhole.consume(DATALOADER_SIGNATURE.bind(call).argument("pin_memory"));
+        }
+    }
+
+    @Benchmark
+    public void formerNthArgumentOrKeyword(Blackhole blackhole) {
+        for (CallExpression call : calls) {
+            blackhole.consume(formerNthArgumentOrKeyword(7, "pin_memory", call.arguments()));
+        }
+    }
+
+    private static RegularArgument formerNthArgumentOrKeyword(int argPosition, String keyword, List<Argument> arguments) {
+        return arguments.stream()
+                .filter(argument -> hasKeyword(argument, keyword) ||
+                        (argument.is(Tree.Kind.REGULAR_ARGUMENT)
+                                && ((RegularArgument) argument).keywordArgument() == null
+                                && arguments.indexOf(argument) == argPosition))
+                .map(RegularArgument.class::cast)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static boolean hasKeyword(Argument argument, String keyword) {
+        return argument instanceof RegularArgument regularArgument &&
+                Optional.ofNullable(regularArgument.keywordArgument())
+                        .map(Name::name)
+                        .filter(name -> name.equals(keyword))
+                        .isPresent();
+    }
+}
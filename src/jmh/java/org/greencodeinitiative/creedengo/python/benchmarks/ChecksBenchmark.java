@@ -0,0 +1,94 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.python.SubscriptionVisitor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the checks on every benchmark input: one operation analyses all the files of the input with the
+ * selected check, or with every check, each one alone.
+ * <p>
+ * Files are parsed once per trial. On the single-file inputs, the per-file indexes shared by the checks (loops,
+ * imports) are built by the first operation and then reused, as they would be by the other checks of a real analysis.
+ * On the multi-file inputs ({@code fixtures}, {@code fixtures-x10}), they are rebuilt for every file of every
+ * operation, the {@code PerFileCache} of a thread only keeping the indexes of the last file: their throughput includes
+ * the building of the indexes.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksBenchmark {
+
+    static final String ALL_CHECKS = "all";
+
+    /**
+     * Simple name of the check to run alone, or {@value #ALL_CHECKS} to run every check of the repository, one after
+     * the other. {@link BenchmarkRunner} sets it to every check of the repository, then {@value #ALL_CHECKS}.
+     */
+    @Param({ALL_CHECKS})
+    public String check;
+
+    @Param({"fixtures", "fixtures-x10", "deep-nesting", "nested-functions", "huge-file"})
+    public String input;
+
+    private List<PythonVisitorContext> contexts;
+
+    private List<String> checkNames;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        contexts = BenchmarkInputs.load(input);
+        checkNames = ALL_CHECKS.equals(check) ? BenchmarkInputs.checkNames() : List.of(check);
+    }
+
+    @Benchmark
+    public void analyze(Blackhole blackhole) {
+        for (String checkName : checkNames) {
+            List<PythonSubscriptionCheck> checks = List.of(BenchmarkInputs.newCheck(checkName));
+            for (PythonVisitorContext context : contexts) {
+                SubscriptionVisitor.analyze(checks, context);
+                blackhole.consume(context.getIssues().size());
+                // issues are accumulated by the context: drop them so that memory does not grow along iterations
+                context.getIssues().clear();
+            }
+        }
+    }
+}
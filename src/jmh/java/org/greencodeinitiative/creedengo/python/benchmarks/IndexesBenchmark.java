@@ -0,0 +1,75 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.benchmarks;
+
+import org.greencodeinitiative.creedengo.python.utils.ImportIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopContextIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the per-file indexes shared by the checks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexesBenchmark {
+
+    @Param({"fixtures", "deep-nesting", "huge-file"})
+    public String input;
+
+    private List<PythonVisitorContext> contexts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        contexts = BenchmarkInputs.load(input);
+    }
+
+    @Benchmark
+    public void loopContextIndex(Blackhole blackhole) {
+        for (PythonVisitorContext context : contexts) {
+            blackhole.consume(LoopContextIndex.of(context.rootTree()));
+        }
+    }
+
+    @Benchmark
+    public void importIndex(Blackhole blackhole) {
+        for (PythonVisitorContext context : contexts) {
+            blackhole.consume(ImportIndex.of(context.rootTree()));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.benchmarks;
+
+import org.greencodeinitiative.creedengo.python.utils.SqlSelectStarScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * GCI74 detection of {@code SELECT *} on 1 MB strings: the scanner against the regular expression it replaced.
+ * The regular expression is only run on the smaller sizes, where it still completes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlSelectStarBenchmark {
+
+    private static final Pattern FORMER_PATTERN = Pattern.compile("(?i).*select.*\\*.*from.*");
+
+    @Param({"stars", "repeated-selects", "base64"})
+    public String shape;
+
+    @Param({"16384", "1048576"})
+    public int size;
+
+    private String sql;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sql = switch (shape) {
+            case "stars" -> "select " + "* ".repeat(size / 2);
+            case "repeated-selects" -> "select * ".repeat(size / 9) + "fro";
+            case "base64" -> "SELECT data FROM blobs WHERE data = '" + "QUJDRA==".repeat(size / 8) + "'";
+            default -> throw new IllegalArgumentException(shape);
+        };
+    }
+
+    @Benchmark
+    public boolean scanner() {
+        return SqlSelectStarScanner.containsSelectStar(sql);
+    }
+
+    @Benchmark
+    public boolean formerRegex() {
+        if (size > 16384) {
+            // quadratic or worse: would not complete in a reasonable time
+            return false;
+        }
+        return FORMER_PATTERN.matcher(sql).matches();
+    }
+}
@@ -17,6 +17,11 @@
  */
 package org.greencodeinitiative.creedengo.python;
 
+import org.greencodeinitiative.creedengo.python.instrumentation.InstrumentationReport;
+import org.greencodeinitiative.creedengo.python.instrumentation.InstrumentationSensor;
+import org.greencodeinitiative.creedengo.python.profiling.ProfileSensor;
+import org.greencodeinitiative.creedengo.python.project.FileSummariesSensor;
+import org.greencodeinitiative.creedengo.python.project.SqlCallsInLoopSensor;
 import org.sonar.api.Plugin;
 
 public class PythonPlugin implements Plugin {
@@ -25,6 +30,9 @@ public class PythonPlugin implements Plugin {
     public void define(Context context) {
             context.addExtension(PythonRuleRepository.class);
             context.addExtension(PythonCreedengoWayProfile.class);
+            context.addExtensions(InstrumentationSensor.class, InstrumentationReport.class);
+            context.addExtensions(FileSummariesSensor.class, SqlCallsInLoopSensor.class);
+            context.addExtension(ProfileSensor.class);
     }
 
 }
@@ -17,14 +17,22 @@
  */
 package org.greencodeinitiative.creedengo.python;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.greencodeinitiative.creedengo.python.checks.*;
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
 import org.sonar.api.SonarRuntime;
 import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.plugins.python.api.PythonCustomRuleRepository;
 import org.sonarsource.analyzer.commons.RuleMetadataLoader;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 public record PythonRuleRepository(SonarRuntime sonarRuntime) implements RulesDefinition, PythonCustomRuleRepository {
 
@@ -54,7 +62,8 @@ public record PythonRuleRepository(SonarRuntime sonarRuntime) implements RulesDe
             AvoidCreatingTensorUsingNumpyOrNativePython.class,
             AvoidWildcardImportsCheck.class,
             AvoidExceptionsForControlFlowCheck.class,
-            UsingSlotsOnDataClasses.class
+            UsingSlotsOnDataClasses.class,
+            AvoidLoopInvariantCalls.class
     );
 
     public static final String LANGUAGE = "py";
@@ -62,14 +71,56 @@ public record PythonRuleRepository(SonarRuntime sonarRuntime) implements RulesDe
     public static final String RESOURCE_BASE_PATH = "org/green-code-initiative/rules/python";
     public static final String REPOSITORY_KEY = "creedengo-python";
 
+    /**
+     * Rules whose issues cost one more unit per nested loop, see {@link LoopWeight}. Their remediation becomes linear
+     * with an offset, as a constant one would reject the gap of their issues: each unit adds the base effort the rule
+     * metadata gives to its issues.
+     */
+    static final Set<String> LOOP_WEIGHTED_RULES = Set.of("GCI72", "GCI103", "GCI105", "GCI106", "GCI107", "GCI108",
+            "GCI113", "GCI404");
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     @Override
     public void define(Context context) {
         NewRepository repository = context.createRepository(REPOSITORY_KEY, LANGUAGE).setName(NAME);
         RuleMetadataLoader ruleMetadataLoader = new RuleMetadataLoader(RESOURCE_BASE_PATH, sonarRuntime);
         ruleMetadataLoader.addRulesByAnnotatedClass(repository, checkClasses());
+        LOOP_WEIGHTED_RULES.forEach(key -> weighByLoops(repository.rule(key), baseEffort(key)));
         repository.done();
     }
 
+    private static void weighByLoops(NewRule rule, String baseEffort) {
+        rule.setDebtRemediationFunction(rule.debtRemediationFunctions().linearWithOffset(baseEffort, baseEffort));
+        rule.setGapDescription("Number of enclosing loops beyond the first, plus one per loop over a range of at least "
+                + LoopWeight.LARGE_RANGE + " iterations");
+    }
+
+    /**
+     * Returns the effort of an issue of the rule, read from the remediation of the metadata loaded by the
+     * {@link RuleMetadataLoader}: the rules API does not expose the remediation of a rule being defined.
+     */
+    static String baseEffort(String ruleKey) {
+        String resource = RESOURCE_BASE_PATH + "/" + ruleKey + ".json";
+        try (InputStream input = PythonRuleRepository.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException(resource + " not found");
+            }
+            try (JsonParser parser = JSON_FACTORY.createParser(input)) {
+                for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                    if (token == JsonToken.FIELD_NAME
+                            && ("constantCost".equals(parser.currentName()) || "linearOffset".equals(parser.currentName()))) {
+                        parser.nextToken();
+                        return parser.getText();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + resource, e);
+        }
+        throw new IllegalStateException("No remediation effort in " + resource);
+    }
+
     @Override
     public String repositoryKey() {
         return REPOSITORY_KEY;
@@ -0,0 +1,196 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.caching;
+
+import org.greencodeinitiative.creedengo.python.utils.ImportIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopContextIndex;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.PythonInputFileContext;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.plugins.python.api.caching.PythonWriteCache;
+import org.sonar.plugins.python.api.tree.FileInput;
+
+import javax.annotation.CheckForNull;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Project-wide registry of the {@link FileSummary} of every file, backed by the analyzer cache.
+ * <ul>
+ *     <li>when a file is analysed, its summary is computed and written to the cache under a key made of the file and
+ *     of the hash of its content</li>
+ *     <li>when the analyzer asks whether an unchanged file can be skipped, the summary is read back from the previous
+ *     analysis instead: the file is skipped only when it is found</li>
+ * </ul>
+ * Either way, the summary of the file is then available through {@link #get(String)}. Summaries are dropped when an
+ * analysis {@link #start(boolean) starts}, and are only computed once an analysis started asking for them: the hosts
+ * which do not start analyses, such as the command line runner, compute none.
+ */
+public final class FileSummaries {
+
+    static final String CACHE_KEY_PREFIX = "creedengo:python:summary:";
+
+    private static final Map<String, FileSummary> SUMMARIES = new ConcurrentHashMap<>();
+    // checks are run file after file on a thread: the work is done once per file, not once per check
+    private static final ThreadLocal<PythonFile> RECORDED = new ThreadLocal<>();
+    private static final ThreadLocal<Restoration> RESTORED = new ThreadLocal<>();
+    private static final Set<String> STORED_KEYS = new HashSet<>();
+    private static PythonWriteCache storedTo;
+    private static volatile boolean enabled;
+
+    private FileSummaries() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Computes the summary of the file being analysed and writes it to the cache, once per file.
+     */
+    public static void record(SubscriptionContext ctx) {
+        PythonFile pythonFile = ctx.pythonFile();
+        if (!enabled || RECORDED.get() == pythonFile) {
+            return;
+        }
+        RECORDED.set(pythonFile);
+        FileSummary summary = FileSummary.of((FileInput) ctx.syntaxNode(), ImportIndex.of(ctx), LoopContextIndex.of(ctx));
+        SUMMARIES.put(fileKey(pythonFile), summary);
+
+        CacheContext cacheContext = ctx.cacheContext();
+        if (cacheContext.isCacheEnabled()) {
+            PythonWriteCache writeCache = cacheContext.getWriteCache();
+            String cacheKey = cacheKey(pythonFile);
+            if (markStored(writeCache, cacheKey)) {
+                writeCache.write(cacheKey, summary.serialize());
+            }
+        }
+    }
+
+    /**
+     * Reads the summary of an unchanged file from the previous analysis and carries it over to the next one.
+     *
+     * @return {@code true} when the summary was found, so that the file does not need to be parsed
+     */
+    public static boolean restore(PythonInputFileContext inputFileContext) {
+        if (!enabled) {
+            // nothing to carry over: unchanged files are skipped, as by the checks without project-wide state
+            return true;
+        }
+        PythonFile pythonFile = inputFileContext.pythonFile();
+        Restoration restoration = RESTORED.get();
+        if (restoration != null && restoration.pythonFile() == pythonFile) {
+            return restoration.restored();
+        }
+        boolean restored = read(pythonFile, inputFileContext.cacheContext());
+        RESTORED.set(new Restoration(pythonFile, restored));
+        return restored;
+    }
+
+    /**
+     * Returns the summary of the given file, identified as by {@link #fileKey(PythonFile)}, or {@code null} when the
+     * file was neither analysed nor restored.
+     */
+    @CheckForNull
+    public static FileSummary get(String fileKey) {
+        return SUMMARIES.get(fileKey);
+    }
+
+    public static Map<String, FileSummary> all() {
+        return Collections.unmodifiableMap(SUMMARIES);
+    }
+
+    /**
+     * Starts a new analysis: the summaries of the previous analyses, which may describe files since edited or deleted,
+     * are dropped. New summaries are computed only when they are needed.
+     */
+    public static void start(boolean summariesNeeded) {
+        reset();
+        enabled = summariesNeeded;
+    }
+
+    /**
+     * Drops every summary and stops computing new ones until the next analysis {@link #start(boolean) starts}.
+     */
+    public static void reset() {
+        enabled = false;
+        SUMMARIES.clear();
+        RECORDED.remove();
+        RESTORED.remove();
+        synchronized (STORED_KEYS) {
+            storedTo = null;
+            STORED_KEYS.clear();
+        }
+    }
+
+    public static String fileKey(PythonFile pythonFile) {
+        return pythonFile.uri() != null ? pythonFile.uri().toString() : pythonFile.fileName();
+    }
+
+    static String cacheKey(PythonFile pythonFile) {
+        return CACHE_KEY_PREFIX + fileKey(pythonFile) + ":" + contentHash(pythonFile.content());
+    }
+
+    private static boolean read(PythonFile pythonFile, CacheContext cacheContext) {
+        if (!cacheContext.isCacheEnabled()) {
+            return false;
+        }
+        String cacheKey = cacheKey(pythonFile);
+        byte[] data = cacheContext.getReadCache().readBytes(cacheKey);
+        FileSummary summary = data != null ? FileSummary.deserialize(data) : null;
+        if (summary == null) {
+            return false;
+        }
+        SUMMARIES.put(fileKey(pythonFile), summary);
+        PythonWriteCache writeCache = cacheContext.getWriteCache();
+        if (markStored(writeCache, cacheKey)) {
+            writeCache.copyFromPrevious(cacheKey);
+        }
+        return true;
+    }
+
+    /**
+     * A key can be written only once to the cache of an analysis: tells whether it is the first time.
+     */
+    private static boolean markStored(PythonWriteCache writeCache, String cacheKey) {
+        synchronized (STORED_KEYS) {
+            if (writeCache != storedTo) {
+                storedTo = writeCache;
+                STORED_KEYS.clear();
+            }
+            return STORED_KEYS.add(cacheKey);
+        }
+    }
+
+    private static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Restoration(PythonFile pythonFile, boolean restored) {
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.caching;
+
+import org.greencodeinitiative.creedengo.python.utils.DatabaseAccess;
+import org.greencodeinitiative.creedengo.python.utils.ImportIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopContextIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Token;
+
+import javax.annotation.CheckForNull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * What the rules need to know about a file without parsing it again: the names bound by its imports, the functions
+ * it defines and the calls it makes from loops.
+ * <p>
+ * Functions and callees are identified by the fully qualified names resolved by the analyzer, so that the calls of
+ * a file can be matched with the functions of another one. Summaries are serialized to the analyzer cache, so that
+ * they survive from one analysis to the next for unchanged files. The binary format starts with
+ * {@link #FORMAT_VERSION}: data written in another format is ignored.
+ * </p>
+ */
+public final class FileSummary {
+
+    static final int FORMAT_VERSION = 4;
+
+    private final Map<String, String> imports;
+    private final Map<String, FunctionSummary> functions;
+    private final List<CallSite> loopCalls;
+
+    public FileSummary(Map<String, String> imports, Collection<FunctionSummary> functions, List<CallSite> loopCalls) {
+        this.imports = Collections.unmodifiableMap(new LinkedHashMap<>(imports));
+        Map<String, FunctionSummary> functionsByName = new LinkedHashMap<>();
+        functions.forEach(function -> functionsByName.put(function.name(), function));
+        this.functions = Collections.unmodifiableMap(functionsByName);
+        this.loopCalls = List.copyOf(loopCalls);
+    }
+
+    static FileSummary of(FileInput fileInput, ImportIndex importIndex, LoopContextIndex loopIndex) {
+        Summarizer summarizer = new Summarizer(importIndex, loopIndex);
+        fileInput.accept(summarizer);
+        return new FileSummary(importIndex.localNames(), summarizer.functions, summarizer.loopCalls);
+    }
+
+    /**
+     * Local names bound by the imports of the file, mapped to the fully qualified names they refer to.
+     */
+    public Map<String, String> imports() {
+        return imports;
+    }
+
+    /**
+     * Functions and methods defined in the file, by fully qualified name.
+     */
+    public Map<String, FunctionSummary> functions() {
+        return functions;
+    }
+
+    /**
+     * Calls made from a loop to a function of a module resolved by the analyzer, except the database accesses
+     * themselves.
+     */
+    public List<CallSite> loopCalls() {
+        return loopCalls;
+    }
+
+    /**
+     * @param name        fully qualified name of the function
+     * @param executesSql whether the function itself runs SQL queries
+     * @param calls       fully qualified names of the functions it calls, nested functions and lambdas included
+     */
+    public record FunctionSummary(String name, boolean executesSql, Set<String> calls) {
+
+        public FunctionSummary {
+            calls = Collections.unmodifiableSet(new LinkedHashSet<>(calls));
+        }
+    }
+
+    /**
+     * Call of the function {@code callee}, located as the issues of the analyzer (1-based lines, 0-based columns).
+     * The cost is the {@link LoopWeight#cost() weight} of the loops enclosing the call.
+     */
+    public record CallSite(String callee, int line, int column, int endLine, int endColumn, int cost) {
+    }
+
+    byte[] serialize() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(imports.size());
+            for (Map.Entry<String, String> entry : imports.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+            out.writeInt(functions.size());
+            for (FunctionSummary function : functions.values()) {
+                out.writeUTF(function.name());
+                out.writeBoolean(function.executesSql());
+                out.writeInt(function.calls().size());
+                for (String call : function.calls()) {
+                    out.writeUTF(call);
+                }
+            }
+            out.writeInt(loopCalls.size());
+            for (CallSite call : loopCalls) {
+                out.writeUTF(call.callee());
+                out.writeInt(call.line());
+                out.writeInt(call.column());
+                out.writeInt(call.endLine());
+                out.writeInt(call.endColumn());
+                out.writeInt(call.cost());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a summary written by {@link #serialize()}, or returns {@code null} when the data cannot be read with the
+     * current format.
+     */
+    @CheckForNull
+    static FileSummary deserialize(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            Map<String, String> imports = new LinkedHashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                imports.put(in.readUTF(), in.readUTF());
+            }
+            List<FunctionSummary> functions = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                String name = in.readUTF();
+                boolean executesSql = in.readBoolean();
+                Set<String> calls = new LinkedHashSet<>();
+                for (int j = in.readInt(); j > 0; j--) {
+                    calls.add(in.readUTF());
+                }
+                functions.add(new FunctionSummary(name, executesSql, calls));
+            }
+            List<CallSite> loopCalls = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                loopCalls.add(new CallSite(in.readUTF(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+            }
+            return new FileSummary(imports, functions, loopCalls);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FileSummary that)) {
+            return false;
+        }
+        return imports.equals(that.imports) && functions.equals(that.functions) && loopCalls.equals(that.loopCalls);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(imports, functions, loopCalls);
+    }
+
+    /**
+     * Single walk of the file: calls are attributed to the innermost function defining a fully qualified name.
+     */
+    private static final class Summarizer extends BaseTreeVisitor {
+
+        private final ImportIndex importIndex;
+        private final LoopContextIndex loopIndex;
+        private final List<FunctionSummary> functions = new ArrayList<>();
+        private final List<CallSite> loopCalls = new ArrayList<>();
+        private final Deque<FunctionBuilder> enclosingFunctions = new ArrayDeque<>();
+
+        private Summarizer(ImportIndex importIndex, LoopContextIndex loopIndex) {
+            this.importIndex = importIndex;
+            this.loopIndex = loopIndex;
+        }
+
+        @Override
+        public void visitFunctionDef(FunctionDef functionDef) {
+            Symbol symbol = functionDef.name().symbol();
+            String name = symbol != null ? symbol.fullyQualifiedName() : null;
+            if (name == null) {
+                super.visitFunctionDef(functionDef);
+                return;
+            }
+            FunctionBuilder function = new FunctionBuilder();
+            enclosingFunctions.push(function);
+            super.visitFunctionDef(functionDef);
+            enclosingFunctions.pop();
+            functions.add(new FunctionSummary(name, function.executesSql, function.calls));
+        }
+
+        @Override
+        public void visitCallExpression(CallExpression call) {
+            FunctionBuilder function = enclosingFunctions.peek();
+            if (DatabaseAccess.isQuery(call, importIndex)) {
+                if (function != null) {
+                    function.executesSql = true;
+                }
+            } else {
+                Symbol callee = call.calleeSymbol();
+                String calleeName = callee != null ? callee.fullyQualifiedName() : null;
+                // builtins have no module: they cannot be defined by the project
+                if (calleeName != null && calleeName.indexOf('.') > 0) {
+                    if (function != null) {
+                        function.calls.add(calleeName);
+                    }
+                    if (loopIndex.isEvaluatedPerIteration(call)) {
+                        loopCalls.add(callSite(calleeName, call, LoopWeight.of(loopIndex, call).cost()));
+                    }
+                }
+            }
+            super.visitCallExpression(call);
+        }
+
+        private static CallSite callSite(String callee, CallExpression call, int cost) {
+            Token first = call.firstToken();
+            Token last = call.lastToken();
+            return new CallSite(callee, first.line(), first.column(), last.line(), last.column() + last.value().length(), cost);
+        }
+    }
+
+    private static final class FunctionBuilder {
+
+        private final Set<String> calls = new LinkedHashSet<>();
+        private boolean executesSql;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.utils.StringKeywords;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.QualifiedExpression;
@@ -29,21 +30,25 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Pattern;
 
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 
 @Rule(key = "GCI99")
-public class AvoidCSVFormat extends PythonSubscriptionCheck {
+public class AvoidCSVFormat extends FileScopedCheck<Set<Integer>> {
 
     public static final String DESCRIPTION = "Use Parquet or Feather format instead of CSV";
     protected static final Pattern CSV_EXTENSION = Pattern.compile("\\.csv$", Pattern.CASE_INSENSITIVE);
-    private final Set<Integer> reportedLines = new HashSet<>();
 
     @Override
-    public void initialize(Context context) {
+    protected void registerConsumers(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::visitCallExpression);
         context.registerSyntaxNodeConsumer(Tree.Kind.STRING_LITERAL, this::visitNodeString);
     }
 
+    @Override
+    protected Set<Integer> newFileState(SubscriptionContext ctx) {
+        // lines already reported
+        return new HashSet<>();
+    }
+
     public void visitCallExpression(SubscriptionContext ctx) {
         CallExpression callExpression = (CallExpression) ctx.syntaxNode();
         Expression callee = callExpression.callee();
@@ -54,6 +59,7 @@ public class AvoidCSVFormat extends PythonSubscriptionCheck {
 
             if ("read_csv".equals(methodName) || "to_csv".equals(methodName)) {
                 int line = callExpression.firstToken().line();
+                Set<Integer> reportedLines = fileState();
 
                 if (!reportedLines.contains(line)) {
                     reportedLines.add(line);
@@ -66,12 +72,14 @@ public class AvoidCSVFormat extends PythonSubscriptionCheck {
     public void visitNodeString(SubscriptionContext ctx) {
         StringLiteral stringLiteral = (StringLiteral) ctx.syntaxNode();
         int line = stringLiteral.firstToken().line();
+        Set<Integer> reportedLines = fileState();
         
         if (reportedLines.contains(line)) {
             return;
         }
 
-        if (CSV_EXTENSION.matcher(stringLiteral.trimmedQuotesValue()).find()) {
+        if ((StringKeywords.of(ctx, stringLiteral) & StringKeywords.CSV_EXTENSION) != 0
+                && CSV_EXTENSION.matcher(stringLiteral.trimmedQuotesValue()).find()) {
             reportedLines.add(line);
             ctx.addIssue(stringLiteral, DESCRIPTION);
         }
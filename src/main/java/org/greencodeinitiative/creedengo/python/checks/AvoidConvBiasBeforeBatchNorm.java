@@ -17,9 +17,12 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.signatures.FunctionSignature;
+import org.greencodeinitiative.creedengo.python.signatures.LibrarySignatures;
+import org.greencodeinitiative.creedengo.python.utils.CallArgumentBinder;
+import org.greencodeinitiative.creedengo.python.utils.QualifiedNameMatcher;
 import org.greencodeinitiative.creedengo.python.utils.UtilsAST;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
 import org.sonar.plugins.python.api.tree.Name;
@@ -38,7 +41,6 @@ import org.sonar.plugins.python.api.tree.Statement;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Objects;
 import java.util.Optional;
 
 
@@ -50,40 +52,27 @@ import static org.sonar.plugins.python.api.tree.Tree.Kind.REGULAR_ARGUMENT;
 import static org.sonar.plugins.python.api.tree.Tree.Kind.FUNCDEF;
 
 @Rule(key="GCI101")
-public class AvoidConvBiasBeforeBatchNorm extends PythonSubscriptionCheck {
+public class AvoidConvBiasBeforeBatchNorm extends CreedengoSubscriptionCheck {
 
-  private static final String NN_MODULE_FULLY_QUALIFIED_NAME = "torch.nn.Module";
-  private static final String NN_MODULE_FULLY_QUALIFIED_NAME_DETAILED = "torch.nn.modules.module.Module";  // New in sonar-python 5.17+
+  private static final QualifiedNameMatcher<String> NN_MODULES = QualifiedNameMatcher.of("torch.nn.Module",
+    "torch.nn.modules.module.Module");  // New in sonar-python 5.17+
   private static final String CONV_FULLY_QUALIFIED_NAME = "torch.nn.Conv2d";
   private static final String FORWARD_METHOD_NAME = "forward";
-  private static final String BATCH_NORM_FULLY_QUALIFIED_NAME = "torch.nn.BatchNorm2d";
-  private static final String SEQUENTIAL_MODULE_FULLY_QUALIFIED_NAME = "torch.nn.Sequential";
-  protected static final String MESSAGE = "Remove bias for convolutions before batch norm layers to save time and memory.";
-
   /**
-   * Check if a fully qualified name matches the expected name.
-   * Handles both old format (torch.nn.Conv2d) and new format (torch.nn.modules.conv.Conv2d).
-   *
-   * @param actualName The actual fully qualified name from the API
-   * @param expectedShortName The expected short format name (e.g., "torch.nn.Conv2d")
-   * @return true if it matches
+   * Layers, matched in both the old format (torch.nn.Conv2d) and the new format (torch.nn.modules.conv.Conv2d).
    */
-  private static boolean matchesQualifiedName(String actualName, String expectedShortName) {
-    if (actualName == null || expectedShortName == null) {
-      return false;
-    }
-    // Direct match (old API format)
-    if (actualName.equals(expectedShortName)) {
-      return true;
-    }
-    // Check if it ends with the class name (new API format)
-    // e.g., "torch.nn.modules.conv.Conv2d" should match "torch.nn.Conv2d"
-    String className = expectedShortName.substring(expectedShortName.lastIndexOf('.') + 1);
-    return actualName.endsWith("." + className) && actualName.startsWith("torch.nn");
-  }
+  private static final QualifiedNameMatcher<Layer> LAYERS = QualifiedNameMatcher.<Layer>builder()
+    .add("torch.nn.**.Conv2d", Layer.CONV)
+    .add("torch.nn.**.BatchNorm2d", Layer.BATCH_NORM)
+    .add("torch.nn.**.Sequential", Layer.SEQUENTIAL)
+    .build();
+  private static final String BIAS_ARGUMENT_NAME = "bias";
+  private static final FunctionSignature CONV = LibrarySignatures.bundled().require(CONV_FULLY_QUALIFIED_NAME);
+  private static final boolean BIAS_BY_DEFAULT = "True".equals(CONV.defaultValue(BIAS_ARGUMENT_NAME));
+  protected static final String MESSAGE = "Remove bias for convolutions before batch norm layers to save time and memory.";
 
   @Override
-  public void initialize(Context context) {
+  protected void register(Context context) {
     context.registerSyntaxNodeConsumer(Tree.Kind.CLASSDEF, ctx -> {
       ClassDef classDef = (ClassDef) ctx.syntaxNode();
       Optional.ofNullable(classDef).filter(this::isModelClass).ifPresent(e -> visitModelClass(ctx, e));
@@ -91,22 +80,21 @@ public class AvoidConvBiasBeforeBatchNorm extends PythonSubscriptionCheck {
   }
 
   private boolean isConvWithBias(CallExpression convDefinition) {
-    RegularArgument biasArgument = UtilsAST.nthArgumentOrKeyword(7, "bias", convDefinition.arguments());
-    if (biasArgument == null)
-      return true;
-    else {
-      Expression expression = biasArgument.expression();
-      return expression.is(NAME) && "True".equals(((Name) expression).name());
+    CallArgumentBinder.Bindings arguments = CONV.binder().bind(convDefinition);
+    RegularArgument biasArgument = arguments.argument(BIAS_ARGUMENT_NAME);
+    if (biasArgument == null) {
+      // the default is a bias, unless unpacked arguments may disable it
+      return BIAS_BY_DEFAULT && arguments.isMissing(BIAS_ARGUMENT_NAME);
     }
+    Expression expression = biasArgument.expression();
+    return expression.is(NAME) && "True".equals(((Name) expression).name());
   }
 
   private boolean isModelClass(ClassDef classDef) {
     ClassSymbol classSymbol = (ClassSymbol) classDef.name().symbol();
     if (classSymbol != null) {
       boolean hasTorchNNModuleParent = classSymbol.superClasses().stream()
-        .anyMatch(e -> Objects.equals(e.fullyQualifiedName(), NN_MODULE_FULLY_QUALIFIED_NAME)
-                    || Objects.equals(e.fullyQualifiedName(), NN_MODULE_FULLY_QUALIFIED_NAME_DETAILED)
-                    || "Module".equals(e.name()));
+        .anyMatch(e -> NN_MODULES.matches(e.fullyQualifiedName()) || "Module".equals(e.name()));
       boolean hasForwardMethod = classSymbol.declaredMembers().stream()
         .anyMatch(e -> FORWARD_METHOD_NAME.equals(e.name()));
       return hasTorchNNModuleParent && hasForwardMethod;
@@ -196,12 +184,12 @@ public class AvoidConvBiasBeforeBatchNorm extends PythonSubscriptionCheck {
       Argument moduleInSequential = UtilsAST.getArgumentsFromCall(sequentialCall).get(moduleIndex);
       if (moduleInSequential.is(REGULAR_ARGUMENT) && ((RegularArgument) moduleInSequential).expression().is(CALL_EXPR)) {
         CallExpression module = (CallExpression) ((RegularArgument) moduleInSequential).expression();
-        if (matchesQualifiedName(UtilsAST.getQualifiedName(module), CONV_FULLY_QUALIFIED_NAME) && isConvWithBias(module)) {
+        if (LAYERS.match(module) == Layer.CONV && isConvWithBias(module)) {
           if (moduleIndex == nModulesInSequential - 1)
             break;
           Argument nextModuleInSequential = UtilsAST.getArgumentsFromCall(sequentialCall).get(moduleIndex + 1);
           CallExpression nextModule = (CallExpression) ((RegularArgument) nextModuleInSequential).expression();
-          if (matchesQualifiedName(UtilsAST.getQualifiedName(nextModule), BATCH_NORM_FULLY_QUALIFIED_NAME))
+          if (LAYERS.match(nextModule) == Layer.BATCH_NORM)
             context.addIssue(module, MESSAGE);
         }
       }
@@ -223,12 +211,12 @@ public class AvoidConvBiasBeforeBatchNorm extends PythonSubscriptionCheck {
               continue;
             CallExpression callExpression = (CallExpression) ((AssignmentStatement) ss).assignedValue();
             String variableName = ((QualifiedExpression) lhs).name().name();
-            String variableClass = UtilsAST.getQualifiedName(callExpression);
-            if (matchesQualifiedName(variableClass, SEQUENTIAL_MODULE_FULLY_QUALIFIED_NAME)) {
+            Layer layer = LAYERS.match(callExpression);
+            if (layer == Layer.SEQUENTIAL) {
               reportForSequentialModules(context, callExpression);
-            } else if (matchesQualifiedName(variableClass, CONV_FULLY_QUALIFIED_NAME) && isConvWithBias(callExpression)) {
+            } else if (layer == Layer.CONV && isConvWithBias(callExpression)) {
               dirtyConvInInit.put(variableName, callExpression);
-            } else if (matchesQualifiedName(variableClass, BATCH_NORM_FULLY_QUALIFIED_NAME)) {
+            } else if (layer == Layer.BATCH_NORM) {
               batchNormsInInit.put(variableName, callExpression);
             }
           }
@@ -259,4 +247,8 @@ public class AvoidConvBiasBeforeBatchNorm extends PythonSubscriptionCheck {
       super.visitAssignmentStatement(pyAssignmentStatementTree);
     }
   }
-}
\ No newline at end of file
+
+  private enum Layer {
+    CONV, BATCH_NORM, SEQUENTIAL
+  }
+}
@@ -17,65 +17,64 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
-import org.greencodeinitiative.creedengo.python.utils.UtilsAST;
+import org.greencodeinitiative.creedengo.python.signatures.FunctionSignature;
+import org.greencodeinitiative.creedengo.python.signatures.LibrarySignatures;
+import org.greencodeinitiative.creedengo.python.utils.CallArgumentBinder;
+import org.greencodeinitiative.creedengo.python.utils.QualifiedNameMatcher;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.RegularArgument;
 
-import java.util.List;
-import java.util.Map;
-
-import static java.util.Map.entry;
 import static org.sonar.plugins.python.api.tree.Tree.Kind.CALL_EXPR;
 
 @Rule(key = "GCI104")
-public class AvoidCreatingTensorUsingNumpyOrNativePython extends PythonSubscriptionCheck {
+public class AvoidCreatingTensorUsingNumpyOrNativePython extends CreedengoSubscriptionCheck {
 
   private static final String DATA_ARGUMENT_NAME = "data";
-  private static final int DATA_ARGUMENT_POSITION = 0;
-  private static final Map<String, String> TORCH_OTHER_FUNCTIONS_MAPPING = Map.ofEntries(
-    entry("numpy.random.rand", "torch.rand"),
-    entry("numpy.random.randint", "torch.randint"),
-    entry("numpy.random.randn", "torch.randn"),
-    entry("numpy.zeros", "torch.zeros"),
-    entry("numpy.zeros_like", "torch.zeros_like"),
-    entry("numpy.ones", "torch.ones"),
-    entry("numpy.ones_like", "torch.ones_like"),
-    entry("numpy.full", "torch.full"),
-    entry("numpy.full_like", "torch.full_like"),
-    entry("numpy.eye", "torch.eye"),
-    entry("numpy.arange", "torch.arange"),
-    entry("numpy.linspace", "torch.linspace"),
-    entry("numpy.logspace", "torch.logspace"),
-    entry("numpy.identity", "torch.eye"),
-    entry("numpy.tile", "torch.tile")
-  );
-  private static final List<String> TORCH_TENSOR_CONSTRUCTORS = List.of(
-    "torch.tensor", "torch.FloatTensor",
-    "torch.DoubleTensor", "torch.HalfTensor",
-    "torch.BFloat16Tensor", "torch.ByteTensor",
-    "torch.CharTensor", "torch.ShortTensor",
-    "torch.IntTensor", "torch.LongTensor",
-    "torch.BoolTensor", "torch.cuda.FloatTensor",
-    "torch.cuda.DoubleTensor", "torch.cuda.HalfTensor",
-    "torch.cuda.BFloat16Tensor", "torch.cuda.ByteTensor",
-    "torch.cuda.CharTensor", "torch.cuda.ShortTensor",
-    "torch.cuda.IntTensor", "torch.cuda.LongTensor",
-    "torch.cuda.BoolTensor");
+  private static final FunctionSignature TENSOR_CONSTRUCTOR = LibrarySignatures.bundled().require("torch.tensor");
+  // the legacy typed constructors take either the data or the sizes of the tensor, by position
+  private static final QualifiedNameMatcher<String> TYPED_CONSTRUCTORS = QualifiedNameMatcher.of(
+    "torch.FloatTensor", "torch.DoubleTensor", "torch.HalfTensor", "torch.BFloat16Tensor", "torch.ByteTensor",
+    "torch.CharTensor", "torch.ShortTensor", "torch.IntTensor", "torch.LongTensor", "torch.BoolTensor",
+    "torch.cuda.FloatTensor", "torch.cuda.DoubleTensor", "torch.cuda.HalfTensor", "torch.cuda.BFloat16Tensor",
+    "torch.cuda.ByteTensor", "torch.cuda.CharTensor", "torch.cuda.ShortTensor", "torch.cuda.IntTensor",
+    "torch.cuda.LongTensor", "torch.cuda.BoolTensor");
+  private static final CallArgumentBinder TYPED_CONSTRUCTOR_BINDER = CallArgumentBinder.of(DATA_ARGUMENT_NAME);
+  private static final QualifiedNameMatcher<String> TORCH_OTHER_FUNCTIONS_MAPPING = QualifiedNameMatcher.<String>builder()
+    .add("numpy.random.rand", "torch.rand")
+    .add("numpy.random.randint", "torch.randint")
+    .add("numpy.random.randn", "torch.randn")
+    .add("numpy.zeros", "torch.zeros")
+    .add("numpy.zeros_like", "torch.zeros_like")
+    .add("numpy.ones", "torch.ones")
+    .add("numpy.ones_like", "torch.ones_like")
+    .add("numpy.full", "torch.full")
+    .add("numpy.full_like", "torch.full_like")
+    .add("numpy.eye", "torch.eye")
+    .add("numpy.arange", "torch.arange")
+    .add("numpy.linspace", "torch.linspace")
+    .add("numpy.logspace", "torch.logspace")
+    .add("numpy.identity", "torch.eye")
+    .add("numpy.tile", "torch.tile")
+    .build();
   protected static final String MESSAGE = "Directly create tensors as torch.Tensor instead of using numpy functions.";
 
   @Override
-  public void initialize(Context context) {
+  protected void register(Context context) {
       context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
       CallExpression callExpression = (CallExpression) ctx.syntaxNode();
 
-      if (TORCH_TENSOR_CONSTRUCTORS.contains(UtilsAST.getQualifiedName(callExpression))) {
-          RegularArgument tensorCreatorArgument = UtilsAST.nthArgumentOrKeyword(DATA_ARGUMENT_POSITION, DATA_ARGUMENT_NAME, callExpression.arguments());
+      CallArgumentBinder binder = null;
+      if (LibrarySignatures.bundled().function(QualifiedNameMatcher.calleeName(callExpression)) == TENSOR_CONSTRUCTOR) {
+          binder = TENSOR_CONSTRUCTOR.binder();
+      } else if (TYPED_CONSTRUCTORS.matches(callExpression)) {
+          binder = TYPED_CONSTRUCTOR_BINDER;
+      }
+      if (binder != null) {
+          RegularArgument tensorCreatorArgument = binder.bind(callExpression).argument(DATA_ARGUMENT_NAME);
           if (tensorCreatorArgument != null && tensorCreatorArgument.expression().is(CALL_EXPR)) {
-              String functionQualifiedName = UtilsAST.getQualifiedName((CallExpression) tensorCreatorArgument.expression());
-              if (TORCH_OTHER_FUNCTIONS_MAPPING.containsKey(functionQualifiedName)) {
+              if (TORCH_OTHER_FUNCTIONS_MAPPING.matches((CallExpression) tensorCreatorArgument.expression())) {
                   ctx.addIssue(callExpression, MESSAGE);
               }
           }
@@ -18,7 +18,6 @@
 package org.greencodeinitiative.creedengo.python.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.ExceptClause;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -30,7 +29,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @Rule(key = "GCI109")
-public class AvoidExceptionsForControlFlowCheck extends PythonSubscriptionCheck {
+public class AvoidExceptionsForControlFlowCheck extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Avoid using exceptions for control flow";
     
@@ -42,7 +41,7 @@ public class AvoidExceptionsForControlFlowCheck extends PythonSubscriptionCheck
     );
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.TRY_STMT, this::visitTryStatement);
     }
 
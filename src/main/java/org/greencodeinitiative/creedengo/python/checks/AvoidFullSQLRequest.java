@@ -17,8 +17,9 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.utils.SqlSelectStarScanner;
+import org.greencodeinitiative.creedengo.python.utils.StringKeywords;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.StringElement;
 import org.sonar.plugins.python.api.tree.StringLiteral;
@@ -28,30 +29,31 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 //import org.sonar.api.utils.log.Logger;
 //import org.sonar.api.utils.log.Loggers;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.HashSet;
+import java.util.Set;
 
 @Rule(key = "GCI74")
 @DeprecatedRuleKey(repositoryKey = "ecocode-python", ruleKey = "EC74")
 @DeprecatedRuleKey(repositoryKey = "gci-python", ruleKey = "S74")
-public class AvoidFullSQLRequest extends PythonSubscriptionCheck {
+public class AvoidFullSQLRequest extends FileScopedCheck<Set<Integer>> {
 
 //    private static final Logger LOGGER = Loggers.get(AvoidFullSQLRequest.class);
 
     protected static final String MESSAGE_RULE = "Don't use the query SELECT * FROM";
 
-    private static final Pattern PATTERN = Pattern.compile("(?i).*select.*\\*.*from.*");
-
-    private static final Map<String, Collection<Integer>> linesWithIssuesByFile = new HashMap<>();
+    private static final int SQL_KEYWORDS = StringKeywords.SQL_SELECT | StringKeywords.STAR | StringKeywords.SQL_FROM;
 
     @Override
-    public void initialize(Context context) {
+    protected void registerConsumers(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.STRING_LITERAL, this::visitNodeString);
     }
 
+    @Override
+    protected Set<Integer> newFileState(SubscriptionContext ctx) {
+        // lines with issues
+        return new HashSet<>();
+    }
+
     public void visitNodeString(SubscriptionContext ctx) {
         StringLiteral stringLiteral = (StringLiteral) ctx.syntaxNode();
         stringLiteral.stringElements().forEach(stringElement -> checkIssue(stringElement, ctx));
@@ -63,30 +65,32 @@ public class AvoidFullSQLRequest extends PythonSubscriptionCheck {
 
 //        LOGGER.info("-- DDC -- stringElement.value() = " + stringElement.value());
 
-        if (PATTERN.matcher(stringElement.value()).matches()) {
+        if (StringKeywords.hasAll(StringKeywords.of(ctx, stringElement), SQL_KEYWORDS) && isSelectStarQuery(stringElement)) {
             report(stringElement, ctx);
         }
 
 //        LOGGER.info("--- DDC --- checkIssue - fin");
     }
 
+    private static boolean isSelectStarQuery(StringElement stringElement) {
+        // scan the content of the literal in place, without its prefix and quotes
+        String value = stringElement.value();
+        int quotes = stringElement.isTripleQuoted() ? 3 : 1;
+        int start = stringElement.prefix().length() + quotes;
+        int end = value.length() - quotes;
+        return start < end && SqlSelectStarScanner.containsSelectStar(value, start, end);
+    }
+
     private void report(StringElement stringElement, SubscriptionContext ctx) {
         if (stringElement.firstToken() != null) {
-            final String classname = ctx.pythonFile().fileName();
-            final int line = stringElement.firstToken().line();
-            linesWithIssuesByFile.computeIfAbsent(classname, k -> new ArrayList<>());
-            linesWithIssuesByFile.get(classname).add(line);
+            fileState().add(stringElement.firstToken().line());
         }
         ctx.addIssue(stringElement, MESSAGE_RULE);
     }
 
     private boolean lineAlreadyHasThisIssue(StringElement stringElement, SubscriptionContext ctx) {
         if (stringElement.firstToken() != null) {
-            final String filename = ctx.pythonFile().fileName();
-            final int line = stringElement.firstToken().line();
-
-            return linesWithIssuesByFile.containsKey(filename)
-                    && linesWithIssuesByFile.get(filename).contains(line);
+            return fileState().contains(stringElement.firstToken().line());
         }
 
         return false;
@@ -21,7 +21,6 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.AnyParameter;
 import org.sonar.plugins.python.api.tree.AssignmentStatement;
@@ -36,12 +35,12 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 @Rule(key = "GCI7")
 @DeprecatedRuleKey(repositoryKey = "ecocode-python", ruleKey = "EC7")
 @DeprecatedRuleKey(repositoryKey = "gci-python", ruleKey = "D7")
-public class AvoidGettersAndSetters extends PythonSubscriptionCheck {
+public class AvoidGettersAndSetters extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Avoid creating getter and setter methods in classes";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> {
             FunctionDef functionDef = (FunctionDef) ctx.syntaxNode();
 
@@ -18,8 +18,10 @@
 package org.greencodeinitiative.creedengo.python.checks;
 
 
+import org.greencodeinitiative.creedengo.python.utils.ImportIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopIdioms;
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.BinaryExpression;
@@ -33,21 +35,28 @@ import org.sonar.plugins.python.api.tree.AssignmentStatement;
 import java.util.List;
 
 @Rule(key = "GCI107")
-public class AvoidIterativeMatrixOperations extends PythonSubscriptionCheck {
+public class AvoidIterativeMatrixOperations extends CreedengoSubscriptionCheck {
 
 //    private static final System.Logger LOGGER = System.getLogger(AvoidIterativeMatrixOperations.class.getName());
 
     private static final String DESCRIPTION = "Avoid iterative matrix operations, use numpy dot or outer function instead";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.FOR_STMT, this::visitForStatement);
     }
 
     private void visitForStatement(SubscriptionContext context) {
         ForStatement forStatement = (ForStatement) context.syntaxNode();
+        // the operation runs at every iteration of the loop reported, and of the loops enclosing it
+        LoopWeight weight = LoopWeight.of(context, forStatement.body());
         if (isDotProduct(forStatement) || isOuterProduct(forStatement) || isMatrixDotProduct(forStatement)) {
-            context.addIssue(forStatement.firstToken(), DESCRIPTION);
+            weight.weigh(context.addIssue(forStatement.firstToken(), DESCRIPTION));
+            return;
+        }
+        LoopIdioms.Idiom idiom = LoopIdioms.recognise(forStatement, ImportIndex.of(context));
+        if (idiom != null) {
+            weight.weigh(context.addIssue(forStatement.firstToken(), idiom.message()));
         }
     }
 
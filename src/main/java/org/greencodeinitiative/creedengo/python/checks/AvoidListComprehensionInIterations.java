@@ -17,8 +17,8 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -37,12 +37,12 @@ import static org.sonar.plugins.python.api.tree.Tree.Kind.REGULAR_ARGUMENT;
 
 @Rule(key = "GCI404")
 @DeprecatedRuleKey(repositoryKey = "ecocode-python", ruleKey = "EC404")
-public class AvoidListComprehensionInIterations extends PythonSubscriptionCheck {
+public class AvoidListComprehensionInIterations extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Use generator comprehension instead of list comprehension in for loop declaration";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(FOR_STMT, this::visitIteration);
     }
 
@@ -50,35 +50,37 @@ public class AvoidListComprehensionInIterations extends PythonSubscriptionCheck
         ForStatement forStatement = (ForStatement) context.syntaxNode();
 
         Expression forTestExpression = forStatement.testExpressions().get(0);
+        // the list is built each time the loop runs, as many times as its own body in the enclosing loops
+        LoopWeight weight = LoopWeight.of(context, forStatement.body());
         if (forTestExpression.is(LIST_COMPREHENSION)) {
-            context.addIssue(forTestExpression.firstToken(), DESCRIPTION);
+            weight.weigh(context.addIssue(forTestExpression.firstToken(), DESCRIPTION));
         } else if (forTestExpression.is(CALL_EXPR)) {
             CallExpression callExpression = (CallExpression) forTestExpression;
-            visitCallExpression(context, callExpression);
+            visitCallExpression(context, callExpression, weight);
         }
     }
 
-    private void visitCallExpression(SubscriptionContext context, CallExpression callExpression){
+    private void visitCallExpression(SubscriptionContext context, CallExpression callExpression, LoopWeight weight){
         switch (getFunctionNameFromCallExpression(callExpression)) {
             case "zip":
             case "filter":
             case "enumerate":
                 Objects.requireNonNull(callExpression.argumentList()).
-                  arguments().forEach(e -> visitFunctionArgument(context, e));
+                  arguments().forEach(e -> visitFunctionArgument(context, e, weight));
                 break;
             default:
                 break;
         }
     }
 
-    private void visitFunctionArgument(SubscriptionContext context, Tree argument) {
+    private void visitFunctionArgument(SubscriptionContext context, Tree argument, LoopWeight weight) {
         if (argument.is(REGULAR_ARGUMENT)) {
             Expression expression = ((RegularArgument)argument).expression();
             if (expression.is(LIST_COMPREHENSION)) {
-                context.addIssue(expression.firstToken(), DESCRIPTION);
+                weight.weigh(context.addIssue(expression.firstToken(), DESCRIPTION));
             } else if (expression.is(CALL_EXPR)) {
                 CallExpression callExpression = (CallExpression) expression;
-                visitCallExpression(context, callExpression);
+                visitCallExpression(context, callExpression, weight);
             }
         }
     }
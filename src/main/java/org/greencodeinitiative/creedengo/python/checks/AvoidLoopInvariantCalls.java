@@ -0,0 +1,112 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.checks;
+
+import org.greencodeinitiative.creedengo.python.utils.LoopContextIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopInvariants;
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
+import org.greencodeinitiative.creedengo.python.utils.QualifiedNameMatcher;
+import org.sonar.check.Rule;
+import org.sonar.check.RuleProperty;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.Statement;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.util.Arrays;
+
+/**
+ * Reports the calls of pure functions evaluated with the same arguments at every iteration of a loop, such as
+ * {@code len(items)} in a loop which does not change {@code items}: their result could be computed once, before the
+ * loop. Only the outermost of nested invariant calls is reported.
+ */
+@Rule(key = "GCI113")
+public class AvoidLoopInvariantCalls extends CreedengoSubscriptionCheck {
+
+    public static final String DESCRIPTION = "Move this call out of the loop: it is evaluated with the same arguments at every iteration";
+    static final String MESSAGE_LOOP = "Loop evaluating the call at every iteration";
+
+    static final String DEFAULT_PURE_FUNCTIONS = "len,abs,round,min,max,sum,sorted,tuple,frozenset,"
+            + "re.compile,re.escape,json.loads,json.dumps,"
+            + "numpy.**.array,numpy.**.asarray,numpy.**.arange,numpy.**.linspace,"
+            + "os.path.join,os.path.basename,os.path.dirname,os.path.splitext";
+
+    @RuleProperty(
+            key = "pureFunctions",
+            description = "Comma-separated fully qualified names of the functions without side effects, whose result only "
+                    + "depends on their arguments. A ** segment matches any number of segments, as in numpy.**.array",
+            defaultValue = DEFAULT_PURE_FUNCTIONS)
+    public String pureFunctions = DEFAULT_PURE_FUNCTIONS;
+
+    // checks are initialized for every file: the matcher is only rebuilt when the property changes
+    private volatile PureFunctions pure;
+
+    @Override
+    protected void register(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkCallExpression);
+    }
+
+    private void checkCallExpression(SubscriptionContext context) {
+        CallExpression call = (CallExpression) context.syntaxNode();
+        QualifiedNameMatcher<String> matcher = pureFunctions();
+        if (!matcher.matches(call)) {
+            return;
+        }
+        LoopContextIndex loops = LoopContextIndex.of(context);
+        Tree loop = LoopInvariants.iteratingLoop(loops, call);
+        if (loop == null) {
+            return;
+        }
+        LoopInvariants invariants = LoopInvariants.of(context);
+        if (invariants.isInvariant(call, loop, matcher::matches) && !isWithinInvariantCall(call, loop, invariants, matcher)) {
+            LoopWeight.of(loops, call).weigh(context.addIssue(call, DESCRIPTION).secondary(loop.firstToken(), MESSAGE_LOOP));
+        }
+    }
+
+    /**
+     * Returns {@code true} when the closest call enclosing the given one is also invariant, and reported instead.
+     */
+    private static boolean isWithinInvariantCall(CallExpression call, Tree loop, LoopInvariants invariants,
+                                                 QualifiedNameMatcher<String> matcher) {
+        for (Tree parent = call.parent(); parent != null && parent != loop; parent = parent.parent()) {
+            if (parent.is(Tree.Kind.CALL_EXPR)) {
+                CallExpression enclosing = (CallExpression) parent;
+                return matcher.matches(enclosing) && invariants.isInvariant(enclosing, loop, matcher::matches);
+            }
+            if (parent.is(Tree.Kind.LAMBDA) || parent instanceof Statement) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private QualifiedNameMatcher<String> pureFunctions() {
+        PureFunctions current = pure;
+        if (current == null || !current.source().equals(pureFunctions)) {
+            current = new PureFunctions(pureFunctions, QualifiedNameMatcher.of(Arrays.stream(pureFunctions.split(","))
+                    .map(String::strip)
+                    .filter(name -> !name.isEmpty())
+                    .toArray(String[]::new)));
+            pure = current;
+        }
+        return current.matcher();
+    }
+
+    private record PureFunctions(String source, QualifiedNameMatcher<String> matcher) {
+    }
+}
@@ -22,7 +22,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.BinaryExpression;
 import org.sonar.plugins.python.api.tree.ElseClause;
@@ -46,17 +45,14 @@ import static org.sonar.plugins.python.api.tree.Tree.Kind.*;
  */
 @Rule(key = "GCI2")
 @DeprecatedRuleKey(repositoryKey = "ecocode-python", ruleKey = "EC2")
-public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
+public class AvoidMultipleIfElseStatementCheck extends CreedengoSubscriptionCheck {
 
     public static final String ERROR_MESSAGE = "Use a match-case statement instead of multiple if-else if possible";
 
-    // data structure for following usage of variable inside all the AST tree
-    private VariablesPerLevelDataStructure variablesStruct = new VariablesPerLevelDataStructure();
-
     // only visit each method to keep data of all conditional tree
     // with IF, ELSE or ELSEIF statements, we can't keep all data of conditional tree
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(FUNCDEF, this::visitFuncDef);
     }
 
@@ -68,11 +64,11 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
 
         FunctionDef method = (FunctionDef)pTree;
 
-        // reinit data structure before each method analysis
-        variablesStruct = new VariablesPerLevelDataStructure();
+        // data structure for following usage of variable inside the method, local to the analysis of the method
+        VariablesPerLevelDataStructure variablesStruct = new VariablesPerLevelDataStructure();
 
         // starting visit
-        visitNodeContent(context, method.body().statements(), 0);
+        visitNodeContent(context, variablesStruct, method.body().statements(), 0);
 
     }
 
@@ -82,14 +78,14 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
      * @param pLstStatements statements list of current node
      * @param pLevel level of current node
      */
-    private void visitNodeContent(SubscriptionContext context, List<Statement> pLstStatements, int pLevel) {
+    private void visitNodeContent(SubscriptionContext context, VariablesPerLevelDataStructure variablesStruct, List<Statement> pLstStatements, int pLevel) {
         if (pLstStatements == null || pLstStatements.isEmpty()) {
             return;
         }
 
         for (Statement statement : pLstStatements) {
             if (statement.is(IF_STMT)) {
-                visitIfNode(context, (IfStatement)statement, pLevel);
+                visitIfNode(context, variablesStruct, (IfStatement)statement, pLevel);
             }
         }
     }
@@ -99,7 +95,7 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
      * @param pIfTree the current node (Tree type)
      * @param pLevel the level of node
      */
-    private void visitIfNode(SubscriptionContext context, IfStatement pIfTree, int pLevel) {
+    private void visitIfNode(SubscriptionContext context, VariablesPerLevelDataStructure variablesStruct, IfStatement pIfTree, int pLevel) {
 
         if (pIfTree == null) return;
 
@@ -109,20 +105,20 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
         variablesStruct.reinitVariableUsageForLevelForCurrentIfStruct(pLevel);
 
         // analyze condition variables and raise error if needed
-        computeIfVariables(context, pIfTree, pLevel);
+        computeIfVariables(context, variablesStruct, pIfTree, pLevel);
 
         // visit the content of if block
-        visitNodeContent(context, pIfTree.body().statements(), pLevel + 1);
+        visitNodeContent(context, variablesStruct, pIfTree.body().statements(), pLevel + 1);
 
         // analyze ELSEIF clauses
         if (pIfTree.elifBranches() != null && !pIfTree.elifBranches().isEmpty()) {
             for (IfStatement elseifClause : pIfTree.elifBranches()) {
-                visitElseIfNode(context, elseifClause, pLevel);
+                visitElseIfNode(context, variablesStruct, elseifClause, pLevel);
             }
         }
 
         // analyze ELSE clause
-        visitElseNode(context, pIfTree.elseBranch(), pLevel);
+        visitElseNode(context, variablesStruct, pIfTree.elseBranch(), pLevel);
 
     }
 
@@ -131,14 +127,14 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
      * @param pIfTree IF node
      * @param pLevel the level of IF node
      */
-    private void computeIfVariables(SubscriptionContext context, IfStatement pIfTree, int pLevel) {
+    private void computeIfVariables(SubscriptionContext context, VariablesPerLevelDataStructure variablesStruct, IfStatement pIfTree, int pLevel) {
 
         if (pIfTree.condition() == null) return;
 
         // analysing content of conditions of IF node
         Expression expr = pIfTree.condition();
         if (expr instanceof BinaryExpression) {
-            computeConditionVariables(context, (BinaryExpression) expr, pLevel);
+            computeConditionVariables(context, variablesStruct, (BinaryExpression) expr, pLevel);
         }
 
     }
@@ -148,24 +144,24 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
      * @param pBinExprTree binary expression to analyze
      * @param pLevel The level of binary expression
      */
-    private void computeConditionVariables(SubscriptionContext context, BinaryExpression pBinExprTree, int pLevel) {
+    private void computeConditionVariables(SubscriptionContext context, VariablesPerLevelDataStructure variablesStruct, BinaryExpression pBinExprTree, int pLevel) {
 
         // if multiple conditions, continue with each part of complex expression
         if (pBinExprTree.is(AND) || pBinExprTree.is(OR)) {
             if (pBinExprTree.leftOperand() instanceof BinaryExpression) {
-                computeConditionVariables(context, (BinaryExpression) pBinExprTree.leftOperand(), pLevel);
+                computeConditionVariables(context, variablesStruct, (BinaryExpression) pBinExprTree.leftOperand(), pLevel);
             }
             if (pBinExprTree.rightOperand() instanceof BinaryExpression) {
-                computeConditionVariables(context, (BinaryExpression) pBinExprTree.rightOperand(), pLevel);
+                computeConditionVariables(context, variablesStruct, (BinaryExpression) pBinExprTree.rightOperand(), pLevel);
             }
         } else if (pBinExprTree.is(COMPARISON)) {
 
             // continue to analyze with variables if some key-words are found
             if (pBinExprTree.leftOperand().is(NAME)) {
-                computeVariables(context, pBinExprTree.leftOperand(), pLevel);
+                computeVariables(context, variablesStruct, pBinExprTree.leftOperand(), pLevel);
             }
             if (pBinExprTree.rightOperand().is(NAME)) {
-                computeVariables(context, pBinExprTree.rightOperand(), pLevel);
+                computeVariables(context, variablesStruct, pBinExprTree.rightOperand(), pLevel);
             }
         }
     }
@@ -175,7 +171,7 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
      * @param pVarIdTree The Variable AST structure
      * @param pLevel the level of structure
      */
-    private void computeVariables(SubscriptionContext context, Expression pVarIdTree, int pLevel) {
+    private void computeVariables(SubscriptionContext context, VariablesPerLevelDataStructure variablesStruct, Expression pVarIdTree, int pLevel) {
         // increment the variable counter to list of all variables
         int nbUsed = variablesStruct.incrementVariableUsageForLevel(pVarIdTree.firstToken().value(), pLevel);
 
@@ -193,7 +189,7 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
      * @param pElseIfTree ELSEIF node
      * @param pLevel the level of ELSEIF node
      */
-    private void visitElseIfNode(SubscriptionContext context, IfStatement pElseIfTree, int pLevel) {
+    private void visitElseIfNode(SubscriptionContext context, VariablesPerLevelDataStructure variablesStruct, IfStatement pElseIfTree, int pLevel) {
 
         if (pElseIfTree == null) { return; }
 
@@ -204,10 +200,10 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
         variablesStruct.reinitVariableUsageForLevelForCurrentIfStruct(pLevel);
 
         // analyze variables and raise error if needed
-        computeElseIfVariables(context, pElseIfTree, pLevel);
+        computeElseIfVariables(context, variablesStruct, pElseIfTree, pLevel);
 
         // go to next child level
-        visitNodeContent(context, pElseIfTree.body().statements(), pLevel + 1);
+        visitNodeContent(context, variablesStruct, pElseIfTree.body().statements(), pLevel + 1);
     }
 
     /**
@@ -215,13 +211,13 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
      * @param pElseIfTree ELSEIF node
      * @param pLevel the level of ELSEIF node
      */
-    private void computeElseIfVariables(SubscriptionContext context, IfStatement pElseIfTree, int pLevel) {
+    private void computeElseIfVariables(SubscriptionContext context, VariablesPerLevelDataStructure variablesStruct, IfStatement pElseIfTree, int pLevel) {
 
         if (pElseIfTree.condition() == null) return;
 
         Expression expr = pElseIfTree.condition();
         if (expr instanceof BinaryExpression) {
-            computeConditionVariables(context, (BinaryExpression) expr, pLevel);
+            computeConditionVariables(context, variablesStruct, (BinaryExpression) expr, pLevel);
         }
 
     }
@@ -231,15 +227,15 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
      * @param pElseTree ELSE node
      * @param pLevel the level of ELSE node
      */
-    private void visitElseNode(SubscriptionContext context, ElseClause pElseTree, int pLevel) {
+    private void visitElseNode(SubscriptionContext context, VariablesPerLevelDataStructure variablesStruct, ElseClause pElseTree, int pLevel) {
 
         if (pElseTree == null) { return; }
 
         // analyze variables and raise error if needed
-        computeElseVariables(context, pElseTree, pLevel);
+        computeElseVariables(context, variablesStruct, pElseTree, pLevel);
 
         // go to next child level
-        visitNodeContent(context, pElseTree.body().statements(), pLevel + 1);
+        visitNodeContent(context, variablesStruct, pElseTree.body().statements(), pLevel + 1);
     }
 
     /**
@@ -247,7 +243,7 @@ public class AvoidMultipleIfElseStatementCheck extends PythonSubscriptionCheck {
      * @param pElseTree ELSE node
      * @param pLevel the level of ELSE node
      */
-    private void computeElseVariables(SubscriptionContext context, ElseClause pElseTree, int pLevel) {
+    private void computeElseVariables(SubscriptionContext context, VariablesPerLevelDataStructure variablesStruct, ElseClause pElseTree, int pLevel) {
 
         Map<String, Integer> mapVariables = variablesStruct.getVariablesForCurrentIfStruct(pLevel);
 
@@ -17,9 +17,11 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
-import org.greencodeinitiative.creedengo.python.utils.UtilsAST;
+import org.greencodeinitiative.creedengo.python.signatures.FunctionSignature;
+import org.greencodeinitiative.creedengo.python.signatures.LibrarySignatures;
+import org.greencodeinitiative.creedengo.python.utils.CallArgumentBinder;
+import org.greencodeinitiative.creedengo.python.utils.QualifiedNameMatcher;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.RegularArgument;
@@ -31,27 +33,31 @@ import java.util.Optional;
 import static org.sonar.plugins.python.api.tree.Tree.Kind.NAME;
 
 @Rule(key = "GCI102")
-public class AvoidNonPinnedMemoryForDataloaders extends PythonSubscriptionCheck {
+public class AvoidNonPinnedMemoryForDataloaders extends CreedengoSubscriptionCheck {
 
   private static final String DATALOADER_FULLY_QUALIFIED_NAME = "torch.utils.data.DataLoader";
-  private static final int PIN_MEMORY_ARGUMENT_POSITION = 7;
   private static final String PIN_MEMORY_ARGUMENT_NAME = "pin_memory";
+  private static final FunctionSignature DATALOADER = LibrarySignatures.bundled().require(DATALOADER_FULLY_QUALIFIED_NAME);
+  // a missing pin_memory argument is only reported when it defaults to False in every supported version
+  private static final boolean UNPINNED_BY_DEFAULT = "False".equals(DATALOADER.defaultValue(PIN_MEMORY_ARGUMENT_NAME));
   protected static final String MESSAGE = "Use pinned memory to reduce data transfer in RAM.";
 
   @Override
-  public void initialize(Context context) {
+  protected void register(Context context) {
     context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
       CallExpression callExpression = (CallExpression) ctx.syntaxNode();
 
-      if (DATALOADER_FULLY_QUALIFIED_NAME.equals(UtilsAST.getQualifiedName(callExpression))) {
-        RegularArgument numWorkersArgument = UtilsAST.nthArgumentOrKeyword(PIN_MEMORY_ARGUMENT_POSITION,
-                PIN_MEMORY_ARGUMENT_NAME,
-          callExpression.arguments());
+      if (LibrarySignatures.bundled().function(QualifiedNameMatcher.calleeName(callExpression)) == DATALOADER) {
+        CallArgumentBinder.Bindings arguments = DATALOADER.binder().bind(callExpression);
+        RegularArgument pinMemoryArgument = arguments.argument(PIN_MEMORY_ARGUMENT_NAME);
 
-        if (numWorkersArgument == null) {
-          ctx.addIssue(callExpression, MESSAGE);
+        if (pinMemoryArgument == null) {
+          // pin_memory may be passed through unpacked arguments
+          if (UNPINNED_BY_DEFAULT && arguments.isMissing(PIN_MEMORY_ARGUMENT_NAME)) {
+            ctx.addIssue(callExpression, MESSAGE);
+          }
         } else {
-          Optional.of(numWorkersArgument).filter(this::checkBadValuesForPinMemory)
+          Optional.of(pinMemoryArgument).filter(this::checkBadValuesForPinMemory)
             .ifPresent(arg -> ctx.addIssue(arg, MESSAGE));
         }
       }
@@ -17,102 +17,96 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
-import java.util.Arrays;
-import java.util.List;
-
+import org.greencodeinitiative.creedengo.python.utils.DatabaseAccess;
+import org.greencodeinitiative.creedengo.python.utils.ImportIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopContextIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
+import org.greencodeinitiative.creedengo.python.utils.OrmQueries;
+import org.greencodeinitiative.creedengo.python.utils.SqlCallGraph;
+import org.greencodeinitiative.creedengo.python.utils.UtilsAST;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
-import org.sonar.plugins.python.api.tree.AliasedName;
-import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.symbols.Usage;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.plugins.python.api.tree.FileInput;
-import org.sonar.plugins.python.api.tree.ImportFrom;
-import org.sonar.plugins.python.api.tree.ImportName;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.ForStatement;
 import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.QualifiedExpression;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
+import java.util.HashSet;
+import java.util.Set;
+
 @Rule(key = "GCI72")
 @DeprecatedRuleKey(repositoryKey = "ecocode-python", ruleKey = "EC72")
 @DeprecatedRuleKey(repositoryKey = "gci-python", ruleKey = "S72")
-public class AvoidSQLRequestInLoop extends PythonSubscriptionCheck {
-
-    // TODO: Handle ORM lib
-    private static final List<String> SQL_LIBS = Arrays.asList("cx_Oracle", "mysql.connector", "psycopg2", "pymssql", "pyodbc", "sqlite3");
+public class AvoidSQLRequestInLoop extends CreedengoSubscriptionCheck {
 
-    protected static final String MESSAGE_RULE = "Avoid performing SQL queries within a loop";
-
-    private boolean isUsingSqlLib = false;
+    public static final String MESSAGE_RULE = "Avoid performing SQL queries within a loop";
+    static final String MESSAGE_QUERY = "SQL query executed in the loop";
+    static final String MESSAGE_LAZY_RELATION = "Avoid performing SQL queries within a loop: load this relation along with the iterated objects";
 
     @Override
-    public void initialize(Context context) {
-        context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, this::visitFile);
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkCallExpression);
+        context.registerSyntaxNodeConsumer(Tree.Kind.FOR_STMT, this::checkLazyRelations);
     }
 
-    private void visitFile(SubscriptionContext ctx) {
-        FileInput tree = (FileInput) ctx.syntaxNode();
-        SqlLibraryImportVisitor visitor = new SqlLibraryImportVisitor();
-        tree.accept(visitor);
-        isUsingSqlLib = visitor.isUsingSqlLib;
-    }
-
-    private static class SqlLibraryImportVisitor extends BaseTreeVisitor {
-        private boolean isUsingSqlLib = false;
+    private void checkCallExpression(SubscriptionContext context) {
+        CallExpression expression = (CallExpression) context.syntaxNode();
 
-        @Override
-        public void visitImportName(ImportName importName) {
-            for (AliasedName aliasedName : importName.modules()) {
-                String fullModuleName = getFullModuleName(aliasedName.dottedName().names());
-                if (SQL_LIBS.contains(fullModuleName)) {
-                    isUsingSqlLib = true;
-                }
-            }
-            super.visitImportName(importName);
+        if (!LoopContextIndex.of(context).isEvaluatedPerIteration(expression)) {
+            return;
         }
-
-        @Override
-        public void visitImportFrom(ImportFrom importFrom) {
-            if (importFrom.module() != null) {
-                String fullModuleName = getFullModuleName(importFrom.module().names());
-                if (SQL_LIBS.contains(fullModuleName)) {
-                    isUsingSqlLib = true;
-                }
-            }
-            super.visitImportFrom(importFrom);
+        if (DatabaseAccess.isQuery(expression, ImportIndex.of(context))) {
+            LoopWeight.of(context, expression).weigh(context.addIssue(expression, AvoidSQLRequestInLoop.MESSAGE_RULE));
+            return;
         }
-
-        private String getFullModuleName(List<Name> names) {
-            if (names == null || names.isEmpty()) {
-                return "";
-            }
-            return names.stream()
-                    .map(Name::name)
-                    .reduce((a, b) -> a + "." + b)
-                    .orElse("");
+        // calls of the functions of the file which execute a query, at any depth
+        CallExpression query = SqlCallGraph.of(context).queryExecutedBy(expression);
+        if (query != null) {
+            LoopWeight.of(context, expression)
+                    .weigh(context.addIssue(expression, AvoidSQLRequestInLoop.MESSAGE_RULE).secondary(query, MESSAGE_QUERY));
         }
     }
 
-    private void checkCallExpression(SubscriptionContext context) {
-        CallExpression expression = (CallExpression) context.syntaxNode();
-
-        if (expression.callee().is(Tree.Kind.QUALIFIED_EXPR)) {
-            String name = ((QualifiedExpression) expression.callee()).name().name();
-            if (isUsingSqlLib && "execute".equals(name) && hasLoopParent(expression)) {
-                context.addIssue(expression, AvoidSQLRequestInLoop.MESSAGE_RULE);
+    /**
+     * Objects returned by an ORM query load their relations with one more query each, the first time they are read:
+     * {@code for book in Book.objects.all(): print(book.author.name)} runs a query per book when {@code author} is a
+     * relation field of {@code Book}.
+     */
+    private void checkLazyRelations(SubscriptionContext context) {
+        ForStatement loop = (ForStatement) context.syntaxNode();
+        if (loop.testExpressions().size() != 1 || loop.expressions().size() != 1
+                || !loop.expressions().get(0).is(Tree.Kind.NAME)) {
+            return;
+        }
+        Symbol element = ((Name) loop.expressions().get(0)).symbol();
+        ImportIndex imports = ImportIndex.of(context);
+        Expression model = OrmQueries.lazilyLoadedModel(loop.testExpressions().get(0), imports);
+        if (element == null || model == null) {
+            return;
+        }
+        Set<String> relations = new HashSet<>();
+        for (Usage usage : element.usages()) {
+            Tree relation = usage.tree().parent();
+            if (usage.kind() == Usage.Kind.OTHER && isRelationRead(relation) && UtilsAST.isWithin(relation, loop.body())) {
+                String name = ((QualifiedExpression) relation).name().name();
+                if (!relations.contains(name) && OrmQueries.isRelation(model, name, imports)) {
+                    relations.add(name);
+                    LoopWeight.of(context, relation).weigh(context.addIssue(relation, MESSAGE_LAZY_RELATION));
+                }
             }
         }
     }
 
-    private boolean hasLoopParent(Tree tree) {
-        for (Tree parent = tree.parent(); parent != null; parent = parent.parent()) {
-            Tree.Kind kind = parent.getKind();
-            if (kind == Tree.Kind.FOR_STMT || kind == Tree.Kind.WHILE_STMT) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * {@code element.relation.attribute}: an attribute of another object is read through the element.
+     */
+    private static boolean isRelationRead(Tree tree) {
+        return tree.is(Tree.Kind.QUALIFIED_EXPR) && tree.parent().is(Tree.Kind.QUALIFIED_EXPR)
+                && ((QualifiedExpression) tree.parent()).qualifier() == tree;
     }
 }
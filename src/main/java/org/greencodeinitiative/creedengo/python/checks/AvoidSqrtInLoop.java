@@ -17,33 +17,41 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.utils.ImportIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopContextIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.QualifiedExpression;
 import org.sonar.plugins.python.api.tree.Tree;
 
+import java.util.Set;
+
 @Rule(key = "GCI106")
-public class AvoidSqrtInLoop extends PythonSubscriptionCheck {
+public class AvoidSqrtInLoop extends CreedengoSubscriptionCheck {
+
+    private static final Set<String> SQRT_MODULES = Set.of("math", "numpy");
+    private static final Set<String> DEFAULT_SQRT_MODULE_NAMES = Set.of("math", "np", "numpy");
 
     public static final String DESCRIPTION = "Avoid using scalar sqrt functions in loops. Apply vectorized sqrt operations on arrays directly.";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkCallExpression);
     }
 
     private void checkCallExpression(SubscriptionContext context) {
         CallExpression callExpression = (CallExpression) context.syntaxNode();
         
-        if (isSqrtCall(callExpression) && hasLoopParent(callExpression)) {
-            context.addIssue(callExpression, DESCRIPTION);
+        if (isSqrtCall(context, callExpression) && LoopContextIndex.of(context).isInLoop(callExpression)) {
+            LoopWeight.of(context, callExpression).weigh(context.addIssue(callExpression, DESCRIPTION));
         }
     }
     
-    private boolean isSqrtCall(CallExpression callExpression) {
+    private boolean isSqrtCall(SubscriptionContext context, CallExpression callExpression) {
         Expression callee = callExpression.callee();
         
         // Check for direct calls to math.sqrt
@@ -54,22 +62,20 @@ public class AvoidSqrtInLoop extends PythonSubscriptionCheck {
             if ("sqrt".equals(methodName)) {
                 Expression qualifier = qualifiedExpression.qualifier();
                 if (qualifier != null && qualifier.is(Tree.Kind.NAME)) {
-                    String qualifierName = qualifier.firstToken().value();
-                    return "math".equals(qualifierName) || "np".equals(qualifierName) || "numpy".equals(qualifierName);
+                    return isSqrtModule(ImportIndex.of(context), ((Name) qualifier).name());
                 }
             }
         }
         
         return false;
     }
-    
-    private boolean hasLoopParent(Tree tree) {
-        for (Tree parent = tree.parent(); parent != null; parent = parent.parent()) {
-            Tree.Kind kind = parent.getKind();
-            if (kind == Tree.Kind.FOR_STMT || kind == Tree.Kind.WHILE_STMT) {
-                return true;
-            }
+
+    private static boolean isSqrtModule(ImportIndex imports, String qualifierName) {
+        String module = imports.resolve(qualifierName);
+        if (module == null) {
+            // not imported in this file (e.g. injected by a notebook or a star import): rely on the usual names
+            return DEFAULT_SQRT_MODULE_NAMES.contains(qualifierName);
         }
-        return false;
+        return SQRT_MODULES.contains(module);
     }
 }
\ No newline at end of file
@@ -18,7 +18,6 @@
 package org.greencodeinitiative.creedengo.python.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.*;
@@ -29,12 +28,12 @@ import static org.sonar.plugins.python.api.tree.Tree.Kind.CALL_EXPR;
 @Rule(key = "GCI35")
 @DeprecatedRuleKey(repositoryKey = "ecocode-python", ruleKey = "EC35")
 @DeprecatedRuleKey(repositoryKey = "gci-python", ruleKey = "S34")
-public class AvoidTryCatchWithFileOpenedCheck extends PythonSubscriptionCheck {
+public class AvoidTryCatchWithFileOpenedCheck extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Avoid the use of try-catch with a file open in try block";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.TRY_STMT, this::visitNode);
     }
 
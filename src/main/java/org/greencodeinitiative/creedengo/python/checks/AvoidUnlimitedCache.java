@@ -18,7 +18,6 @@
 package org.greencodeinitiative.creedengo.python.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.Decorator;
@@ -30,7 +29,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @Rule(key = "GCI89")
 @DeprecatedRuleKey(repositoryKey = "ecocode-python", ruleKey = "EC89")
-public class AvoidUnlimitedCache extends PythonSubscriptionCheck {
+public class AvoidUnlimitedCache extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Do not set cache size to unlimited";
 
@@ -40,7 +39,7 @@ public class AvoidUnlimitedCache extends PythonSubscriptionCheck {
     public static final String CACHE = "cache";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         // Check function decorators
         context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, this::checkFunction);
     }
@@ -18,18 +18,17 @@
 package org.greencodeinitiative.creedengo.python.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.ImportFrom;
 import org.sonar.plugins.python.api.tree.Tree;
 
 @Rule(key = "GCI110")
-public class AvoidWildcardImportsCheck extends PythonSubscriptionCheck {
+public class AvoidWildcardImportsCheck extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Avoid wildcard imports";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.IMPORT_FROM, this::visitImportFrom);
     }
 
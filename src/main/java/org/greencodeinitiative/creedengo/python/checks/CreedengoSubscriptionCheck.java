@@ -0,0 +1,60 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.checks;
+
+import org.greencodeinitiative.creedengo.python.caching.FileSummaries;
+import org.greencodeinitiative.creedengo.python.instrumentation.Instrumentation;
+import org.greencodeinitiative.creedengo.python.profiling.CpuProfiles;
+import org.sonar.plugins.python.api.PythonInputFileContext;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.tree.Tree;
+
+/**
+ * Base class of every creedengo check.
+ * <p>
+ * Checks declare their consumers in {@link #register(Context)}: the context handed over records the execution time
+ * and allocations of every consumer when {@link Instrumentation} is enabled, and is the plain analyzer context
+ * otherwise.
+ * </p>
+ * <p>
+ * The {@link FileSummaries summary} of every analysed file is recorded, and unchanged files are only skipped by
+ * incremental analyses when their summary can be restored from the cache.
+ * </p>
+ * <p>
+ * When {@link CpuProfiles production CPU profiles} are loaded, the issues raised get the share of the CPU time of
+ * their enclosing function.
+ * </p>
+ */
+public abstract class CreedengoSubscriptionCheck extends PythonSubscriptionCheck {
+
+    @Override
+    public final void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, FileSummaries::record);
+        register(Instrumentation.instrument(this, CpuProfiles.annotate(context)));
+    }
+
+    @Override
+    public boolean scanWithoutParsing(PythonInputFileContext inputFileContext) {
+        return FileSummaries.restore(inputFileContext);
+    }
+
+    /**
+     * Registers the syntax node consumers of this check.
+     */
+    protected abstract void register(Context context);
+}
@@ -17,15 +17,15 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.utils.ImportIndex;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.*;
 
 import java.util.*;
 
 @Rule(key = "GCI111")
-public class DetectBadLoggingFormatInterpolation extends PythonSubscriptionCheck {
+public class DetectBadLoggingFormatInterpolation extends FileScopedCheck<DetectBadLoggingFormatInterpolation.LoggingUsage> {
 
     protected static final String MESSAGE_RULE = "For logging format, prefer using %s with kwargs instead of builtin formatter \"\".format() or f\"\"";
 
@@ -40,32 +40,36 @@ public class DetectBadLoggingFormatInterpolation extends PythonSubscriptionCheck
         "logging", "loguru"
     ));
 
-    private boolean isUsingLoggingLib = false;
-    private final Set<String> loggerVariableNames = new HashSet<>();
+    /**
+     * Use of the logging libraries by a file.
+     */
+    record LoggingUsage(boolean isUsingLoggingLib, Set<String> loggerVariableNames) {
+    }
 
     @Override
-    public void initialize(Context context) {
-        context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, this::visitFile);
+    protected void registerConsumers(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkCallExpression);
     }
 
     /**
      * Scan file to detect logging imports and logger variable assignments
      */
-    private void visitFile(SubscriptionContext ctx) {
-        // Reset state for each file
-        isUsingLoggingLib = false;
-        loggerVariableNames.clear();
+    @Override
+    protected LoggingUsage newFileState(SubscriptionContext ctx) {
+        Set<String> loggerVariableNames = new HashSet<>();
 
         FileInput fileInput = (FileInput) ctx.syntaxNode();
 
         // Check imports
-        LoggingImportVisitor importVisitor = new LoggingImportVisitor();
-        fileInput.accept(importVisitor);
-        isUsingLoggingLib = importVisitor.isLoggingImported;
+        ImportIndex imports = ImportIndex.of(ctx);
+        boolean isUsingLoggingLib = LOGGING_MODULE_NAMES.stream().anyMatch(imports::importsModule);
 
         // Add directly imported logger variables (e.g., from loguru import logger)
-        loggerVariableNames.addAll(importVisitor.importedLoggerNames);
+        imports.localNames().forEach((localName, qualifiedName) -> {
+            if (isLoggingModuleMember(qualifiedName)) {
+                loggerVariableNames.add(localName);
+            }
+        });
 
         // Check logger assignments
         if (isUsingLoggingLib) {
@@ -73,48 +77,15 @@ public class DetectBadLoggingFormatInterpolation extends PythonSubscriptionCheck
             fileInput.accept(assignmentVisitor);
             loggerVariableNames.addAll(assignmentVisitor.loggerVariables);
         }
+        return new LoggingUsage(isUsingLoggingLib, loggerVariableNames);
     }
 
     /**
-     * Visitor to detect logging imports
+     * Check if a name imported from a logging module is one of its members (e.g., from loguru import logger)
      */
-    private static class LoggingImportVisitor extends BaseTreeVisitor {
-        private boolean isLoggingImported = false;
-        private final Set<String> importedLoggerNames = new HashSet<>();
-
-        @Override
-        public void visitImportFrom(ImportFrom importFrom) {
-            List<Name> names = importFrom.module() != null ? importFrom.module().names() : null;
-            if (names != null && !names.isEmpty() && LOGGING_MODULE_NAMES.contains(names.get(0).name())) {
-                isLoggingImported = true;
-
-                // Detect directly imported logger names (e.g., from loguru import logger)
-                for (AliasedName importedItem : importFrom.importedNames()) {
-                    if (importedItem.alias() != null) {
-                        // from loguru import logger as log -> "log"
-                        importedLoggerNames.add(importedItem.alias().name());
-                    } else {
-                        // from loguru import logger -> "logger"
-                        List<Name> itemNames = importedItem.dottedName().names();
-                        if (!itemNames.isEmpty()) {
-                            importedLoggerNames.add(itemNames.get(itemNames.size() - 1).name());
-                        }
-                    }
-                }
-            }
-            super.visitImportFrom(importFrom);
-        }
-
-        @Override
-        public void visitImportName(ImportName importName) {
-            for (AliasedName aliasedName : importName.modules()) {
-                List<Name> names = aliasedName.dottedName().names();
-                if (!names.isEmpty() && LOGGING_MODULE_NAMES.contains(names.get(0).name())) {
-                    isLoggingImported = true;
-                }
-            }
-            super.visitImportName(importName);
-        }
+    private static boolean isLoggingModuleMember(String qualifiedName) {
+        int dot = qualifiedName.indexOf('.');
+        return dot > 0 && LOGGING_MODULE_NAMES.contains(qualifiedName.substring(0, dot));
     }
 
     /**
@@ -162,7 +133,7 @@ public class DetectBadLoggingFormatInterpolation extends PythonSubscriptionCheck
      * Check if a call expression is a logging method with bad format interpolation
      */
     private void checkCallExpression(SubscriptionContext ctx) {
-        if (!isUsingLoggingLib) {
+        if (!fileState().isUsingLoggingLib()) {
             return;
         }
 
@@ -178,7 +149,7 @@ public class DetectBadLoggingFormatInterpolation extends PythonSubscriptionCheck
                 Expression qualifier = qualifiedExpression.qualifier();
 
                 // Check if qualifier is "logging" module or a known logger variable
-                if (isLoggingQualifier(qualifier)) {
+                if (isLoggingQualifier(ImportIndex.of(ctx), qualifier)) {
                     checkLoggingArguments(ctx, callExpression);
                 }
             }
@@ -188,12 +159,13 @@ public class DetectBadLoggingFormatInterpolation extends PythonSubscriptionCheck
     /**
      * Check if the qualifier is a logging module or logger variable
      */
-    private boolean isLoggingQualifier(Expression qualifier) {
+    private boolean isLoggingQualifier(ImportIndex imports, Expression qualifier) {
         if (qualifier.is(Tree.Kind.NAME)) {
             String qualifierName = ((Name) qualifier).name();
-            // Check if it's the logging module or a known logger variable
-            return LOGGING_MODULE_NAMES.contains(qualifierName) ||
-                   loggerVariableNames.contains(qualifierName);
+            String importedName = imports.resolve(qualifierName);
+            // Check if it's the logging module (possibly aliased) or a known logger variable
+            return LOGGING_MODULE_NAMES.contains(importedName != null ? importedName : qualifierName) ||
+                   fileState().loggerVariableNames().contains(qualifierName);
         }
         return false;
     }
@@ -17,8 +17,8 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.utils.StringKeywords;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.StringLiteral;
 import org.sonar.plugins.python.api.tree.Tree;
@@ -29,19 +29,22 @@ import java.util.regex.Pattern;
 
 @Rule(key = "GCI203")
 @DeprecatedRuleKey(repositoryKey = "ecocode-python", ruleKey = "EC203")
-public class DetectUnoptimizedImageFormat extends PythonSubscriptionCheck {
+public class DetectUnoptimizedImageFormat extends CreedengoSubscriptionCheck {
 
     protected static final String MESSAGE_ERROR = "If possible, the utilisation of svg image format (or <svg/> html tag) is recommended over other image format.";
     protected static final Pattern IMG_EXTENSION = Pattern.compile("\\.(bmp|ico|tiff|webp|png|jpg|jpeg|jfif|pjpeg|pjp|gif|avif|apng)");
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.STRING_LITERAL, this::visitNodeString);
     }
 
     public void visitNodeString(SubscriptionContext ctx) {
         if (ctx.syntaxNode().is(Tree.Kind.STRING_LITERAL)) {
             final  StringLiteral stringLiteral = (StringLiteral) ctx.syntaxNode();
+            if ((StringKeywords.of(ctx, stringLiteral) & StringKeywords.IMAGE_EXTENSION) == 0) {
+                return;
+            }
             final String strValue = stringLiteral.trimmedQuotesValue();
             final Matcher matcher = IMG_EXTENSION.matcher(strValue);
             if(matcher.find()) {
@@ -17,28 +17,30 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
+import org.greencodeinitiative.creedengo.python.utils.UtilsAST;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.symbols.Usage;
 import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.ForStatement;
 import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.StatementList;
 import org.sonar.plugins.python.api.tree.Tree;
 
 @Rule(key = "GCI103")
-public class DictionaryItemsUnused extends PythonSubscriptionCheck {
+public class DictionaryItemsUnused extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Use dict.keys() or dict.values() instead of dict.items() when only one part of the key-value pair is used";
 
-    private final Map<ForStatement, ItemsLoopInfo> itemsLoops = new HashMap<>();
-
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.FOR_STMT, this::processForLoop);
     }
 
@@ -50,20 +52,15 @@ public class DictionaryItemsUnused extends PythonSubscriptionCheck {
             Expression valueExpr = forStmt.expressions().get(1);
             Expression iterable = forStmt.testExpressions().get(0);
 
-            if (isItemsCall(iterable)) {
-                String key = keyExpr.is(Tree.Kind.NAME) ? ((Name) keyExpr).name() : null;
-                String value = valueExpr.is(Tree.Kind.NAME) ? ((Name) valueExpr).name() : null;
-
-                if (key != null && value != null) {
-                    ItemsLoopInfo info = new ItemsLoopInfo(key, value);
-                    itemsLoops.put(forStmt, info);
-
-                    trackNameUsages(forStmt.body(), info);
+            if (isItemsCall(iterable) && keyExpr.is(Tree.Kind.NAME) && valueExpr.is(Tree.Kind.NAME)) {
+                StatementList body = forStmt.body();
+                boolean keyUsed = isUsedIn((Name) keyExpr, body);
+                boolean valueUsed = isUsedIn((Name) valueExpr, body);
+                if (keyUsed != valueUsed) {
+                    LoopWeight.of(context, body).weigh(context.addIssue(forStmt.firstToken(), DESCRIPTION));
                 }
             }
         }
-
-        finalizeCheck(context);
     }
 
     private boolean isItemsCall(Expression expr) {
@@ -77,52 +74,33 @@ public class DictionaryItemsUnused extends PythonSubscriptionCheck {
         return false;
     }
 
-    private void trackNameUsages(Tree node, ItemsLoopInfo info) {
-        if (node instanceof Name nodeName) {
-            info.markUsage(nodeName.name());
-        }
-
-        for (Tree child : node.children()) {
-            trackNameUsages(child, info);
-        }
-    }
-
-    private void finalizeCheck(SubscriptionContext context) {
-        ForStatement forStmt = (ForStatement) context.syntaxNode();
-        ItemsLoopInfo info = itemsLoops.get(forStmt);
-
-        if (info != null) {
-
-            if (info.isOnlyOneUsed()) {
-                context.addIssue(forStmt.firstToken(), DESCRIPTION);
-            } 
-
-            itemsLoops.remove(forStmt); 
+    /**
+     * Looks for a read of the loop variable in the loop body through the usages of its symbol, so that the body is not
+     * walked again for each enclosing {@code items()} loop.
+     */
+    private static boolean isUsedIn(Name variable, StatementList body) {
+        Symbol symbol = variable.symbol();
+        if (symbol == null) {
+            return containsName(body, variable.name());
         }
+        return symbol.usages().stream()
+                .anyMatch(usage -> usage.kind() == Usage.Kind.OTHER && UtilsAST.isWithin(usage.tree(), body));
     }
 
-    private static class ItemsLoopInfo {
-        final String keyVar;
-        final String valueVar;
-        boolean keyUsed = false;
-        boolean valueUsed = false;
-
-        ItemsLoopInfo(String keyVar, String valueVar) {
-            this.keyVar = keyVar;
-            this.valueVar = valueVar;
-        }
-
-        void markUsage(String val) {
-            if (val.equals(keyVar)) {
-                keyUsed = true;
+    private static boolean containsName(Tree tree, String name) {
+        Deque<Tree> nodes = new ArrayDeque<>();
+        nodes.push(tree);
+        while (!nodes.isEmpty()) {
+            Tree node = nodes.pop();
+            if (node instanceof Name nodeName && nodeName.name().equals(name)) {
+                return true;
             }
-            if (val.equals(valueVar)) {
-                valueUsed = true;
+            for (Tree child : node.children()) {
+                if (child != null) {
+                    nodes.push(child);
+                }
             }
         }
-
-        boolean isOnlyOneUsed() {
-            return (keyUsed && !valueUsed) || (!keyUsed && valueUsed);
-        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -17,8 +17,8 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.utils.LoopContextIndex;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.CallExpression;
@@ -34,40 +34,35 @@ import java.util.Map;
 import java.util.Set;
 
 @Rule(key = "GCI100")
-public class DisableGradientForModelEval extends PythonSubscriptionCheck {
+public class DisableGradientForModelEval extends FileScopedCheck<DisableGradientForModelEval.Contexts> {
     
     private static final String DESCRIPTION = "PyTorch : Disable gradient computation when evaluating a model to save memory and computation time";
     
-    private final Map<Tree, Set<String>> evalModelsInContext = new HashMap<>();
-    private final Map<Tree, Set<Tree>> noGradScopesInContext = new HashMap<>();
-    
     @Override
-    public void initialize(Context context) {
+    protected void registerConsumers(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.QUALIFIED_EXPR, this::checkEvalCall);
         context.registerSyntaxNodeConsumer(Tree.Kind.WITH_STMT, this::checkWithNoGrad);
         context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkModelCall);
         
         context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, this::initializeContext);
-        
-        evalModelsInContext.put(null, new HashSet<>());
-        noGradScopesInContext.put(null, new HashSet<>());
+    }
+
+    @Override
+    protected Contexts newFileState(SubscriptionContext context) {
+        Contexts contexts = new Contexts();
+        contexts.evalModelsInContext.put(null, new HashSet<>());
+        contexts.noGradScopesInContext.put(null, new HashSet<>());
+        return contexts;
     }
     
     private void initializeContext(SubscriptionContext context) {
         FunctionDef funcDef = (FunctionDef) context.syntaxNode();
-        evalModelsInContext.put(funcDef, new HashSet<>());
-        noGradScopesInContext.put(funcDef, new HashSet<>());
+        fileState().evalModelsInContext.put(funcDef, new HashSet<>());
+        fileState().noGradScopesInContext.put(funcDef, new HashSet<>());
     }
     
-    private Tree getEnclosingContext(Tree node) {
-        Tree current = node;
-        while (current != null) {
-            if (current.is(Tree.Kind.FUNCDEF)) {
-                return current;
-            }
-            current = current.parent();
-        }
-        return null; 
+    private Tree getEnclosingContext(SubscriptionContext context, Tree node) {
+        return LoopContextIndex.of(context).enclosingFunction(node);
     }
     
     private void checkEvalCall(SubscriptionContext context) {
@@ -79,9 +74,9 @@ public class DisableGradientForModelEval extends PythonSubscriptionCheck {
                 String modelName = expr.qualifier().firstToken().value();
                 
                 
-                Tree enclosingContext = getEnclosingContext(expr);
+                Tree enclosingContext = getEnclosingContext(context, expr);
                 
-                evalModelsInContext.computeIfAbsent(enclosingContext, k -> new HashSet<>()).add(modelName);
+                fileState().evalModelsInContext.computeIfAbsent(enclosingContext, k -> new HashSet<>()).add(modelName);
             }
         }
     }
@@ -93,10 +88,10 @@ public class DisableGradientForModelEval extends PythonSubscriptionCheck {
         for (WithItem item : withStmt.withItems()) {
             if (isNoGradCall(item.test())) {
                 
-                Tree enclosingContext = getEnclosingContext(withStmt);
+                Tree enclosingContext = getEnclosingContext(context, withStmt);
                 
                 
-                noGradScopesInContext.computeIfAbsent(enclosingContext, k -> new HashSet<>()).add(withStmt);
+                fileState().noGradScopesInContext.computeIfAbsent(enclosingContext, k -> new HashSet<>()).add(withStmt);
                 return;
             }
         }
@@ -130,7 +125,7 @@ public class DisableGradientForModelEval extends PythonSubscriptionCheck {
     private void checkModelCall(SubscriptionContext context) { 
         CallExpression callExpr = (CallExpression) context.syntaxNode();
         
-        Tree enclosingContext = getEnclosingContext(callExpr);
+        Tree enclosingContext = getEnclosingContext(context, callExpr);
         
 
         Expression callee = callExpr.callee();
@@ -145,7 +140,7 @@ public class DisableGradientForModelEval extends PythonSubscriptionCheck {
             modelName = callee.firstToken().value();
         }
         
-        Set<String> modelsInEvalMode = evalModelsInContext.getOrDefault(enclosingContext, new HashSet<>());
+        Set<String> modelsInEvalMode = fileState().evalModelsInContext.getOrDefault(enclosingContext, new HashSet<>());
         
         if (modelName != null && modelsInEvalMode.contains(modelName)) {
            
@@ -156,7 +151,7 @@ public class DisableGradientForModelEval extends PythonSubscriptionCheck {
     }
     
     private boolean isInNoGradContext(Tree tree, Tree enclosingContext) {
-        Set<Tree> noGradScopes = noGradScopesInContext.getOrDefault(enclosingContext, new HashSet<>());
+        Set<Tree> noGradScopes = fileState().noGradScopesInContext.getOrDefault(enclosingContext, new HashSet<>());
         
         Tree current = tree;
         while (current != null && current != enclosingContext) {
@@ -167,4 +162,13 @@ public class DisableGradientForModelEval extends PythonSubscriptionCheck {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Models in evaluation mode and {@code torch.no_grad()} scopes of each function of the file, {@code null} being
+     * the module level.
+     */
+    static final class Contexts {
+        private final Map<Tree, Set<String>> evalModelsInContext = new HashMap<>();
+        private final Map<Tree, Set<Tree>> noGradScopesInContext = new HashMap<>();
+    }
+}
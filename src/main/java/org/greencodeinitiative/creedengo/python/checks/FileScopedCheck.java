@@ -0,0 +1,61 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.checks;
+
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.Tree;
+
+/**
+ * Base class of the checks keeping state while a file is analysed (reported lines, tracked variables, ...).
+ * <p>
+ * The state of a file is created by {@link #newFileState(SubscriptionContext)} before any other consumer of the check
+ * is called for the file, and is replaced by the state of the next file analysed on the same thread: a check
+ * therefore never retains more than one file worth of data per thread, nor any tree of a previous file. The state is
+ * kept per thread, so that a single instance of the check can analyse several files concurrently, each file being
+ * analysed by one thread.
+ * </p>
+ *
+ * @param <S> type of the state of a file
+ */
+public abstract class FileScopedCheck<S> extends CreedengoSubscriptionCheck {
+
+    private final ThreadLocal<S> fileState = new ThreadLocal<>();
+
+    @Override
+    protected final void register(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> fileState.set(newFileState(ctx)));
+        registerConsumers(context);
+    }
+
+    /**
+     * Registers the syntax node consumers of this check, which may use the state of the current file.
+     */
+    protected abstract void registerConsumers(Context context);
+
+    /**
+     * Creates the state of a file when its analysis starts, with the {@code FileInput} node as syntax node.
+     */
+    protected abstract S newFileState(SubscriptionContext ctx);
+
+    /**
+     * Returns the state of the file analysed by the current thread.
+     */
+    protected final S fileState() {
+        return fileState.get();
+    }
+}
@@ -18,7 +18,6 @@
 package org.greencodeinitiative.creedengo.python.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.BinaryExpression;
 import org.sonar.plugins.python.api.tree.CallExpression;
@@ -30,12 +29,12 @@ import org.sonar.plugins.python.api.tree.RegularArgument;
 import static org.sonar.plugins.python.api.tree.Tree.Kind.*;
 
 @Rule(key = "GCI97")
-public class OptimizeSquareComputation extends PythonSubscriptionCheck {
+public class OptimizeSquareComputation extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Use x*x instead of x**2 or math.pow(x,2) to calculate the square of a value";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(CALL_EXPR, this::checkMathPowCall);
         context.registerSyntaxNodeConsumer(POWER, this::checkPowerOf2);  
     }
@@ -17,61 +17,39 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
-import java.util.Arrays;
-import java.util.List;
+import org.greencodeinitiative.creedengo.python.signatures.FunctionSignature;
+import org.greencodeinitiative.creedengo.python.signatures.LibrarySignatures;
+import org.greencodeinitiative.creedengo.python.utils.CallArgumentBinder;
+import org.greencodeinitiative.creedengo.python.utils.QualifiedNameMatcher;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
-import org.sonar.plugins.python.api.tree.Argument;
 import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.Tree;
-import org.sonar.plugins.python.api.tree.Expression;
-import org.sonar.plugins.python.api.tree.QualifiedExpression;
-import org.sonar.plugins.python.api.tree.RegularArgument;
-import static org.sonar.plugins.python.api.tree.Tree.Kind.*;
 
 @Rule(key = "GCI96")
-public class PandasRequireUsecolsArgument extends PythonSubscriptionCheck {
+public class PandasRequireUsecolsArgument extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Specify 'usecols' or 'columns' when reading a DataFrame using Pandas to load only necessary columns";
-    private static final List<String> READ_METHODS = Arrays.asList(
-            "read_csv", "read_parquet", "read_excel", "read_feather", "read_json"
-    );
-    
+
+    private static final String PANDAS_READ_PREFIX = "pandas.read_";
+
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::visitCallExpression);
     }
-    
+
     public void visitCallExpression(SubscriptionContext ctx) {
         CallExpression callExpression = (CallExpression) ctx.syntaxNode();
-        Expression callee = callExpression.callee();
-        
-        if (callee.is(Tree.Kind.QUALIFIED_EXPR)) {
-            QualifiedExpression qualifiedExpression = (QualifiedExpression) callee;
-            String methodName = qualifiedExpression.name().name();
-            
-            if (READ_METHODS.contains(methodName)) {
-                
-                if (!hasColumnsSpecified(callExpression)) {
-                    ctx.addIssue(callExpression.firstToken(), DESCRIPTION);
-                }
-            }
+        // the readers of pandas are the functions of the library signatures named pandas.read_*
+        FunctionSignature signature = LibrarySignatures.bundled().function(QualifiedNameMatcher.calleeName(callExpression));
+        if (signature != null && signature.name().startsWith(PANDAS_READ_PREFIX)
+                && !hasColumnsSpecified(signature.binder().bind(callExpression))) {
+            ctx.addIssue(callExpression.firstToken(), DESCRIPTION);
         }
     }
-    
-    private boolean hasColumnsSpecified(CallExpression callExpression) {
-        List<Argument> arguments = callExpression.arguments();
 
-        for (Argument arg : arguments) {
-            if (arg.is(REGULAR_ARGUMENT)) {
-                RegularArgument regularArg = (RegularArgument) arg;                
-                String paramName = regularArg.keywordArgument() != null ? regularArg.keywordArgument().name() : null;
-                if (paramName != null && (paramName.equals("usecols") || paramName.equals("columns"))) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    private boolean hasColumnsSpecified(CallArgumentBinder.Bindings arguments) {
+        // columns passed through unpacked arguments are not reported
+        return !arguments.isMissing("usecols") || !arguments.isMissing("columns");
     }
 }
\ No newline at end of file
@@ -17,8 +17,8 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.Expression;
@@ -31,12 +31,12 @@ import java.util.List;
 import static org.sonar.plugins.python.api.tree.Tree.Kind.*;
 
 @Rule(key = "GCI108")
-public class PreferAppendLeft extends PythonSubscriptionCheck {
+public class PreferAppendLeft extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Use appendleft with deque instead of .insert(0, val) for modification at the beginning of a list";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         context.registerSyntaxNodeConsumer(CALL_EXPR, this::visitCallExpression);
     }
 
@@ -49,7 +49,7 @@ public class PreferAppendLeft extends PythonSubscriptionCheck {
                 if (arguments.size() >= 2 && arguments.get(0) instanceof RegularArgument) {
                     Expression firstArg = ((RegularArgument) arguments.get(0)).expression();
                     if (firstArg.is(NUMERIC_LITERAL) && isZeroLiteral(firstArg)) {
-                        context.addIssue(callExpression, DESCRIPTION);
+                        LoopWeight.of(context, callExpression).weigh(context.addIssue(callExpression, DESCRIPTION));
                     }
                 }
             }
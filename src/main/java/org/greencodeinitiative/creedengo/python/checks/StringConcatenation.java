@@ -17,78 +17,69 @@
  */
 package org.greencodeinitiative.creedengo.python.checks;
 
+import org.greencodeinitiative.creedengo.python.utils.LoopContextIndex;
+import org.greencodeinitiative.creedengo.python.utils.LoopWeight;
+import org.greencodeinitiative.creedengo.python.utils.StringConcatenationFlow;
 import org.sonar.check.Rule;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
-import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.tree.CompoundAssignmentStatement;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Tree;
-import org.sonar.plugins.python.api.tree.Expression;
-import org.sonar.plugins.python.api.tree.AssignmentStatement;
 
-import java.util.ArrayList;
-import java.util.List;
+import javax.annotation.CheckForNull;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
+/**
+ * Reports {@code text += ...} in loops when {@code text} definitely holds a {@code str} or a {@code bytes}, each
+ * iteration copying the whole string built so far. The top level of the module and every function are analysed on
+ * their own control flow graph, see {@link StringConcatenationFlow}.
+ */
 @Rule(key = "GCI105")
-public class StringConcatenation extends PythonSubscriptionCheck {
-
-    private final List<String> stringVariables = new ArrayList<>();
+public class StringConcatenation extends CreedengoSubscriptionCheck {
 
     public static final String DESCRIPTION = "Concatenation of strings should be done using f-strings or str.join()";
 
     @Override
-    public void initialize(Context context) {
-        context.registerSyntaxNodeConsumer(Tree.Kind.ASSIGNMENT_STMT, this::trackVariableAssignments);
-        context.registerSyntaxNodeConsumer(Tree.Kind.COMPOUND_ASSIGNMENT, this::checkAssignment);
+    protected void register(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, this::checkFile);
     }
 
-    private void checkAssignment(SubscriptionContext context) {
-        CompoundAssignmentStatement compoundAssignment = (CompoundAssignmentStatement) context.syntaxNode();
-        if ("+=".equals(compoundAssignment.compoundAssignmentToken().value())) {
-            Expression lhsExpression = compoundAssignment.lhsExpression();
-            if (lhsExpression.is(Tree.Kind.NAME)) {
-                String variableName = ((Name) lhsExpression).name();
-                if (stringVariables.contains(variableName)) {
-                    context.addIssue(lhsExpression.firstToken(), DESCRIPTION);
-                }
-            }
-        }
-    }
+    private void checkFile(SubscriptionContext context) {
+        FileInput fileInput = (FileInput) context.syntaxNode();
+        checkScope(context, ControlFlowGraph.build(fileInput, context.pythonFile()));
 
-    private void trackVariableAssignments(SubscriptionContext context) {
-        AssignmentStatement assignment = (AssignmentStatement) context.syntaxNode();
-        if (assignment.lhsExpressions().size() == 1) {
-            Expression lhs = assignment.lhsExpressions().get(0).expressions().get(0);
-            if (lhs.is(Tree.Kind.NAME)) {
-                String variableName = ((Name) lhs).name();
-                Expression assignedValue = assignment.assignedValue();
-                if (isStringAssignment(assignedValue)) {
-                    if (!stringVariables.contains(variableName)) {
-                        stringVariables.add(variableName);
-                    }
-                } else {
-                    stringVariables.remove(variableName);
+        // iterative: generated code may nest functions deeper than the call stack allows
+        Deque<Tree> nodes = new ArrayDeque<>();
+        nodes.push(fileInput);
+        while (!nodes.isEmpty()) {
+            Tree node = nodes.pop();
+            if (node.is(Tree.Kind.FUNCDEF)) {
+                checkScope(context, ControlFlowGraph.build((FunctionDef) node, context.pythonFile()));
+            }
+            for (Tree child : node.children()) {
+                if (child != null) {
+                    nodes.push(child);
                 }
             }
         }
     }
 
-    private boolean isStringAssignment(Expression assignedValue) {
-        return assignedValue.is(Tree.Kind.STRING_ELEMENT) ||
-                assignedValue.is(Tree.Kind.STRING_LITERAL) ||
-                containsStringElement(assignedValue);
-    }
-
-    private boolean containsStringElement(Tree node) {
-        if (node.is(Tree.Kind.STRING_ELEMENT) || node.is(Tree.Kind.STRING_LITERAL)) {
-            return true;
+    private static void checkScope(SubscriptionContext context, @CheckForNull ControlFlowGraph cfg) {
+        if (cfg == null) {
+            // the graph of code with constructs the analyzer does not support is not built
+            return;
         }
-        for (Tree child : node.children()) {
-            if (containsStringElement(child)) {
-                return true;
+        LoopContextIndex loops = LoopContextIndex.of(context);
+        for (CompoundAssignmentStatement concatenation : StringConcatenationFlow.concatenations(cfg)) {
+            // a function defined in a loop does not run at every iteration of the loop
+            Tree loop = loops.enclosingLoop(concatenation);
+            if (loop != null && loops.enclosingFunction(loop) == loops.enclosingFunction(concatenation)) {
+                Tree target = concatenation.lhsExpression();
+                LoopWeight.of(loops, target).weigh(context.addIssue(target.firstToken(), DESCRIPTION));
             }
         }
-        return false;
     }
-
 }
@@ -19,12 +19,11 @@ package org.greencodeinitiative.creedengo.python.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.ProjectPythonVersion;
-import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.*;
 
 @Rule(key = "GCI112")
-public class UsingSlotsOnDataClasses extends PythonSubscriptionCheck {
+public class UsingSlotsOnDataClasses extends CreedengoSubscriptionCheck {
 
     private static final String DECORATOR_DATA_CLASS = "dataclass";
     private static final String SLOTS_ARG = "slots";
@@ -32,7 +31,7 @@ public class UsingSlotsOnDataClasses extends PythonSubscriptionCheck {
     public static final String DESCRIPTION = "From python >= 3.10, reduce memory footprint by using @dataclass(slots=True)";
 
     @Override
-    public void initialize(Context context) {
+    protected void register(Context context) {
         if(ProjectPythonVersion.currentVersions().stream().anyMatch(version -> version.compare(3, 10) >= 0)) {
             context.registerSyntaxNodeConsumer(Tree.Kind.DECORATOR, this::isUsingSlots);
         }
@@ -0,0 +1,259 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.cli;
+
+import com.sonar.sslr.api.RecognitionException;
+import org.greencodeinitiative.creedengo.python.PythonRuleRepository;
+import org.greencodeinitiative.creedengo.python.caching.FileSummaries;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.tree.PythonTreeMaker;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the creedengo checks on the Python files of a directory, without SonarQube, for instance from a pre-commit
+ * hook.
+ * <pre>
+ * creedengo-python [--jobs &lt;n&gt;] [--changed[=&lt;revision&gt;]] [&lt;directory&gt;]
+ * </pre>
+ * <p>
+ * Files are parsed with the parser of the Python analyzer and every check of {@link PythonRuleRepository#checkClasses()}
+ * is run on them, with the default values of their parameters. Files are analysed in parallel on a work-stealing
+ * pool, sharing a single instance of every check, and the issues of every file are written to the
+ * standard output as soon as the file is analysed, one JSON object per line (see {@link IssueWriter}). With
+ * {@code --changed}, only the files added or modified since the given git revision ({@code HEAD} by default) and the
+ * untracked files are analysed.
+ * </p>
+ * <p>
+ * The exit code is {@value #EXIT_NO_ISSUE} when no issue is found, {@value #EXIT_ISSUES} when some are, and
+ * {@value #EXIT_ERROR} when the arguments are invalid or the analysis failed. Files which cannot be parsed are
+ * reported on the standard error and skipped. Queries executed in loops through functions of other files
+ * (GCI72) are only reported by SonarQube, which analyses the whole project.
+ * </p>
+ */
+public final class CreedengoRunner {
+
+    static final int EXIT_NO_ISSUE = 0;
+    static final int EXIT_ISSUES = 1;
+    static final int EXIT_ERROR = 2;
+
+    static final String USAGE = "usage: creedengo-python [--jobs <n>] [--changed[=<revision>]] [<directory>]";
+
+    private final Options options;
+    private final IssueWriter issueWriter;
+    private final PrintStream err;
+    private final ThreadLocal<PythonParser> parser = ThreadLocal.withInitial(PythonParser::create);
+    private final List<PythonSubscriptionCheck> checks = newChecks();
+    private final AtomicInteger issueCount = new AtomicInteger();
+    private final AtomicInteger failureCount = new AtomicInteger();
+
+    private CreedengoRunner(Options options, IssueWriter issueWriter, PrintStream err) {
+        this.options = options;
+        this.issueWriter = issueWriter;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_ERROR;
+        }
+        try {
+            List<Path> files = options.changedSince() == null
+                    ? SourceFiles.walk(options.directory())
+                    : SourceFiles.changedSince(options.directory(), options.changedSince());
+            CreedengoRunner runner = new CreedengoRunner(options, new IssueWriter(out, options.directory()), err);
+            return runner.analyze(files);
+        } catch (IOException | UncheckedIOException e) {
+            err.println("Analysis failed: " + e.getMessage());
+            return EXIT_ERROR;
+        }
+    }
+
+    private int analyze(List<Path> files) {
+        // the project-wide rules are not run, their summaries of the files would be computed and kept for nothing
+        FileSummaries.start(false);
+        ForkJoinPool pool = new ForkJoinPool(options.jobs());
+        try {
+            pool.invoke(new AnalyzeFiles(files, 0, files.size()));
+        } finally {
+            pool.shutdown();
+            FileSummaries.reset();
+        }
+        if (failureCount.get() > 0) {
+            return EXIT_ERROR;
+        }
+        return issueCount.get() > 0 ? EXIT_ISSUES : EXIT_NO_ISSUE;
+    }
+
+    private void analyze(Path file) {
+        PythonVisitorContext context;
+        try {
+            context = parse(file);
+        } catch (IOException e) {
+            err.println(file + ": cannot be read: " + e.getMessage());
+            failureCount.incrementAndGet();
+            return;
+        } catch (RecognitionException e) {
+            err.println(file + ": cannot be parsed: " + e.getMessage());
+            return;
+        }
+        try {
+            SubscriptionVisitor.analyze(checks, context);
+        } catch (RuntimeException e) {
+            err.println(file + ": analysis failed: " + e);
+            failureCount.incrementAndGet();
+            return;
+        }
+        List<PreciseIssue> issues = context.getIssues();
+        issueCount.addAndGet(issues.size());
+        issueWriter.write(file, issues);
+    }
+
+    private PythonVisitorContext parse(Path file) throws IOException {
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        FileInput fileInput = new PythonTreeMaker().fileInput(parser.get().parse(content));
+        PythonFile pythonFile = new SourceFile(file, content);
+        return new PythonVisitorContext(fileInput, pythonFile, null, SourceFiles.packageName(options.directory(), file));
+    }
+
+    private static List<PythonSubscriptionCheck> newChecks() {
+        List<PythonSubscriptionCheck> checks = new ArrayList<>();
+        for (Class<?> checkClass : new PythonRuleRepository(null).checkClasses()) {
+            try {
+                checks.add((PythonSubscriptionCheck) checkClass.getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot instantiate " + checkClass, e);
+            }
+        }
+        return checks;
+    }
+
+    /**
+     * Analyses a range of files, splitting it in halves so that idle workers steal the other half.
+     */
+    private final class AnalyzeFiles extends RecursiveTask<Void> {
+
+        private final transient List<Path> files;
+        private final int from;
+        private final int to;
+
+        private AnalyzeFiles(List<Path> files, int from, int to) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Void compute() {
+            if (to - from == 1) {
+                analyze(files.get(from));
+            } else if (to > from) {
+                int middle = (from + to) >>> 1;
+                AnalyzeFiles second = new AnalyzeFiles(files, middle, to);
+                second.fork();
+                new AnalyzeFiles(files, from, middle).compute();
+                second.join();
+            }
+            return null;
+        }
+    }
+
+    private record SourceFile(Path path, String content) implements PythonFile {
+
+        @Override
+        public String fileName() {
+            return path.getFileName().toString();
+        }
+
+        @Override
+        public URI uri() {
+            return path.toUri();
+        }
+
+        @Override
+        public String key() {
+            return path.toString();
+        }
+    }
+
+    record Options(Path directory, int jobs, String changedSince) {
+
+        static Options parse(String[] args) {
+            Path directory = null;
+            int jobs = Runtime.getRuntime().availableProcessors();
+            String changedSince = null;
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if ("--jobs".equals(arg) && i + 1 < args.length) {
+                    jobs = parseJobs(args[++i]);
+                } else if ("--changed".equals(arg)) {
+                    changedSince = "HEAD";
+                } else if (arg.startsWith("--changed=") && arg.length() > "--changed=".length()) {
+                    changedSince = arg.substring("--changed=".length());
+                } else if (arg.startsWith("-") || directory != null) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                } else {
+                    directory = Path.of(arg);
+                }
+            }
+            directory = (directory == null ? Path.of("") : directory).toAbsolutePath().normalize();
+            if (!Files.isDirectory(directory)) {
+                throw new IllegalArgumentException("Not a directory: " + directory);
+            }
+            return new Options(directory, jobs, changedSince);
+        }
+
+        private static int parseJobs(String value) {
+            try {
+                int jobs = Integer.parseInt(value);
+                if (jobs > 0) {
+                    return jobs;
+                }
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+            throw new IllegalArgumentException("Invalid number of jobs: " + value);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.cli;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.sonar.check.Rule;
+import org.sonar.plugins.python.api.IssueLocation;
+import org.sonar.plugins.python.api.PythonCheck;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes issues as JSON lines, one object per issue:
+ * <pre>
+ * {"file":"app/db.py","rule":"GCI72","message":"...","line":12,"column":8,"endLine":12,"endColumn":40,
+ *  "secondaryLocations":[{"line":4,"column":4,"endLine":4,"endColumn":30,"message":"..."}]}
+ * </pre>
+ * Files are relative to the analysed directory, lines start at 1 and columns at 0, as in SonarQube. The lines of a
+ * file are written together, and flushed right away, although files are analysed in parallel.
+ */
+final class IssueWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final PrintStream out;
+    private final Path baseDirectory;
+
+    IssueWriter(PrintStream out, Path baseDirectory) {
+        this.out = out;
+        this.baseDirectory = baseDirectory;
+    }
+
+    void write(Path file, List<PreciseIssue> issues) {
+        if (issues.isEmpty()) {
+            return;
+        }
+        String fileName = baseDirectory.relativize(file).toString().replace('\\', '/');
+        StringWriter lines = new StringWriter();
+        try {
+            for (PreciseIssue issue : issues) {
+                try (JsonGenerator json = JSON_FACTORY.createGenerator(lines)) {
+                    writeIssue(json, fileName, issue);
+                }
+                lines.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (out) {
+            out.print(lines);
+            out.flush();
+        }
+    }
+
+    private static void writeIssue(JsonGenerator json, String fileName, PreciseIssue issue) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("file", fileName);
+        json.writeStringField("rule", ruleKey(issue.check()));
+        IssueLocation primaryLocation = issue.primaryLocation();
+        json.writeStringField("message", primaryLocation.message());
+        writeRange(json, primaryLocation);
+        if (issue.cost() != null) {
+            json.writeNumberField("cost", issue.cost());
+        }
+        if (!issue.secondaryLocations().isEmpty()) {
+            json.writeArrayFieldStart("secondaryLocations");
+            for (IssueLocation secondaryLocation : issue.secondaryLocations()) {
+                json.writeStartObject();
+                writeRange(json, secondaryLocation);
+                if (secondaryLocation.message() != null) {
+                    json.writeStringField("message", secondaryLocation.message());
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeRange(JsonGenerator json, IssueLocation location) throws IOException {
+        json.writeNumberField("line", location.startLine());
+        json.writeNumberField("column", location.startLineOffset());
+        json.writeNumberField("endLine", location.endLine());
+        json.writeNumberField("endColumn", location.endLineOffset());
+    }
+
+    private static String ruleKey(PythonCheck check) {
+        Rule rule = check.getClass().getAnnotation(Rule.class);
+        return rule != null ? rule.key() : check.getClass().getSimpleName();
+    }
+}
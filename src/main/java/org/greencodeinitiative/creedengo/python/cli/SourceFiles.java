@@ -0,0 +1,131 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Python files analysed by the {@link CreedengoRunner}.
+ */
+final class SourceFiles {
+
+    private static final String PYTHON_EXTENSION = ".py";
+    private static final String PACKAGE_MARKER = "__init__.py";
+
+    private SourceFiles() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Returns the Python files of the directory and its subdirectories, except hidden directories (such as
+     * {@code .git} or {@code .venv}) and {@code __pycache__}.
+     */
+    static List<Path> walk(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                    .filter(path -> isPythonFile(path) && Files.isRegularFile(path))
+                    .filter(path -> !isExcluded(directory.relativize(path)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Returns the Python files of the directory added, copied, modified or renamed since the given git revision,
+     * staged or not, and the untracked files which are not ignored.
+     */
+    static List<Path> changedSince(Path directory, String revision) throws IOException {
+        TreeSet<String> names = new TreeSet<>();
+        names.addAll(git(directory, "diff", "--name-only", "--relative", "--diff-filter=d", "-z", revision, "--"));
+        names.addAll(git(directory, "ls-files", "--others", "--exclude-standard", "-z"));
+        List<Path> files = new ArrayList<>();
+        for (String name : names) {
+            Path file = directory.resolve(name).normalize();
+            if (isPythonFile(file) && Files.isRegularFile(file)) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Returns the name of the package of the file, made of the enclosing directories which contain a
+     * {@value #PACKAGE_MARKER}, up to the base directory.
+     */
+    static String packageName(Path baseDirectory, Path file) {
+        StringBuilder packageName = new StringBuilder();
+        Path directory = file.getParent();
+        while (directory != null && directory.startsWith(baseDirectory) && Files.exists(directory.resolve(PACKAGE_MARKER))) {
+            packageName.insert(0, packageName.length() == 0 ? "" : ".").insert(0, directory.getFileName());
+            directory = directory.getParent();
+        }
+        return packageName.toString();
+    }
+
+    private static boolean isPythonFile(Path path) {
+        return path.getFileName() != null && path.getFileName().toString().endsWith(PYTHON_EXTENSION);
+    }
+
+    private static boolean isExcluded(Path relativePath) {
+        for (int i = 0; i < relativePath.getNameCount() - 1; i++) {
+            String name = relativePath.getName(i).toString();
+            if (name.startsWith(".") || "__pycache__".equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> git(Path directory, String... arguments) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(arguments));
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        String output;
+        try (InputStream input = process.getInputStream()) {
+            output = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try {
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException(String.join(" ", command) + " exited with code " + exitCode);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(String.join(" ", command) + " interrupted", e);
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : output.split("\0")) {
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event of the rules run on one file. It spans from the first to the last consumer invoked on
+ * the file, the time actually spent in the consumers being {@link #rulesDuration}.
+ */
+@Name(FileAnalysisEvent.NAME)
+@Label("File Analysis")
+@Description("Consumers of the creedengo rules invoked on one file")
+@Category({"creedengo", "Python"})
+@StackTrace(false)
+final class FileAnalysisEvent extends Event {
+
+    static final String NAME = "org.greencodeinitiative.creedengo.python.FileAnalysis";
+
+    @Label("File")
+    String file;
+
+    @Label("Rule Calls")
+    long calls;
+
+    @Label("Rules Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long rulesDuration;
+}
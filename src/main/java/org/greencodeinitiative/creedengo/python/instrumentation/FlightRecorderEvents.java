@@ -0,0 +1,120 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.instrumentation;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import org.sonar.plugins.python.api.PythonFile;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits the {@link RuleExecutionEvent} and {@link FileAnalysisEvent} Java Flight Recorder events.
+ * <p>
+ * A file event can only be committed once the consumers of the next file start on the same thread, or when
+ * {@link #flush()} is called at the end of the analysis: the file events still open are kept until then.
+ * </p>
+ */
+final class FlightRecorderEvents {
+
+    private static final ThreadLocal<FileSpan> CURRENT_FILE = new ThreadLocal<>();
+    private static final Set<FileSpan> OPEN_FILES = ConcurrentHashMap.newKeySet();
+
+    private FlightRecorderEvents() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Tells whether a running recording collects rule events. Flight Recorder is not initialized by this call when
+     * no recording was ever started.
+     */
+    static boolean isRecording() {
+        return FlightRecorder.isInitialized() && EventTypes.RULE_EXECUTION.isEnabled();
+    }
+
+    static RuleExecutionEvent begin() {
+        RuleExecutionEvent event = new RuleExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    static void end(RuleExecutionEvent event, String ruleKey, String treeKind, PythonFile pythonFile, String fileKey, long nanos) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.ruleKey = ruleKey;
+            event.treeKind = treeKind;
+            event.file = fileKey;
+            event.commit();
+        }
+        FileAnalysisEvent fileEvent = fileEvent(pythonFile, fileKey);
+        fileEvent.calls++;
+        fileEvent.rulesDuration += nanos;
+        fileEvent.end();
+    }
+
+    /**
+     * Commits the file events still open, once the analysis is over.
+     */
+    static void flush() {
+        OPEN_FILES.forEach(FlightRecorderEvents::commit);
+    }
+
+    private static FileAnalysisEvent fileEvent(PythonFile pythonFile, String fileKey) {
+        FileSpan span = CURRENT_FILE.get();
+        if (span != null && span.pythonFile == pythonFile && OPEN_FILES.contains(span)) {
+            return span.event;
+        }
+        if (span != null) {
+            commit(span);
+        }
+        FileAnalysisEvent event = new FileAnalysisEvent();
+        event.begin();
+        event.file = fileKey;
+        span = new FileSpan(pythonFile, event);
+        CURRENT_FILE.set(span);
+        OPEN_FILES.add(span);
+        return event;
+    }
+
+    private static void commit(FileSpan span) {
+        // removal is atomic: a span is committed once, even when flushed from another thread
+        if (OPEN_FILES.remove(span) && span.event.shouldCommit()) {
+            span.event.commit();
+        }
+    }
+
+    private static final class FileSpan {
+
+        private final PythonFile pythonFile;
+        private final FileAnalysisEvent event;
+
+        private FileSpan(PythonFile pythonFile, FileAnalysisEvent event) {
+            this.pythonFile = pythonFile;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Loaded once a recording exists only, as registering event types initializes Flight Recorder.
+     */
+    private static final class EventTypes {
+
+        private static final EventType RULE_EXECUTION = EventType.getEventType(RuleExecutionEvent.class);
+    }
+}
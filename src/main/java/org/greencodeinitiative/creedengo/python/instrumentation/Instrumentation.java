@@ -0,0 +1,154 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.instrumentation;
+
+import org.sonar.check.Rule;
+import org.sonar.plugins.python.api.PythonCheck;
+import org.sonar.plugins.python.api.SubscriptionCheck;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Opt-in measurement of the cost of every rule, switched on by the {@value #ENABLED_PROPERTY} scanner property
+ * (or the JVM system property of the same name).
+ * <p>
+ * When enabled, each consumer registered by a check is timed with {@link System#nanoTime()} and the bytes it
+ * allocates are read from {@link com.sun.management.ThreadMXBean} when the JVM supports it. Costs are cumulated per
+ * rule and per file, and reported at the end of the analysis by {@link InstrumentationReport}.
+ * </p>
+ * <p>
+ * Independently of this property, consumers emit Java Flight Recorder events ({@link RuleExecutionEvent},
+ * {@link FileAnalysisEvent}) while a recording collecting them is running. Checks are initialized for every file:
+ * when neither is active, the analyzer context is handed over as is and nothing is measured.
+ * </p>
+ */
+public final class Instrumentation {
+
+    public static final String ENABLED_PROPERTY = "creedengo.python.instrumentation";
+    public static final String TOP_PROPERTY = "creedengo.python.instrumentation.top";
+    public static final int DEFAULT_TOP = 10;
+
+    private static final ConcurrentMap<String, Metrics> RULES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Metrics> FILES = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private Instrumentation() {
+        // Utility class - prevent instantiation
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static void reset() {
+        RULES.clear();
+        FILES.clear();
+    }
+
+    /**
+     * Returns the context to hand over to the given check: the given one when instrumentation is disabled and no
+     * Flight Recorder recording is running, a recording one otherwise.
+     */
+    public static SubscriptionCheck.Context instrument(PythonCheck check, SubscriptionCheck.Context context) {
+        boolean recording = FlightRecorderEvents.isRecording();
+        if (!enabled && !recording) {
+            return context;
+        }
+        return new InstrumentedContext(ruleKey(check), context, enabled, recording);
+    }
+
+    public static List<Metrics> rules() {
+        return sortedByTime(RULES.values());
+    }
+
+    public static List<Metrics> files() {
+        return sortedByTime(FILES.values());
+    }
+
+    /**
+     * Human-readable report of the {@code top} most expensive rules and files.
+     */
+    public static String report(int top) {
+        StringBuilder report = new StringBuilder("creedengo rules instrumentation");
+        appendSection(report, "rules", rules(), top);
+        appendSection(report, "files", files(), top);
+        return report.toString();
+    }
+
+    static void record(String ruleKey, String fileKey, long nanos, long allocatedBytes) {
+        RULES.computeIfAbsent(ruleKey, Metrics::new).record(nanos, allocatedBytes);
+        FILES.computeIfAbsent(fileKey, Metrics::new).record(nanos, allocatedBytes);
+    }
+
+    static long currentThreadAllocatedBytes() {
+        return AllocationBean.INSTANCE != null ? AllocationBean.INSTANCE.getCurrentThreadAllocatedBytes() : 0L;
+    }
+
+    private static String ruleKey(PythonCheck check) {
+        Rule rule = check.getClass().getAnnotation(Rule.class);
+        return rule != null ? rule.key() : check.getClass().getSimpleName();
+    }
+
+    private static List<Metrics> sortedByTime(Collection<Metrics> metrics) {
+        return metrics.stream()
+                .sorted(Comparator.comparingLong(Metrics::nanos).reversed().thenComparing(Metrics::key))
+                .toList();
+    }
+
+    private static void appendSection(StringBuilder report, String title, List<Metrics> metrics, int top) {
+        report.append(String.format(Locale.ROOT, "%nTop %d %s by execution time (out of %d):", Math.min(top, metrics.size()), title, metrics.size()));
+        metrics.stream().limit(top).forEach(m -> report.append(String.format(Locale.ROOT,
+                "%n  %10.3f ms  %12d calls  %12d bytes allocated  %s",
+                m.nanos() / 1_000_000d, m.calls(), m.allocatedBytes(), m.key())));
+    }
+
+    /**
+     * Loaded on first measurement only, so that thread allocation accounting is not switched on when disabled.
+     */
+    private static final class AllocationBean {
+
+        private static final com.sun.management.ThreadMXBean INSTANCE = allocationBean();
+
+        private static com.sun.management.ThreadMXBean allocationBean() {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (threadMXBean instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+                if (!bean.isThreadAllocatedMemoryEnabled()) {
+                    bean.setThreadAllocatedMemoryEnabled(true);
+                }
+                return bean;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.instrumentation;
+
+import org.sonar.api.batch.postjob.PostJob;
+import org.sonar.api.batch.postjob.PostJobContext;
+import org.sonar.api.batch.postjob.PostJobDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the most expensive rules and files once the analysis is over, when {@link Instrumentation} is enabled.
+ * The size of the report is set by the {@value Instrumentation#TOP_PROPERTY} property.
+ * <p>
+ * The Flight Recorder events of the last files analysed are committed at that time as well.
+ * </p>
+ */
+public class InstrumentationReport implements PostJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentationReport.class);
+
+    @Override
+    public void describe(PostJobDescriptor descriptor) {
+        descriptor.name("creedengo Python rules instrumentation report");
+    }
+
+    @Override
+    public void execute(PostJobContext context) {
+        FlightRecorderEvents.flush();
+        if (!Instrumentation.isEnabled()) {
+            return;
+        }
+        int top = context.config().getInt(Instrumentation.TOP_PROPERTY).orElse(Instrumentation.DEFAULT_TOP);
+        LOGGER.info(Instrumentation.report(top));
+        Instrumentation.disable();
+        Instrumentation.reset();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.instrumentation;
+
+import org.sonar.api.batch.Phase;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.api.scanner.sensor.ProjectSensor;
+
+/**
+ * Switches {@link Instrumentation} on when the {@value Instrumentation#ENABLED_PROPERTY} property is set, before the
+ * Python sensor runs the checks.
+ */
+@Phase(name = Phase.Name.PRE)
+public class InstrumentationSensor implements ProjectSensor {
+
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+        descriptor
+                .name("creedengo Python rules instrumentation")
+                .onlyWhenConfiguration(configuration -> configuration.getBoolean(Instrumentation.ENABLED_PROPERTY).orElse(false));
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+        Instrumentation.reset();
+        Instrumentation.enable();
+    }
+}
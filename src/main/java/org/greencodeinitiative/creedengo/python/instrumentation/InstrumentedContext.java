@@ -0,0 +1,73 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.instrumentation;
+
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.SubscriptionCheck;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.util.function.Consumer;
+
+/**
+ * Context handed over to a check when instrumentation is enabled or a Flight Recorder recording is running: every
+ * registered consumer is wrapped so that its cost is recorded against the rule and the file being analysed, and
+ * reported as {@link RuleExecutionEvent} and {@link FileAnalysisEvent} events.
+ */
+final class InstrumentedContext implements SubscriptionCheck.Context {
+
+    private final String ruleKey;
+    private final SubscriptionCheck.Context delegate;
+    private final boolean metrics;
+    private final boolean events;
+
+    InstrumentedContext(String ruleKey, SubscriptionCheck.Context delegate, boolean metrics, boolean events) {
+        this.ruleKey = ruleKey;
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.events = events;
+    }
+
+    @Override
+    public void registerSyntaxNodeConsumer(Tree.Kind elementType, Consumer<SubscriptionContext> consumer) {
+        String treeKind = elementType.name();
+        delegate.registerSyntaxNodeConsumer(elementType, ctx -> {
+            long allocatedBefore = metrics ? Instrumentation.currentThreadAllocatedBytes() : 0L;
+            RuleExecutionEvent event = events ? FlightRecorderEvents.begin() : null;
+            long start = System.nanoTime();
+            try {
+                consumer.accept(ctx);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                PythonFile pythonFile = ctx.pythonFile();
+                String fileKey = fileKey(pythonFile);
+                if (event != null) {
+                    FlightRecorderEvents.end(event, ruleKey, treeKind, pythonFile, fileKey, elapsed);
+                }
+                if (metrics) {
+                    long allocated = Instrumentation.currentThreadAllocatedBytes() - allocatedBefore;
+                    Instrumentation.record(ruleKey, fileKey, elapsed, allocated);
+                }
+            }
+        });
+    }
+
+    private static String fileKey(PythonFile pythonFile) {
+        return pythonFile.uri() != null ? pythonFile.uri().toString() : pythonFile.fileName();
+    }
+}
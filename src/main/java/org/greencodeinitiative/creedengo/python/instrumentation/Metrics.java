@@ -0,0 +1,60 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.instrumentation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulated cost of the consumers run for one rule or one file. Safe to update from several threads.
+ */
+public final class Metrics {
+
+    private final String key;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    Metrics(String key) {
+        this.key = key;
+    }
+
+    void record(long elapsedNanos, long allocated) {
+        calls.increment();
+        nanos.add(elapsedNanos);
+        allocatedBytes.add(allocated);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long nanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * Bytes allocated by the consumers, or {@code 0} when the JVM cannot measure thread allocations.
+     */
+    public long allocatedBytes() {
+        return allocatedBytes.sum();
+    }
+}
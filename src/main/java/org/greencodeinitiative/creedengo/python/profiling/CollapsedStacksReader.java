@@ -0,0 +1,98 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.profiling;
+
+import javax.annotation.CheckForNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the collapsed stacks recorded by {@code py-spy record --format raw}: one line per distinct stack, its frames
+ * separated by {@code ;} from the outermost, followed by the number of samples, e.g.
+ * {@code <module> (app/main.py:12);handle (app/views.py:40);render (app/views.py:88) 57}.
+ * <p>
+ * Every frame is credited with the samples of the stacks it appears in, so that the share of a line includes the
+ * time spent in the functions it calls. Frames recorded without line number ({@code --nolineno}) are ignored.
+ * </p>
+ */
+final class CollapsedStacksReader {
+
+    private CollapsedStacksReader() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Returns the share of the samples of every frame, by file and line.
+     */
+    static Map<String, Map<Integer, Double>> read(BufferedReader reader) throws IOException {
+        Map<String, Map<Integer, Double>> samples = new HashMap<>();
+        long total = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            int countStart = line.lastIndexOf(' ');
+            if (line.isEmpty() || countStart < 0) {
+                continue;
+            }
+            long count;
+            try {
+                count = Long.parseLong(line.substring(countStart + 1));
+            } catch (NumberFormatException e) {
+                throw new IOException("Not a collapsed stacks file: no sample count in \"" + line + "\"", e);
+            }
+            total += count;
+            // a recursive call is counted once per stack
+            Set<Frame> frames = new HashSet<>();
+            for (String frame : line.substring(0, countStart).split(";")) {
+                Frame parsed = Frame.parse(frame);
+                if (parsed != null && frames.add(parsed)) {
+                    samples.computeIfAbsent(parsed.file, f -> new HashMap<>()).merge(parsed.line, (double) count, Double::sum);
+                }
+            }
+        }
+        double totalSamples = total;
+        if (totalSamples > 0) {
+            samples.values().forEach(lines -> lines.replaceAll((l, count) -> count / totalSamples));
+        }
+        return samples;
+    }
+
+    private record Frame(String file, int line) {
+
+        /**
+         * Parses {@code function (file:line)}, the file name possibly containing spaces, parentheses or colons.
+         */
+        @CheckForNull
+        static Frame parse(String frame) {
+            int open = frame.lastIndexOf(" (");
+            int colon = frame.lastIndexOf(':');
+            if (open < 0 || !frame.endsWith(")") || colon < open) {
+                return null;
+            }
+            try {
+                return new Frame(frame.substring(open + 2, colon), Integer.parseInt(frame.substring(colon + 1, frame.length() - 1)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.profiling;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Share of the CPU time measured in production for every line of the profiled files, read from {@code cProfile}
+ * {@code .pstats} dumps or {@code py-spy} collapsed stacks.
+ * <p>
+ * The lines of a {@code .pstats} file are the first lines of the functions, the ones of collapsed stacks the lines
+ * being executed: both fall within the function they measure. The shares of several profiles are averaged.
+ * </p>
+ * <p>
+ * Profiles are recorded on other machines, with other absolute paths: an analysed file matches the file of each
+ * profile sharing the longest path suffix with it, as long as no other file of that profile shares a suffix as long.
+ * </p>
+ */
+public final class CpuProfile {
+
+    private final List<Profile> profiles;
+
+    private CpuProfile(List<Profile> profiles) {
+        this.profiles = profiles;
+    }
+
+    public static CpuProfile read(List<Path> files) throws IOException {
+        List<Map<String, Map<Integer, Double>>> profiles = new ArrayList<>();
+        for (Path file : files) {
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+                profiles.add(read(input));
+            } catch (IOException e) {
+                throw new IOException("Unable to read the profile " + file + ": " + e.getMessage(), e);
+            }
+        }
+        return of(profiles);
+    }
+
+    static Map<String, Map<Integer, Double>> read(InputStream input) throws IOException {
+        InputStream buffered = input.markSupported() ? input : new BufferedInputStream(input);
+        buffered.mark(1);
+        int firstByte = buffered.read();
+        buffered.reset();
+        if (PstatsReader.isPstats(firstByte)) {
+            return PstatsReader.read(buffered);
+        }
+        return CollapsedStacksReader.read(new BufferedReader(new InputStreamReader(buffered, StandardCharsets.UTF_8)));
+    }
+
+    static CpuProfile of(List<Map<String, Map<Integer, Double>>> profiles) {
+        return new CpuProfile(profiles.stream().map(Profile::new).toList());
+    }
+
+    /**
+     * Returns the share of the CPU time of the profiled lines of the given file, empty when it was not profiled.
+     */
+    public Map<Integer, Double> sharesOf(String path) {
+        String normalized = normalize(path);
+        Map<Integer, Double> shares = new HashMap<>();
+        for (Profile profile : profiles) {
+            profile.sharesOf(normalized).forEach((line, share) -> shares.merge(line, share / profiles.size(), Double::sum));
+        }
+        return shares;
+    }
+
+    private static String normalize(String path) {
+        return path.replace('\\', '/');
+    }
+
+    private static String fileName(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * The files of one profile, recorded on one machine.
+     */
+    private static final class Profile {
+
+        private final Map<String, List<String>> pathsByFileName = new HashMap<>();
+        private final Map<String, Map<Integer, Double>> sharesByPath = new HashMap<>();
+
+        Profile(Map<String, Map<Integer, Double>> shares) {
+            shares.forEach((path, lines) -> {
+                String normalized = normalize(path);
+                sharesByPath.put(normalized, lines);
+                pathsByFileName.computeIfAbsent(fileName(normalized), n -> new ArrayList<>()).add(normalized);
+            });
+        }
+
+        Map<Integer, Double> sharesOf(String path) {
+            String best = null;
+            int bestSuffix = 0;
+            boolean ambiguous = false;
+            for (String candidate : pathsByFileName.getOrDefault(fileName(path), List.of())) {
+                int suffix = commonSuffixSegments(path, candidate);
+                if (suffix > bestSuffix) {
+                    best = candidate;
+                    bestSuffix = suffix;
+                    ambiguous = false;
+                } else if (suffix == bestSuffix) {
+                    ambiguous = true;
+                }
+            }
+            return best == null || ambiguous ? Map.of() : sharesByPath.get(best);
+        }
+
+        private static int commonSuffixSegments(String path, String other) {
+            String[] segments = path.split("/");
+            String[] otherSegments = other.split("/");
+            int common = 0;
+            while (common < segments.length && common < otherSegments.length
+                    && segments[segments.length - 1 - common].equals(otherSegments[otherSegments.length - 1 - common])) {
+                common++;
+            }
+            return common;
+        }
+    }
+}
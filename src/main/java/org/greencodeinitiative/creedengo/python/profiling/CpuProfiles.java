@@ -0,0 +1,68 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.profiling;
+
+import org.sonar.plugins.python.api.SubscriptionCheck;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * Production CPU profiles pointed at by the {@value #PROFILES_PROPERTY} scanner property, loaded by
+ * {@link ProfileSensor} before the Python sensor runs the checks.
+ * <p>
+ * When a profile is loaded, every issue raised within a profiled function gets a secondary location on the name of
+ * the function, with the share of the CPU time measured in it: the findings in the code which actually burns energy
+ * in production stand out. When none is, the analyzer context is handed over as is.
+ * </p>
+ */
+public final class CpuProfiles {
+
+    public static final String PROFILES_PROPERTY = "creedengo.python.profiles";
+
+    private static volatile CpuProfile current;
+
+    private CpuProfiles() {
+        // Utility class - prevent instantiation
+    }
+
+    public static void install(CpuProfile profile) {
+        current = profile;
+    }
+
+    /**
+     * Drops the profile loaded, along with the functions of the files it annotated.
+     */
+    public static void clear() {
+        current = null;
+        ProfiledContext.release();
+    }
+
+    @CheckForNull
+    public static CpuProfile current() {
+        return current;
+    }
+
+    /**
+     * Returns the context to hand over to a check: the given one when no profile is loaded, one annotating the issues
+     * raised by the check otherwise.
+     */
+    public static SubscriptionCheck.Context annotate(SubscriptionCheck.Context context) {
+        CpuProfile profile = current;
+        return profile == null ? context : new ProfiledContext(context, profile);
+    }
+}
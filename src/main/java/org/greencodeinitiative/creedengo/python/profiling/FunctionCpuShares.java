@@ -0,0 +1,110 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.profiling;
+
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Share of the CPU time of the functions of one file: every profiled line is credited to the innermost function
+ * containing it, decorators included as {@code cProfile} reports the line of the first one.
+ */
+final class FunctionCpuShares {
+
+    static final String MESSAGE = "%.1f%% of the profiled CPU time is spent in this function";
+
+    private final List<MeasuredFunction> functions;
+    private final PythonFile pythonFile;
+    private final CpuProfile profile;
+
+    private FunctionCpuShares(List<MeasuredFunction> functions, PythonFile pythonFile, CpuProfile profile) {
+        this.functions = functions;
+        this.pythonFile = pythonFile;
+        this.profile = profile;
+    }
+
+    static FunctionCpuShares of(FileInput fileInput, Map<Integer, Double> lineShares, PythonFile pythonFile, CpuProfile profile) {
+        List<MeasuredFunction> functions = new ArrayList<>();
+        if (!lineShares.isEmpty()) {
+            fileInput.accept(new BaseTreeVisitor() {
+                @Override
+                public void visitFunctionDef(FunctionDef functionDef) {
+                    functions.add(new MeasuredFunction(functionDef, functionDef.firstToken().line(), functionDef.lastToken().line()));
+                    super.visitFunctionDef(functionDef);
+                }
+            });
+            lineShares.forEach((line, share) -> {
+                MeasuredFunction function = innermost(functions, line);
+                if (function != null) {
+                    function.share += share;
+                }
+            });
+            functions.removeIf(function -> function.share <= 0);
+        }
+        return new FunctionCpuShares(functions, pythonFile, profile);
+    }
+
+    boolean isFor(PythonFile file, CpuProfile cpuProfile) {
+        return pythonFile == file && profile == cpuProfile;
+    }
+
+    /**
+     * Adds a secondary location on the name of the profiled function enclosing the issue, if any.
+     */
+    void annotate(PreciseIssue issue) {
+        MeasuredFunction function = innermost(functions, issue.primaryLocation().startLine());
+        if (function != null) {
+            issue.secondary(function.functionDef.name(), String.format(Locale.ROOT, MESSAGE, function.share * 100));
+        }
+    }
+
+    @CheckForNull
+    private static MeasuredFunction innermost(List<MeasuredFunction> functions, int line) {
+        MeasuredFunction innermost = null;
+        for (MeasuredFunction function : functions) {
+            if (function.firstLine <= line && line <= function.lastLine
+                    && (innermost == null || function.firstLine > innermost.firstLine)) {
+                innermost = function;
+            }
+        }
+        return innermost;
+    }
+
+    private static final class MeasuredFunction {
+
+        private final FunctionDef functionDef;
+        private final int firstLine;
+        private final int lastLine;
+        private double share;
+
+        MeasuredFunction(FunctionDef functionDef, int firstLine, int lastLine) {
+            this.functionDef = functionDef;
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.profiling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.Phase;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.api.scanner.sensor.ProjectSensor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Loads the CPU profiles listed by the {@value CpuProfiles#PROFILES_PROPERTY} property, paths relative to the base
+ * directory of the project, before the Python sensor runs the checks. Profiles which cannot be read are reported
+ * and the analysis goes on without them.
+ * <p>
+ * The sensor runs on every analysis, so that the profiles of a previous analysis in the same JVM, and the files
+ * they annotated, are released even when the property is no longer set.
+ * </p>
+ */
+@Phase(name = Phase.Name.PRE)
+public class ProfileSensor implements ProjectSensor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProfileSensor.class);
+
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+        descriptor.name("creedengo Python CPU profiles");
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+        CpuProfiles.clear();
+        if (!context.config().hasKey(CpuProfiles.PROFILES_PROPERTY)) {
+            return;
+        }
+        Path baseDir = context.fileSystem().baseDir().toPath();
+        List<Path> files = Arrays.stream(context.config().getStringArray(CpuProfiles.PROFILES_PROPERTY))
+                .filter(path -> !path.isBlank())
+                .map(path -> baseDir.resolve(path.strip()))
+                .toList();
+        try {
+            CpuProfiles.install(CpuProfile.read(files));
+            LOGGER.info("{} CPU profiles loaded", files.size());
+        } catch (IOException e) {
+            LOGGER.warn("CPU profiles ignored: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.profiling;
+
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.SubscriptionCheck;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Context handed over to a check when a CPU profile is loaded: the consumers registered receive a context adding
+ * the share of the CPU time of the enclosing function to every issue they raise.
+ */
+final class ProfiledContext implements SubscriptionCheck.Context {
+
+    /**
+     * Shares of the file each analysis thread is on. Unlike a thread local, the map can be emptied from the thread
+     * clearing the profiles, so that the tree of the last file analysed is not retained.
+     */
+    private static final Map<Thread, FunctionCpuShares> CURRENT_FILES = new ConcurrentHashMap<>();
+
+    private final SubscriptionCheck.Context delegate;
+    private final CpuProfile profile;
+
+    ProfiledContext(SubscriptionCheck.Context delegate, CpuProfile profile) {
+        this.delegate = delegate;
+        this.profile = profile;
+    }
+
+    @Override
+    public void registerSyntaxNodeConsumer(Tree.Kind elementType, Consumer<SubscriptionContext> consumer) {
+        delegate.registerSyntaxNodeConsumer(elementType, ctx -> consumer.accept(annotating(ctx)));
+    }
+
+    /**
+     * The methods of {@link SubscriptionContext} vary between analyzer versions: rather than implementing them all,
+     * a proxy forwards every call and annotates the issues returned.
+     */
+    private SubscriptionContext annotating(SubscriptionContext ctx) {
+        return (SubscriptionContext) Proxy.newProxyInstance(SubscriptionContext.class.getClassLoader(),
+                new Class<?>[]{SubscriptionContext.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(ctx, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof PreciseIssue issue) {
+                        sharesOf(ctx).annotate(issue);
+                    }
+                    return result;
+                });
+    }
+
+    private FunctionCpuShares sharesOf(SubscriptionContext ctx) {
+        PythonFile pythonFile = ctx.pythonFile();
+        Thread thread = Thread.currentThread();
+        FunctionCpuShares shares = CURRENT_FILES.get(thread);
+        if (shares == null || !shares.isFor(pythonFile, profile)) {
+            shares = FunctionCpuShares.of(rootOf(ctx.syntaxNode()), profile.sharesOf(pathOf(pythonFile)), pythonFile, profile);
+            CURRENT_FILES.put(thread, shares);
+        }
+        return shares;
+    }
+
+    static void release() {
+        CURRENT_FILES.clear();
+    }
+
+    private static String pathOf(PythonFile pythonFile) {
+        URI uri = pythonFile.uri();
+        return uri != null && uri.getPath() != null ? uri.getPath() : pythonFile.fileName();
+    }
+
+    private static FileInput rootOf(Tree tree) {
+        Tree root = tree;
+        while (root.parent() != null) {
+            root = root.parent();
+        }
+        return (FileInput) root;
+    }
+}
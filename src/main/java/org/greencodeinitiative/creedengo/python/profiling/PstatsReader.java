@@ -0,0 +1,176 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.profiling;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the {@code .pstats} files dumped by {@code cProfile} ({@code profile.dump_stats(path)}, {@code python -m
+ * cProfile -o path}): a {@code marshal} dump of a dictionary from {@code (file, first line, function)} to
+ * {@code (primitive calls, calls, total time, cumulative time, callers)}.
+ * <p>
+ * The cumulative time of every function is divided by the total time of the profile, the sum of the times spent in
+ * the functions themselves. Only the subset of the marshal format written for such dictionaries is decoded.
+ * </p>
+ */
+final class PstatsReader {
+
+    private static final int FLAG_REF = 0x80;
+
+    private final DataInputStream input;
+    private final List<Object> refs = new ArrayList<>();
+
+    private PstatsReader(InputStream input) {
+        this.input = new DataInputStream(input);
+    }
+
+    /**
+     * Returns {@code true} when the first byte of a file is the one of a marshalled dictionary.
+     */
+    static boolean isPstats(int firstByte) {
+        return (firstByte & ~FLAG_REF) == '{';
+    }
+
+    /**
+     * Returns the share of the CPU time of every function, by file and first line.
+     */
+    static Map<String, Map<Integer, Double>> read(InputStream input) throws IOException {
+        if (!(new PstatsReader(input).readObject() instanceof Map<?, ?> stats)) {
+            throw new IOException("Not a pstats file: the profile is not a dictionary");
+        }
+        Map<String, Map<Integer, Double>> cumulativeTimes = new HashMap<>();
+        double totalTime = 0;
+        for (Map.Entry<?, ?> entry : stats.entrySet()) {
+            if (!(entry.getKey() instanceof List<?> function) || function.size() != 3
+                    || !(function.get(0) instanceof String file) || !(function.get(1) instanceof Long line)
+                    || !(entry.getValue() instanceof List<?> times) || times.size() < 4
+                    || !(times.get(2) instanceof Number time) || !(times.get(3) instanceof Number cumulativeTime)) {
+                throw new IOException("Not a pstats file: unexpected entry " + entry.getKey());
+            }
+            totalTime += time.doubleValue();
+            cumulativeTimes.computeIfAbsent(file, f -> new HashMap<>())
+                    .merge(line.intValue(), cumulativeTime.doubleValue(), Double::sum);
+        }
+        double total = totalTime;
+        if (total > 0) {
+            cumulativeTimes.values().forEach(lines -> lines.replaceAll((line, time) -> time / total));
+        }
+        return cumulativeTimes;
+    }
+
+    private Object readObject() throws IOException {
+        return readObject(input.readUnsignedByte());
+    }
+
+    private Object readObject(int code) throws IOException {
+        if ((code & FLAG_REF) == 0) {
+            return readValue(code);
+        }
+        // the index is reserved before the content of containers is read, as marshal does
+        int index = refs.size();
+        refs.add(null);
+        Object value = readValue(code & ~FLAG_REF);
+        refs.set(index, value);
+        return value;
+    }
+
+    private Object readValue(int type) throws IOException {
+        return switch (type) {
+            case 'N', '0' -> null;
+            case 'F' -> Boolean.FALSE;
+            case 'T' -> Boolean.TRUE;
+            case 'i' -> (long) readInt();
+            case 'l' -> readLong();
+            case 'g' -> Double.longBitsToDouble(Long.reverseBytes(input.readLong()));
+            case 'f' -> Double.parseDouble(readString(input.readUnsignedByte()));
+            case 'u', 't', 'a', 'A', 's' -> readString(readSize());
+            case 'z', 'Z' -> readString(input.readUnsignedByte());
+            case '(', '[', '<', '>' -> readList(readSize());
+            case ')' -> readList(input.readUnsignedByte());
+            case '{' -> readDictionary();
+            case 'r' -> readRef();
+            default -> throw new IOException("Not a pstats file: unsupported marshal type '" + (char) type + "'");
+        };
+    }
+
+    private List<Object> readList(int size) throws IOException {
+        List<Object> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readObject());
+        }
+        return values;
+    }
+
+    private Map<Object, Object> readDictionary() throws IOException {
+        Map<Object, Object> dictionary = new LinkedHashMap<>();
+        while (true) {
+            int code = input.readUnsignedByte();
+            if (code == '0') {
+                return dictionary;
+            }
+            dictionary.put(readObject(code), readObject());
+        }
+    }
+
+    private Object readRef() throws IOException {
+        int index = readInt();
+        if (index < 0 || index >= refs.size()) {
+            throw new IOException("Not a pstats file: invalid reference " + index);
+        }
+        return refs.get(index);
+    }
+
+    /**
+     * Integers beyond 32 bits are written as 15-bit digits, least significant first, their count carrying the sign.
+     */
+    private long readLong() throws IOException {
+        int digits = readInt();
+        long value = 0;
+        for (int i = 0; i < Math.abs(digits); i++) {
+            long digit = Short.toUnsignedLong(Short.reverseBytes(input.readShort()));
+            value |= digit << (15 * i);
+        }
+        return digits < 0 ? -value : value;
+    }
+
+    private String readString(int size) throws IOException {
+        byte[] bytes = new byte[size];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readSize() throws IOException {
+        int size = readInt();
+        if (size < 0) {
+            throw new IOException("Not a pstats file: negative size " + size);
+        }
+        return size;
+    }
+
+    private int readInt() throws IOException {
+        return Integer.reverseBytes(input.readInt());
+    }
+}
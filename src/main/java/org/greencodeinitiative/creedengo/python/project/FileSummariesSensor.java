@@ -0,0 +1,43 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.project;
+
+import org.greencodeinitiative.creedengo.python.caching.FileSummaries;
+import org.sonar.api.batch.Phase;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.api.scanner.sensor.ProjectSensor;
+
+/**
+ * Starts the {@link FileSummaries} of every analysis before the Python sensor runs the checks, so that the summaries
+ * left by a previous analysis in the same JVM are never used. Summaries are only computed when GCI72, which reads
+ * them in {@link SqlCallsInLoopSensor}, is active.
+ */
+@Phase(name = Phase.Name.PRE)
+public class FileSummariesSensor implements ProjectSensor {
+
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+        descriptor.name("creedengo Python file summaries");
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+        FileSummaries.start(context.activeRules().find(SqlCallsInLoopSensor.RULE_KEY) != null);
+    }
+}
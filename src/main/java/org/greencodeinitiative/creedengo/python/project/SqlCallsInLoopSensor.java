@@ -0,0 +1,119 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.project;
+
+import org.greencodeinitiative.creedengo.python.PythonRuleRepository;
+import org.greencodeinitiative.creedengo.python.caching.FileSummaries;
+import org.greencodeinitiative.creedengo.python.caching.FileSummary;
+import org.greencodeinitiative.creedengo.python.caching.FileSummary.CallSite;
+import org.greencodeinitiative.creedengo.python.checks.AvoidSQLRequestInLoop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.Phase;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.api.batch.sensor.issue.NewIssue;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.scanner.sensor.ProjectSensor;
+
+import javax.annotation.CheckForNull;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports GCI72 on the calls made from a loop to a function of the project which executes SQL queries defined in
+ * another file. Calls of the functions executing queries of the same file are reported by
+ * {@link AvoidSQLRequestInLoop} itself.
+ * <p>
+ * It runs after the Python sensor, once the {@link FileSummaries summaries} of all the files are known, analysed or
+ * restored from the cache: the {@link SqlFunctionIndex} is built once for the whole analysis.
+ * </p>
+ */
+@Phase(name = Phase.Name.POST)
+public class SqlCallsInLoopSensor implements ProjectSensor {
+
+    static final RuleKey RULE_KEY = RuleKey.of(PythonRuleRepository.REPOSITORY_KEY, "GCI72");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlCallsInLoopSensor.class);
+
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+        descriptor
+                .name("creedengo Python SQL queries called from loops")
+                .onlyOnLanguage(PythonRuleRepository.LANGUAGE)
+                .createIssuesForRuleRepository(PythonRuleRepository.REPOSITORY_KEY);
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+        if (context.activeRules().find(RULE_KEY) == null) {
+            return;
+        }
+        Map<String, FileSummary> summaries = FileSummaries.all();
+        SqlFunctionIndex index = SqlFunctionIndex.of(summaries.values());
+        LOGGER.debug("{} functions executing SQL queries found in {} files", index.sqlFunctions().size(), summaries.size());
+
+        for (Map.Entry<String, FileSummary> entry : summaries.entrySet()) {
+            List<CallSite> calls = callsOfQueriesOfOtherFiles(entry.getValue(), index);
+            InputFile inputFile = calls.isEmpty() ? null : inputFile(context.fileSystem(), entry.getKey());
+            if (inputFile != null) {
+                calls.forEach(call -> report(context, inputFile, call));
+            }
+        }
+    }
+
+    private static List<CallSite> callsOfQueriesOfOtherFiles(FileSummary summary, SqlFunctionIndex index) {
+        List<CallSite> calls = new ArrayList<>();
+        SqlFunctionIndex fileIndex = null;
+        for (CallSite call : summary.loopCalls()) {
+            if (index.executesSql(call.callee())) {
+                fileIndex = fileIndex != null ? fileIndex : SqlFunctionIndex.of(List.of(summary));
+                // queries reached within the file are reported by the check
+                if (!fileIndex.executesSql(call.callee())) {
+                    calls.add(call);
+                }
+            }
+        }
+        return calls;
+    }
+
+    private static void report(SensorContext context, InputFile inputFile, CallSite call) {
+        // the remediation of GCI72 is linear: an issue without gap would cost one more unit than the same issue
+        // raised by the check
+        NewIssue issue = context.newIssue().forRule(RULE_KEY).gap((double) call.cost());
+        issue.at(issue.newLocation()
+                        .on(inputFile)
+                        .at(inputFile.newRange(call.line(), call.column(), call.endLine(), call.endColumn()))
+                        .message(AvoidSQLRequestInLoop.MESSAGE_RULE))
+                .save();
+    }
+
+    @CheckForNull
+    private static InputFile inputFile(FileSystem fileSystem, String fileKey) {
+        try {
+            return fileSystem.inputFile(fileSystem.predicates().hasURI(URI.create(fileKey)));
+        } catch (IllegalArgumentException e) {
+            // summaries of files without URI are keyed by file name
+            return null;
+        }
+    }
+}
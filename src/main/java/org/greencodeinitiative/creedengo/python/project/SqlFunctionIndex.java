@@ -0,0 +1,85 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.project;
+
+import org.greencodeinitiative.creedengo.python.caching.FileSummary;
+import org.greencodeinitiative.creedengo.python.caching.FileSummary.FunctionSummary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Project-wide set of the functions which execute SQL queries, directly or through the functions they call, whatever
+ * the files defining them.
+ * <p>
+ * The index is built from the {@link FileSummary summaries} of all the files of the project, by a walk of the
+ * reversed call graph from the functions running queries themselves: each function is visited once.
+ * </p>
+ */
+public final class SqlFunctionIndex {
+
+    private final Set<String> sqlFunctions;
+
+    private SqlFunctionIndex(Set<String> sqlFunctions) {
+        this.sqlFunctions = Collections.unmodifiableSet(sqlFunctions);
+    }
+
+    public static SqlFunctionIndex of(Collection<FileSummary> summaries) {
+        Map<String, List<String>> callers = new HashMap<>();
+        Deque<String> pending = new ArrayDeque<>();
+        Set<String> sqlFunctions = new HashSet<>();
+        for (FileSummary summary : summaries) {
+            for (FunctionSummary function : summary.functions().values()) {
+                for (String callee : function.calls()) {
+                    callers.computeIfAbsent(callee, c -> new ArrayList<>()).add(function.name());
+                }
+                if (function.executesSql() && sqlFunctions.add(function.name())) {
+                    pending.push(function.name());
+                }
+            }
+        }
+        while (!pending.isEmpty()) {
+            for (String caller : callers.getOrDefault(pending.pop(), List.of())) {
+                if (sqlFunctions.add(caller)) {
+                    pending.push(caller);
+                }
+            }
+        }
+        return new SqlFunctionIndex(sqlFunctions);
+    }
+
+    /**
+     * Returns {@code true} when the function with the given fully qualified name executes SQL queries, directly or
+     * transitively.
+     */
+    public boolean executesSql(String function) {
+        return sqlFunctions.contains(function);
+    }
+
+    public Set<String> sqlFunctions() {
+        return sqlFunctions;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.signatures;
+
+import org.greencodeinitiative.creedengo.python.utils.CallArgumentBinder;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Parameters of a library function, in each version of the library described by the {@link LibrarySignatures}.
+ * <p>
+ * Parameters are listed in order, possibly partially: the parameters after the last one listed are not described.
+ * The {@link #binder() binder} and the {@link #defaultValue default values} only rely on what every version agrees on.
+ * </p>
+ */
+public final class FunctionSignature {
+
+    private static final String[] NO_DEFAULTS = new String[0];
+
+    private final String name;
+    private final Variant[] variants;
+    private final CallArgumentBinder binder;
+
+    FunctionSignature(String name, List<Variant> variants) {
+        this.name = name;
+        this.variants = variants.toArray(new Variant[0]);
+        this.binder = mergedBinder(this.variants);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Versions of the library described, in the order of the resource.
+     */
+    public Set<String> versions() {
+        Set<String> versions = new LinkedHashSet<>();
+        for (Variant variant : variants) {
+            versions.addAll(Arrays.asList(variant.versions));
+        }
+        return versions;
+    }
+
+    /**
+     * Names of the parameters in the given version of the library, or an empty list when the version is not
+     * described.
+     */
+    public List<String> parameters(String version) {
+        Variant variant = variant(version);
+        return variant == null ? List.of() : List.of(variant.names);
+    }
+
+    /**
+     * Returns {@code true} when the parameter can be passed by position in the given version of the library.
+     */
+    public boolean isPositional(String version, String parameter) {
+        Variant variant = variant(version);
+        if (variant == null) {
+            return false;
+        }
+        int index = variant.indexOf(parameter);
+        return index >= 0 && index < variant.positionalCount;
+    }
+
+    /**
+     * Binds the arguments of the calls of the function: parameters are only bound by position when their position is
+     * the same in every version.
+     */
+    public CallArgumentBinder binder() {
+        return binder;
+    }
+
+    /**
+     * Returns the source code of the default value of the parameter, when the parameter has the same default value
+     * in every version, or {@code null} otherwise.
+     */
+    @CheckForNull
+    public String defaultValue(String parameter) {
+        String defaultValue = null;
+        for (Variant variant : variants) {
+            int index = variant.indexOf(parameter);
+            String value = index >= 0 && index < variant.defaults.length ? variant.defaults[index] : null;
+            if (value == null || (defaultValue != null && !defaultValue.equals(value))) {
+                return null;
+            }
+            defaultValue = value;
+        }
+        return defaultValue;
+    }
+
+    @CheckForNull
+    private Variant variant(String version) {
+        for (Variant variant : variants) {
+            if (Arrays.asList(variant.versions).contains(version)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    private static CallArgumentBinder mergedBinder(Variant[] variants) {
+        List<String> common = new ArrayList<>();
+        int commonCount = Integer.MAX_VALUE;
+        for (Variant variant : variants) {
+            commonCount = Math.min(commonCount, variant.positionalCount);
+        }
+        for (int i = 0; i < commonCount && isSameEverywhere(variants, i); i++) {
+            common.add(variants[0].names[i]);
+        }
+        Map<String, Integer> versionedPositions = new HashMap<>();
+        for (Variant variant : variants) {
+            for (int i = common.size(); i < variant.positionalCount; i++) {
+                versionedPositions.merge(variant.names[i], i, Math::min);
+            }
+        }
+        return CallArgumentBinder.of(common, versionedPositions);
+    }
+
+    private static boolean isSameEverywhere(Variant[] variants, int position) {
+        for (Variant variant : variants) {
+            if (!Objects.equals(variant.names[position], variants[0].names[position])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parameters shared by some versions of the library. Names and default values are interned by the loader, and
+     * {@code defaults} is trimmed after the last parameter with a default value.
+     */
+    static final class Variant {
+
+        private final String[] versions;
+        private final String[] names;
+        private final String[] defaults;
+        private final int positionalCount;
+
+        Variant(String[] versions, String[] names, String[] defaults, int positionalCount) {
+            this.versions = versions;
+            this.names = names;
+            this.defaults = defaults.length == 0 ? NO_DEFAULTS : defaults;
+            this.positionalCount = positionalCount;
+        }
+
+        private int indexOf(String parameter) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(parameter)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
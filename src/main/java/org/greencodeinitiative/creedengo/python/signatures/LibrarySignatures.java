@@ -0,0 +1,243 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.signatures;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.greencodeinitiative.creedengo.python.utils.QualifiedNameMatcher;
+
+import javax.annotation.CheckForNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signatures of the functions of the libraries targeted by the rules (torch, pandas...), for several versions of
+ * these libraries, so that the rules do not hard-code the positions of the parameters they look for.
+ * <p>
+ * The signatures are read from the {@value #RESOURCE} resource the first time they are used, and are then shared.
+ * The resource starts with a {@code formatVersion}: a resource written in another format is rejected. Its
+ * {@code libraries} list functions by fully qualified name, with their aliases, and their parameters for sets of
+ * versions, written as in Python: {@code "name"}, {@code "name=default"} and {@code "*"} before the keyword-only
+ * parameters. Names, versions and default values are interned while reading: the same strings are shared by all the
+ * signatures.
+ * </p>
+ */
+public final class LibrarySignatures {
+
+    static final int FORMAT_VERSION = 1;
+    static final String RESOURCE = "/org/greencodeinitiative/creedengo/python/signatures/library_signatures.json";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final QualifiedNameMatcher<FunctionSignature> functions;
+
+    private LibrarySignatures(QualifiedNameMatcher<FunctionSignature> functions) {
+        this.functions = functions;
+    }
+
+    /**
+     * Returns the signatures bundled with the plugin, reading them on first use.
+     */
+    public static LibrarySignatures bundled() {
+        return Bundled.INSTANCE;
+    }
+
+    /**
+     * Returns the signature of the function with the given fully qualified name, or one of its aliases, or
+     * {@code null} when it is not described.
+     */
+    @CheckForNull
+    public FunctionSignature function(@CheckForNull String fullyQualifiedName) {
+        return functions.match(fullyQualifiedName);
+    }
+
+    /**
+     * Returns the signature of a function the rules rely on.
+     *
+     * @throws IllegalStateException when the function is not described
+     */
+    public FunctionSignature require(String fullyQualifiedName) {
+        FunctionSignature signature = functions.match(fullyQualifiedName);
+        if (signature == null) {
+            throw new IllegalStateException("No signature of " + fullyQualifiedName + " in " + RESOURCE);
+        }
+        return signature;
+    }
+
+    static LibrarySignatures read(InputStream input) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(input)) {
+            return new Reader(parser).read();
+        }
+    }
+
+    private static final class Bundled {
+
+        private static final LibrarySignatures INSTANCE = readResource();
+
+        private static LibrarySignatures readResource() {
+            try (InputStream input = LibrarySignatures.class.getResourceAsStream(RESOURCE)) {
+                if (input == null) {
+                    throw new IllegalStateException(RESOURCE + " not found");
+                }
+                return read(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + RESOURCE, e);
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final JsonParser parser;
+        private final Map<String, String> strings = new HashMap<>();
+        private final QualifiedNameMatcher.Builder<FunctionSignature> functions = QualifiedNameMatcher.builder();
+
+        private Reader(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        private LibrarySignatures read() throws IOException {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            boolean supportedFormat = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("formatVersion".equals(field)) {
+                    if (parser.getIntValue() != FORMAT_VERSION) {
+                        throw new IOException("Unsupported signatures format version " + parser.getText());
+                    }
+                    supportedFormat = true;
+                } else if ("libraries".equals(field)) {
+                    if (!supportedFormat) {
+                        throw new IOException("The signatures format version must come first");
+                    }
+                    readArray(this::readLibrary);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!supportedFormat) {
+                throw new IOException("Missing signatures format version");
+            }
+            return new LibrarySignatures(functions.build());
+        }
+
+        private void readLibrary() throws IOException {
+            readObject(field -> {
+                if ("functions".equals(field)) {
+                    readArray(this::readFunction);
+                } else {
+                    parser.skipChildren();
+                }
+            });
+        }
+
+        private void readFunction() throws IOException {
+            String[] name = new String[1];
+            List<String> aliases = new ArrayList<>();
+            List<FunctionSignature.Variant> variants = new ArrayList<>();
+            readObject(field -> {
+                switch (field) {
+                    case "name" -> name[0] = parser.getText();
+                    case "aliases" -> readArray(() -> aliases.add(parser.getText()));
+                    case "signatures" -> readArray(() -> variants.add(readVariant()));
+                    default -> parser.skipChildren();
+                }
+            });
+            if (name[0] == null || variants.isEmpty()) {
+                throw new IOException("Function without name or signature near " + parser.currentLocation());
+            }
+            FunctionSignature function = new FunctionSignature(name[0], variants);
+            functions.add(name[0], function);
+            aliases.forEach(alias -> functions.add(alias, function));
+        }
+
+        private FunctionSignature.Variant readVariant() throws IOException {
+            List<String> versions = new ArrayList<>();
+            List<String> parameters = new ArrayList<>();
+            readObject(field -> {
+                switch (field) {
+                    case "versions" -> readArray(() -> versions.add(intern(parser.getText())));
+                    case "parameters" -> readArray(() -> parameters.add(parser.getText()));
+                    default -> parser.skipChildren();
+                }
+            });
+            List<String> names = new ArrayList<>();
+            String[] defaults = new String[parameters.size()];
+            int defaultsLength = 0;
+            int positionalCount = -1;
+            for (String parameter : parameters) {
+                if ("*".equals(parameter)) {
+                    positionalCount = names.size();
+                } else if (!"/".equals(parameter)) {
+                    int equals = parameter.indexOf('=');
+                    if (equals >= 0) {
+                        defaults[names.size()] = intern(parameter.substring(equals + 1));
+                        defaultsLength = names.size() + 1;
+                    }
+                    names.add(intern(equals >= 0 ? parameter.substring(0, equals) : parameter));
+                }
+            }
+            return new FunctionSignature.Variant(versions.toArray(new String[0]), names.toArray(new String[0]),
+                    Arrays.copyOf(defaults, defaultsLength), positionalCount < 0 ? names.size() : positionalCount);
+        }
+
+        private String intern(String value) {
+            return strings.computeIfAbsent(value, v -> v);
+        }
+
+        private void readObject(FieldReader fieldReader) throws IOException {
+            expect(parser.currentToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                fieldReader.read(field);
+            }
+        }
+
+        private void readArray(ElementReader elementReader) throws IOException {
+            expect(parser.currentToken(), JsonToken.START_ARRAY);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                elementReader.read();
+            }
+        }
+
+        private void expect(JsonToken actual, JsonToken expected) throws IOException {
+            if (actual != expected) {
+                throw new IOException("Expected " + expected + " but found " + actual + " near " + parser.currentLocation());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldReader {
+        void read(String field) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ElementReader {
+        void read() throws IOException;
+    }
+}
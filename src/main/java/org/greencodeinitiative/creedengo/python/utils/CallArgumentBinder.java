@@ -0,0 +1,164 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.tree.Argument;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.RegularArgument;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.UnpackingExpression;
+
+import javax.annotation.CheckForNull;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds the arguments of a call to the parameters of the called function, the way Python does.
+ * <p>
+ * A binder is created once per signature, from the names of the parameters which can be passed by position, in
+ * order: keyword-only parameters do not need to be declared, they are bound by their name. The arguments of a call
+ * are then bound in a single pass. Unpacked arguments are handled conservatively: after {@code *args}, the positions
+ * of the following parameters are unknown, and with {@code **kwargs} any parameter may be passed.
+ * </p>
+ * <p>
+ * When the signature changes between the versions of a library, the binder only binds by position the parameters
+ * at the same position in every version: a positional argument passed at a position which differs makes the
+ * parameters which may be at that position unknown.
+ * </p>
+ * <pre>
+ * CallArgumentBinder dataLoader = CallArgumentBinder.of("dataset", "batch_size", ...);
+ * Bindings bindings = dataLoader.bind(call);
+ * RegularArgument pinMemory = bindings.argument("pin_memory");
+ * </pre>
+ */
+public final class CallArgumentBinder {
+
+    private final List<String> positionalParameters;
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    private CallArgumentBinder(List<String> positionalParameters, Map<String, Integer> versionedPositions) {
+        this.positionalParameters = positionalParameters;
+        for (int i = 0; i < positionalParameters.size(); i++) {
+            positions.put(positionalParameters.get(i), i);
+        }
+        versionedPositions.forEach(positions::putIfAbsent);
+    }
+
+    /**
+     * @param positionalParameters names of the parameters which can be passed by position, in order
+     */
+    public static CallArgumentBinder of(String... positionalParameters) {
+        return new CallArgumentBinder(List.of(positionalParameters), Map.of());
+    }
+
+    /**
+     * @param positionalParameters names of the parameters which can be passed by position in every version, in order
+     * @param versionedPositions   lowest position of the parameters which can be passed by position in some versions
+     *                             only, or at different positions, all of them after the {@code positionalParameters}
+     */
+    public static CallArgumentBinder of(List<String> positionalParameters, Map<String, Integer> versionedPositions) {
+        return new CallArgumentBinder(List.copyOf(positionalParameters), Map.copyOf(versionedPositions));
+    }
+
+    public Bindings bind(CallExpression call) {
+        return bind(call.arguments());
+    }
+
+    public Bindings bind(List<Argument> arguments) {
+        Map<String, RegularArgument> bound = new HashMap<>();
+        int positionalArguments = 0;
+        int unpackedFrom = Integer.MAX_VALUE;
+        boolean unpackedKeywords = false;
+        for (int index = 0; index < arguments.size(); index++) {
+            Argument argument = arguments.get(index);
+            if (argument.is(Tree.Kind.REGULAR_ARGUMENT)) {
+                RegularArgument regularArgument = (RegularArgument) argument;
+                Name keyword = regularArgument.keywordArgument();
+                if (keyword != null) {
+                    bound.putIfAbsent(keyword.name(), regularArgument);
+                } else {
+                    // same as the number of positional arguments before, unless keyword arguments come first, which
+                    // Python rejects but the parser accepts
+                    if (index < unpackedFrom && index < positionalParameters.size()) {
+                        bound.putIfAbsent(positionalParameters.get(index), regularArgument);
+                    }
+                    positionalArguments++;
+                }
+            } else if (argument.is(Tree.Kind.UNPACKING_EXPR)) {
+                if ("**".equals(((UnpackingExpression) argument).starToken().value())) {
+                    unpackedKeywords = true;
+                } else {
+                    unpackedFrom = Math.min(unpackedFrom, positionalArguments);
+                }
+            }
+        }
+        return new Bindings(bound, positionalArguments, unpackedFrom, unpackedKeywords);
+    }
+
+    /**
+     * Arguments of a call, by name of the parameter they are bound to.
+     */
+    public final class Bindings {
+
+        private final Map<String, RegularArgument> arguments;
+        private final int positionalArguments;
+        private final int unpackedFrom;
+        private final boolean unpackedKeywords;
+
+        private Bindings(Map<String, RegularArgument> arguments, int positionalArguments, int unpackedFrom,
+                         boolean unpackedKeywords) {
+            this.arguments = arguments;
+            this.positionalArguments = positionalArguments;
+            this.unpackedFrom = unpackedFrom;
+            this.unpackedKeywords = unpackedKeywords;
+        }
+
+        /**
+         * Returns the argument explicitly passed for the given parameter, or {@code null} when there is none.
+         */
+        @CheckForNull
+        public RegularArgument argument(String parameter) {
+            return arguments.get(parameter);
+        }
+
+        /**
+         * Returns {@code true} when the given parameter may be passed by an unpacked argument, or by a positional
+         * argument whose parameter depends on the version, without being {@link #argument explicitly passed}.
+         */
+        public boolean isUnknown(String parameter) {
+            if (arguments.containsKey(parameter)) {
+                return false;
+            }
+            Integer position = positions.get(parameter);
+            if (unpackedKeywords || position == null) {
+                return unpackedKeywords;
+            }
+            return position >= unpackedFrom
+                    || (position >= positionalParameters.size() && position < positionalArguments);
+        }
+
+        /**
+         * Returns {@code true} when the given parameter is certainly not passed: its default value is used.
+         */
+        public boolean isMissing(String parameter) {
+            return !arguments.containsKey(parameter) && !isUnknown(parameter);
+        }
+    }
+}
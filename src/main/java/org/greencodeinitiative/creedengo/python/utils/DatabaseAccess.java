@@ -0,0 +1,54 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.util.List;
+
+/**
+ * Recognizes the calls which access a database, through a driver or an {@link OrmQueries ORM}.
+ */
+public final class DatabaseAccess {
+
+    public static final List<String> SQL_LIBS = List.of("cx_Oracle", "mysql.connector", "psycopg2", "pymssql", "pyodbc", "sqlite3");
+
+    private DatabaseAccess() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Returns {@code true} when the call runs an SQL query, through a driver or an ORM.
+     */
+    public static boolean isQuery(CallExpression call, ImportIndex imports) {
+        return isSqlExecution(call, imports) || OrmQueries.isQuery(call, imports);
+    }
+
+    /**
+     * Returns {@code true} for a call to an {@code execute} method in a file importing one of the {@link #SQL_LIBS}.
+     */
+    public static boolean isSqlExecution(CallExpression call, ImportIndex imports) {
+        if (call.callee().is(Tree.Kind.QUALIFIED_EXPR)) {
+            String name = ((QualifiedExpression) call.callee()).name().name();
+            return "execute".equals(name) && imports.importsAnyModule(SQL_LIBS);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.AliasedName;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.DottedName;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.ImportFrom;
+import org.sonar.plugins.python.api.tree.ImportName;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.Token;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import javax.annotation.CheckForNull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-file table of the imports of a file, mapping every name bound by an import to the fully qualified name of the
+ * module or symbol it refers to.
+ * <ul>
+ *     <li>{@code import a.b} binds {@code a} to {@code a}</li>
+ *     <li>{@code import a.b as c} binds {@code c} to {@code a.b}</li>
+ *     <li>{@code from a import b as c} binds {@code c} to {@code a.b}</li>
+ *     <li>{@code from . import b} binds {@code b} to {@code .b}</li>
+ * </ul>
+ * <p>
+ * The table is built with a single walk of the file, the first time a check asks for it, and is then shared by
+ * every check analysing the same file. Imports are collected wherever they appear (module level, functions, classes
+ * or conditional blocks); when a name is imported several times, the last import wins.
+ * </p>
+ */
+public final class ImportIndex {
+
+    private static final PerFileCache<ImportIndex> CACHE = new PerFileCache<>(ImportIndex::of);
+
+    private final Map<String, String> qualifiedNamesByLocalName = new HashMap<>();
+    private final Set<String> importedModules = new HashSet<>();
+
+    private ImportIndex(FileInput fileInput) {
+        fileInput.accept(new ImportVisitor());
+    }
+
+    /**
+     * Returns the import table of the file currently analysed, building it on first use.
+     */
+    public static ImportIndex of(SubscriptionContext ctx) {
+        return CACHE.get(ctx);
+    }
+
+    /**
+     * Builds a new import table for the given file, without sharing it.
+     */
+    public static ImportIndex of(FileInput fileInput) {
+        return new ImportIndex(fileInput);
+    }
+
+    /**
+     * Returns the fully qualified name bound to the given local name by an import, or {@code null} when the name is
+     * not bound by any import.
+     */
+    @CheckForNull
+    public String resolve(String localName) {
+        return qualifiedNamesByLocalName.get(localName);
+    }
+
+    /**
+     * Returns the fully qualified name of a name, or of an attribute read on a name, bound by an import: with
+     * {@code from django.db import models}, {@code models.ForeignKey} is {@code django.db.models.ForeignKey}.
+     * Returns {@code null} for any other expression.
+     */
+    @CheckForNull
+    public String resolve(Expression expression) {
+        if (expression.is(Tree.Kind.NAME)) {
+            return resolve(((Name) expression).name());
+        }
+        if (expression.is(Tree.Kind.QUALIFIED_EXPR)) {
+            QualifiedExpression attribute = (QualifiedExpression) expression;
+            String qualifier = resolve(attribute.qualifier());
+            return qualifier == null ? null : (qualifier + "." + attribute.name().name());
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} when the given module, one of its submodules or one of its members is imported.
+     * For instance {@code from mysql.connector import connect} imports {@code mysql}, {@code mysql.connector} and
+     * {@code mysql.connector.connect}.
+     */
+    public boolean importsModule(String module) {
+        return importedModules.contains(module);
+    }
+
+    public boolean importsAnyModule(Collection<String> modules) {
+        for (String module : modules) {
+            if (importedModules.contains(module)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * All names bound by imports, with the fully qualified name they refer to.
+     */
+    public Map<String, String> localNames() {
+        return Collections.unmodifiableMap(qualifiedNamesByLocalName);
+    }
+
+    private void addImportedModule(String qualifiedName) {
+        int start = 0;
+        while (start < qualifiedName.length() && qualifiedName.charAt(start) == '.') {
+            start++;
+        }
+        if (start == qualifiedName.length()) {
+            // "from . import x": the package itself is anonymous
+            return;
+        }
+        int dot = qualifiedName.indexOf('.', start);
+        while (dot > 0) {
+            importedModules.add(qualifiedName.substring(0, dot));
+            dot = qualifiedName.indexOf('.', dot + 1);
+        }
+        importedModules.add(qualifiedName);
+    }
+
+    private static String qualifiedName(DottedName dottedName) {
+        List<Name> names = dottedName.names();
+        StringBuilder qualifiedName = new StringBuilder(names.get(0).name());
+        for (int i = 1; i < names.size(); i++) {
+            qualifiedName.append('.').append(names.get(i).name());
+        }
+        return qualifiedName.toString();
+    }
+
+    private class ImportVisitor extends BaseTreeVisitor {
+
+        @Override
+        public void visitImportName(ImportName importName) {
+            for (AliasedName module : importName.modules()) {
+                String moduleName = qualifiedName(module.dottedName());
+                addImportedModule(moduleName);
+                if (module.alias() != null) {
+                    qualifiedNamesByLocalName.put(module.alias().name(), moduleName);
+                } else {
+                    String topLevelName = module.dottedName().names().get(0).name();
+                    qualifiedNamesByLocalName.put(topLevelName, topLevelName);
+                }
+            }
+        }
+
+        @Override
+        public void visitImportFrom(ImportFrom importFrom) {
+            StringBuilder prefix = new StringBuilder();
+            List<Token> dots = importFrom.dottedPrefixForModule();
+            if (dots != null) {
+                dots.forEach(dot -> prefix.append(dot.value()));
+            }
+            if (importFrom.module() != null) {
+                prefix.append(qualifiedName(importFrom.module()));
+            }
+            String moduleName = prefix.toString();
+            addImportedModule(moduleName);
+            if (importFrom.isWildcardImport()) {
+                return;
+            }
+            String memberPrefix = moduleName.endsWith(".") ? moduleName : (moduleName + ".");
+            for (AliasedName member : importFrom.importedNames()) {
+                List<Name> names = member.dottedName().names();
+                String memberName = memberPrefix + qualifiedName(member.dottedName());
+                addImportedModule(memberName);
+                String localName = member.alias() != null ? member.alias().name() : names.get(names.size() - 1).name();
+                qualifiedNamesByLocalName.put(localName, memberName);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.ForStatement;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-file index answering "enclosing loop", "loop depth" and "enclosing function" for any node in O(1).
+ * <p>
+ * The index is built with a single walk of the file, the first time a check asks for it, and is then shared by
+ * every check analysing the same file. A node belongs to a loop when the loop statement ({@code for} or
+ * {@code while}) is one of its ancestors, including its header and {@code else} clause. Loops are counted
+ * lexically, even across nested function definitions.
+ * </p>
+ */
+public final class LoopContextIndex {
+
+    private static final PerFileCache<LoopContextIndex> CACHE = new PerFileCache<>(LoopContextIndex::of);
+
+    private static final Frame FILE_FRAME = new Frame(null, 0, null);
+
+    private final Map<Tree, Frame> frames = new IdentityHashMap<>();
+    private long visits;
+
+    private LoopContextIndex(FileInput fileInput) {
+        index(fileInput);
+    }
+
+    /**
+     * Returns the index of the file currently analysed, building it on first use.
+     */
+    public static LoopContextIndex of(SubscriptionContext ctx) {
+        return CACHE.get(ctx);
+    }
+
+    /**
+     * Builds a new index for the given file, without sharing it.
+     */
+    public static LoopContextIndex of(FileInput fileInput) {
+        return new LoopContextIndex(fileInput);
+    }
+
+    @CheckForNull
+    public Tree enclosingLoop(Tree tree) {
+        return frameOf(tree).loop;
+    }
+
+    public int loopDepth(Tree tree) {
+        return frameOf(tree).loopDepth;
+    }
+
+    public boolean isInLoop(Tree tree) {
+        return frameOf(tree).loopDepth > 0;
+    }
+
+    /**
+     * Returns {@code true} when the node is evaluated at every iteration of a loop. Unlike {@link #isInLoop}, the
+     * iterables of a {@code for} loop are evaluated once, unless the loop is itself nested in a loop.
+     */
+    public boolean isEvaluatedPerIteration(Tree tree) {
+        Frame frame = frameOf(tree);
+        if (frame.loopDepth != 1 || !frame.loop.is(Tree.Kind.FOR_STMT)) {
+            return frame.loopDepth > 0;
+        }
+        for (Expression iterable : ((ForStatement) frame.loop).testExpressions()) {
+            if (UtilsAST.isWithin(tree, iterable)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @CheckForNull
+    public FunctionDef enclosingFunction(Tree tree) {
+        return frameOf(tree).function;
+    }
+
+    /**
+     * Number of nodes indexed, every node but the tokens being indexed once.
+     */
+    int size() {
+        return frames.size();
+    }
+
+    /**
+     * Number of nodes visited so far, by the walk building the index and by the queries.
+     */
+    long visits() {
+        return visits;
+    }
+
+    private Frame frameOf(Tree tree) {
+        // tokens are not indexed: their parent is
+        for (Tree current = tree; current != null; current = current.parent()) {
+            visits++;
+            Frame frame = frames.get(current);
+            if (frame != null) {
+                return frame;
+            }
+        }
+        return FILE_FRAME;
+    }
+
+    private void index(FileInput fileInput) {
+        Deque<Tree> nodes = new ArrayDeque<>();
+        Deque<Frame> nodeFrames = new ArrayDeque<>();
+        nodes.push(fileInput);
+        nodeFrames.push(FILE_FRAME);
+
+        while (!nodes.isEmpty()) {
+            Tree node = nodes.pop();
+            Frame frame = nodeFrames.pop();
+            frames.put(node, frame);
+            visits++;
+
+            Frame childFrame = frame;
+            if (node.is(Tree.Kind.FOR_STMT, Tree.Kind.WHILE_STMT)) {
+                childFrame = new Frame(node, frame.loopDepth + 1, frame.function);
+            } else if (node.is(Tree.Kind.FUNCDEF)) {
+                childFrame = new Frame(frame.loop, frame.loopDepth, (FunctionDef) node);
+            }
+
+            for (Tree child : node.children()) {
+                if (child != null && !child.is(Tree.Kind.TOKEN)) {
+                    nodes.push(child);
+                    nodeFrames.push(childFrame);
+                }
+            }
+        }
+    }
+
+    private record Frame(Tree loop, int loopDepth, FunctionDef function) {
+    }
+}
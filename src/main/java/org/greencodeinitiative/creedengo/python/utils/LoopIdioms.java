@@ -0,0 +1,544 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.tree.AssignmentStatement;
+import org.sonar.plugins.python.api.tree.BinaryExpression;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.CompoundAssignmentStatement;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.ForStatement;
+import org.sonar.plugins.python.api.tree.IfStatement;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.RegularArgument;
+import org.sonar.plugins.python.api.tree.Statement;
+import org.sonar.plugins.python.api.tree.StatementList;
+import org.sonar.plugins.python.api.tree.SubscriptionExpression;
+import org.sonar.plugins.python.api.tree.Token;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Recognises the numeric loop nests over indexed arrays which have a vectorised NumPy or Torch equivalent.
+ * <p>
+ * A nest is made of {@code for i in range(...)} loops, each one being the only statement of its parent, and its
+ * innermost body is classified from the way it reads and writes the arrays, indexed by the loop variables:
+ * </p>
+ * <ul>
+ *     <li>element-wise map: {@code c[i] = a[i] * 2 + b[i]}</li>
+ *     <li>reduction: {@code s += a[i]}, {@code s = max(s, a[i])}, {@code if a[i] > m: m = a[i]}</li>
+ *     <li>prefix scan: {@code c[i] = c[i - 1] + a[i]}</li>
+ *     <li>gather: {@code c[i] = a[idx[i]]}, and scatter: {@code c[idx[i]] = a[i]}</li>
+ * </ul>
+ * <p>
+ * The products of two arrays (dot, outer and matrix products) are left to {@code AvoidIterativeMatrixOperations}.
+ * Plain Python lists have no such replacement, so the idioms are only recognised in the files importing NumPy or Torch.
+ * </p>
+ */
+public final class LoopIdioms {
+
+    /**
+     * Loop idioms, with the message suggesting their vectorised replacement.
+     */
+    public enum Idiom {
+        ELEMENT_WISE("element-wise operations", "whole-array operators and ufuncs (a + b, np.sqrt(a), torch.sqrt(t))"),
+        SUM("sum", "np.sum or torch.sum"),
+        PRODUCT("product", "np.prod or torch.prod"),
+        MAX("max search", "np.max or torch.max"),
+        MIN("min search", "np.min or torch.min"),
+        CUMULATIVE_SUM("prefix sum", "np.cumsum or torch.cumsum"),
+        CUMULATIVE_PRODUCT("prefix product", "np.cumprod or torch.cumprod"),
+        GATHER("gather", "fancy indexing a[idx] or torch.index_select"),
+        SCATTER("scatter", "fancy indexing out[idx] = a or torch.Tensor.index_copy_"),
+        SCATTER_ADD("scatter-add", "np.add.at or torch.Tensor.index_add_");
+
+        private final String message;
+
+        Idiom(String operation, String replacement) {
+            this.message = "Avoid iterative " + operation + " over arrays, use " + replacement + " instead";
+        }
+
+        public String message() {
+            return message;
+        }
+    }
+
+    /**
+     * How an expression reads the arrays.
+     */
+    private enum Access {
+        /** no array read */
+        NONE,
+        /** arrays read at the indices of the loops only */
+        ELEMENT,
+        /** at least one array read through an index array */
+        GATHER,
+        /** anything else, not vectorisable as such */
+        OTHER
+    }
+
+    private static final List<String> ARRAY_LIBS = List.of("numpy", "torch");
+    private static final QualifiedNameMatcher<String> RANGE = QualifiedNameMatcher.of("range");
+    private static final QualifiedNameMatcher<String> ELEMENT_FUNCTIONS = QualifiedNameMatcher.of("math.**", "abs", "round");
+    private static final QualifiedNameMatcher<Idiom> EXTREMES = QualifiedNameMatcher.<Idiom>builder()
+            .add("max", Idiom.MAX)
+            .add("min", Idiom.MIN)
+            .build();
+
+    private LoopIdioms() {
+    }
+
+    /**
+     * Returns the idiom of the loop nest starting at the given loop, or {@code null} when the file imports neither
+     * NumPy nor Torch, when the loop is not the outermost loop of a nest or when its body is not recognised.
+     */
+    @CheckForNull
+    public static Idiom recognise(ForStatement loop, ImportIndex imports) {
+        if (!imports.importsAnyModule(ARRAY_LIBS) || isNestedLoop(loop)) {
+            return null;
+        }
+        List<String> indices = new ArrayList<>();
+        ForStatement current = loop;
+        while (true) {
+            String index = rangeIndex(current);
+            if (index == null) {
+                return null;
+            }
+            indices.add(index);
+            List<Statement> body = current.body().statements();
+            if (body.size() == 1 && body.get(0).is(Tree.Kind.FOR_STMT)) {
+                current = (ForStatement) body.get(0);
+            } else {
+                return classify(body, indices);
+            }
+        }
+    }
+
+    /**
+     * A loop which is the only statement of a range loop belongs to the nest of that loop.
+     */
+    private static boolean isNestedLoop(ForStatement loop) {
+        Tree statements = loop.parent();
+        if (statements == null || !statements.is(Tree.Kind.STATEMENT_LIST) || ((StatementList) statements).statements().size() != 1) {
+            return false;
+        }
+        Tree parent = statements.parent();
+        return parent != null && parent.is(Tree.Kind.FOR_STMT)
+                && ((ForStatement) parent).body() == statements
+                && rangeIndex((ForStatement) parent) != null;
+    }
+
+    @CheckForNull
+    private static String rangeIndex(ForStatement loop) {
+        if (loop.isAsync() || loop.elseClause() != null
+                || loop.expressions().size() != 1 || loop.testExpressions().size() != 1) {
+            return null;
+        }
+        Expression target = loop.expressions().get(0);
+        Expression iterable = loop.testExpressions().get(0);
+        if (target.is(Tree.Kind.NAME) && iterable.is(Tree.Kind.CALL_EXPR) && RANGE.matches((CallExpression) iterable)) {
+            return ((Name) target).name();
+        }
+        return null;
+    }
+
+    @CheckForNull
+    private static Idiom classify(List<Statement> body, List<String> indices) {
+        if (body.size() == 2) {
+            return scanThroughAccumulator(body.get(0), body.get(1), indices);
+        }
+        if (body.size() != 1) {
+            return null;
+        }
+        Statement statement = body.get(0);
+        if (statement.is(Tree.Kind.COMPOUND_ASSIGNMENT)) {
+            CompoundAssignmentStatement compound = (CompoundAssignmentStatement) statement;
+            return classifyCompoundAssignment(compound.lhsExpression(), compound.compoundAssignmentToken().value(),
+                    compound.rhsExpression(), indices);
+        }
+        if (statement.is(Tree.Kind.ASSIGNMENT_STMT)) {
+            AssignmentStatement assignment = (AssignmentStatement) statement;
+            Expression target = singleTarget(assignment);
+            return target == null ? null : classifyAssignment(target, assignment.assignedValue(), indices);
+        }
+        if (statement.is(Tree.Kind.IF_STMT)) {
+            return classifyConditionalExtreme((IfStatement) statement, indices);
+        }
+        return null;
+    }
+
+    @CheckForNull
+    private static Idiom classifyCompoundAssignment(Expression target, String operator, Expression value, List<String> indices) {
+        if (target.is(Tree.Kind.NAME)) {
+            String accumulator = ((Name) target).name();
+            return isReducible(value, accumulator, indices) ? reduction(operator) : null;
+        }
+        if (!target.is(Tree.Kind.SUBSCRIPTION)) {
+            return null;
+        }
+        SubscriptionExpression element = (SubscriptionExpression) target;
+        if (isElementOf(element, indices)) {
+            Name array = arrayOf(element);
+            if (isPrevious(value, array.name(), indices)) {
+                return scan(operator);
+            }
+            // c[i] += 1 reads the written element only
+            Access access = accessOf(value, null, indices);
+            return access == Access.ELEMENT || access == Access.NONE ? Idiom.ELEMENT_WISE : null;
+        }
+        if ("+=".equals(operator) && isScattered(element, indices)) {
+            Access access = accessOf(value, arrayOf(element).name(), indices);
+            return access == Access.ELEMENT || access == Access.NONE ? Idiom.SCATTER_ADD : null;
+        }
+        return null;
+    }
+
+    @CheckForNull
+    private static Idiom classifyAssignment(Expression target, Expression value, List<String> indices) {
+        if (target.is(Tree.Kind.NAME)) {
+            return classifyAccumulation(((Name) target).name(), value, indices);
+        }
+        if (!target.is(Tree.Kind.SUBSCRIPTION)) {
+            return null;
+        }
+        SubscriptionExpression element = (SubscriptionExpression) target;
+        if (isElementOf(element, indices)) {
+            String array = arrayOf(element).name();
+            if (value.is(Tree.Kind.PLUS, Tree.Kind.MULTIPLICATION)) {
+                BinaryExpression binary = (BinaryExpression) value;
+                Expression other = isPrevious(binary.leftOperand(), array, indices) ? binary.rightOperand()
+                        : isPrevious(binary.rightOperand(), array, indices) ? binary.leftOperand() : null;
+                if (other != null && accessOf(other, array, indices) == Access.ELEMENT) {
+                    return value.is(Tree.Kind.PLUS) ? Idiom.CUMULATIVE_SUM : Idiom.CUMULATIVE_PRODUCT;
+                }
+            }
+            Access access = accessOf(value, null, indices);
+            if (access == Access.GATHER) {
+                // c[i] = c[idx[i]] reads elements already overwritten
+                return accessOf(value, array, indices) == Access.GATHER ? Idiom.GATHER : null;
+            }
+            return access == Access.ELEMENT ? Idiom.ELEMENT_WISE : null;
+        }
+        if (isScattered(element, indices)) {
+            Access access = accessOf(value, arrayOf(element).name(), indices);
+            return access == Access.ELEMENT || access == Access.NONE ? Idiom.SCATTER : null;
+        }
+        return null;
+    }
+
+    /**
+     * {@code s = s + a[i]}, {@code s = s * a[i]}, {@code s = max(s, a[i])}.
+     */
+    @CheckForNull
+    private static Idiom classifyAccumulation(String accumulator, Expression value, List<String> indices) {
+        if (value.is(Tree.Kind.PLUS, Tree.Kind.MULTIPLICATION)) {
+            BinaryExpression binary = (BinaryExpression) value;
+            Expression other = isName(binary.leftOperand(), accumulator) ? binary.rightOperand()
+                    : isName(binary.rightOperand(), accumulator) ? binary.leftOperand() : null;
+            if (other != null && isReducible(other, accumulator, indices)) {
+                return value.is(Tree.Kind.PLUS) ? Idiom.SUM : Idiom.PRODUCT;
+            }
+            return null;
+        }
+        if (value.is(Tree.Kind.CALL_EXPR)) {
+            CallExpression call = (CallExpression) value;
+            Idiom extreme = EXTREMES.match(call);
+            List<Expression> arguments = regularArguments(call);
+            if (extreme != null && arguments.size() == 2) {
+                Expression other = isName(arguments.get(0), accumulator) ? arguments.get(1)
+                        : isName(arguments.get(1), accumulator) ? arguments.get(0) : null;
+                return other != null && isReducible(other, accumulator, indices) ? extreme : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@code if a[i] > m: m = a[i]}, and the other orders of the comparison.
+     */
+    @CheckForNull
+    private static Idiom classifyConditionalExtreme(IfStatement ifStatement, List<String> indices) {
+        List<Statement> body = ifStatement.body().statements();
+        if (!ifStatement.elifBranches().isEmpty() || ifStatement.elseBranch() != null || body.size() != 1
+                || !body.get(0).is(Tree.Kind.ASSIGNMENT_STMT) || !ifStatement.condition().is(Tree.Kind.COMPARISON)) {
+            return null;
+        }
+        AssignmentStatement assignment = (AssignmentStatement) body.get(0);
+        Expression target = singleTarget(assignment);
+        if (target == null || !target.is(Tree.Kind.NAME)) {
+            return null;
+        }
+        String accumulator = ((Name) target).name();
+        Expression value = assignment.assignedValue();
+        if (!isReducible(value, accumulator, indices)) {
+            return null;
+        }
+        BinaryExpression comparison = (BinaryExpression) ifStatement.condition();
+        String operator = comparison.operator().value();
+        boolean valueFirst;
+        if (isName(comparison.rightOperand(), accumulator) && sameTokens(comparison.leftOperand(), value)) {
+            valueFirst = true;
+        } else if (isName(comparison.leftOperand(), accumulator) && sameTokens(comparison.rightOperand(), value)) {
+            valueFirst = false;
+        } else {
+            return null;
+        }
+        if (operator.startsWith(">")) {
+            return valueFirst ? Idiom.MAX : Idiom.MIN;
+        }
+        if (operator.startsWith("<")) {
+            return valueFirst ? Idiom.MIN : Idiom.MAX;
+        }
+        return null;
+    }
+
+    /**
+     * {@code s += a[i]} followed by {@code c[i] = s}.
+     */
+    @CheckForNull
+    private static Idiom scanThroughAccumulator(Statement first, Statement second, List<String> indices) {
+        if (!second.is(Tree.Kind.ASSIGNMENT_STMT)) {
+            return null;
+        }
+        Expression target = singleTarget((AssignmentStatement) second);
+        Expression stored = ((AssignmentStatement) second).assignedValue();
+        if (target == null || !target.is(Tree.Kind.SUBSCRIPTION) || !isElementOf((SubscriptionExpression) target, indices)
+                || !stored.is(Tree.Kind.NAME)) {
+            return null;
+        }
+        Idiom reduction = classify(List.of(first), indices);
+        Name accumulator = accumulatorOf(first);
+        if (accumulator == null || !accumulator.name().equals(((Name) stored).name())) {
+            return null;
+        }
+        if (reduction == Idiom.SUM) {
+            return Idiom.CUMULATIVE_SUM;
+        }
+        return reduction == Idiom.PRODUCT ? Idiom.CUMULATIVE_PRODUCT : null;
+    }
+
+    @CheckForNull
+    private static Name accumulatorOf(Statement statement) {
+        Expression target = null;
+        if (statement.is(Tree.Kind.COMPOUND_ASSIGNMENT)) {
+            target = ((CompoundAssignmentStatement) statement).lhsExpression();
+        } else if (statement.is(Tree.Kind.ASSIGNMENT_STMT)) {
+            target = singleTarget((AssignmentStatement) statement);
+        }
+        return target != null && target.is(Tree.Kind.NAME) ? (Name) target : null;
+    }
+
+    @CheckForNull
+    private static Idiom reduction(String operator) {
+        if ("+=".equals(operator)) {
+            return Idiom.SUM;
+        }
+        return "*=".equals(operator) ? Idiom.PRODUCT : null;
+    }
+
+    @CheckForNull
+    private static Idiom scan(String operator) {
+        if ("+=".equals(operator)) {
+            return Idiom.CUMULATIVE_SUM;
+        }
+        return "*=".equals(operator) ? Idiom.CUMULATIVE_PRODUCT : null;
+    }
+
+    /**
+     * The value folded into an accumulator reads arrays, without reading the accumulator. The products of two arrays
+     * are dot products.
+     */
+    private static boolean isReducible(Expression value, String accumulator, List<String> indices) {
+        if (value.is(Tree.Kind.MULTIPLICATION)) {
+            BinaryExpression product = (BinaryExpression) value;
+            if (product.leftOperand().is(Tree.Kind.SUBSCRIPTION) && product.rightOperand().is(Tree.Kind.SUBSCRIPTION)) {
+                return false;
+            }
+        }
+        Access access = accessOf(value, accumulator, indices);
+        return access == Access.ELEMENT || access == Access.GATHER;
+    }
+
+    /**
+     * {@code c[i - 1]} in a single loop over {@code i}.
+     */
+    private static boolean isPrevious(Expression expression, String array, List<String> indices) {
+        if (indices.size() != 1 || !expression.is(Tree.Kind.SUBSCRIPTION)) {
+            return false;
+        }
+        SubscriptionExpression element = (SubscriptionExpression) expression;
+        List<Expression> subscripts = subscriptsOf(element);
+        if (!isName(element.object(), array) || subscripts.size() != 1 || !subscripts.get(0).is(Tree.Kind.MINUS)) {
+            return false;
+        }
+        BinaryExpression difference = (BinaryExpression) subscripts.get(0);
+        return isName(difference.leftOperand(), indices.get(0))
+                && difference.rightOperand().is(Tree.Kind.NUMERIC_LITERAL)
+                && "1".equals(difference.rightOperand().firstToken().value());
+    }
+
+    /**
+     * {@code c[idx[i]]}: a single index read from an index array.
+     */
+    private static boolean isScattered(SubscriptionExpression element, List<String> indices) {
+        List<Expression> subscripts = subscriptsOf(element);
+        return element.object().is(Tree.Kind.NAME) && subscripts.size() == 1
+                && subscripts.get(0).is(Tree.Kind.SUBSCRIPTION)
+                && isElementOf((SubscriptionExpression) subscripts.get(0), indices);
+    }
+
+    /**
+     * {@code a[i][j]} or {@code a[i, j]}, with the indices of the loops in the order of the nest.
+     */
+    private static boolean isElementOf(SubscriptionExpression element, List<String> indices) {
+        if (arrayOf(element) == null) {
+            return false;
+        }
+        List<Expression> subscripts = subscriptsOf(element);
+        if (subscripts.size() != indices.size()) {
+            return false;
+        }
+        for (int i = 0; i < subscripts.size(); i++) {
+            if (!isName(subscripts.get(i), indices.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns how the expression reads arrays, {@link Access#OTHER} when it reads the excluded name or when it is
+     * not made of numbers, arithmetic operators and element-wise functions only.
+     */
+    private static Access accessOf(Expression expression, @CheckForNull String excluded, List<String> indices) {
+        Access result = Access.NONE;
+        Deque<Tree> nodes = new ArrayDeque<>();
+        nodes.push(expression);
+        while (!nodes.isEmpty()) {
+            Tree node = nodes.pop();
+            if (node.is(Tree.Kind.SUBSCRIPTION)) {
+                SubscriptionExpression element = (SubscriptionExpression) node;
+                Name array = arrayOf(element);
+                if (array == null || array.name().equals(excluded)) {
+                    return Access.OTHER;
+                }
+                if (isElementOf(element, indices)) {
+                    result = result == Access.NONE ? Access.ELEMENT : result;
+                } else if (isScattered(element, indices)) {
+                    result = Access.GATHER;
+                } else {
+                    return Access.OTHER;
+                }
+            } else if (node.is(Tree.Kind.NAME)) {
+                if (((Name) node).name().equals(excluded)) {
+                    return Access.OTHER;
+                }
+            } else if (node.is(Tree.Kind.CALL_EXPR)) {
+                CallExpression call = (CallExpression) node;
+                List<Expression> arguments = regularArguments(call);
+                if (!ELEMENT_FUNCTIONS.matches(call) || arguments.size() != call.arguments().size()) {
+                    return Access.OTHER;
+                }
+                arguments.forEach(nodes::push);
+            } else if (node.is(Tree.Kind.PLUS, Tree.Kind.MINUS, Tree.Kind.MULTIPLICATION, Tree.Kind.DIVISION,
+                    Tree.Kind.FLOOR_DIVISION, Tree.Kind.MODULO, Tree.Kind.POWER)) {
+                nodes.push(((BinaryExpression) node).leftOperand());
+                nodes.push(((BinaryExpression) node).rightOperand());
+            } else if (node.is(Tree.Kind.PARENTHESIZED, Tree.Kind.UNARY_MINUS, Tree.Kind.UNARY_PLUS)) {
+                node.children().stream().filter(Expression.class::isInstance).forEach(nodes::push);
+            } else if (!node.is(Tree.Kind.NUMERIC_LITERAL)) {
+                return Access.OTHER;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name of the array read by {@code a[i][j]} or {@code a[i, j]}, {@code null} for other objects.
+     */
+    @CheckForNull
+    private static Name arrayOf(SubscriptionExpression element) {
+        Expression object = element.object();
+        while (object.is(Tree.Kind.SUBSCRIPTION)) {
+            object = ((SubscriptionExpression) object).object();
+        }
+        return object.is(Tree.Kind.NAME) ? (Name) object : null;
+    }
+
+    /**
+     * Returns the subscripts of {@code a[i][j]} or {@code a[i, j]}, from the outermost dimension.
+     */
+    private static List<Expression> subscriptsOf(SubscriptionExpression element) {
+        List<Expression> subscripts = new ArrayList<>();
+        Expression current = element;
+        while (current.is(Tree.Kind.SUBSCRIPTION)) {
+            SubscriptionExpression subscription = (SubscriptionExpression) current;
+            subscripts.addAll(0, subscription.subscripts().expressions());
+            current = subscription.object();
+        }
+        return subscripts;
+    }
+
+    @CheckForNull
+    private static Expression singleTarget(AssignmentStatement assignment) {
+        if (assignment.lhsExpressions().size() != 1 || assignment.lhsExpressions().get(0).expressions().size() != 1) {
+            return null;
+        }
+        return assignment.lhsExpressions().get(0).expressions().get(0);
+    }
+
+    private static List<Expression> regularArguments(CallExpression call) {
+        return call.arguments().stream()
+                .filter(argument -> argument.is(Tree.Kind.REGULAR_ARGUMENT) && ((RegularArgument) argument).keywordArgument() == null)
+                .map(argument -> ((RegularArgument) argument).expression())
+                .toList();
+    }
+
+    private static boolean isName(Tree tree, @CheckForNull String name) {
+        return tree.is(Tree.Kind.NAME) && ((Name) tree).name().equals(name);
+    }
+
+    private static boolean sameTokens(Tree first, Tree second) {
+        return tokens(first).equals(tokens(second));
+    }
+
+    private static List<String> tokens(Tree tree) {
+        List<String> values = new ArrayList<>();
+        Deque<Tree> nodes = new ArrayDeque<>();
+        nodes.push(tree);
+        while (!nodes.isEmpty()) {
+            Tree node = nodes.pop();
+            if (node.is(Tree.Kind.TOKEN)) {
+                values.add(((Token) node).value());
+            } else {
+                List<Tree> children = node.children();
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    if (children.get(i) != null) {
+                        nodes.push(children.get(i));
+                    }
+                }
+            }
+        }
+        return values;
+    }
+}
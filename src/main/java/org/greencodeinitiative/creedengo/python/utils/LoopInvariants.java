@@ -0,0 +1,247 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.symbols.Usage;
+import org.sonar.plugins.python.api.tree.AssignmentStatement;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.CompoundAssignmentStatement;
+import org.sonar.plugins.python.api.tree.DelStatement;
+import org.sonar.plugins.python.api.tree.ElseClause;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.ExpressionList;
+import org.sonar.plugins.python.api.tree.ForStatement;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.RegularArgument;
+import org.sonar.plugins.python.api.tree.SubscriptionExpression;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.WhileStatement;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Def-use facts of the loops of a file, to find the expressions evaluated with the same values at every iteration.
+ * <p>
+ * A name may change within a loop when the loop binds it (assignments, loop targets, imports, {@code with ... as},
+ * walrus, {@code del}), stores into it ({@code name[i] = ...}, {@code name.attribute = ...}), calls one of its methods
+ * ({@code name.append(...)}), or passes it to a function which may mutate it. The facts of a loop are computed the
+ * first time it is queried, nested functions and classes being other scopes.
+ * </p>
+ */
+public final class LoopInvariants {
+
+    private static final PerFileCache<LoopInvariants> CACHE = new PerFileCache<>(fileInput -> new LoopInvariants());
+
+    private final Map<Tree, Changes> changesByLoop = new IdentityHashMap<>();
+
+    private LoopInvariants() {
+    }
+
+    /**
+     * Returns the facts of the file currently analysed, shared by the checks of that file.
+     */
+    public static LoopInvariants of(SubscriptionContext ctx) {
+        return CACHE.get(ctx);
+    }
+
+    /**
+     * Builds new facts, without sharing them: they are computed for the loops asked about, whatever their file.
+     */
+    public static LoopInvariants newInstance() {
+        return new LoopInvariants();
+    }
+
+    /**
+     * Returns the innermost loop of the same function evaluating the node at every iteration: the iterables of a
+     * {@code for} loop and the {@code else} clause of a loop are evaluated once per iteration of the enclosing loop.
+     */
+    @CheckForNull
+    public static Tree iteratingLoop(LoopContextIndex index, Tree tree) {
+        Tree loop = index.enclosingLoop(tree);
+        while (loop != null && isEvaluatedOnce(tree, loop)) {
+            loop = index.enclosingLoop(loop);
+        }
+        if (loop == null || index.enclosingFunction(loop) != index.enclosingFunction(tree)) {
+            return null;
+        }
+        return loop;
+    }
+
+    /**
+     * Returns {@code true} when the expression has the same value at every iteration of the loop: every name it reads
+     * is left unchanged by the loop, and every function it calls is pure.
+     */
+    public boolean isInvariant(Expression expression, Tree loop, Predicate<CallExpression> isPure) {
+        Changes changes = changesByLoop.computeIfAbsent(loop, LoopInvariants::changesOf);
+        Deque<Tree> nodes = new ArrayDeque<>();
+        nodes.push(expression);
+        while (!nodes.isEmpty()) {
+            Tree node = nodes.pop();
+            if (node.is(Tree.Kind.NAME)) {
+                if (!changes.isUnchanged(((Name) node).name(), isPure)) {
+                    return false;
+                }
+            } else if (node.is(Tree.Kind.CALL_EXPR) && !isPure.test((CallExpression) node)
+                    || node.is(Tree.Kind.LAMBDA, Tree.Kind.LIST_COMPREHENSION, Tree.Kind.SET_COMPREHENSION,
+                    Tree.Kind.DICT_COMPREHENSION, Tree.Kind.GENERATOR_EXPR, Tree.Kind.AWAIT, Tree.Kind.YIELD_EXPR,
+                    Tree.Kind.ASSIGNMENT_EXPRESSION)) {
+                return false;
+            }
+            pushOperands(node, nodes);
+        }
+        return true;
+    }
+
+    private static void pushOperands(Tree node, Deque<Tree> nodes) {
+        if (node.is(Tree.Kind.QUALIFIED_EXPR)) {
+            // the name of the attribute is not a variable
+            nodes.push(((QualifiedExpression) node).qualifier());
+        } else if (node.is(Tree.Kind.REGULAR_ARGUMENT)) {
+            nodes.push(((RegularArgument) node).expression());
+        } else {
+            for (Tree child : node.children()) {
+                if (child != null) {
+                    nodes.push(child);
+                }
+            }
+        }
+    }
+
+    private static Changes changesOf(Tree loop) {
+        Changes changes = new Changes();
+        Deque<Tree> nodes = new ArrayDeque<>();
+        nodes.push(loop);
+        while (!nodes.isEmpty()) {
+            Tree node = nodes.pop();
+            changes.record(node);
+            for (Tree child : node.children()) {
+                if (child != null && !child.is(Tree.Kind.FUNCDEF, Tree.Kind.CLASSDEF, Tree.Kind.LAMBDA)) {
+                    nodes.push(child);
+                }
+            }
+        }
+        return changes;
+    }
+
+    private static boolean isEvaluatedOnce(Tree tree, Tree loop) {
+        ElseClause elseClause;
+        if (loop.is(Tree.Kind.FOR_STMT)) {
+            ForStatement forStatement = (ForStatement) loop;
+            for (Expression iterable : forStatement.testExpressions()) {
+                if (UtilsAST.isWithin(tree, iterable)) {
+                    return true;
+                }
+            }
+            elseClause = forStatement.elseClause();
+        } else {
+            elseClause = ((WhileStatement) loop).elseClause();
+        }
+        return elseClause != null && UtilsAST.isWithin(tree, elseClause);
+    }
+
+    /**
+     * Names changed by a loop, and the calls the other names are passed to.
+     */
+    private static final class Changes {
+
+        private final Set<String> changed = new HashSet<>();
+        private final Map<String, List<CallExpression>> passedTo = new HashMap<>();
+
+        void record(Tree node) {
+            if (node.is(Tree.Kind.NAME)) {
+                Usage usage = ((Name) node).usage();
+                if (usage != null && usage.isBindingUsage()) {
+                    changed.add(((Name) node).name());
+                }
+            } else if (node.is(Tree.Kind.ASSIGNMENT_STMT)) {
+                for (ExpressionList targets : ((AssignmentStatement) node).lhsExpressions()) {
+                    targets.expressions().forEach(this::recordStore);
+                }
+            } else if (node.is(Tree.Kind.COMPOUND_ASSIGNMENT)) {
+                recordStore(((CompoundAssignmentStatement) node).lhsExpression());
+            } else if (node.is(Tree.Kind.DEL_STMT)) {
+                ((DelStatement) node).expressions().forEach(this::recordStore);
+            } else if (node.is(Tree.Kind.CALL_EXPR)) {
+                recordCall((CallExpression) node);
+            }
+        }
+
+        /**
+         * {@code name[i] = ...}, {@code name.attribute += ...}, {@code del name[i]}: the object held by the name
+         * changes.
+         */
+        private void recordStore(Expression target) {
+            Name root = rootName(target);
+            if (root != null) {
+                changed.add(root.name());
+            }
+        }
+
+        private void recordCall(CallExpression call) {
+            if (call.callee().is(Tree.Kind.QUALIFIED_EXPR)) {
+                Name receiver = rootName(((QualifiedExpression) call.callee()).qualifier());
+                if (receiver != null && !isModule(receiver)) {
+                    changed.add(receiver.name());
+                }
+            }
+            call.arguments().stream()
+                    .filter(RegularArgument.class::isInstance)
+                    .map(argument -> ((RegularArgument) argument).expression())
+                    .filter(argument -> argument.is(Tree.Kind.NAME))
+                    .forEach(argument -> passedTo.computeIfAbsent(((Name) argument).name(), n -> new ArrayList<>()).add(call));
+        }
+
+        boolean isUnchanged(String name, Predicate<CallExpression> isPure) {
+            return !changed.contains(name) && passedTo.getOrDefault(name, List.of()).stream().allMatch(isPure);
+        }
+
+        @CheckForNull
+        private static Name rootName(Expression expression) {
+            Expression current = expression;
+            while (true) {
+                if (current.is(Tree.Kind.NAME)) {
+                    return (Name) current;
+                } else if (current.is(Tree.Kind.QUALIFIED_EXPR)) {
+                    current = ((QualifiedExpression) current).qualifier();
+                } else if (current.is(Tree.Kind.SUBSCRIPTION)) {
+                    current = ((SubscriptionExpression) current).object();
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        private static boolean isModule(Name name) {
+            Symbol symbol = name.symbol();
+            return symbol != null && symbol.usages().stream().anyMatch(usage -> usage.kind() == Usage.Kind.IMPORT);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.Argument;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.ForStatement;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.NumericLiteral;
+import org.sonar.plugins.python.api.tree.RegularArgument;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * How many times the code at a node is likely to run: the number of loops enclosing it, and how many of them iterate
+ * over a {@code range(...)} statically known to be large.
+ * <p>
+ * Issues raised in loops carry it as their cost, so that the remediation effort of a call nested in three loops
+ * outweighs the one of the same call in a single loop. The effort of an issue in a single loop, or out of any loop, is
+ * the base effort of its rule.
+ * </p>
+ */
+public record LoopWeight(int depth, int largeRangeLoops) {
+
+    /**
+     * Number of iterations from which a {@code range(...)} counts as an additional level of nesting.
+     */
+    public static final long LARGE_RANGE = 1_000;
+
+    public static LoopWeight of(SubscriptionContext context, Tree tree) {
+        return of(LoopContextIndex.of(context), tree);
+    }
+
+    public static LoopWeight of(LoopContextIndex index, Tree tree) {
+        int depth = 0;
+        int largeRangeLoops = 0;
+        // the frame of a loop is the one of its parent: this walks from the innermost loop outward
+        for (Tree loop = index.enclosingLoop(tree); loop != null; loop = index.enclosingLoop(loop)) {
+            depth++;
+            if (isLargeRange(loop)) {
+                largeRangeLoops++;
+            }
+        }
+        return new LoopWeight(depth, largeRangeLoops);
+    }
+
+    /**
+     * Number of loops enclosing the node beyond the first one, plus one per loop over a large range.
+     */
+    public int cost() {
+        return Math.max(0, depth - 1) + largeRangeLoops;
+    }
+
+    /**
+     * Sets the cost of the issue, which becomes its gap: the remediation function of the rule multiplies it.
+     */
+    public PreciseIssue weigh(PreciseIssue issue) {
+        return issue.withCost(cost());
+    }
+
+    private static boolean isLargeRange(Tree loop) {
+        if (!loop.is(Tree.Kind.FOR_STMT)) {
+            return false;
+        }
+        List<Expression> iterables = ((ForStatement) loop).testExpressions();
+        if (iterables.size() != 1 || !iterables.get(0).is(Tree.Kind.CALL_EXPR)) {
+            return false;
+        }
+        CallExpression call = (CallExpression) iterables.get(0);
+        if (!isRange(call)) {
+            return false;
+        }
+        OptionalLong iterations = iterations(call.arguments());
+        return iterations.isPresent() && iterations.getAsLong() >= LARGE_RANGE;
+    }
+
+    private static boolean isRange(CallExpression call) {
+        String calleeName = QualifiedNameMatcher.calleeName(call);
+        if (calleeName != null) {
+            return "range".equals(calleeName);
+        }
+        return call.callee().is(Tree.Kind.NAME) && "range".equals(((Name) call.callee()).name());
+    }
+
+    /**
+     * Number of iterations of {@code range(stop)}, {@code range(start, stop)} or {@code range(start, stop, step)}
+     * when all of its arguments are integer literals.
+     */
+    private static OptionalLong iterations(List<Argument> arguments) {
+        if (arguments.isEmpty() || arguments.size() > 3) {
+            return OptionalLong.empty();
+        }
+        long[] values = new long[arguments.size()];
+        for (int i = 0; i < values.length; i++) {
+            OptionalLong value = integerLiteral(arguments.get(i));
+            if (value.isEmpty()) {
+                return OptionalLong.empty();
+            }
+            values[i] = value.getAsLong();
+        }
+        if (values.length == 1) {
+            return OptionalLong.of(Math.max(0, values[0]));
+        }
+        long step = values.length == 3 ? values[2] : 1;
+        if (step <= 0) {
+            return OptionalLong.empty();
+        }
+        long span = values[1] - values[0];
+        return OptionalLong.of(span <= 0 ? 0 : (span + step - 1) / step);
+    }
+
+    private static OptionalLong integerLiteral(Argument argument) {
+        if (!(argument instanceof RegularArgument regularArgument) || regularArgument.keywordArgument() != null
+                || !regularArgument.expression().is(Tree.Kind.NUMERIC_LITERAL)) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(((NumericLiteral) regularArgument.expression()).valueAsLong());
+        } catch (NumberFormatException e) {
+            // floats and complex numbers are not valid bounds
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.symbols.Usage;
+import org.sonar.plugins.python.api.tree.AnnotatedAssignment;
+import org.sonar.plugins.python.api.tree.Argument;
+import org.sonar.plugins.python.api.tree.AssignmentStatement;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.ClassDef;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.ExpressionList;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Parameter;
+import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.RegularArgument;
+import org.sonar.plugins.python.api.tree.Statement;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.WithItem;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recognizes the calls which run a query through an ORM: Django, SQLAlchemy (including Flask-SQLAlchemy) and Peewee.
+ * <p>
+ * Calls are recognized by the fully qualified name of the method called when the analyzer resolves it, and otherwise
+ * by the fully qualified name of the object they are made on. Names are resolved through the {@link ImportIndex} and
+ * through their single binding in the file:
+ * </p>
+ * <ul>
+ *     <li>Django: {@code Model.objects.get(...)}, {@code Model.objects.filter(...)}... where {@code Model} is a class of
+ *     the file extending {@code django.db.models.Model} or is imported from a {@code models} module</li>
+ *     <li>SQLAlchemy: {@code session.execute(...)}, {@code session.scalars(...)}, {@code session.get(...)} and the
+ *     methods running a query built by {@code query}: {@code session.query(Model).first()}... where
+ *     {@code session} is annotated as, or built by, a {@code sqlalchemy.orm.Session}, a {@code sessionmaker} or is the
+ *     {@code session} of a {@code flask_sqlalchemy.SQLAlchemy}, and {@code Model.query.filter_by(...).all()} on the
+ *     models of Flask-SQLAlchemy</li>
+ *     <li>Peewee: {@code Model.get(...)}, {@code Model.create(...)}... on a class extending {@code peewee.Model} and the
+ *     methods running a query built on it by {@code select}, {@code insert}, {@code update} or {@code delete}</li>
+ * </ul>
+ * <p>
+ * Query sets which are only built, such as {@code session.query(Model)} or {@code Model.select()}, are not queries by
+ * themselves: they run when iterated, which {@link #lazilyLoadedModel} helps to analyse.
+ * </p>
+ */
+public final class OrmQueries {
+
+    public static final List<String> ORM_LIBS = List.of("django", "flask_sqlalchemy", "peewee", "sqlalchemy");
+
+    private static final List<String> SQLALCHEMY_LIBS = List.of("flask_sqlalchemy", "sqlalchemy");
+
+    /**
+     * Bound of the chains of bindings, base classes and attributes followed to resolve a name.
+     */
+    private static final int MAX_DEPTH = 8;
+
+    private static final Set<String> DJANGO_MANAGER_QUERIES = Set.of("aggregate", "all", "bulk_create", "bulk_update",
+            "count", "create", "delete", "earliest", "exclude", "exists", "filter", "first", "get", "get_or_create",
+            "in_bulk", "last", "latest", "update", "update_or_create", "values", "values_list");
+
+    private static final Set<String> SQLALCHEMY_SESSION_QUERIES = Set.of("execute", "get", "scalar", "scalars");
+    private static final Set<String> SQLALCHEMY_QUERY_BUILDERS = Set.of("query");
+    private static final Set<String> SQLALCHEMY_QUERY_TERMINALS = Set.of("all", "count", "delete", "first", "one",
+            "one_or_none", "scalar", "update");
+
+    private static final Set<String> PEEWEE_MODEL_QUERIES = Set.of("create", "get", "get_by_id", "get_or_create",
+            "get_or_none", "insert_many");
+    private static final Set<String> PEEWEE_QUERY_BUILDERS = Set.of("delete", "insert", "select", "update");
+    private static final Set<String> PEEWEE_QUERY_TERMINALS = Set.of("count", "execute", "exists", "first", "get",
+            "scalar");
+
+    /**
+     * Methods of the query sets loading the relations along with the queried objects, or returning plain values.
+     */
+    private static final Set<String> EAGER_LOADING = Set.of("dicts", "join", "namedtuples", "options", "prefetch",
+            "prefetch_related", "select_related", "tuples", "values", "values_list");
+
+    /**
+     * Query methods of the ORM classes, for the calls whose callee is resolved by the analyzer.
+     */
+    private static final QualifiedNameMatcher<String> QUERY_METHODS = queryMethods();
+
+    /**
+     * Sessions of SQLAlchemy: the classes of their instances, and the attribute holding the session of Flask-SQLAlchemy.
+     */
+    private static final QualifiedNameMatcher<String> SESSIONS = QualifiedNameMatcher.of("sqlalchemy.orm.**.Session",
+            "sqlalchemy.orm.**.scoped_session", "sqlalchemy.ext.asyncio.**.AsyncSession",
+            "flask_sqlalchemy.**.SQLAlchemy.session");
+    private static final QualifiedNameMatcher<String> SESSION_FACTORIES = QualifiedNameMatcher.of(
+            "sqlalchemy.orm.**.sessionmaker", "sqlalchemy.ext.asyncio.**.async_sessionmaker");
+    private static final QualifiedNameMatcher<String> SQLALCHEMY_SELECT = QualifiedNameMatcher.of("sqlalchemy.**.select");
+
+    private static final QualifiedNameMatcher<String> DJANGO_MODELS = QualifiedNameMatcher.of("django.db.models.**.Model");
+    private static final QualifiedNameMatcher<String> FLASK_MODELS = QualifiedNameMatcher.of(
+            "flask_sqlalchemy.**.SQLAlchemy.Model");
+    private static final QualifiedNameMatcher<String> PEEWEE_MODELS = QualifiedNameMatcher.of("peewee.Model");
+
+    /**
+     * Fields of the models holding another model, loaded by a query of its own the first time they are read.
+     */
+    private static final QualifiedNameMatcher<String> RELATION_FIELDS = QualifiedNameMatcher.of(
+            "django.db.models.**.ForeignKey", "django.db.models.**.OneToOneField", "peewee.ForeignKeyField",
+            "sqlalchemy.orm.**.relationship", "flask_sqlalchemy.**.SQLAlchemy.relationship");
+
+    private OrmQueries() {
+        // Utility class - prevent instantiation
+    }
+
+    private static QualifiedNameMatcher<String> queryMethods() {
+        QualifiedNameMatcher.Builder<String> builder = QualifiedNameMatcher.builder();
+        DJANGO_MANAGER_QUERIES.forEach(method -> builder.add("django.db.models.**.Manager." + method, method));
+        SQLALCHEMY_SESSION_QUERIES.forEach(method -> builder.add("sqlalchemy.orm.**.Session." + method, method)
+                .add("sqlalchemy.orm.**.scoped_session." + method, method));
+        SQLALCHEMY_QUERY_TERMINALS.forEach(method -> builder.add("sqlalchemy.orm.**.Query." + method, method));
+        PEEWEE_MODEL_QUERIES.forEach(method -> builder.add("peewee.Model." + method, method));
+        return builder.build();
+    }
+
+    /**
+     * Returns {@code true} when the call runs a query through one of the {@link #ORM_LIBS}.
+     */
+    public static boolean isQuery(CallExpression call, ImportIndex imports) {
+        if (QUERY_METHODS.matches(call)) {
+            return true;
+        }
+        if (!call.callee().is(Tree.Kind.QUALIFIED_EXPR)) {
+            return false;
+        }
+        QualifiedExpression callee = (QualifiedExpression) call.callee();
+        String method = callee.name().name();
+        Expression receiver = callee.qualifier();
+        return (DJANGO_MANAGER_QUERIES.contains(method) && isDjangoManager(receiver, imports))
+                || (SQLALCHEMY_SESSION_QUERIES.contains(method) && isSession(receiver, imports))
+                || (SQLALCHEMY_QUERY_TERMINALS.contains(method) && isSqlAlchemyQuery(receiver, imports))
+                || (PEEWEE_MODEL_QUERIES.contains(method) && isPeeweeModel(receiver, imports))
+                || (PEEWEE_QUERY_TERMINALS.contains(method) && isPeeweeQuery(receiver, imports));
+    }
+
+    /**
+     * Returns the model queried when the expression is a query of an ORM returning model instances whose relations are
+     * loaded lazily, one query per instance and relation: no method loading them eagerly is called on the query.
+     * For instance {@code Book} for {@code Book.objects.filter(...)}, but {@code null} for
+     * {@code Book.objects.select_related("author")} or for any expression which is not a query.
+     */
+    @CheckForNull
+    public static Expression lazilyLoadedModel(Expression expression, ImportIndex imports) {
+        return queriedModel(expression, imports, false);
+    }
+
+    /**
+     * Returns {@code true} when the model, a class of the file, or one of its base classes of the file declares the
+     * attribute as a relation to another model: {@code ForeignKey}, {@code OneToOneField}, {@code ForeignKeyField} or
+     * {@code relationship}.
+     */
+    public static boolean isRelation(Expression model, String attribute, ImportIndex imports) {
+        return isRelation(model, attribute, imports, MAX_DEPTH);
+    }
+
+    private static boolean isRelation(Expression model, String attribute, ImportIndex imports, int depth) {
+        ClassDef classDef = classDefinition(model);
+        if (classDef == null || depth == 0) {
+            return false;
+        }
+        for (Statement statement : classDef.body().statements()) {
+            Expression field = fieldValue(statement, attribute);
+            if (field != null && field.is(Tree.Kind.CALL_EXPR)
+                    && RELATION_FIELDS.matches(qualifiedName(((CallExpression) field).callee(), imports, depth))) {
+                return true;
+            }
+        }
+        for (Expression base : baseClasses(classDef)) {
+            if (isRelation(base, attribute, imports, depth - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walks the chain of calls ending with the expression down to the method building the query, and returns its model.
+     * {@code select(Model)} statements of SQLAlchemy are recognized when {@code statement} is set, as they are only
+     * queries once given to a session.
+     */
+    @CheckForNull
+    private static Expression queriedModel(Expression expression, ImportIndex imports, boolean statement) {
+        Expression current = expression;
+        while (true) {
+            if (current.is(Tree.Kind.CALL_EXPR)) {
+                CallExpression call = (CallExpression) current;
+                if (statement && SQLALCHEMY_SELECT.matches(imports.resolve(call.callee()))) {
+                    return firstArgument(call);
+                }
+                current = call.callee();
+            } else if (current.is(Tree.Kind.QUALIFIED_EXPR)) {
+                QualifiedExpression link = (QualifiedExpression) current;
+                String name = link.name().name();
+                if (EAGER_LOADING.contains(name)) {
+                    return null;
+                }
+                Expression qualifier = link.qualifier();
+                if (isDjangoManager(link, imports)
+                        || ("select".equals(name) && isPeeweeModel(qualifier, imports))
+                        || ("query".equals(name) && isFlaskModel(qualifier, imports))) {
+                    return qualifier;
+                }
+                if (("query".equals(name) || "scalars".equals(name)) && isSession(qualifier, imports)) {
+                    Expression argument = firstArgumentOf(link);
+                    return argument == null || "query".equals(name) ? argument : queriedModel(argument, imports, true);
+                }
+                current = qualifier;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * {@code Model.objects}, with {@code Model} a model of Django.
+     */
+    private static boolean isDjangoManager(Expression expression, ImportIndex imports) {
+        if (!expression.is(Tree.Kind.QUALIFIED_EXPR)) {
+            return false;
+        }
+        QualifiedExpression manager = (QualifiedExpression) expression;
+        return "objects".equals(manager.name().name()) && isModel(manager.qualifier(), DJANGO_MODELS, imports, MAX_DEPTH);
+    }
+
+    private static boolean isFlaskModel(Expression expression, ImportIndex imports) {
+        return imports.importsAnyModule(SQLALCHEMY_LIBS) && isModel(expression, FLASK_MODELS, imports, MAX_DEPTH);
+    }
+
+    private static boolean isPeeweeModel(Expression expression, ImportIndex imports) {
+        return imports.importsModule("peewee") && isModel(expression, PEEWEE_MODELS, imports, MAX_DEPTH);
+    }
+
+    private static boolean isSqlAlchemyQuery(Expression receiver, ImportIndex imports) {
+        QualifiedExpression builder = builtBy(receiver, SQLALCHEMY_QUERY_BUILDERS);
+        return builder != null && (isSession(builder.qualifier(), imports) || isFlaskModel(builder.qualifier(), imports));
+    }
+
+    private static boolean isPeeweeQuery(Expression receiver, ImportIndex imports) {
+        QualifiedExpression builder = builtBy(receiver, PEEWEE_QUERY_BUILDERS);
+        return builder != null && isPeeweeModel(builder.qualifier(), imports);
+    }
+
+    private static boolean isSession(Expression expression, ImportIndex imports) {
+        return SESSIONS.matches(instanceOf(expression, imports, MAX_DEPTH))
+                || SESSIONS.matches(qualifiedName(expression, imports, MAX_DEPTH));
+    }
+
+    /**
+     * Returns {@code true} when the expression names a class of the file extending one of the {@code bases}, directly
+     * or through other classes of the file, or a class imported from a {@code models} module of the project.
+     */
+    private static boolean isModel(Expression expression, QualifiedNameMatcher<String> bases, ImportIndex imports, int depth) {
+        String importedName = imports.resolve(expression);
+        if (importedName != null) {
+            return (importedName.startsWith("models.") || importedName.contains(".models."))
+                    && ORM_LIBS.stream().noneMatch(lib -> importedName.startsWith(lib + "."));
+        }
+        ClassDef classDef = classDefinition(expression);
+        if (classDef == null || depth == 0) {
+            return false;
+        }
+        for (Expression base : baseClasses(classDef)) {
+            if (bases.matches(qualifiedName(base, imports, depth - 1)) || isModel(base, bases, imports, depth - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fully qualified name of a name or attribute: the names bound by imports are resolved by the {@link ImportIndex},
+     * and the attributes of the instances of imported classes are named after the class, {@code db.session} being
+     * {@code flask_sqlalchemy.SQLAlchemy.session} when {@code db = SQLAlchemy(app)}.
+     */
+    @CheckForNull
+    private static String qualifiedName(Expression expression, ImportIndex imports, int depth) {
+        String importedName = imports.resolve(expression);
+        if (importedName != null || depth == 0 || !expression.is(Tree.Kind.QUALIFIED_EXPR)) {
+            return importedName;
+        }
+        QualifiedExpression attribute = (QualifiedExpression) expression;
+        String type = instanceOf(attribute.qualifier(), imports, depth - 1);
+        return type == null ? null : (type + "." + attribute.name().name());
+    }
+
+    /**
+     * Fully qualified name of the class the value of the expression is an instance of, when it is built by calling an
+     * imported class or when it is a name annotated with an imported class, or {@code null} when it is not known.
+     * Names are followed to their single binding: {@code session = Session(engine)},
+     * {@code with Session(engine) as session}, {@code def f(session: Session)}. Calling a {@code sessionmaker}
+     * builds a session.
+     */
+    @CheckForNull
+    private static String instanceOf(Expression expression, ImportIndex imports, int depth) {
+        if (depth == 0) {
+            return null;
+        }
+        if (expression.is(Tree.Kind.CALL_EXPR)) {
+            Expression callee = ((CallExpression) expression).callee();
+            if (SESSION_FACTORIES.matches(instanceOf(callee, imports, depth - 1))) {
+                return "sqlalchemy.orm.Session";
+            }
+            return qualifiedName(callee, imports, depth - 1);
+        }
+        if (!expression.is(Tree.Kind.NAME) || imports.resolve(expression) != null) {
+            return null;
+        }
+        Tree binding = singleBinding((Name) expression);
+        Tree parent = binding == null ? null : binding.parent();
+        if (parent == null) {
+            return null;
+        }
+        if (parent.is(Tree.Kind.PARAMETER) && ((Parameter) parent).typeAnnotation() != null) {
+            return qualifiedName(((Parameter) parent).typeAnnotation().expression(), imports, depth - 1);
+        }
+        if (parent.is(Tree.Kind.ANNOTATED_ASSIGNMENT)) {
+            return qualifiedName(((AnnotatedAssignment) parent).annotation().expression(), imports, depth - 1);
+        }
+        if (parent.is(Tree.Kind.WITH_ITEM)) {
+            return instanceOf(((WithItem) parent).test(), imports, depth - 1);
+        }
+        if (parent.is(Tree.Kind.EXPRESSION_LIST) && ((ExpressionList) parent).expressions().size() == 1
+                && parent.parent().is(Tree.Kind.ASSIGNMENT_STMT)) {
+            return instanceOf(((AssignmentStatement) parent.parent()).assignedValue(), imports, depth - 1);
+        }
+        return null;
+    }
+
+    @CheckForNull
+    private static Tree singleBinding(Name name) {
+        Symbol symbol = name.symbol();
+        if (symbol == null) {
+            return null;
+        }
+        Tree binding = null;
+        for (Usage usage : symbol.usages()) {
+            if (usage.isBindingUsage()) {
+                if (binding != null) {
+                    return null;
+                }
+                binding = usage.tree();
+            }
+        }
+        return binding;
+    }
+
+    @CheckForNull
+    private static ClassDef classDefinition(Expression expression) {
+        if (!expression.is(Tree.Kind.NAME) || ((Name) expression).symbol() == null) {
+            return null;
+        }
+        for (Usage usage : ((Name) expression).symbol().usages()) {
+            if (usage.kind() == Usage.Kind.CLASS_DECLARATION && usage.tree().parent().is(Tree.Kind.CLASSDEF)) {
+                return (ClassDef) usage.tree().parent();
+            }
+        }
+        return null;
+    }
+
+    private static List<Expression> baseClasses(ClassDef classDef) {
+        List<Expression> bases = new ArrayList<>();
+        if (classDef.args() != null) {
+            for (Argument argument : classDef.args().arguments()) {
+                if (argument.is(Tree.Kind.REGULAR_ARGUMENT) && ((RegularArgument) argument).keywordArgument() == null) {
+                    bases.add(((RegularArgument) argument).expression());
+                }
+            }
+        }
+        return bases;
+    }
+
+    /**
+     * The value assigned to the attribute by a statement of a class body: {@code author = ForeignKey(...)} or
+     * {@code author: Mapped[Author] = relationship(...)}.
+     */
+    @CheckForNull
+    private static Expression fieldValue(Statement statement, String attribute) {
+        if (statement.is(Tree.Kind.ASSIGNMENT_STMT)) {
+            AssignmentStatement assignment = (AssignmentStatement) statement;
+            List<ExpressionList> targets = assignment.lhsExpressions();
+            if (targets.size() == 1 && targets.get(0).expressions().size() == 1
+                    && isName(targets.get(0).expressions().get(0), attribute)) {
+                return assignment.assignedValue();
+            }
+        } else if (statement.is(Tree.Kind.ANNOTATED_ASSIGNMENT)) {
+            AnnotatedAssignment assignment = (AnnotatedAssignment) statement;
+            if (isName(assignment.variable(), attribute)) {
+                return assignment.assignedValue();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isName(Expression expression, String name) {
+        return expression.is(Tree.Kind.NAME) && name.equals(((Name) expression).name());
+    }
+
+    /**
+     * The first positional argument of the method called, when the attribute is called.
+     */
+    @CheckForNull
+    private static Expression firstArgumentOf(QualifiedExpression method) {
+        Tree parent = method.parent();
+        if (!parent.is(Tree.Kind.CALL_EXPR) || ((CallExpression) parent).callee() != method) {
+            return null;
+        }
+        return firstArgument((CallExpression) parent);
+    }
+
+    @CheckForNull
+    private static Expression firstArgument(CallExpression call) {
+        List<Argument> arguments = call.arguments();
+        if (arguments.isEmpty() || !arguments.get(0).is(Tree.Kind.REGULAR_ARGUMENT)
+                || ((RegularArgument) arguments.get(0)).keywordArgument() != null) {
+            return null;
+        }
+        return ((RegularArgument) arguments.get(0)).expression();
+    }
+
+    /**
+     * Returns the link of the chain of calls ending with the given expression which calls, or reads, one of the
+     * {@code builders}, or {@code null} when there is none.
+     */
+    @CheckForNull
+    private static QualifiedExpression builtBy(Expression expression, Set<String> builders) {
+        Expression current = expression;
+        while (true) {
+            if (current.is(Tree.Kind.CALL_EXPR)) {
+                current = ((CallExpression) current).callee();
+            } else if (current.is(Tree.Kind.QUALIFIED_EXPR)) {
+                QualifiedExpression link = (QualifiedExpression) current;
+                if (builders.contains(link.name().name())) {
+                    return link;
+                }
+                current = link.qualifier();
+            } else {
+                return null;
+            }
+        }
+    }
+}
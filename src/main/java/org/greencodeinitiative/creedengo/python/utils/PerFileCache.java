@@ -0,0 +1,77 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Holds one value computed from the file currently analysed, so that every check analysing that file shares it.
+ * <p>
+ * Checks are invoked file after file on a given thread: the cache keeps a single entry per thread and recomputes it
+ * as soon as a node of another file is seen. At most one file worth of data is therefore retained per thread.
+ * </p>
+ *
+ * @param <T> type of the per-file value
+ */
+final class PerFileCache<T> {
+
+    private final BiFunction<FileInput, SubscriptionContext, T> factory;
+    private final ThreadLocal<Entry<T>> current = new ThreadLocal<>();
+
+    PerFileCache(Function<FileInput, T> factory) {
+        this.factory = (fileInput, ctx) -> factory.apply(fileInput);
+    }
+
+    private PerFileCache(BiFunction<FileInput, SubscriptionContext, T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns a cache whose values are computed with the context of the file, to reuse the other per-file values.
+     */
+    static <T> PerFileCache<T> withContext(BiFunction<FileInput, SubscriptionContext, T> factory) {
+        return new PerFileCache<>(factory);
+    }
+
+    T get(SubscriptionContext ctx) {
+        PythonFile pythonFile = ctx.pythonFile();
+        Entry<T> entry = current.get();
+        if (entry == null || entry.pythonFile != pythonFile) {
+            entry = new Entry<>(pythonFile, factory.apply(rootOf(ctx.syntaxNode()), ctx));
+            current.set(entry);
+        }
+        return entry.value;
+    }
+
+    private static FileInput rootOf(Tree tree) {
+        Tree root = tree;
+        while (root.parent() != null) {
+            root = root.parent();
+        }
+        return (FileInput) root;
+    }
+
+    private record Entry<T>(PythonFile pythonFile, T value) {
+    }
+}
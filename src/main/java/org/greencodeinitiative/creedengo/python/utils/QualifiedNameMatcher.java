@@ -0,0 +1,206 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.CallExpression;
+
+import javax.annotation.CheckForNull;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Matches fully qualified names, such as the names of the symbols called, against a fixed set of patterns.
+ * <p>
+ * Patterns are dotted names whose segments are stored in a trie, the segments shared by several patterns being
+ * interned. A {@code **} segment matches any number of segments, so that {@code torch.nn.**.Conv2d} matches both
+ * {@code torch.nn.Conv2d} and {@code torch.nn.modules.conv.Conv2d}, the names given by different versions of the
+ * Python analyzer. Names are matched segment by segment within the original string, without allocating; exact
+ * segments are preferred to {@code **} when both match.
+ * </p>
+ *
+ * @param <T> the values associated with the patterns
+ */
+public final class QualifiedNameMatcher<T> {
+
+    private static final String ANY_SEGMENTS = "**";
+
+    private final Node<T> root;
+
+    private QualifiedNameMatcher(Node<T> root) {
+        this.root = root;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns a matcher associating every pattern with itself.
+     */
+    public static QualifiedNameMatcher<String> of(String... patterns) {
+        Builder<String> builder = builder();
+        for (String pattern : patterns) {
+            builder.add(pattern, pattern);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the value of the pattern matching the fully qualified name, or {@code null} when no pattern matches.
+     */
+    @CheckForNull
+    public T match(@CheckForNull String fullyQualifiedName) {
+        return fullyQualifiedName == null ? null : find(root, fullyQualifiedName, 0);
+    }
+
+    /**
+     * Returns the value of the pattern matching the fully qualified name of the symbol called, or {@code null} when
+     * no pattern matches or when the callee cannot be resolved.
+     */
+    @CheckForNull
+    public T match(CallExpression callExpression) {
+        return match(calleeName(callExpression));
+    }
+
+    public boolean matches(@CheckForNull String fullyQualifiedName) {
+        return match(fullyQualifiedName) != null;
+    }
+
+    public boolean matches(CallExpression callExpression) {
+        return match(callExpression) != null;
+    }
+
+    /**
+     * Returns the fully qualified name of the symbol called, or {@code null} when it cannot be resolved.
+     */
+    @CheckForNull
+    public static String calleeName(CallExpression callExpression) {
+        Symbol symbol = callExpression.calleeSymbol();
+        return symbol == null ? null : symbol.fullyQualifiedName();
+    }
+
+    @CheckForNull
+    private static <T> T find(Node<T> node, String name, int from) {
+        if (from > name.length()) {
+            // every segment has been matched, a trailing ** matching no segment
+            return node.value != null || node.anySegments == null ? node.value : node.anySegments.value;
+        }
+        int end = name.indexOf('.', from);
+        if (end < 0) {
+            end = name.length();
+        }
+        Node<T> child = node.child(name, from, end);
+        T value = child == null ? null : find(child, name, end + 1);
+        if (value == null && node.anySegments != null) {
+            int next = from;
+            while (value == null && next >= 0) {
+                value = find(node.anySegments, name, next);
+                int dot = name.indexOf('.', next);
+                next = dot < 0 ? -1 : (dot + 1);
+            }
+            if (value == null) {
+                value = find(node.anySegments, name, name.length() + 1);
+            }
+        }
+        return value;
+    }
+
+    private static final class Node<T> {
+
+        private static final String[] NO_SEGMENTS = new String[0];
+
+        private String[] segments = NO_SEGMENTS;
+        private Node<T>[] children = newChildren(0);
+        @CheckForNull
+        private Node<T> anySegments;
+        @CheckForNull
+        private T value;
+
+        @CheckForNull
+        private Node<T> child(String name, int from, int end) {
+            int length = end - from;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.length() == length && name.regionMatches(from, segment, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node<T> addChild(String segment) {
+            if (ANY_SEGMENTS.equals(segment)) {
+                if (anySegments == null) {
+                    anySegments = new Node<>();
+                }
+                return anySegments;
+            }
+            Node<T> child = child(segment, 0, segment.length());
+            if (child == null) {
+                child = new Node<>();
+                segments = Arrays.copyOf(segments, segments.length + 1);
+                segments[segments.length - 1] = segment;
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[] newChildren(int size) {
+            return new Node[size];
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final Node<T> root = new Node<>();
+        private final Map<String, String> segments = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Associates the value with the pattern, replacing the value of an identical pattern.
+         */
+        public Builder<T> add(String pattern, T value) {
+            Node<T> node = root;
+            int from = 0;
+            while (from <= pattern.length()) {
+                int end = pattern.indexOf('.', from);
+                if (end < 0) {
+                    end = pattern.length();
+                }
+                if (end == from) {
+                    throw new IllegalArgumentException("Empty segment in " + pattern);
+                }
+                String segment = pattern.substring(from, end);
+                node = node.addChild(segments.computeIfAbsent(segment, s -> s));
+                from = end + 1;
+            }
+            node.value = value;
+            return this;
+        }
+
+        public QualifiedNameMatcher<T> build() {
+            return new QualifiedNameMatcher<>(root);
+        }
+    }
+}
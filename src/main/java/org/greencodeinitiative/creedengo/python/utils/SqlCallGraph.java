@@ -0,0 +1,172 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-file call graph of the functions defined in a file, summarizing for each of them whether calling it executes
+ * an SQL query, directly or through the other functions of the file it calls, at any depth.
+ * <p>
+ * Calls are attributed to the innermost enclosing function definition, the calls of a lambda to the function
+ * defining it, and are resolved through the symbol of the callee: a name bound to several definitions executes a
+ * query when any of them does. The effect of every function is computed once, by a walk of the reversed graph from
+ * the functions executing queries themselves, and memoised with the query it leads to. Building the graph is
+ * therefore linear in the size of the file. The graph is built the first time a check asks for it, with the shared
+ * {@link ImportIndex}, and is then shared by every check analysing the same file.
+ * </p>
+ */
+public final class SqlCallGraph {
+
+    private static final PerFileCache<SqlCallGraph> CACHE = PerFileCache.withContext(
+            (fileInput, ctx) -> new SqlCallGraph(fileInput, ImportIndex.of(ctx)));
+
+    private final Map<Symbol, List<FunctionNode>> functionsBySymbol = new IdentityHashMap<>();
+
+    private SqlCallGraph(FileInput fileInput, ImportIndex imports) {
+        GraphBuilder builder = new GraphBuilder(imports);
+        fileInput.accept(builder);
+        propagate(builder.functions);
+    }
+
+    /**
+     * Returns the call graph of the file currently analysed, building it on first use.
+     */
+    public static SqlCallGraph of(SubscriptionContext ctx) {
+        return CACHE.get(ctx);
+    }
+
+    /**
+     * Builds a new call graph for the given file, without sharing it.
+     */
+    public static SqlCallGraph of(FileInput fileInput) {
+        return new SqlCallGraph(fileInput, ImportIndex.of(fileInput));
+    }
+
+    /**
+     * Returns the SQL query executed, possibly through other functions, when the function called by {@code call} is
+     * run, or {@code null} when the callee is not a function of the file executing queries.
+     */
+    @CheckForNull
+    public CallExpression queryExecutedBy(CallExpression call) {
+        Symbol callee = call.calleeSymbol();
+        if (callee == null) {
+            return null;
+        }
+        for (FunctionNode function : functionsBySymbol.getOrDefault(callee, List.of())) {
+            if (function.query != null) {
+                return function.query;
+            }
+        }
+        return null;
+    }
+
+    private void propagate(List<FunctionNode> functions) {
+        for (FunctionNode function : functions) {
+            functionsBySymbol.computeIfAbsent(function.symbol, s -> new ArrayList<>(1)).add(function);
+        }
+        Deque<FunctionNode> pending = new ArrayDeque<>();
+        for (FunctionNode caller : functions) {
+            for (Symbol calleeSymbol : caller.callees) {
+                for (FunctionNode callee : functionsBySymbol.getOrDefault(calleeSymbol, List.of())) {
+                    callee.callers.add(caller);
+                }
+            }
+            if (caller.query != null) {
+                pending.add(caller);
+            }
+        }
+        while (!pending.isEmpty()) {
+            FunctionNode callee = pending.poll();
+            for (FunctionNode caller : callee.callers) {
+                if (caller.query == null) {
+                    caller.query = callee.query;
+                    pending.add(caller);
+                }
+            }
+        }
+    }
+
+    private static final class FunctionNode {
+
+        private final Symbol symbol;
+        private final List<Symbol> callees = new ArrayList<>();
+        private final List<FunctionNode> callers = new ArrayList<>();
+        private CallExpression query;
+
+        private FunctionNode(Symbol symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    private static final class GraphBuilder extends BaseTreeVisitor {
+
+        private final ImportIndex imports;
+        private final List<FunctionNode> functions = new ArrayList<>();
+        private final Deque<FunctionNode> enclosingFunctions = new ArrayDeque<>();
+
+        private GraphBuilder(ImportIndex imports) {
+            this.imports = imports;
+        }
+
+        @Override
+        public void visitFunctionDef(FunctionDef functionDef) {
+            Symbol symbol = functionDef.name().symbol();
+            if (symbol == null) {
+                super.visitFunctionDef(functionDef);
+                return;
+            }
+            FunctionNode function = new FunctionNode(symbol);
+            functions.add(function);
+            enclosingFunctions.push(function);
+            super.visitFunctionDef(functionDef);
+            enclosingFunctions.pop();
+        }
+
+        @Override
+        public void visitCallExpression(CallExpression call) {
+            FunctionNode function = enclosingFunctions.peek();
+            if (function != null) {
+                if (DatabaseAccess.isQuery(call, imports)) {
+                    if (function.query == null) {
+                        function.query = call;
+                    }
+                } else {
+                    Symbol callee = call.calleeSymbol();
+                    if (callee != null) {
+                        function.callees.add(callee);
+                    }
+                }
+            }
+            super.visitCallExpression(call);
+        }
+    }
+}
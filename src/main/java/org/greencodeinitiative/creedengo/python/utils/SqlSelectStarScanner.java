@@ -0,0 +1,174 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+/**
+ * Single pass, allocation-free detection of {@code SELECT *} queries in SQL text.
+ * <p>
+ * A query is reported when the projection list of a {@code SELECT} contains a bare {@code *} (possibly after
+ * {@code DISTINCT}, {@code ALL} or {@code TOP n}) or a qualified one ({@code t.*}) before its {@code FROM}.
+ * Stars in expressions ({@code a * b}) or in function calls ({@code count(*)}) are not projections and are ignored,
+ * as is everything inside comments ({@code --}, {@code /* *}{@code /}), string literals and quoted identifiers.
+ * Sub-queries are tracked by parenthesis depth, up to {@value #MAX_TRACKED_DEPTH} levels.
+ * </p>
+ */
+public final class SqlSelectStarScanner {
+
+    static final int MAX_TRACKED_DEPTH = 63;
+
+    /** previous significant token starts a projection item: SELECT, DISTINCT, ALL, "," or TOP n */
+    private static final int PROJECTION_START = 0;
+    private static final int DOT = 1;
+    private static final int TOP = 2;
+    private static final int OTHER = 3;
+
+    private SqlSelectStarScanner() {
+        // Utility class - prevent instantiation
+    }
+
+    public static boolean containsSelectStar(CharSequence sql) {
+        return containsSelectStar(sql, 0, sql.length());
+    }
+
+    /**
+     * Scans {@code sql} from {@code start} (inclusive) to {@code end} (exclusive).
+     */
+    public static boolean containsSelectStar(CharSequence sql, int start, int end) {
+        // one bit per parenthesis depth: a SELECT waiting for its FROM, and whether its projection has a star
+        long openSelects = 0L;
+        long selectsWithStar = 0L;
+        int depth = 0;
+        int previous = OTHER;
+
+        int i = start;
+        while (i < end) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < end && sql.charAt(i + 1) == '-') {
+                i = skipLine(sql, i + 2, end);
+            } else if (c == '/' && i + 1 < end && sql.charAt(i + 1) == '*') {
+                i = skipBlockComment(sql, i + 2, end);
+            } else if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(sql, i + 1, end, c);
+                previous = OTHER;
+            } else if (c == '[') {
+                i = skipQuoted(sql, i + 1, end, ']');
+                previous = OTHER;
+            } else if (isWordStart(c)) {
+                int wordEnd = endOfWord(sql, i, end);
+                long bit = depthBit(depth);
+                if (isKeyword(sql, i, wordEnd, "select")) {
+                    openSelects |= bit;
+                    selectsWithStar &= ~bit;
+                    previous = PROJECTION_START;
+                } else if (isKeyword(sql, i, wordEnd, "from")) {
+                    if ((selectsWithStar & bit) != 0) {
+                        return true;
+                    }
+                    openSelects &= ~bit;
+                    previous = OTHER;
+                } else if (previous == PROJECTION_START && (isKeyword(sql, i, wordEnd, "distinct") || isKeyword(sql, i, wordEnd, "all"))) {
+                    previous = PROJECTION_START;
+                } else if (previous == PROJECTION_START && isKeyword(sql, i, wordEnd, "top")) {
+                    previous = TOP;
+                } else {
+                    previous = previous == TOP && Character.isDigit(c) ? PROJECTION_START : OTHER;
+                }
+                i = wordEnd;
+            } else {
+                long bit = depthBit(depth);
+                if (c == '*') {
+                    if ((openSelects & bit) != 0 && (previous == PROJECTION_START || previous == DOT)) {
+                        selectsWithStar |= bit;
+                    }
+                    previous = OTHER;
+                } else if (c == ',') {
+                    previous = PROJECTION_START;
+                } else if (c == '.') {
+                    previous = DOT;
+                } else if (c == '(') {
+                    depth++;
+                    previous = OTHER;
+                } else if (c == ')') {
+                    openSelects &= ~bit;
+                    selectsWithStar &= ~bit;
+                    depth = Math.max(0, depth - 1);
+                    previous = OTHER;
+                } else {
+                    previous = OTHER;
+                }
+                i++;
+            }
+        }
+        return false;
+    }
+
+    private static long depthBit(int depth) {
+        // deeper levels are not tracked
+        return depth <= MAX_TRACKED_DEPTH ? (1L << depth) : 0L;
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static int endOfWord(CharSequence sql, int start, int end) {
+        int i = start + 1;
+        while (i < end && (isWordStart(sql.charAt(i)) || sql.charAt(i) == '$')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isKeyword(CharSequence sql, int start, int end, String lowerCaseKeyword) {
+        if (end - start != lowerCaseKeyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowerCaseKeyword.length(); i++) {
+            if (Character.toLowerCase(sql.charAt(start + i)) != lowerCaseKeyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipLine(CharSequence sql, int start, int end) {
+        int i = start;
+        while (i < end && sql.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipBlockComment(CharSequence sql, int start, int end) {
+        int i = start;
+        while (i + 1 < end && !(sql.charAt(i) == '*' && sql.charAt(i + 1) == '/')) {
+            i++;
+        }
+        return Math.min(i + 2, end);
+    }
+
+    private static int skipQuoted(CharSequence sql, int start, int end, char closingQuote) {
+        int i = start;
+        while (i < end && sql.charAt(i) != closingQuote) {
+            i++;
+        }
+        return Math.min(i + 1, end);
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.symbols.Usage;
+import org.sonar.plugins.python.api.tree.AssignmentStatement;
+import org.sonar.plugins.python.api.tree.BinaryExpression;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.CompoundAssignmentStatement;
+import org.sonar.plugins.python.api.tree.ConditionalExpression;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.ExpressionList;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.ParenthesizedExpression;
+import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.StringElement;
+import org.sonar.plugins.python.api.tree.StringLiteral;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Finds the {@code name += value} statements of a function, or of the top level of a module, where {@code name}
+ * definitely holds a {@code str} or a {@code bytes}: every definition of the name reaching the statement, on every
+ * path of the control flow graph, assigns a value of that kind.
+ * <p>
+ * The kinds of the definitions reaching each block are computed by a forward data-flow analysis, iterated to a fixed
+ * point: paths where a name is not defined, or defined with values of different kinds, leave its kind unknown.
+ * Builders such as lists, {@code io.StringIO} or {@code bytearray} are never of a string kind, appending to them is
+ * not reported.
+ * </p>
+ */
+public final class StringConcatenationFlow {
+
+    /**
+     * Kind of the values a name definitely holds.
+     */
+    public enum Kind {
+        STR, BYTES, UNKNOWN
+    }
+
+    private static final Set<String> STR_METHODS = Set.of("capitalize", "casefold", "center", "expandtabs",
+            "format", "format_map", "join", "ljust", "lower", "lstrip", "removeprefix", "removesuffix", "replace",
+            "rjust", "rstrip", "strip", "swapcase", "title", "translate", "upper", "zfill");
+
+    private StringConcatenationFlow() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Returns the {@code +=} statements of the graph appending to a name holding a {@code str} or a {@code bytes}.
+     */
+    public static List<CompoundAssignmentStatement> concatenations(ControlFlowGraph cfg) {
+        Map<CfgBlock, Map<String, Kind>> entryStates = entryStates(cfg);
+        List<CompoundAssignmentStatement> concatenations = new ArrayList<>();
+        entryStates.forEach((block, entryState) -> {
+            Map<String, Kind> state = new HashMap<>(entryState);
+            for (Tree element : block.elements()) {
+                if (isConcatenation(element, state)) {
+                    concatenations.add((CompoundAssignmentStatement) element);
+                }
+                transfer(element, state);
+            }
+        });
+        // in the order of the source, whatever the order of the blocks
+        concatenations.sort(Comparator.comparingInt((CompoundAssignmentStatement c) -> c.firstToken().line())
+                .thenComparingInt(c -> c.firstToken().column()));
+        return concatenations;
+    }
+
+    private static Map<CfgBlock, Map<String, Kind>> entryStates(ControlFlowGraph cfg) {
+        // blocks never reached have no entry state
+        Map<CfgBlock, Map<String, Kind>> entryStates = new IdentityHashMap<>();
+        Deque<CfgBlock> worklist = new ArrayDeque<>();
+        entryStates.put(cfg.start(), Map.of());
+        worklist.add(cfg.start());
+        Set<CfgBlock> queued = new HashSet<>(worklist);
+        while (!worklist.isEmpty()) {
+            CfgBlock block = worklist.poll();
+            queued.remove(block);
+            Map<String, Kind> state = new HashMap<>(entryStates.get(block));
+            block.elements().forEach(element -> transfer(element, state));
+            for (CfgBlock successor : block.successors()) {
+                Map<String, Kind> previous = entryStates.get(successor);
+                Map<String, Kind> joined = previous == null ? state : join(previous, state);
+                if (!joined.equals(previous)) {
+                    entryStates.put(successor, joined);
+                    if (queued.add(successor)) {
+                        worklist.add(successor);
+                    }
+                }
+            }
+        }
+        return entryStates;
+    }
+
+    /**
+     * A name keeps its kind only when it has the same on both paths. Its kind can only become unknown: the analysis
+     * terminates.
+     */
+    private static Map<String, Kind> join(Map<String, Kind> state, Map<String, Kind> other) {
+        Map<String, Kind> joined = new HashMap<>();
+        state.forEach((name, kind) -> joined.put(name, kind == other.get(name) ? kind : Kind.UNKNOWN));
+        other.keySet().forEach(name -> joined.putIfAbsent(name, Kind.UNKNOWN));
+        return joined;
+    }
+
+    private static boolean isConcatenation(Tree element, Map<String, Kind> state) {
+        if (!element.is(Tree.Kind.COMPOUND_ASSIGNMENT)) {
+            return false;
+        }
+        CompoundAssignmentStatement assignment = (CompoundAssignmentStatement) element;
+        return "+=".equals(assignment.compoundAssignmentToken().value()) && assignment.lhsExpression().is(Tree.Kind.NAME)
+                && kindOf(assignment.lhsExpression(), state) != Kind.UNKNOWN;
+    }
+
+    private static void transfer(Tree element, Map<String, Kind> state) {
+        if (element.is(Tree.Kind.ASSIGNMENT_STMT)) {
+            AssignmentStatement assignment = (AssignmentStatement) element;
+            Kind kind = kindOf(assignment.assignedValue(), state);
+            killBindings(element, state);
+            for (ExpressionList targets : assignment.lhsExpressions()) {
+                if (targets.expressions().size() == 1 && targets.expressions().get(0).is(Tree.Kind.NAME)) {
+                    state.put(((Name) targets.expressions().get(0)).name(), kind);
+                }
+            }
+        } else if (element.is(Tree.Kind.COMPOUND_ASSIGNMENT)) {
+            CompoundAssignmentStatement assignment = (CompoundAssignmentStatement) element;
+            // str += value is a str, or raises
+            Kind kind = "+=".equals(assignment.compoundAssignmentToken().value())
+                    ? kindOf(assignment.lhsExpression(), state) : Kind.UNKNOWN;
+            killBindings(element, state);
+            if (assignment.lhsExpression().is(Tree.Kind.NAME)) {
+                state.put(((Name) assignment.lhsExpression()).name(), kind);
+            }
+        } else {
+            killBindings(element, state);
+        }
+    }
+
+    /**
+     * Forgets the kind of the names bound by the element: loop targets, imports, {@code with ... as}, walrus, ...
+     * The bodies of compound statements and nested scopes are blocks or graphs of their own.
+     */
+    private static void killBindings(Tree element, Map<String, Kind> state) {
+        Deque<Tree> nodes = new ArrayDeque<>();
+        nodes.push(element);
+        while (!nodes.isEmpty()) {
+            Tree node = nodes.pop();
+            if (node.is(Tree.Kind.NAME)) {
+                Usage usage = ((Name) node).usage();
+                if (usage != null && usage.isBindingUsage()) {
+                    state.put(((Name) node).name(), Kind.UNKNOWN);
+                }
+            }
+            for (Tree child : node.children()) {
+                if (child != null && !child.is(Tree.Kind.STATEMENT_LIST, Tree.Kind.FUNCDEF, Tree.Kind.CLASSDEF, Tree.Kind.LAMBDA)) {
+                    nodes.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Kind of the value of an expression. A sum is of a string kind when any of its terms is, the others having to
+     * be of the same kind: the terms of long sums are walked iteratively.
+     */
+    static Kind kindOf(Expression expression, Map<String, Kind> state) {
+        Expression current = unwrap(expression);
+        while (current.is(Tree.Kind.PLUS)) {
+            BinaryExpression sum = (BinaryExpression) current;
+            Kind right = termKindOf(unwrap(sum.rightOperand()), state);
+            if (right != Kind.UNKNOWN) {
+                return right;
+            }
+            current = unwrap(sum.leftOperand());
+        }
+        if (current.is(Tree.Kind.MODULO)) {
+            // printf-style formatting
+            return termKindOf(unwrap(((BinaryExpression) current).leftOperand()), state);
+        }
+        if (current.is(Tree.Kind.CONDITIONAL_EXPR)) {
+            ConditionalExpression conditional = (ConditionalExpression) current;
+            Kind kind = termKindOf(unwrap(conditional.trueExpression()), state);
+            return kind == termKindOf(unwrap(conditional.falseExpression()), state) ? kind : Kind.UNKNOWN;
+        }
+        return termKindOf(current, state);
+    }
+
+    private static Kind termKindOf(Expression expression, Map<String, Kind> state) {
+        if (expression.is(Tree.Kind.STRING_LITERAL)) {
+            return literalKind((StringLiteral) expression);
+        }
+        if (expression.is(Tree.Kind.NAME)) {
+            return state.getOrDefault(((Name) expression).name(), Kind.UNKNOWN);
+        }
+        if (expression.is(Tree.Kind.CALL_EXPR)) {
+            return callKind((CallExpression) expression, state);
+        }
+        return Kind.UNKNOWN;
+    }
+
+    private static Kind literalKind(StringLiteral literal) {
+        Kind kind = null;
+        for (StringElement element : literal.stringElements()) {
+            Kind elementKind = element.prefix().toLowerCase(Locale.ROOT).contains("b") ? Kind.BYTES : Kind.STR;
+            if (kind != null && kind != elementKind) {
+                return Kind.UNKNOWN;
+            }
+            kind = elementKind;
+        }
+        return Objects.requireNonNullElse(kind, Kind.UNKNOWN);
+    }
+
+    private static Kind callKind(CallExpression call, Map<String, Kind> state) {
+        Expression callee = call.callee();
+        if (callee.is(Tree.Kind.NAME)) {
+            String name = ((Name) callee).name();
+            if (state.containsKey(name)) {
+                // a local variable shadowing the builtin
+                return Kind.UNKNOWN;
+            }
+            return switch (name) {
+                case "str", "repr", "format", "chr", "ascii" -> Kind.STR;
+                case "bytes" -> Kind.BYTES;
+                default -> Kind.UNKNOWN;
+            };
+        }
+        if (callee.is(Tree.Kind.QUALIFIED_EXPR)) {
+            QualifiedExpression method = (QualifiedExpression) callee;
+            String methodName = method.name().name();
+            Expression receiver = method.qualifier() != null ? unwrap(method.qualifier()) : null;
+            Kind receiverKind = receiver != null && !receiver.is(Tree.Kind.CALL_EXPR) ? termKindOf(receiver, state) : Kind.UNKNOWN;
+            if ("encode".equals(methodName) && receiverKind == Kind.STR) {
+                return Kind.BYTES;
+            }
+            if ("decode".equals(methodName) && receiverKind == Kind.BYTES) {
+                return Kind.STR;
+            }
+            if (STR_METHODS.contains(methodName) && receiverKind != Kind.UNKNOWN) {
+                return receiverKind;
+            }
+        }
+        return Kind.UNKNOWN;
+    }
+
+    private static Expression unwrap(Expression expression) {
+        Expression current = expression;
+        while (current.is(Tree.Kind.PARENTHESIZED)) {
+            current = ((ParenthesizedExpression) current).expression();
+        }
+        return current;
+    }
+}
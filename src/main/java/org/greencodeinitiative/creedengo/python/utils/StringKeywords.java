@@ -0,0 +1,187 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.tree.StringElement;
+import org.sonar.plugins.python.api.tree.StringLiteral;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tells which of the keywords relevant to the string-based rules appear in a string, with one pass over its text.
+ * <p>
+ * All the keywords are compiled once, at class load, into a single Aho-Corasick automaton, matching ASCII letters
+ * case-insensitively. Scanning a string returns a bitmask of the keyword families found: rules only run their
+ * detailed (and more expensive) checks when their bit is set. Masks of the string elements of the file currently
+ * analysed are memoized, so that each element is scanned once whatever the number of rules asking for it.
+ * </p>
+ */
+public final class StringKeywords {
+
+    /** {@code select} */
+    public static final int SQL_SELECT = 1;
+    /** {@code from} */
+    public static final int SQL_FROM = 1 << 1;
+    /** {@code *} */
+    public static final int STAR = 1 << 2;
+    /** {@code .csv} */
+    public static final int CSV_EXTENSION = 1 << 3;
+    /** {@code .png}, {@code .jpg}, {@code .gif}... */
+    public static final int IMAGE_EXTENSION = 1 << 4;
+    /** {@code </svg>} */
+    public static final int SVG_END_TAG = 1 << 5;
+
+    private static final String[] IMAGE_EXTENSIONS = {
+            ".bmp", ".ico", ".tiff", ".webp", ".png", ".jpg", ".jpeg", ".jfif", ".pjpeg", ".pjp", ".gif", ".avif", ".apng"
+    };
+
+    private static final Automaton AUTOMATON = buildAutomaton();
+
+    private static final PerFileCache<Map<StringElement, Integer>> MASKS = new PerFileCache<>(fileInput -> new IdentityHashMap<>());
+
+    private StringKeywords() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Keywords of the given string element (prefix and quotes included), memoized for the file currently analysed.
+     */
+    public static int of(SubscriptionContext ctx, StringElement element) {
+        return MASKS.get(ctx).computeIfAbsent(element, e -> scan(e.value()));
+    }
+
+    /**
+     * Keywords of all the elements of the given string literal, memoized for the file currently analysed.
+     */
+    public static int of(SubscriptionContext ctx, StringLiteral literal) {
+        int mask = 0;
+        for (StringElement element : literal.stringElements()) {
+            mask |= of(ctx, element);
+        }
+        return mask;
+    }
+
+    public static boolean hasAll(int mask, int keywords) {
+        return (mask & keywords) == keywords;
+    }
+
+    public static int scan(CharSequence text) {
+        int[][] transitions = AUTOMATON.transitions;
+        int[] outputs = AUTOMATON.outputs;
+        int state = 0;
+        int mask = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state][symbol(text.charAt(i))];
+            mask |= outputs[state];
+        }
+        return mask;
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            c = (char) (c + ('a' - 'A'));
+        }
+        return c < Automaton.ALPHABET_SIZE ? c : 0;
+    }
+
+    private static Automaton buildAutomaton() {
+        Automaton.Builder builder = new Automaton.Builder();
+        builder.add("select", SQL_SELECT);
+        builder.add("from", SQL_FROM);
+        builder.add("*", STAR);
+        builder.add(".csv", CSV_EXTENSION);
+        for (String extension : IMAGE_EXTENSIONS) {
+            builder.add(extension, IMAGE_EXTENSION);
+        }
+        builder.add("</svg>", SVG_END_TAG);
+        return builder.build();
+    }
+
+    /**
+     * Deterministic automaton over ASCII: every state has a transition for every symbol, failure links included.
+     * Non ASCII characters are all mapped to symbol 0, which no keyword contains.
+     */
+    private record Automaton(int[][] transitions, int[] outputs) {
+
+        static final int ALPHABET_SIZE = 128;
+
+        private static final class Builder {
+            private final List<int[]> trie = new ArrayList<>();
+            private final List<Integer> keywordMasks = new ArrayList<>();
+
+            Builder() {
+                newState();
+            }
+
+            void add(String keyword, int mask) {
+                int state = 0;
+                for (char c : keyword.toCharArray()) {
+                    int next = trie.get(state)[c];
+                    if (next == 0) {
+                        next = newState();
+                        trie.get(state)[c] = next;
+                    }
+                    state = next;
+                }
+                keywordMasks.set(state, keywordMasks.get(state) | mask);
+            }
+
+            Automaton build() {
+                int[][] transitions = trie.toArray(new int[0][]);
+                int[] outputs = new int[transitions.length];
+                int[] failures = new int[transitions.length];
+                for (int state = 0; state < outputs.length; state++) {
+                    outputs[state] = keywordMasks.get(state);
+                }
+                // breadth-first, so that the failure state of a state is complete before the state itself
+                Deque<Integer> queue = new ArrayDeque<>();
+                for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                    if (transitions[0][symbol] != 0) {
+                        queue.add(transitions[0][symbol]);
+                    }
+                }
+                while (!queue.isEmpty()) {
+                    int state = queue.poll();
+                    outputs[state] |= outputs[failures[state]];
+                    for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                        int next = transitions[state][symbol];
+                        if (next != 0) {
+                            failures[next] = transitions[failures[state]][symbol];
+                            queue.add(next);
+                        } else {
+                            transitions[state][symbol] = transitions[failures[state]][symbol];
+                        }
+                    }
+                }
+                return new Automaton(transitions, outputs);
+            }
+
+            private int newState() {
+                trie.add(new int[ALPHABET_SIZE]);
+                keywordMasks.add(0);
+                return trie.size() - 1;
+            }
+        }
+    }
+}
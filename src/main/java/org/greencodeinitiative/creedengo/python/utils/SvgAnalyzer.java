@@ -0,0 +1,235 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Single pass analysis of inline SVG documents, collecting everything that an SVG optimizer would strip.
+ * <p>
+ * The text is tokenized once, tag after tag: nothing is reported unless it contains a closing {@code </svg>} tag.
+ * </p>
+ */
+public final class SvgAnalyzer {
+
+    /**
+     * Maximum number of decimals of a number in an attribute value before it is considered excessive.
+     */
+    static final int MAX_DECIMALS = 3;
+
+    private static final String[] KNOWN_NAMESPACE_PREFIXES = {"svg", "xlink"};
+    private static final String[] EDITOR_PREFIXES = {"inkscape", "sodipodi", "sketch", "serif"};
+
+    public enum Finding {
+        COMMENTS("comments"),
+        LAYERS("multiple layers"),
+        FOREIGN_NAMESPACES("foreign namespaces"),
+        METADATA("metadata"),
+        EDITOR_DATA("editor data"),
+        NUMERIC_PRECISION("excessive numeric precision");
+
+        private final String label;
+
+        Finding(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private SvgAnalyzer() {
+        // Utility class - prevent instantiation
+    }
+
+    public static Set<Finding> analyze(CharSequence text) {
+        Set<Finding> findings = EnumSet.noneOf(Finding.class);
+        boolean svgClosed = false;
+        int groupEnds = 0;
+
+        int end = text.length();
+        int i = 0;
+        while (i < end) {
+            if (text.charAt(i) != '<') {
+                i++;
+            } else if (startsWith(text, i, "<!--")) {
+                findings.add(Finding.COMMENTS);
+                i = skipPast(text, i + 4, "-->");
+            } else if (i + 1 < end && (text.charAt(i + 1) == '!' || text.charAt(i + 1) == '?')) {
+                // doctype, CDATA, processing instruction
+                i = skipPast(text, i + 2, ">");
+            } else {
+                boolean closing = i + 1 < end && text.charAt(i + 1) == '/';
+                int nameStart = closing ? (i + 2) : (i + 1);
+                int nameEnd = endOfName(text, nameStart);
+                if (nameEnd == nameStart) {
+                    // a "<" which does not open a tag
+                    i++;
+                } else if (closing) {
+                    if (equalsIgnoreCase(text, nameStart, nameEnd, "g")) {
+                        groupEnds++;
+                    } else if (equalsIgnoreCase(text, nameStart, nameEnd, "svg")) {
+                        svgClosed = true;
+                    }
+                    i = skipPast(text, nameEnd, ">");
+                } else {
+                    if (equalsIgnoreCase(text, nameStart, nameEnd, "metadata")) {
+                        findings.add(Finding.METADATA);
+                    }
+                    if (hasPrefix(text, nameStart, nameEnd, EDITOR_PREFIXES)) {
+                        findings.add(Finding.EDITOR_DATA);
+                    }
+                    i = scanAttributes(text, nameEnd, findings);
+                }
+            }
+        }
+
+        if (!svgClosed) {
+            return EnumSet.noneOf(Finding.class);
+        }
+        if (groupEnds > 1) {
+            findings.add(Finding.LAYERS);
+        }
+        return findings;
+    }
+
+    /**
+     * Scans the attributes of an opening tag, returns the index following the tag.
+     */
+    private static int scanAttributes(CharSequence text, int start, Set<Finding> findings) {
+        int end = text.length();
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '>') {
+                return i + 1;
+            } else if (c == '"' || c == '\'') {
+                int valueEnd = indexOf(text, i + 1, c);
+                if (hasExcessPrecision(text, i + 1, valueEnd)) {
+                    findings.add(Finding.NUMERIC_PRECISION);
+                }
+                i = valueEnd + 1;
+            } else if (isNameChar(c)) {
+                int nameEnd = endOfName(text, i);
+                if (startsWith(text, i, "xmlns:")) {
+                    if (!isOneOf(text, i + 6, nameEnd, KNOWN_NAMESPACE_PREFIXES)) {
+                        findings.add(Finding.FOREIGN_NAMESPACES);
+                    }
+                } else if (hasPrefix(text, i, nameEnd, EDITOR_PREFIXES)) {
+                    findings.add(Finding.EDITOR_DATA);
+                }
+                i = nameEnd;
+            } else {
+                i++;
+            }
+        }
+        return end;
+    }
+
+    private static boolean hasExcessPrecision(CharSequence text, int start, int end) {
+        int decimals = -1;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                decimals = 0;
+            } else if (decimals >= 0 && c >= '0' && c <= '9') {
+                if (++decimals > MAX_DECIMALS) {
+                    return true;
+                }
+            } else {
+                decimals = -1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the name between {@code start} and {@code end} is prefixed ({@code prefix:name}) by one of the given prefixes.
+     */
+    private static boolean hasPrefix(CharSequence text, int start, int end, String[] prefixes) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == ':') {
+                return isOneOf(text, start, i, prefixes);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOneOf(CharSequence text, int start, int end, String[] lowerCaseNames) {
+        for (String name : lowerCaseNames) {
+            if (equalsIgnoreCase(text, start, end, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == ':' || c == '-' || c == '_' || c == '.';
+    }
+
+    private static int endOfName(CharSequence text, int start) {
+        int i = start;
+        while (i < text.length() && isNameChar(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean startsWith(CharSequence text, int start, String prefix) {
+        if (start + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence text, int start, int end, String lowerCaseName) {
+        if (end - start != lowerCaseName.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowerCaseName.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != lowerCaseName.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence text, int start, char c) {
+        int i = start;
+        while (i < text.length() && text.charAt(i) != c) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipPast(CharSequence text, int start, String terminator) {
+        int i = start;
+        while (i < text.length() && !startsWith(text, i, terminator)) {
+            i++;
+        }
+        return Math.min(i + terminator.length(), text.length());
+    }
+}
@@ -89,24 +89,24 @@ public class UtilsAST {
         return null;
     }
 
-    @CheckForNull
-    public static RegularArgument nthArgumentOrKeyword(int argPosition, String keyword, List<Argument> arguments) {
-        return arguments.stream()
-                .filter(argument -> hasKeyword(argument, keyword) ||
-                        (argument.is(Tree.Kind.REGULAR_ARGUMENT)
-                                && ((RegularArgument) argument).keywordArgument() == null
-                                && arguments.indexOf(argument) == argPosition))
-                .map(RegularArgument.class::cast)
-                .findFirst()
-                .orElse(null);
+    /**
+     * Tells whether {@code tree} is located between the first and the last tokens of {@code container}.
+     * <p>
+     * Only token positions are compared: unlike a walk through the ancestors, the cost does not depend on the depth
+     * of the nodes.
+     * </p>
+     */
+    public static boolean isWithin(Tree tree, Tree container) {
+        Token token = tree.firstToken();
+        Token first = container.firstToken();
+        Token last = container.lastToken();
+        return token != null && first != null && last != null
+                && !isBefore(token, first)
+                && !isBefore(last, token);
     }
 
-    private static boolean hasKeyword(Argument argument, String keyword) {
-        return argument instanceof RegularArgument regularArgument &&
-                Optional.ofNullable(regularArgument.keywordArgument())
-                        .map(Name::name)
-                        .filter(name -> name.equals(keyword))
-                        .isPresent();
+    private static boolean isBefore(Token token, Token other) {
+        return token.line() < other.line() || (token.line() == other.line() && token.column() < other.column());
     }
 
     private static boolean hasNonEmptyLhsExpressions(AssignmentStatement assignment ) {
@@ -18,11 +18,13 @@
 package org.greencodeinitiative.creedengo.python;
 
 import org.assertj.core.api.SoftAssertions;
+import org.greencodeinitiative.creedengo.python.checks.CreedengoSubscriptionCheck;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.reflections.Reflections;
 import org.sonar.api.SonarRuntime;
+import org.sonar.api.server.debt.DebtRemediationFunction;
 import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.api.utils.Version;
 import org.sonar.check.Rule;
@@ -30,6 +32,7 @@ import org.sonar.check.Rule;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
@@ -63,6 +66,13 @@ class PythonRuleRepositoryTest {
                 .containsExactlyInAnyOrder(getDefinedRules().toArray(new Class[0]));
     }
 
+    @Test
+    @DisplayName("All rules must extend CreedengoSubscriptionCheck, so that they can be instrumented")
+    void testRulesExtendCreedengoSubscriptionCheck() {
+        assertThat(rulesDefinition.checkClasses())
+                .allSatisfy(check -> assertThat(check).isAssignableTo(CreedengoSubscriptionCheck.class));
+    }
+
     @Test
     void checkNumberRules() {
         assertThat(repository.rules()).hasSize(PythonRuleRepository.ANNOTATED_RULE_CLASSES.size());
@@ -89,6 +99,27 @@ class PythonRuleRepositoryTest {
         assertions.assertAll();
     }
 
+    @Test
+    @DisplayName("Rules weighed by loops must have a remediation accepting the cost of their issues")
+    void testLoopWeightedRulesHaveLinearRemediation() {
+        assertThat(PythonRuleRepository.LOOP_WEIGHTED_RULES).allSatisfy(key -> {
+            RulesDefinition.Rule rule = repository.rule(key);
+            assertThat(rule).isNotNull();
+            assertThat(rule.debtRemediationFunction().type()).isEqualTo(DebtRemediationFunction.Type.LINEAR_OFFSET);
+            assertThat(rule.debtRemediationFunction().baseEffort()).isEqualTo(PythonRuleRepository.baseEffort(key));
+            assertThat(rule.debtRemediationFunction().gapMultiplier()).isEqualTo(PythonRuleRepository.baseEffort(key));
+            assertThat(rule.gapDescription()).isNotEmpty();
+        });
+    }
+
+    @Test
+    @DisplayName("The base effort of the rules weighed by loops is the effort of their metadata")
+    void testBaseEffortIsReadFromTheRuleMetadata() {
+        assertThat(PythonRuleRepository.baseEffort("GCI72")).isEqualTo("10min");
+        assertThat(PythonRuleRepository.baseEffort("GCI105")).isEqualTo("1min");
+        assertThatThrownBy(() -> PythonRuleRepository.baseEffort("GCI0")).isInstanceOf(IllegalStateException.class);
+    }
+
     private static Set<Class<?>> getDefinedRules() {
         Reflections r = new Reflections(PythonRuleRepository.class.getPackageName() + ".checks");
         return r.getTypesAnnotatedWith(Rule.class);
@@ -0,0 +1,266 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.caching;
+
+import org.greencodeinitiative.creedengo.python.PythonRuleRepository;
+import org.greencodeinitiative.creedengo.python.caching.FileSummary.CallSite;
+import org.greencodeinitiative.creedengo.python.caching.FileSummary.FunctionSummary;
+import org.greencodeinitiative.creedengo.python.instrumentation.Instrumentation;
+import org.greencodeinitiative.creedengo.python.instrumentation.Metrics;
+import org.greencodeinitiative.creedengo.python.utils.PythonTestFiles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.PythonInputFileContext;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.plugins.python.api.caching.PythonReadCache;
+import org.sonar.plugins.python.api.caching.PythonWriteCache;
+import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.TestPythonVisitorRunner;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileSummariesTest {
+
+    private static final int FILES = 20;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        FileSummaries.start(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        FileSummaries.reset();
+        Instrumentation.disable();
+        Instrumentation.reset();
+    }
+
+    @Test
+    void summarizesImportsFunctionsAndLoopCalls() {
+        FileSummaries.record(fileInputContext(PythonTestFiles.context(tempDir, "summarized.py",
+                "import sqlite3",
+                "import numpy as np",
+                "from os import path",
+                "def load(cursor):",
+                "    import json",
+                "    cursor.execute(json.dumps(path.sep))",
+                "class Repository:",
+                "    def find(self, cursor):",
+                "        return load(cursor)",
+                "def compute(values):",
+                "    for value in values:",
+                "        np.sqrt(value)",
+                "        load(value)",
+                "        print(value)",
+                "        for item in value:",
+                "            load(item)")));
+
+        FileSummary summary = FileSummaries.all().values().iterator().next();
+        assertThat(summary.imports())
+                .containsEntry("sqlite3", "sqlite3")
+                .containsEntry("np", "numpy")
+                .containsEntry("path", "os.path");
+        assertThat(summary.functions()).containsOnlyKeys("summarized.load", "summarized.Repository.find", "summarized.compute");
+        assertThat(summary.functions().get("summarized.load").executesSql()).isTrue();
+        assertThat(summary.functions().get("summarized.Repository.find").executesSql()).isFalse();
+        assertThat(summary.functions().get("summarized.Repository.find").calls()).containsExactly("summarized.load");
+        assertThat(summary.loopCalls()).extracting(CallSite::callee)
+                .contains("summarized.load")
+                .doesNotContain("print");
+        assertThat(summary.loopCalls()).filteredOn(call -> call.callee().equals("summarized.load"))
+                .containsExactly(new CallSite("summarized.load", 13, 8, 13, 19, 0),
+                        new CallSite("summarized.load", 16, 12, 16, 22, 1));
+        assertThat(FileSummary.deserialize(summary.serialize())).isEqualTo(summary);
+    }
+
+    @Test
+    void computesNoSummaryUntilAnAnalysisStarts() {
+        FileSummaries.reset();
+
+        FileSummaries.record(fileInputContext(PythonTestFiles.context(tempDir, "unstarted.py",
+                "import sqlite3",
+                "for value in values:",
+                "    print(value)")));
+
+        assertThat(FileSummaries.all()).isEmpty();
+    }
+
+    @Test
+    void ignoresDataOfAnotherFormat() {
+        FileSummary summary = new FileSummary(Map.of("np", "numpy"),
+                List.of(new FunctionSummary("m.f", true, Set.of("m.g"))),
+                List.of(new CallSite("m.f", 1, 0, 1, 3, 0)));
+        byte[] data = summary.serialize();
+        data[3]++;
+
+        assertThat(FileSummary.deserialize(data)).isNull();
+        assertThat(FileSummary.deserialize(new byte[] {0, 0})).isNull();
+    }
+
+    @Test
+    void secondAnalysisOnlyParsesChangedFiles() throws IOException {
+        List<Path> files = writeProject();
+        Map<String, byte[]> firstCache = new HashMap<>();
+        Analysis first = analyze(files, Map.of(), firstCache);
+
+        Files.writeString(files.get(7), "import math\nfor x in range(3):\n    math.sqrt(x)\n", StandardCharsets.UTF_8);
+        FileSummaries.start(true);
+        Map<String, byte[]> secondCache = new HashMap<>();
+        Analysis second = analyze(files, firstCache, secondCache);
+
+        assertThat(first.parsedFiles()).isEqualTo(FILES);
+        assertThat(second.parsedFiles()).isEqualTo(1);
+        assertThat(second.ruleCalls()).isLessThan(first.ruleCalls() / 10);
+
+        // every summary is available and carried over to the next analysis
+        assertThat(FileSummaries.all()).hasSize(FILES);
+        assertThat(FileSummaries.get(fileKey(files.get(7))).imports()).containsOnlyKeys("math");
+        assertThat(secondCache).hasSize(FILES);
+        assertThat(secondCache.keySet()).allMatch(key -> key.startsWith(FileSummaries.CACHE_KEY_PREFIX));
+    }
+
+    /**
+     * Mimics the analyzer: files already analysed are skipped when every check accepts to skip them, the other ones
+     * are parsed and analysed by all the checks. The changed file is not found in the cache and is parsed again.
+     */
+    private Analysis analyze(List<Path> files, Map<String, byte[]> previousCache, Map<String, byte[]> nextCache) throws IOException {
+        Instrumentation.reset();
+        Instrumentation.enable();
+        CacheContext cacheContext = cacheContext(previousCache, nextCache);
+        int parsedFiles = 0;
+        for (Path file : files) {
+            List<PythonSubscriptionCheck> checks = allChecks();
+            PythonInputFileContext inputFileContext = inputFileContext(file, cacheContext);
+            boolean skipped = previousCache.keySet().stream().anyMatch(key -> key.startsWith(cacheKeyPrefix(file)))
+                    && checks.stream().allMatch(check -> check.scanWithoutParsing(inputFileContext));
+            if (!skipped) {
+                SubscriptionVisitor.analyze(checks, TestPythonVisitorRunner.createContext(
+                        file.toFile(), null, "", ProjectLevelSymbolTable.empty(), cacheContext));
+                parsedFiles++;
+            }
+        }
+        long ruleCalls = Instrumentation.rules().stream().mapToLong(Metrics::calls).sum();
+        Instrumentation.disable();
+        return new Analysis(parsedFiles, ruleCalls);
+    }
+
+    private List<Path> writeProject() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            Path file = tempDir.resolve("module" + i + ".py");
+            Files.writeString(file, String.join("\n",
+                    "import sqlite3",
+                    "import numpy as np",
+                    "",
+                    "def load_" + i + "(cursor, ids):",
+                    "    text = ''",
+                    "    for identifier in ids:",
+                    "        cursor.execute('SELECT * FROM t" + i + " WHERE id = ' + str(identifier))",
+                    "        text += str(np.sqrt(identifier))",
+                    "    return text",
+                    ""), StandardCharsets.UTF_8);
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static List<PythonSubscriptionCheck> allChecks() {
+        return new PythonRuleRepository(null).checkClasses().stream()
+                .map(FileSummariesTest::newCheck)
+                .toList();
+    }
+
+    private static PythonSubscriptionCheck newCheck(Class<?> checkClass) {
+        try {
+            return (PythonSubscriptionCheck) checkClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + checkClass, e);
+        }
+    }
+
+    private static PythonInputFileContext inputFileContext(Path file, CacheContext cacheContext) throws IOException {
+        PythonFile pythonFile = mock(PythonFile.class);
+        when(pythonFile.uri()).thenReturn(file.toFile().toURI());
+        when(pythonFile.fileName()).thenReturn(file.getFileName().toString());
+        when(pythonFile.content()).thenReturn(Files.readString(file, StandardCharsets.UTF_8));
+        PythonInputFileContext inputFileContext = mock(PythonInputFileContext.class);
+        when(inputFileContext.pythonFile()).thenReturn(pythonFile);
+        when(inputFileContext.cacheContext()).thenReturn(cacheContext);
+        return inputFileContext;
+    }
+
+    private static CacheContext cacheContext(Map<String, byte[]> previousCache, Map<String, byte[]> nextCache) {
+        PythonReadCache readCache = mock(PythonReadCache.class);
+        when(readCache.readBytes(anyString())).thenAnswer(invocation -> previousCache.get(invocation.<String>getArgument(0)));
+        PythonWriteCache writeCache = mock(PythonWriteCache.class);
+        doAnswer(invocation -> nextCache.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(writeCache).write(anyString(), any());
+        doAnswer(invocation -> nextCache.put(invocation.getArgument(0), previousCache.get(invocation.<String>getArgument(0))))
+                .when(writeCache).copyFromPrevious(anyString());
+        CacheContext cacheContext = mock(CacheContext.class);
+        when(cacheContext.isCacheEnabled()).thenReturn(true);
+        when(cacheContext.getReadCache()).thenReturn(readCache);
+        when(cacheContext.getWriteCache()).thenReturn(writeCache);
+        return cacheContext;
+    }
+
+    private static String cacheKeyPrefix(Path file) {
+        return FileSummaries.CACHE_KEY_PREFIX + fileKey(file) + ":";
+    }
+
+    private static String fileKey(Path file) {
+        return file.toFile().toURI().toString();
+    }
+
+    private static SubscriptionContext fileInputContext(PythonVisitorContext visitorContext) {
+        SubscriptionContext ctx = mock(SubscriptionContext.class);
+        when(ctx.pythonFile()).thenReturn(visitorContext.pythonFile());
+        when(ctx.syntaxNode()).thenReturn(visitorContext.rootTree());
+        CacheContext disabled = mock(CacheContext.class);
+        when(ctx.cacheContext()).thenReturn(disabled);
+        return ctx;
+    }
+
+    private record Analysis(int parsedFiles, long ruleCalls) {
+    }
+}
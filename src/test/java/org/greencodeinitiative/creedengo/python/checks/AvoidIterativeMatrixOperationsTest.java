@@ -26,4 +26,14 @@ public class AvoidIterativeMatrixOperationsTest {
     public void test() {
         PythonCheckVerifier.verify("src/test/resources/checks/avoidIterativeMatrixOperations.py", new AvoidIterativeMatrixOperations());
     }
+
+    @Test
+    public void test_loop_idioms() {
+        PythonCheckVerifier.verify("src/test/resources/checks/avoidIterativeLoopIdioms.py", new AvoidIterativeMatrixOperations());
+    }
+
+    @Test
+    public void test_loop_idioms_without_array_library() {
+        PythonCheckVerifier.verifyNoIssue("src/test/resources/checks/avoidIterativeLoopIdiomsNoImports.py", new AvoidIterativeMatrixOperations());
+    }
 }
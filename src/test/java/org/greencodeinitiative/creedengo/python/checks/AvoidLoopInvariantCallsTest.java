@@ -0,0 +1,35 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.checks;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.python.checks.utils.PythonCheckVerifier;
+
+public class AvoidLoopInvariantCallsTest {
+    @Test
+    public void test() {
+        PythonCheckVerifier.verify("src/test/resources/checks/avoidLoopInvariantCalls.py", new AvoidLoopInvariantCalls());
+    }
+
+    @Test
+    public void test_custom_pure_functions() {
+        AvoidLoopInvariantCalls check = new AvoidLoopInvariantCalls();
+        check.pureFunctions = " mylib.checksum , ";
+        PythonCheckVerifier.verify("src/test/resources/checks/avoidLoopInvariantCallsCustom.py", check);
+    }
+}
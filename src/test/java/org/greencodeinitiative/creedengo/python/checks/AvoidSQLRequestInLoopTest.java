@@ -25,6 +25,11 @@ public class AvoidSQLRequestInLoopTest {
     public void test() {
         PythonCheckVerifier.verify("src/test/resources/checks/avoidSQLRequestInLoop.py", new AvoidSQLRequestInLoop());
         PythonCheckVerifier.verify("src/test/resources/checks/avoidSQLRequestInLoopCheck.py", new AvoidSQLRequestInLoop());
+        PythonCheckVerifier.verify("src/test/resources/checks/avoidSQLRequestInLoopThroughFunctions.py", new AvoidSQLRequestInLoop());
+        PythonCheckVerifier.verify("src/test/resources/checks/avoidSQLRequestInLoopDjango.py", new AvoidSQLRequestInLoop());
+        PythonCheckVerifier.verify("src/test/resources/checks/avoidSQLRequestInLoopDjangoModels.py", new AvoidSQLRequestInLoop());
+        PythonCheckVerifier.verify("src/test/resources/checks/avoidSQLRequestInLoopSqlAlchemy.py", new AvoidSQLRequestInLoop());
+        PythonCheckVerifier.verify("src/test/resources/checks/avoidSQLRequestInLoopPeewee.py", new AvoidSQLRequestInLoop());
         PythonCheckVerifier.verifyNoIssue("src/test/resources/checks/avoidSQLRequestInLoopNoImports.py", new AvoidSQLRequestInLoop());
     }
 }
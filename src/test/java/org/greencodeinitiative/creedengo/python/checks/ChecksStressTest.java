@@ -0,0 +1,218 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.checks;
+
+import org.greencodeinitiative.creedengo.python.PythonRuleRepository;
+import org.greencodeinitiative.creedengo.python.utils.PythonTestFiles;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.check.Rule;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.python.SubscriptionVisitor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every check on the {@link StressCorpus} and fails when a rule exceeds its budget.
+ * <ul>
+ *     <li>wall time on the full-size corpus</li>
+ *     <li>growth of the wall time when the corpus gets {@value #SCALE} times larger: a linear rule takes about
+ *     {@value #SCALE} times longer, a quadratic one {@value #SCALE} times more than that</li>
+ *     <li>heap still retained once the full-size corpus has been analysed</li>
+ * </ul>
+ * <p>
+ * Tagged {@value #TAG}: it only runs with the {@code stress} Maven profile, run by the stress job of the build workflow.
+ * </p>
+ */
+@Tag(ChecksStressTest.TAG)
+class ChecksStressTest {
+
+    static final String TAG = "stress";
+
+    private static final int SCALE = 8;
+    private static final double MAX_GROWTH = SCALE * 2.5;
+    // below this duration on the full-size corpus, timings are too noisy to compare and harmless anyway
+    private static final long MIN_COMPARED_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MIN_MEASURED_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final int MEASUREMENTS = 3;
+    // sonar-python parses nested expressions recursively
+    private static final long PARSER_STACK_SIZE = 256L << 20;
+
+    private static final Budget DEFAULT_BUDGET = new Budget(Duration.ofMillis(1_500), 8L << 20);
+    // rules allowed to exceed the default budget, by rule key
+    private static final Map<String, Budget> BUDGETS = Map.of();
+
+    @TempDir
+    static Path tempDir;
+
+    private static Inputs inputs;
+
+    @AfterAll
+    static void releaseInputs() {
+        inputs = null;
+    }
+
+    @Test
+    void generatesTheSameCorpusOnEveryRun() {
+        for (StressCorpus corpus : StressCorpus.values()) {
+            int size = corpus.size() / SCALE;
+            assertThat(corpus.generate(size)).as(corpus.id()).isEqualTo(corpus.generate(size));
+        }
+        assertThat(StressCorpus.GENERATED_MODULE.generate(50_000).lines().count()).isBetween(50_000L, 50_100L);
+        assertThat(StressCorpus.HUGE_STRINGS.generate(5_000_000)).hasSizeGreaterThan(5_000_000);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyRuleStaysWithinItsBudget() {
+        List<Class<?>> checkClasses = new PythonRuleRepository(null).checkClasses();
+        return Arrays.stream(StressCorpus.values())
+                .flatMap(corpus -> checkClasses.stream()
+                        .map(checkClass -> DynamicTest.dynamicTest(
+                                ruleKey(checkClass) + " " + checkClass.getSimpleName() + " on " + corpus.id(),
+                                () -> assertWithinBudget(corpus, checkClass))));
+    }
+
+    private static void assertWithinBudget(StressCorpus corpus, Class<?> checkClass) {
+        Inputs corpusInputs = inputs(corpus);
+        Budget budget = BUDGETS.getOrDefault(ruleKey(checkClass), DEFAULT_BUDGET);
+
+        long smallNanos = nanosPerRun(checkClass, corpusInputs.small());
+        long largeNanos = nanosPerRun(checkClass, corpusInputs.large());
+
+        assertThat(Duration.ofNanos(largeNanos))
+                .as("wall time on %s", corpus.id())
+                .isLessThanOrEqualTo(budget.time());
+        if (largeNanos > MIN_COMPARED_NANOS) {
+            assertThat((double) largeNanos / smallNanos)
+                    .as("wall time growth on a %d times larger %s (%d ns -> %d ns): the rule is super-linear",
+                            SCALE, corpus.id(), smallNanos, largeNanos)
+                    .isLessThan(MAX_GROWTH);
+        }
+        assertThat(retainedBytes(checkClass, corpusInputs.large()))
+                .as("heap retained after the analysis of %s", corpus.id())
+                .isLessThanOrEqualTo(budget.retainedBytes());
+    }
+
+    private static long nanosPerRun(Class<?> checkClass, PythonVisitorContext context) {
+        // warm-up, which also builds the per-file indexes shared by the checks
+        analyze(newCheck(checkClass), context);
+        long best = Long.MAX_VALUE;
+        for (int measurement = 0; measurement < MEASUREMENTS; measurement++) {
+            long elapsed = 0;
+            int runs = 0;
+            for (int batch = 1; elapsed < MIN_MEASURED_NANOS; batch *= 2) {
+                long start = System.nanoTime();
+                for (int i = 0; i < batch; i++) {
+                    analyze(newCheck(checkClass), context);
+                }
+                elapsed += System.nanoTime() - start;
+                runs += batch;
+            }
+            best = Math.min(best, elapsed / runs);
+        }
+        return best;
+    }
+
+    private static long retainedBytes(Class<?> checkClass, PythonVisitorContext context) {
+        analyze(newCheck(checkClass), context);
+        long before = usedHeapAfterGc();
+        PythonSubscriptionCheck check = newCheck(checkClass);
+        analyze(check, context);
+        long retained = usedHeapAfterGc() - before;
+        Reference.reachabilityFence(check);
+        return retained;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    private static void analyze(PythonSubscriptionCheck check, PythonVisitorContext context) {
+        SubscriptionVisitor.analyze(List.of(check), context);
+        // issues are accumulated by the context: they are not retained by the check
+        context.getIssues().clear();
+    }
+
+    /**
+     * Keeps the parsed inputs of a single corpus at a time, the tests being run corpus after corpus.
+     */
+    private static Inputs inputs(StressCorpus corpus) {
+        if (inputs == null || inputs.corpus() != corpus) {
+            inputs = null;
+            inputs = new Inputs(corpus,
+                    parse(corpus.id() + "-small.py", corpus.generate(corpus.size() / SCALE)),
+                    parse(corpus.id() + ".py", corpus.generate(corpus.size())));
+        }
+        return inputs;
+    }
+
+    private static PythonVisitorContext parse(String fileName, String source) {
+        FutureTask<PythonVisitorContext> parsing = new FutureTask<>(() -> PythonTestFiles.context(tempDir, fileName, source));
+        new Thread(null, parsing, "stress-corpus-parser", PARSER_STACK_SIZE).start();
+        try {
+            return parsing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot parse " + fileName, e.getCause());
+        }
+    }
+
+    private static PythonSubscriptionCheck newCheck(Class<?> checkClass) {
+        try {
+            return (PythonSubscriptionCheck) checkClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + checkClass, e);
+        }
+    }
+
+    private static String ruleKey(Class<?> checkClass) {
+        return checkClass.getAnnotation(Rule.class).key();
+    }
+
+    private record Budget(Duration time, long retainedBytes) {
+    }
+
+    private record Inputs(StressCorpus corpus, PythonVisitorContext small, PythonVisitorContext large) {
+    }
+}
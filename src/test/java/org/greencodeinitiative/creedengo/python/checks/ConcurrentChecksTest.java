@@ -0,0 +1,136 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.checks;
+
+import org.greencodeinitiative.creedengo.python.PythonRuleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.check.Rule;
+import org.sonar.plugins.python.api.IssueLocation;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.TestPythonVisitorRunner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Analyses hundreds of files with a single instance of every check shared by many threads, as a parallel analysis
+ * does, and compares the issues with those of a sequential analysis.
+ */
+class ConcurrentChecksTest {
+
+    private static final Path FIXTURES_DIRECTORY = Path.of("src/test/resources/checks");
+    private static final int COPIES = 8;
+    private static final int THREADS = 8;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void concurrentAnalysesReportTheIssuesOfASequentialAnalysis() throws Exception {
+        List<Path> files = copiesOfFixtures();
+        assertThat(files).hasSizeGreaterThan(200);
+
+        Map<String, List<String>> sequentialIssues = new TreeMap<>();
+        List<PythonSubscriptionCheck> sequentialChecks = newChecks();
+        for (Path file : files) {
+            sequentialIssues.put(file.getFileName().toString(), analyze(file, sequentialChecks));
+        }
+
+        List<Path> shuffledFiles = new ArrayList<>(files);
+        Collections.shuffle(shuffledFiles, new Random(42));
+        List<PythonSubscriptionCheck> sharedChecks = newChecks();
+        Map<String, List<String>> concurrentIssues = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (Path file : shuffledFiles) {
+                tasks.add(() -> {
+                    concurrentIssues.put(file.getFileName().toString(), analyze(file, sharedChecks));
+                    return null;
+                });
+            }
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(sequentialIssues.values()).anyMatch(issues -> !issues.isEmpty());
+        assertThat(new TreeMap<>(concurrentIssues)).isEqualTo(sequentialIssues);
+    }
+
+    private List<Path> copiesOfFixtures() throws IOException {
+        List<Path> fixtures;
+        try (Stream<Path> paths = Files.walk(FIXTURES_DIRECTORY)) {
+            fixtures = paths.filter(path -> path.toString().endsWith(".py")).sorted().toList();
+        }
+        List<Path> files = new ArrayList<>();
+        for (int copy = 0; copy < COPIES; copy++) {
+            for (Path fixture : fixtures) {
+                String name = FIXTURES_DIRECTORY.relativize(fixture).toString().replace('/', '_').replace('\\', '_');
+                Path file = tempDir.resolve("copy" + copy + "_" + name);
+                Files.writeString(file, Files.readString(fixture, StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private static List<String> analyze(Path file, List<PythonSubscriptionCheck> checks) {
+        PythonVisitorContext context = TestPythonVisitorRunner.createContext(file.toFile());
+        SubscriptionVisitor.analyze(checks, context);
+        List<String> issues = new ArrayList<>();
+        for (PreciseIssue issue : context.getIssues()) {
+            IssueLocation location = issue.primaryLocation();
+            issues.add(issue.check().getClass().getAnnotation(Rule.class).key() + " " + location.startLine() + ":"
+                    + location.startLineOffset() + "-" + location.endLine() + ":" + location.endLineOffset() + " "
+                    + location.message() + " " + issue.secondaryLocations().size());
+        }
+        Collections.sort(issues);
+        return issues;
+    }
+
+    private static List<PythonSubscriptionCheck> newChecks() throws ReflectiveOperationException {
+        List<PythonSubscriptionCheck> checks = new ArrayList<>();
+        for (Class<?> checkClass : new PythonRuleRepository(null).checkClasses()) {
+            checks.add((PythonSubscriptionCheck) checkClass.getDeclaredConstructor().newInstance());
+        }
+        return checks;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.checks;
+
+import org.greencodeinitiative.creedengo.python.utils.PythonTestFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.FileInput;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileScopedCheckTest {
+
+    private static final int FILES = 2_000;
+
+    private static final String[] SOURCE = {
+            "import torch",
+            "query = \"SELECT * FROM users\"",
+            "data = pd.read_csv(\"data.csv\")",
+            "def evaluate(model, x):",
+            "    model.eval()",
+            "    return model(x)"
+    };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void stateOfPreviousFilesIsReleased() {
+        PythonSubscriptionCheck[] checks = {
+                new AvoidFullSQLRequest(), new AvoidCSVFormat(), new DisableGradientForModelEval()
+        };
+
+        WeakReference<FileInput> firstFile = null;
+        for (int i = 0; i < FILES; i++) {
+            PythonVisitorContext context = PythonTestFiles.context(tempDir, "file" + (i % 10) + ".py", SOURCE);
+            if (firstFile == null) {
+                firstFile = new WeakReference<>(context.rootTree());
+            }
+            List<PreciseIssue> issues = PythonTestFiles.analyze(context, checks);
+            // same lines in every file: nothing must be hidden by what was reported in a previous file
+            assertThat(issues).hasSize(3);
+        }
+
+        for (int i = 0; i < 20 && firstFile.get() != null; i++) {
+            System.gc();
+        }
+        assertThat(firstFile.get()).as("tree of the first analysed file").isNull();
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.checks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Deterministic synthetic Python sources, sized like the worst files met in production code bases.
+ * <p>
+ * Every corpus is generated from its size only (and a fixed seed), so that two runs analyse exactly the same code.
+ * </p>
+ */
+enum StressCorpus {
+
+    /** Generated module of {@code size} lines, made of blocks triggering every rule. */
+    GENERATED_MODULE("generated-module", 50_000, StressCorpus::generatedModule),
+    /** Expressions, lambdas and {@code items()} loops nested {@code size} times. */
+    NESTED_EXPRESSIONS("nested-expressions", 200, StressCorpus::nestedExpressions),
+    /** SQL and SVG string constants of {@code size} characters in total. */
+    HUGE_STRINGS("huge-strings", 5_000_000, StressCorpus::hugeStrings);
+
+    private static final long SEED = 20_240_601L;
+
+    private static final String IMPORTS = """
+            import logging
+            import math
+            import sqlite3
+            from collections import deque
+            from dataclasses import dataclass
+            from functools import lru_cache
+
+            import numpy as np
+            import pandas as pd
+            import torch
+            from torch.utils.data import DataLoader
+
+            """;
+
+    // each block is formatted with its index, so that every block defines its own names
+    private static final List<String> BLOCKS = List.of(
+            """
+            class Holder%1$d:
+                def __init__(self):
+                    self.value = %1$d
+
+                def get_value(self):
+                    return self.value
+
+                def set_value(self, value):
+                    self.value = value
+
+            """,
+            """
+            def summarize_%1$d(items, values):
+                text = ""
+                for key, value in items.items():
+                    text += key
+                for value in values:
+                    text = text + str(value)
+                return text
+
+            """,
+            """
+            def load_%1$d(cursor, ids):
+                for identifier in ids:
+                    cursor.execute("SELECT * FROM table_%1$d WHERE id = " + str(identifier))
+                return cursor.fetchall()
+
+            """,
+            """
+            COUNTER_%1$d = %1$d
+
+            def compute_%1$d(values):
+                roots = []
+                for value in values:
+                    roots.append(math.sqrt(value) + np.sqrt(value) + value ** 2 + COUNTER_%1$d)
+                return [root * root for root in roots if root > COUNTER_%1$d]
+
+            """,
+            """
+            def read_%1$d(path):
+                try:
+                    handle = open(path)
+                except OSError:
+                    logging.info("cannot read {}".format(path))
+                    return None
+                frame = pd.read_csv("data_%1$d.csv")
+                picture = "image_%1$d.png"
+                return handle, frame, picture
+
+            """,
+            """
+            def classify_%1$d(value):
+                if value == 1 and value > 0:
+                    label = "one"
+                elif value == 2:
+                    label = "two"
+                elif value == 3:
+                    label = "three"
+                else:
+                    label = "many"
+                return label
+
+            """,
+            """
+            def predict_%1$d(model, batch):
+                model.eval()
+                tensor = torch.tensor([[1, 2], [3, 4]])
+                loader = DataLoader(batch, batch_size=32)
+                queue = deque()
+                queue.insert(0, tensor)
+                return model(tensor), loader, queue
+
+            """,
+            """
+            @dataclass
+            class Point%1$d:
+                x: int
+                y: int
+
+            @lru_cache(maxsize=None)
+            def cached_%1$d(value):
+                return value * %1$d
+
+            """,
+            """
+            def dot_%1$d(a, b, n):
+                total = 0
+                for i in range(n):
+                    total += a[i] * b[i]
+                return total
+
+            """,
+            """
+            ICON_%1$d = '<svg xmlns="http://www.w3.org/2000/svg"><!-- icon --><g><path d="M 1.123456 2"/></g><g></g></svg>'
+
+            """);
+
+    private static final List<String> QUERY_LINES = List.of(
+            "SELECT id, name FROM users WHERE id = 1 -- by id\n",
+            "SELECT u.* FROM users u JOIN orders o ON o.user_id = u.id\n",
+            "UNION SELECT count(*) FROM orders WHERE total > 10.5\n",
+            "/* report */ SELECT name, total FROM invoices ORDER BY total\n");
+
+    private static final List<String> SVG_LINES = List.of(
+            "<g><path d=\"M 1.5 2.5 L 3 4\"/></g>\n",
+            "<rect x=\"1\" y=\"2\" width=\"3.25\" height=\"4\"/>\n",
+            "<!-- layer --><circle cx=\"1.123456\" cy=\"2\" r=\"3\"/>\n",
+            "<text x=\"0\" y=\"0\">metadata 1.23456 inkscape:label</text>\n");
+
+    private final String id;
+    private final int size;
+    private final IntFunction<String> generator;
+
+    StressCorpus(String id, int size, IntFunction<String> generator) {
+        this.id = id;
+        this.size = size;
+        this.generator = generator;
+    }
+
+    String id() {
+        return id;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String generate(int size) {
+        return generator.apply(size);
+    }
+
+    static String generatedModule(int lines) {
+        Random random = new Random(SEED);
+        StringBuilder source = new StringBuilder(IMPORTS);
+        int lineCount = (int) IMPORTS.lines().count();
+        for (int block = 0; lineCount < lines; block++) {
+            String code = String.format(BLOCKS.get(random.nextInt(BLOCKS.size())), block);
+            source.append(code);
+            lineCount += (int) code.lines().count();
+        }
+        return source.toString();
+    }
+
+    static String nestedExpressions(int depth) {
+        StringBuilder source = new StringBuilder(IMPORTS)
+                .append("def nested(data, f):\n")
+                .append("    text = \"\"\n")
+                .append("    concatenation = ").append("(".repeat(depth)).append("text");
+        for (int level = 0; level < depth; level++) {
+            source.append(" + \"").append(level).append("\")");
+        }
+        source.append("\n")
+                .append("    calls = ").append("f(".repeat(depth)).append("\"x\"").append(")".repeat(depth)).append("\n")
+                .append("    literal = ").append("[{\"k\": ".repeat(depth)).append("1").append("}]".repeat(depth)).append("\n")
+                .append("    lookup = ").append("data[".repeat(depth)).append("0").append("]".repeat(depth)).append("\n")
+                .append("    getter = ").append("lambda: ".repeat(depth)).append("text\n")
+                .append("    condition = ").append("not ".repeat(depth)).append("text\n");
+        String indent = "    ";
+        for (int level = 0; level < depth; level++) {
+            source.append(indent).append("for k").append(level).append(", v").append(level).append(" in data.items():\n");
+            indent += "    ";
+            source.append(indent).append("text += k").append(level).append("\n");
+        }
+        source.append("    return concatenation, calls, literal, lookup, getter, condition, text\n");
+        return source.toString();
+    }
+
+    static String hugeStrings(int chars) {
+        Random random = new Random(SEED);
+        StringBuilder source = new StringBuilder(IMPORTS);
+        appendConstant(source, "QUERY", "", QUERY_LINES, chars / 2, "", random);
+        appendConstant(source, "ICON", "<svg xmlns=\"http://www.w3.org/2000/svg\">\n", SVG_LINES, chars / 2, "</svg>", random);
+        return source
+                .append("def build(cursor):\n")
+                .append("    text = \"header\"\n")
+                .append("    text += QUERY\n")
+                .append("    cursor.execute(QUERY)\n")
+                .append("    return text + ICON\n")
+                .toString();
+    }
+
+    private static void appendConstant(StringBuilder source, String name, String head, List<String> lines, int chars,
+                                       String tail, Random random) {
+        source.append(name).append(" = \"\"\"").append(head);
+        int start = source.length();
+        while (source.length() - start < chars) {
+            source.append(lines.get(random.nextInt(lines.size())));
+        }
+        source.append(tail).append("\"\"\"\n\n");
+    }
+}
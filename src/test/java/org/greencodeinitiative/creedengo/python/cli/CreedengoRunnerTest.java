@@ -0,0 +1,153 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.cli;
+
+import org.greencodeinitiative.creedengo.python.caching.FileSummaries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class CreedengoRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    void streamsTheIssuesOfEveryPythonFileAsJsonLines() throws IOException {
+        write("app/__init__.py", "");
+        write("app/imports.py", "from os import *", "from sys import *");
+        write("main.py", "print('hello')");
+        write(".venv/lib/module.py", "from math import *");
+        write("notes.txt", "from math import *");
+
+        int exitCode = run("--jobs", "2", directory.toString());
+
+        assertThat(exitCode).isEqualTo(CreedengoRunner.EXIT_ISSUES);
+        assertThat(lines(out)).containsExactly(
+                "{\"file\":\"app/imports.py\",\"rule\":\"GCI110\",\"message\":\"Avoid wildcard imports\",\"line\":1,\"column\":0,\"endLine\":1,\"endColumn\":16}",
+                "{\"file\":\"app/imports.py\",\"rule\":\"GCI110\",\"message\":\"Avoid wildcard imports\",\"line\":2,\"column\":0,\"endLine\":2,\"endColumn\":17}");
+    }
+
+    @Test
+    void exitsWithoutIssue() throws IOException {
+        write("main.py", "print('hello')");
+
+        assertThat(run(directory.toString())).isEqualTo(CreedengoRunner.EXIT_NO_ISSUE);
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void keepsNoFileSummary() throws IOException {
+        // left enabled by a previous analysis in the same JVM
+        FileSummaries.start(true);
+        write("repository.py",
+                "import sqlite3",
+                "def find(cursor, ids):",
+                "    for key in ids:",
+                "        cursor.execute('SELECT * FROM users WHERE id = ?', (key,))");
+
+        run(directory.toString());
+
+        assertThat(FileSummaries.all()).isEmpty();
+    }
+
+    @Test
+    void skipsFilesWhichCannotBeParsed() throws IOException {
+        write("broken.py", "def broken(:");
+        write("imports.py", "from os import *");
+
+        assertThat(run(directory.toString())).isEqualTo(CreedengoRunner.EXIT_ISSUES);
+        assertThat(lines(out)).hasSize(1);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains("broken.py: cannot be parsed");
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThat(run("--jobs", "0", directory.toString())).isEqualTo(CreedengoRunner.EXIT_ERROR);
+        assertThat(run("--unknown")).isEqualTo(CreedengoRunner.EXIT_ERROR);
+        assertThat(run(directory.resolve("missing").toString())).isEqualTo(CreedengoRunner.EXIT_ERROR);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains(CreedengoRunner.USAGE);
+    }
+
+    @Test
+    void analysesOnlyTheFilesChangedInGit() throws IOException, InterruptedException {
+        assumeTrue(git("init", "-q") == 0, "git is not available");
+        write("committed.py", "from os import *");
+        write("modified.py", "print('hello')");
+        assertThat(git("add", ".")).isZero();
+        assertThat(git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "initial")).isZero();
+        write("modified.py", "from sys import *");
+        write("untracked.py", "from math import *");
+
+        int exitCode = run("--changed", directory.toString());
+
+        assertThat(exitCode).isEqualTo(CreedengoRunner.EXIT_ISSUES);
+        assertThat(lines(out)).hasSize(2)
+                .anyMatch(line -> line.contains("\"file\":\"modified.py\""))
+                .anyMatch(line -> line.contains("\"file\":\"untracked.py\""));
+    }
+
+    @Test
+    void namesPackagesAfterTheirInitFiles() throws IOException {
+        write("app/__init__.py", "");
+        write("app/db/__init__.py", "");
+        write("scripts/run.py", "");
+
+        assertThat(SourceFiles.packageName(directory, directory.resolve("app/db/queries.py"))).isEqualTo("app.db");
+        assertThat(SourceFiles.packageName(directory, directory.resolve("scripts/run.py"))).isEmpty();
+    }
+
+    private int run(String... args) {
+        return CreedengoRunner.run(args, new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private void write(String name, String... lines) throws IOException {
+        Path file = directory.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, String.join("\n", lines) + "\n", StandardCharsets.UTF_8);
+    }
+
+    private int git(String... arguments) throws InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(arguments));
+        try {
+            return new ProcessBuilder(command).directory(directory.toFile()).inheritIO().start().waitFor();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static List<String> lines(ByteArrayOutputStream output) {
+        return output.toString(StandardCharsets.UTF_8).lines().sorted().toList();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.instrumentation;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.greencodeinitiative.creedengo.python.checks.AvoidSQLRequestInLoop;
+import org.greencodeinitiative.creedengo.python.checks.AvoidSqrtInLoop;
+import org.greencodeinitiative.creedengo.python.utils.PythonTestFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.postjob.PostJobContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class FlightRecorderEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void emitsRuleAndFileEventsWhileRecording() throws IOException {
+        Path dump = tempDir.resolve("analysis.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(RuleExecutionEvent.NAME);
+            recording.enable(FileAnalysisEvent.NAME);
+            recording.start();
+
+            analyze("first.py");
+            analyze("second.py");
+            new InstrumentationReport().execute(mock(PostJobContext.class));
+
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+
+        List<RecordedEvent> ruleEvents = ofType(events, RuleExecutionEvent.NAME);
+        assertThat(ruleEvents).hasSize(8);
+        assertThat(ruleEvents).extracting(e -> e.getString("ruleKey")).containsOnly("GCI72", "GCI106");
+        assertThat(ruleEvents).extracting(e -> e.getString("treeKind")).containsOnly("CALL_EXPR");
+        assertThat(ruleEvents).allSatisfy(e -> assertThat(e.getDuration()).isNotNegative());
+
+        List<RecordedEvent> fileEvents = ofType(events, FileAnalysisEvent.NAME);
+        assertThat(fileEvents).extracting(e -> e.getString("file"))
+                .satisfiesExactlyInAnyOrder(
+                        file -> assertThat(file).endsWith("first.py"),
+                        file -> assertThat(file).endsWith("second.py"));
+        assertThat(fileEvents).allSatisfy(e -> {
+            assertThat(e.getLong("calls")).isEqualTo(4);
+            assertThat(e.getLong("rulesDuration")).isPositive();
+        });
+    }
+
+    @Test
+    void leavesContextUntouchedOnceRecordingIsOver() {
+        try (Recording recording = new Recording()) {
+            recording.enable(RuleExecutionEvent.NAME);
+            recording.start();
+            assertThat(FlightRecorderEvents.isRecording()).isTrue();
+        }
+
+        assertThat(FlightRecorderEvents.isRecording()).isFalse();
+    }
+
+    private void analyze(String fileName) {
+        PythonTestFiles.analyze(
+                PythonTestFiles.context(tempDir, fileName,
+                        "import math",
+                        "for x in range(3):",
+                        "    math.sqrt(x)"),
+                new AvoidSqrtInLoop(), new AvoidSQLRequestInLoop());
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.instrumentation;
+
+import org.greencodeinitiative.creedengo.python.checks.AvoidSQLRequestInLoop;
+import org.greencodeinitiative.creedengo.python.checks.AvoidSqrtInLoop;
+import org.greencodeinitiative.creedengo.python.utils.PythonTestFiles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.postjob.PostJobContext;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.config.Configuration;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.SubscriptionCheck;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InstrumentationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        Instrumentation.disable();
+        Instrumentation.reset();
+    }
+
+    @Test
+    void leavesContextUntouchedWhenDisabled() {
+        SubscriptionCheck.Context context = mock(SubscriptionCheck.Context.class);
+
+        assertThat(Instrumentation.instrument(new AvoidSqrtInLoop(), context)).isSameAs(context);
+    }
+
+    @Test
+    void recordsCallsPerRuleAndPerFile() {
+        new InstrumentationSensor().execute(mock(SensorContext.class));
+
+        List<PreciseIssue> issues = PythonTestFiles.analyze(
+                PythonTestFiles.context(tempDir, "measured.py",
+                        "import math",
+                        "for x in range(3):",
+                        "    math.sqrt(x)"),
+                new AvoidSqrtInLoop(), new AvoidSQLRequestInLoop());
+
+        assertThat(issues).hasSize(1);
+        assertThat(Instrumentation.rules()).extracting(Metrics::key).containsExactlyInAnyOrder("GCI106", "GCI72");
+        assertThat(Instrumentation.rules()).allSatisfy(rule -> {
+            assertThat(rule.calls()).isEqualTo(2);
+            assertThat(rule.nanos()).isPositive();
+        });
+        assertThat(Instrumentation.files()).singleElement().satisfies(file -> {
+            assertThat(file.key()).endsWith("measured.py");
+            assertThat(file.calls()).isEqualTo(4);
+        });
+        assertThat(Instrumentation.report(1))
+                .contains("Top 1 rules by execution time (out of 2)")
+                .contains("Top 1 files by execution time (out of 1)")
+                .contains("measured.py");
+    }
+
+    @Test
+    void reportDisablesInstrumentation() {
+        Instrumentation.enable();
+        PostJobContext context = mock(PostJobContext.class);
+        Configuration configuration = mock(Configuration.class);
+        when(context.config()).thenReturn(configuration);
+        when(configuration.getInt(Instrumentation.TOP_PROPERTY)).thenReturn(Optional.of(5));
+
+        new InstrumentationReport().execute(context);
+
+        assertThat(Instrumentation.isEnabled()).isFalse();
+        assertThat(Instrumentation.rules()).isEmpty();
+    }
+}
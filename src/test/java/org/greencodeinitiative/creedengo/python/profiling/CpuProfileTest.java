@@ -0,0 +1,88 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.profiling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class CpuProfileTest {
+
+    static final Path PSTATS = Path.of("src/test/resources/profiling/jobs.pstats");
+    static final Path COLLAPSED = Path.of("src/test/resources/profiling/jobs.collapsed");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsCumulativeTimesOfPstatsFiles() throws IOException {
+        Map<Integer, Double> shares = CpuProfile.read(List.of(PSTATS)).sharesOf("/home/dev/app/jobs/jobs.py");
+
+        // first lines of slow, fast (its decorator) and main
+        assertThat(shares.keySet()).containsExactlyInAnyOrder(8, 15, 20);
+        assertThat(shares.get(8)).isCloseTo(0.999, within(0.001));
+        assertThat(shares.get(15)).isLessThan(0.001);
+        assertThat(shares.get(20)).isCloseTo(1.0, within(0.001));
+    }
+
+    @Test
+    void readsSamplesOfCollapsedStacks() throws IOException {
+        CpuProfile profile = CpuProfile.read(List.of(COLLAPSED));
+
+        assertThat(profile.sharesOf("C:\\dev\\app\\jobs\\jobs.py"))
+                .containsOnly(Map.entry(1, 0.8), Map.entry(11, 0.75), Map.entry(17, 0.05), Map.entry(21, 0.75), Map.entry(23, 0.05));
+        assertThat(profile.sharesOf("/home/dev/app/other/jobs.py")).containsOnly(Map.entry(3, 0.2));
+        // as close to both
+        assertThat(profile.sharesOf("jobs.py")).isEmpty();
+        assertThat(profile.sharesOf("/home/dev/app/jobs/views.py")).isEmpty();
+    }
+
+    @Test
+    void averagesProfiles() throws IOException {
+        Map<Integer, Double> shares = CpuProfile.read(List.of(PSTATS, COLLAPSED)).sharesOf("/home/dev/app/jobs/jobs.py");
+
+        assertThat(shares.get(8)).isCloseTo(0.4997, within(0.001));
+        assertThat(shares.get(11)).isCloseTo(0.375, within(0.001));
+    }
+
+    @Test
+    void rejectsMalformedProfiles() throws IOException {
+        Path collapsed = Files.writeString(tempDir.resolve("broken.collapsed"), "main (app.py:3) many\n");
+        Path pstats = Files.write(tempDir.resolve("broken.pstats"), new byte[]{'{', 'c'});
+
+        assertThatThrownBy(() -> CpuProfile.read(List.of(collapsed)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("broken.collapsed")
+                .hasMessageContaining("no sample count");
+        assertThatThrownBy(() -> CpuProfile.read(List.of(pstats)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("unsupported marshal type 'c'");
+        assertThat(CpuProfile.read(new ByteArrayInputStream("".getBytes(StandardCharsets.UTF_8)))).isEmpty();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.profiling;
+
+import org.greencodeinitiative.creedengo.python.checks.AvoidSqrtInLoop;
+import org.greencodeinitiative.creedengo.python.utils.PythonTestFiles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.config.Configuration;
+import org.sonar.plugins.python.api.IssueLocation;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.SubscriptionCheck;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProfileSensorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        CpuProfiles.clear();
+    }
+
+    @Test
+    void leavesContextUntouchedWithoutProfile() {
+        SubscriptionCheck.Context context = mock(SubscriptionCheck.Context.class);
+
+        assertThat(CpuProfiles.annotate(context)).isSameAs(context);
+    }
+
+    @Test
+    void annotatesIssuesWithTheShareOfTheirFunction() throws IOException {
+        Files.copy(CpuProfileTest.PSTATS, tempDir.resolve("jobs.pstats"));
+        new ProfileSensor().execute(sensorContext(" jobs.pstats ,"));
+
+        List<PreciseIssue> issues = analyzeJobs();
+
+        assertThat(issues).singleElement().satisfies(issue -> {
+            assertThat(issue.primaryLocation().startLine()).isEqualTo(11);
+            assertThat(issue.secondaryLocations()).singleElement().satisfies(secondary -> {
+                assertThat(secondary.startLine()).isEqualTo(8);
+                assertThat(secondary.message()).isEqualTo("99.9% of the profiled CPU time is spent in this function");
+            });
+        });
+    }
+
+    @Test
+    void creditsLinesToTheInnermostFunction() throws IOException {
+        Files.copy(CpuProfileTest.COLLAPSED, tempDir.resolve("jobs.collapsed"));
+        Files.copy(CpuProfileTest.PSTATS, tempDir.resolve("jobs.pstats"));
+        new ProfileSensor().execute(sensorContext("jobs.collapsed,jobs.pstats"));
+
+        List<PreciseIssue> issues = analyzeJobs();
+
+        assertThat(issues).singleElement().extracting(PreciseIssue::secondaryLocations).asList()
+                .extracting(location -> ((IssueLocation) location).message())
+                .containsExactly("87.5% of the profiled CPU time is spent in this function");
+    }
+
+    @Test
+    void ignoresUnreadableProfiles() {
+        new ProfileSensor().execute(sensorContext("missing.pstats"));
+
+        assertThat(CpuProfiles.current()).isNull();
+        assertThat(analyzeJobs()).singleElement().satisfies(issue -> assertThat(issue.secondaryLocations()).isEmpty());
+    }
+
+    @Test
+    void dropsTheProfilesOfThePreviousAnalysis() throws IOException {
+        Files.copy(CpuProfileTest.PSTATS, tempDir.resolve("jobs.pstats"));
+        new ProfileSensor().execute(sensorContext("jobs.pstats"));
+        analyzeJobs();
+
+        new ProfileSensor().execute(sensorContext(null));
+
+        assertThat(CpuProfiles.current()).isNull();
+        assertThat(analyzeJobs()).singleElement().satisfies(issue -> assertThat(issue.secondaryLocations()).isEmpty());
+    }
+
+    private List<PreciseIssue> analyzeJobs() {
+        try {
+            Path directory = Files.createDirectories(tempDir.resolve("app/jobs"));
+            String source = Files.readString(Path.of("src/test/resources/profiling/jobs.py"));
+            return PythonTestFiles.analyze(PythonTestFiles.context(directory, "jobs.py", source), new AvoidSqrtInLoop());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private SensorContext sensorContext(String profiles) {
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.hasKey(CpuProfiles.PROFILES_PROPERTY)).thenReturn(profiles != null);
+        when(configuration.getStringArray(CpuProfiles.PROFILES_PROPERTY))
+                .thenReturn(profiles == null ? new String[0] : profiles.split(","));
+        FileSystem fileSystem = mock(FileSystem.class);
+        when(fileSystem.baseDir()).thenReturn(tempDir.toFile());
+        SensorContext context = mock(SensorContext.class);
+        when(context.config()).thenReturn(configuration);
+        when(context.fileSystem()).thenReturn(fileSystem);
+        return context;
+    }
+}
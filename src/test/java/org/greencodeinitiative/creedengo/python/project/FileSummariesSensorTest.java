@@ -0,0 +1,90 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.project;
+
+import org.greencodeinitiative.creedengo.python.caching.FileSummaries;
+import org.greencodeinitiative.creedengo.python.utils.PythonTestFiles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.rule.ActiveRule;
+import org.sonar.api.batch.rule.ActiveRules;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.plugins.python.api.PythonInputFileContext;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.caching.CacheContext;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FileSummariesSensorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SensorContext context = mock(SensorContext.class);
+    private final ActiveRules activeRules = mock(ActiveRules.class);
+
+    @AfterEach
+    void tearDown() {
+        FileSummaries.reset();
+    }
+
+    @Test
+    void dropsTheSummariesOfThePreviousAnalysis() {
+        when(context.activeRules()).thenReturn(activeRules);
+        when(activeRules.find(SqlCallsInLoopSensor.RULE_KEY)).thenReturn(mock(ActiveRule.class));
+        FileSummaries.start(true);
+        record(PythonTestFiles.context(tempDir, "previous.py", "import sqlite3"));
+        assertThat(FileSummaries.all()).hasSize(1);
+
+        new FileSummariesSensor().execute(context);
+
+        assertThat(FileSummaries.all()).isEmpty();
+        record(PythonTestFiles.context(tempDir, "next.py", "import sqlite3"));
+        assertThat(FileSummaries.all()).hasSize(1);
+    }
+
+    @Test
+    void computesNoSummaryWhenTheRuleIsNotActive() {
+        when(context.activeRules()).thenReturn(activeRules);
+        FileSummaries.start(true);
+        record(PythonTestFiles.context(tempDir, "previous.py", "import sqlite3"));
+
+        new FileSummariesSensor().execute(context);
+
+        record(PythonTestFiles.context(tempDir, "next.py", "import sqlite3"));
+        assertThat(FileSummaries.all()).isEmpty();
+        PythonInputFileContext inputFileContext = mock(PythonInputFileContext.class);
+        assertThat(FileSummaries.restore(inputFileContext)).isTrue();
+        verifyNoInteractions(inputFileContext);
+    }
+
+    private static void record(PythonVisitorContext visitorContext) {
+        SubscriptionContext ctx = mock(SubscriptionContext.class);
+        when(ctx.pythonFile()).thenReturn(visitorContext.pythonFile());
+        when(ctx.syntaxNode()).thenReturn(visitorContext.rootTree());
+        when(ctx.cacheContext()).thenReturn(mock(CacheContext.class));
+        FileSummaries.record(ctx);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.project;
+
+import org.greencodeinitiative.creedengo.python.caching.FileSummaries;
+import org.greencodeinitiative.creedengo.python.checks.AvoidSQLRequestInLoop;
+import org.greencodeinitiative.creedengo.python.utils.PythonTestFiles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.FilePredicate;
+import org.sonar.api.batch.fs.FilePredicates;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.batch.rule.ActiveRule;
+import org.sonar.api.batch.rule.ActiveRules;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.issue.NewIssue;
+import org.sonar.api.batch.sensor.issue.NewIssueLocation;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.SubscriptionContext;
+import org.sonar.plugins.python.api.caching.CacheContext;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SqlCallsInLoopSensorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SensorContext context = mock(SensorContext.class);
+    private final ActiveRules activeRules = mock(ActiveRules.class);
+    private final InputFile serviceFile = mock(InputFile.class);
+    private final TextRange findRange = mock(TextRange.class);
+    private final TextRange fetchRange = mock(TextRange.class);
+    private final NewIssue issue = mock(NewIssue.class, RETURNS_SELF);
+    private final NewIssueLocation location = mock(NewIssueLocation.class, RETURNS_SELF);
+
+    @BeforeEach
+    void setUp() {
+        when(context.activeRules()).thenReturn(activeRules);
+        when(activeRules.find(SqlCallsInLoopSensor.RULE_KEY)).thenReturn(mock(ActiveRule.class));
+        FileSummaries.start(true);
+
+        FileSystem fileSystem = mock(FileSystem.class);
+        FilePredicates predicates = mock(FilePredicates.class);
+        FilePredicate servicePredicate = mock(FilePredicate.class);
+        when(context.fileSystem()).thenReturn(fileSystem);
+        when(fileSystem.predicates()).thenReturn(predicates);
+        when(predicates.hasURI(any(URI.class))).thenReturn(mock(FilePredicate.class));
+        when(predicates.hasURI(tempDir.resolve("service.py").toUri())).thenReturn(servicePredicate);
+        when(fileSystem.inputFile(servicePredicate)).thenReturn(serviceFile);
+        when(serviceFile.newRange(9, 19, 9, 36)).thenReturn(findRange);
+        when(serviceFile.newRange(9, 39, 9, 57)).thenReturn(fetchRange);
+
+        when(context.newIssue()).thenReturn(issue);
+        when(issue.newLocation()).thenReturn(location);
+    }
+
+    @AfterEach
+    void tearDown() {
+        FileSummaries.reset();
+    }
+
+    @Test
+    void reportsLoopsReachingQueriesOfOtherFiles() {
+        record(PythonTestFiles.context(tempDir, "repository.py",
+                "import sqlite3",
+                "def find(cursor, key):",
+                "    cursor.execute('SELECT * FROM users WHERE id = ?', (key,))",
+                "    return cursor.fetchone()",
+                "def name(user):",
+                "    return user.name"));
+        record(PythonTestFiles.context(tempDir, "service.py",
+                "import sqlite3",
+                "from repository import find, name",
+                "def fetch(cursor, key):",
+                "    return find(cursor, key)",
+                "def count(cursor):",
+                "    cursor.execute('SELECT COUNT(*) FROM users')",
+                "def names(cursor, keys):",
+                "    for key in keys:",
+                "        print(name(find(cursor, key)), fetch(cursor, key), count(cursor))"));
+
+        new SqlCallsInLoopSensor().execute(context);
+
+        // count() executes a query of the same file: reported by the check
+        verify(location, times(2)).on(serviceFile);
+        verify(location).at(findRange);
+        verify(location).at(fetchRange);
+        verify(location, times(2)).message(AvoidSQLRequestInLoop.MESSAGE_RULE);
+        // a single loop: the base effort of the rule, as for the issues of the check
+        verify(issue, times(2)).gap(0.0);
+        verify(issue, times(2)).save();
+    }
+
+    @Test
+    void doesNothingWhenTheRuleIsNotActive() {
+        when(activeRules.find(SqlCallsInLoopSensor.RULE_KEY)).thenReturn(null);
+        record(PythonTestFiles.context(tempDir, "service.py",
+                "import sqlite3",
+                "def find(cursor):",
+                "    cursor.execute('SELECT 1')",
+                "for i in range(3):",
+                "    find(i)"));
+
+        new SqlCallsInLoopSensor().execute(context);
+
+        verify(context, never()).newIssue();
+    }
+
+    private static void record(PythonVisitorContext visitorContext) {
+        SubscriptionContext ctx = mock(SubscriptionContext.class);
+        when(ctx.pythonFile()).thenReturn(visitorContext.pythonFile());
+        when(ctx.syntaxNode()).thenReturn(visitorContext.rootTree());
+        when(ctx.cacheContext()).thenReturn(mock(CacheContext.class));
+        FileSummaries.record(ctx);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.project;
+
+import org.greencodeinitiative.creedengo.python.caching.FileSummary;
+import org.greencodeinitiative.creedengo.python.caching.FileSummary.FunctionSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlFunctionIndexTest {
+
+    @Test
+    void followsCallsAcrossFiles() {
+        FileSummary repository = summary(
+                new FunctionSummary("repository.find", true, Set.of()),
+                new FunctionSummary("repository.Cache.get", false, Set.of("repository.find")),
+                new FunctionSummary("repository.clear", false, Set.of("os.remove")));
+        FileSummary service = summary(
+                new FunctionSummary("service.load", false, Set.of("repository.Cache.get")),
+                new FunctionSummary("service.render", false, Set.of("service.format")),
+                new FunctionSummary("service.format", false, Set.of()));
+
+        SqlFunctionIndex index = SqlFunctionIndex.of(List.of(service, repository));
+
+        assertThat(index.sqlFunctions()).containsExactlyInAnyOrder("repository.find", "repository.Cache.get", "service.load");
+        assertThat(index.executesSql("service.load")).isTrue();
+        assertThat(index.executesSql("service.render")).isFalse();
+        assertThat(index.executesSql("os.remove")).isFalse();
+    }
+
+    @Test
+    void terminatesOnRecursiveCalls() {
+        FileSummary summary = summary(
+                new FunctionSummary("m.even", false, Set.of("m.odd")),
+                new FunctionSummary("m.odd", false, Set.of("m.even", "m.query")),
+                new FunctionSummary("m.query", true, Set.of("m.query")));
+
+        assertThat(SqlFunctionIndex.of(List.of(summary)).sqlFunctions()).containsExactlyInAnyOrder("m.even", "m.odd", "m.query");
+    }
+
+    private static FileSummary summary(FunctionSummary... functions) {
+        return new FileSummary(Map.of(), List.of(functions), List.of());
+    }
+}
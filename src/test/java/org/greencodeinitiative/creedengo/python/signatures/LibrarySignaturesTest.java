@@ -0,0 +1,134 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.signatures;
+
+import org.greencodeinitiative.creedengo.python.utils.CallArgumentBinder;
+import org.greencodeinitiative.creedengo.python.utils.PythonTestFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.tree.CallExpression;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LibrarySignaturesTest {
+
+    private static final LibrarySignatures SIGNATURES = LibrarySignatures.bundled();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void describesTheFunctionsUsedByTheRules() {
+        assertThat(SIGNATURES.function("torch.utils.data.DataLoader")).isNotNull();
+        assertThat(SIGNATURES.function("torch.nn.Conv2d")).isNotNull();
+        assertThat(SIGNATURES.function("pandas.read_csv")).isNotNull();
+        assertThat(SIGNATURES.function("numpy.zeros")).isNotNull();
+        assertThat(SIGNATURES.function("pandas.read_unknown")).isNull();
+        assertThat(SIGNATURES.function(null)).isNull();
+        assertThatThrownBy(() -> SIGNATURES.require("pandas.read_unknown")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void aliasesShareTheSignatureOfTheFunction() {
+        assertThat(SIGNATURES.function("torch.nn.modules.conv.Conv2d")).isSameAs(SIGNATURES.require("torch.nn.Conv2d"));
+        assertThat(SIGNATURES.function("pandas.io.parsers.readers.read_csv")).isSameAs(SIGNATURES.require("pandas.read_csv"));
+    }
+
+    @Test
+    void describesParametersPerVersion() {
+        FunctionSignature readCsv = SIGNATURES.require("pandas.read_csv");
+
+        assertThat(readCsv.versions()).containsExactly("1.5", "2.0", "2.2");
+        assertThat(readCsv.parameters("1.5")).startsWith("filepath_or_buffer", "sep", "delimiter");
+        assertThat(readCsv.parameters("0.1")).isEmpty();
+        assertThat(readCsv.isPositional("1.5", "usecols")).isTrue();
+        assertThat(readCsv.isPositional("2.2", "usecols")).isFalse();
+        assertThat(readCsv.isPositional("2.2", "filepath_or_buffer")).isTrue();
+        assertThat(SIGNATURES.require("numpy.linspace").isPositional("2.2", "dtype")).isTrue();
+        assertThat(SIGNATURES.require("numpy.zeros").isPositional("2.2", "device")).isFalse();
+    }
+
+    @Test
+    void defaultValuesMustBeTheSameInEveryVersion() {
+        FunctionSignature dataLoader = SIGNATURES.require("torch.utils.data.DataLoader");
+
+        assertThat(dataLoader.defaultValue("pin_memory")).isEqualTo("False");
+        assertThat(dataLoader.defaultValue("prefetch_factor")).isNull();
+        assertThat(dataLoader.defaultValue("dataset")).isNull();
+        assertThat(SIGNATURES.require("torch.nn.Conv2d").defaultValue("bias")).isEqualTo("True");
+    }
+
+    @Test
+    void bindsPositionalArgumentsOfAnyVersionConservatively() {
+        CallArgumentBinder readCsv = SIGNATURES.require("pandas.read_csv").binder();
+
+        // usecols was the 7th positional parameter before pandas 2.0
+        assertThat(readCsv.bind(call("read_csv(path, sep)")).isMissing("usecols")).isTrue();
+        assertThat(readCsv.bind(call("read_csv(path, *arguments)")).isUnknown("usecols")).isTrue();
+        assertThat(readCsv.bind(call("read_csv(a, b, c, d, e, f, g)")).isUnknown("usecols")).isTrue();
+        assertThat(readCsv.bind(call("read_csv(a, b, c, d, e, f, g)")).argument("usecols")).isNull();
+        assertThat(readCsv.bind(call("read_csv(path, usecols=columns)")).argument("usecols")).isNotNull();
+        assertThat(readCsv.bind(call("read_csv(path)")).argument("filepath_or_buffer")).isNotNull();
+    }
+
+    @Test
+    void internsTheStringsOfAllTheSignatures() {
+        String pinMemory = SIGNATURES.require("torch.utils.data.DataLoader").parameters("2.5").get(7);
+        String tensorPinMemory = SIGNATURES.require("torch.tensor").parameters("2.5").get(4);
+
+        assertThat(pinMemory).isEqualTo("pin_memory").isSameAs(tensorPinMemory);
+    }
+
+    @Test
+    void rejectsOtherFormatVersions() {
+        assertThatThrownBy(() -> LibrarySignatures.read(json("{\"formatVersion\": 2, \"libraries\": []}")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("format version");
+        assertThatThrownBy(() -> LibrarySignatures.read(json("{\"libraries\": []}")))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void readsKeywordOnlyAndPositionalOnlyMarkers() throws IOException {
+        LibrarySignatures signatures = LibrarySignatures.read(json("{\"formatVersion\": 1, \"libraries\": [{\"name\": \"lib\","
+                + " \"functions\": [{\"name\": \"lib.f\", \"signatures\": [{\"versions\": [\"1\"],"
+                + " \"parameters\": [\"a\", \"/\", \"b=0\", \"*\", \"c='='\"]}]}]}]}"));
+        FunctionSignature f = signatures.require("lib.f");
+
+        assertThat(f.parameters("1")).containsExactly("a", "b", "c");
+        assertThat(f.isPositional("1", "b")).isTrue();
+        assertThat(f.isPositional("1", "c")).isFalse();
+        assertThat(f.defaultValue("a")).isNull();
+        assertThat(f.defaultValue("c")).isEqualTo("'='");
+    }
+
+    private CallExpression call(String source) {
+        return PythonTestFiles.calls(PythonTestFiles.parse(tempDir, "call.py", source)).get(0);
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
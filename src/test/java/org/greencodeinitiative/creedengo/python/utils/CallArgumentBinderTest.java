@@ -0,0 +1,98 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.RegularArgument;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CallArgumentBinderTest {
+
+    private static final CallArgumentBinder SIGNATURE = CallArgumentBinder.of("a", "b", "c");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void bindsPositionalAndKeywordArguments() {
+        CallArgumentBinder.Bindings arguments = SIGNATURE.bind(call("f(1, 2, c=3, d=4)"));
+
+        assertThat(valueOf(arguments.argument("a"))).isEqualTo("1");
+        assertThat(valueOf(arguments.argument("b"))).isEqualTo("2");
+        assertThat(valueOf(arguments.argument("c"))).isEqualTo("3");
+        assertThat(valueOf(arguments.argument("d"))).isEqualTo("4");
+        assertThat(arguments.argument("e")).isNull();
+        assertThat(arguments.isMissing("e")).isTrue();
+        assertThat(arguments.isUnknown("e")).isFalse();
+    }
+
+    @Test
+    void ignoresExtraPositionalArguments() {
+        CallArgumentBinder.Bindings arguments = SIGNATURE.bind(call("f(1, 2, 3, 4)"));
+
+        assertThat(valueOf(arguments.argument("c"))).isEqualTo("3");
+        assertThat(arguments.isMissing("d")).isTrue();
+    }
+
+    @Test
+    void positionsAfterUnpackedIterablesAreUnknown() {
+        CallArgumentBinder.Bindings arguments = SIGNATURE.bind(call("f(1, *rest, 9, c=3)"));
+
+        assertThat(valueOf(arguments.argument("a"))).isEqualTo("1");
+        assertThat(arguments.argument("b")).isNull();
+        assertThat(arguments.isUnknown("b")).isTrue();
+        assertThat(arguments.isMissing("b")).isFalse();
+        assertThat(valueOf(arguments.argument("c"))).isEqualTo("3");
+        assertThat(arguments.isUnknown("c")).isFalse();
+        // keyword-only parameters cannot be passed by position
+        assertThat(arguments.isMissing("d")).isTrue();
+    }
+
+    @Test
+    void anyParameterMayBePassedByUnpackedMappings() {
+        CallArgumentBinder.Bindings arguments = SIGNATURE.bind(call("f(1, **options)"));
+
+        assertThat(valueOf(arguments.argument("a"))).isEqualTo("1");
+        assertThat(arguments.isUnknown("a")).isFalse();
+        assertThat(arguments.isUnknown("b")).isTrue();
+        assertThat(arguments.isUnknown("d")).isTrue();
+        assertThat(arguments.isMissing("d")).isFalse();
+    }
+
+    @Test
+    void bindsByIndexPositionalArgumentsFollowingKeywords() {
+        // rejected by Python, accepted by the parser
+        CallArgumentBinder.Bindings arguments = SIGNATURE.bind(call("f(1, b=2, 3)"));
+
+        assertThat(valueOf(arguments.argument("b"))).isEqualTo("2");
+        assertThat(valueOf(arguments.argument("c"))).isEqualTo("3");
+    }
+
+    private CallExpression call(String source) {
+        return PythonTestFiles.calls(PythonTestFiles.parse(tempDir, "call.py", source)).get(0);
+    }
+
+    private static String valueOf(RegularArgument argument) {
+        return argument == null ? null : argument.expression().firstToken().value();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.tree.FileInput;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void resolvesAliases() {
+        ImportIndex index = ImportIndex.of(PythonTestFiles.parse(tempDir, "imports.py",
+                "import os",
+                "import os.path",
+                "import numpy as np",
+                "import mysql.connector as db",
+                "from loguru import logger",
+                "from logging import getLogger as get",
+                "from . import sibling",
+                "from ..pkg.mod import helper as h",
+                "from pandas import *",
+                "def f():",
+                "    import sqlite3"));
+
+        assertThat(index.resolve("os")).isEqualTo("os");
+        assertThat(index.resolve("np")).isEqualTo("numpy");
+        assertThat(index.resolve("numpy")).isNull();
+        assertThat(index.resolve("db")).isEqualTo("mysql.connector");
+        assertThat(index.resolve("mysql")).isNull();
+        assertThat(index.resolve("logger")).isEqualTo("loguru.logger");
+        assertThat(index.resolve("get")).isEqualTo("logging.getLogger");
+        assertThat(index.resolve("sibling")).isEqualTo(".sibling");
+        assertThat(index.resolve("h")).isEqualTo("..pkg.mod.helper");
+        assertThat(index.resolve("sqlite3")).isEqualTo("sqlite3");
+        assertThat(index.resolve("unknown")).isNull();
+        assertThat(index.localNames()).containsEntry("np", "numpy").doesNotContainKey("pandas");
+    }
+
+    @Test
+    void knowsImportedModules() {
+        ImportIndex index = ImportIndex.of(PythonTestFiles.parse(tempDir, "modules.py",
+                "import os.path",
+                "from mysql import connector",
+                "from pandas import *",
+                "from .local import thing"));
+
+        assertThat(index.importsModule("os")).isTrue();
+        assertThat(index.importsModule("os.path")).isTrue();
+        assertThat(index.importsModule("mysql")).isTrue();
+        assertThat(index.importsModule("mysql.connector")).isTrue();
+        assertThat(index.importsModule("pandas")).isTrue();
+        assertThat(index.importsModule(".local.thing")).isTrue();
+        assertThat(index.importsModule("local")).isFalse();
+        assertThat(index.importsModule("os.pa")).isFalse();
+        assertThat(index.importsAnyModule(List.of("sqlite3", "mysql.connector"))).isTrue();
+        assertThat(index.importsAnyModule(List.of("sqlite3", "psycopg2"))).isFalse();
+    }
+
+    @Test
+    void resolvesAttributesOfImportedNames() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "attributes.py",
+                "from django.db import models",
+                "import sqlalchemy.orm as orm",
+                "models.ForeignKey(Author)",
+                "orm.session.Session()",
+                "cache.get(key)",
+                "make().Session()");
+        ImportIndex index = ImportIndex.of(fileInput);
+
+        List<String> callees = PythonTestFiles.calls(fileInput).stream()
+                .map(call -> index.resolve(call.callee()))
+                .toList();
+
+        assertThat(callees).containsExactly("django.db.models.ForeignKey", "sqlalchemy.orm.session.Session", null, null, null);
+    }
+}
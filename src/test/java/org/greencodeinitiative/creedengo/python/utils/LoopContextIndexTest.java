@@ -0,0 +1,168 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoopContextIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void answersLoopAndFunctionQueries() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "loops.py",
+                "a()",
+                "def f(xs):",
+                "    b()",
+                "    for x in g(xs):",
+                "        c()",
+                "        while x:",
+                "            d()",
+                "        def inner():",
+                "            e()",
+                "    else:",
+                "        h()");
+        Map<String, CallExpression> calls = callsByName(fileInput);
+        LoopContextIndex index = LoopContextIndex.of(fileInput);
+
+        assertThat(index.loopDepth(calls.get("a"))).isZero();
+        assertThat(index.enclosingFunction(calls.get("a"))).isNull();
+        assertThat(index.enclosingLoop(calls.get("a"))).isNull();
+
+        assertThat(index.isInLoop(calls.get("b"))).isFalse();
+        assertThat(index.enclosingFunction(calls.get("b")).name().name()).isEqualTo("f");
+
+        assertThat(index.loopDepth(calls.get("g"))).isEqualTo(1);
+        assertThat(index.loopDepth(calls.get("c"))).isEqualTo(1);
+        assertThat(index.enclosingLoop(calls.get("c")).is(Tree.Kind.FOR_STMT)).isTrue();
+        assertThat(index.loopDepth(calls.get("h"))).isEqualTo(1);
+
+        assertThat(index.loopDepth(calls.get("d"))).isEqualTo(2);
+        assertThat(index.enclosingLoop(calls.get("d")).is(Tree.Kind.WHILE_STMT)).isTrue();
+
+        assertThat(index.loopDepth(calls.get("e"))).isEqualTo(1);
+        assertThat(index.enclosingFunction(calls.get("e")).name().name()).isEqualTo("inner");
+
+        assertThat(index.loopDepth(calls.get("d").firstToken())).isEqualTo(2);
+    }
+
+    @Test
+    void evaluatesTheIterablesOfOuterLoopsOnce() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "iterables.py",
+                "for x in a():",
+                "    b()",
+                "    for y in c():",
+                "        d()",
+                "while e():",
+                "    f()",
+                "else:",
+                "    g()",
+                "h()");
+        Map<String, CallExpression> calls = callsByName(fileInput);
+        LoopContextIndex index = LoopContextIndex.of(fileInput);
+
+        assertThat(index.isInLoop(calls.get("a"))).isTrue();
+        assertThat(index.isEvaluatedPerIteration(calls.get("a"))).isFalse();
+        assertThat(index.isEvaluatedPerIteration(calls.get("b"))).isTrue();
+        assertThat(index.isEvaluatedPerIteration(calls.get("c"))).isTrue();
+        assertThat(index.isEvaluatedPerIteration(calls.get("d"))).isTrue();
+        assertThat(index.isEvaluatedPerIteration(calls.get("e"))).isTrue();
+        assertThat(index.isEvaluatedPerIteration(calls.get("f"))).isTrue();
+        assertThat(index.isEvaluatedPerIteration(calls.get("h"))).isFalse();
+    }
+
+    @Test
+    void visitsEveryNodeOnceWhateverTheNestingDepth() {
+        FileInput shallow = PythonTestFiles.parse(tempDir, "shallow.py", nestedCalls(10_000, 25));
+        FileInput deep = PythonTestFiles.parse(tempDir, "deep.py", nestedCalls(10_000, 100));
+        FileInput large = PythonTestFiles.parse(tempDir, "large.py", nestedCalls(40_000, 100));
+
+        LoopContextIndex shallowIndex = indexAndQuery(shallow, 25);
+        LoopContextIndex deepIndex = indexAndQuery(deep, 100);
+        LoopContextIndex largeIndex = indexAndQuery(large, 100);
+
+        // a walk to the root from every call would grow with the depth: the index is built with a single walk, and
+        // every query looks a single node up
+        assertThat(shallowIndex.size()).isEqualTo(countNodes(shallow));
+        assertThat(shallowIndex.visits()).isEqualTo(countNodes(shallow) + 10_000L);
+        assertThat(deepIndex.visits()).isEqualTo(countNodes(deep) + 10_000L);
+        assertThat(largeIndex.visits()).isEqualTo(countNodes(large) + 40_000L);
+        assertThat((double) largeIndex.visits() / deepIndex.visits()).isBetween(3.5, 4.5);
+        assertThat((double) deepIndex.visits() / shallowIndex.visits()).isBetween(0.9, 1.1);
+    }
+
+    private static int countNodes(FileInput fileInput) {
+        int count = 0;
+        Deque<Tree> nodes = new ArrayDeque<>();
+        nodes.push(fileInput);
+        while (!nodes.isEmpty()) {
+            Tree node = nodes.pop();
+            count++;
+            node.children().stream()
+                    .filter(child -> child != null && !child.is(Tree.Kind.TOKEN))
+                    .forEach(nodes::push);
+        }
+        return count;
+    }
+
+    private static LoopContextIndex indexAndQuery(FileInput fileInput, int depth) {
+        LoopContextIndex index = LoopContextIndex.of(fileInput);
+        List<CallExpression> calls = PythonTestFiles.calls(fileInput);
+        int callsAtDepth = 0;
+        for (CallExpression call : calls) {
+            if (index.loopDepth(call) == depth) {
+                callsAtDepth++;
+            }
+        }
+        assertThat(callsAtDepth).isEqualTo(calls.size());
+        return index;
+    }
+
+    private static String[] nestedCalls(int calls, int depth) {
+        String[] lines = new String[depth + calls];
+        for (int level = 0; level < depth; level++) {
+            lines[level] = " ".repeat(level) + "for i" + level + " in r:";
+        }
+        String indent = " ".repeat(depth);
+        for (int i = 0; i < calls; i++) {
+            lines[depth + i] = indent + "f" + (i % 10) + "(i" + (i % depth) + ")";
+        }
+        return lines;
+    }
+
+    private static Map<String, CallExpression> callsByName(FileInput fileInput) {
+        Map<String, CallExpression> calls = new HashMap<>();
+        PythonTestFiles.calls(fileInput).forEach(call -> calls.put(((Name) call.callee()).name(), call));
+        return calls;
+    }
+}
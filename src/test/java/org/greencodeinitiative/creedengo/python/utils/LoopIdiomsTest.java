@@ -0,0 +1,103 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.ForStatement;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoopIdiomsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recognisesNestsFromTheirOutermostLoop() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "nests.py",
+                "import numpy as np",
+                "for i in range(n):",
+                "    for j in range(m):",
+                "        c[i][j] = a[i][j] + b[i][j]",
+                "for i in range(n):",
+                "    for j in range(m):",
+                "        c[i][j] = a[j][i]",
+                "for i in items:",
+                "    for j in range(m):",
+                "        s += a[j]");
+        ImportIndex imports = ImportIndex.of(fileInput);
+
+        assertThat(loops(fileInput)).extracting(loop -> LoopIdioms.recognise(loop, imports))
+                .containsExactly(LoopIdioms.Idiom.ELEMENT_WISE, null, null, null, null, LoopIdioms.Idiom.SUM);
+    }
+
+    @Test
+    void recognisesNothingWithoutArrayLibrary() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "lists.py",
+                "import math",
+                "for i in range(n):",
+                "    c[i] = math.sqrt(a[i])",
+                "for i in range(n):",
+                "    s += a[i]");
+        ImportIndex imports = ImportIndex.of(fileInput);
+
+        assertThat(loops(fileInput)).extracting(loop -> LoopIdioms.recognise(loop, imports))
+                .containsOnlyNulls();
+    }
+
+    @Test
+    void recognisesNestsInFilesImportingTorch() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "tensors.py",
+                "from torch import tensor",
+                "for i in range(n):",
+                "    s += t[i]");
+        ImportIndex imports = ImportIndex.of(fileInput);
+
+        assertThat(loops(fileInput)).extracting(loop -> LoopIdioms.recognise(loop, imports))
+                .containsExactly(LoopIdioms.Idiom.SUM);
+    }
+
+    @Test
+    void suggestsAVectorisedReplacement() {
+        assertThat(LoopIdioms.Idiom.CUMULATIVE_SUM.message())
+                .isEqualTo("Avoid iterative prefix sum over arrays, use np.cumsum or torch.cumsum instead");
+        assertThat(LoopIdioms.Idiom.values())
+                .extracting(LoopIdioms.Idiom::message)
+                .allSatisfy(message -> assertThat(message).containsPattern("np\\.|numpy|torch"))
+                .doesNotHaveDuplicates();
+    }
+
+    private static List<ForStatement> loops(FileInput fileInput) {
+        List<ForStatement> loops = new ArrayList<>();
+        fileInput.accept(new BaseTreeVisitor() {
+            @Override
+            public void visitForStatement(ForStatement forStatement) {
+                loops.add(forStatement);
+                super.visitForStatement(forStatement);
+            }
+        });
+        return loops;
+    }
+}
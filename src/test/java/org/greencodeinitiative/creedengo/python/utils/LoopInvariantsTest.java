@@ -0,0 +1,98 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoopInvariantsTest {
+
+    private static final Predicate<CallExpression> PURE = call -> call.callee() instanceof Name name
+            && name.name().startsWith("pure");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findsTheLoopEvaluatingTheNodeAtEveryIteration() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "loops.py",
+                "for i in pure_a(x):",
+                "    for j in pure_b(x):",
+                "        pure_c(x)",
+                "    else:",
+                "        pure_d(x)",
+                "    def f():",
+                "        pure_e(x)",
+                "pure_f(x)");
+        List<CallExpression> calls = PythonTestFiles.calls(fileInput);
+        LoopContextIndex index = LoopContextIndex.of(fileInput);
+        Tree outer = index.enclosingLoop(calls.get(1));
+        Tree inner = index.enclosingLoop(calls.get(2));
+
+        assertThat(LoopInvariants.iteratingLoop(index, calls.get(0))).isNull();
+        assertThat(LoopInvariants.iteratingLoop(index, calls.get(1))).isSameAs(outer);
+        assertThat(LoopInvariants.iteratingLoop(index, calls.get(2))).isSameAs(inner).isNotSameAs(outer);
+        assertThat(LoopInvariants.iteratingLoop(index, calls.get(3))).isSameAs(outer);
+        assertThat(LoopInvariants.iteratingLoop(index, calls.get(4))).isNull();
+        assertThat(LoopInvariants.iteratingLoop(index, calls.get(5))).isNull();
+    }
+
+    @Test
+    void tellsWhetherCallsHaveTheSameArgumentsAtEveryIteration() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "invariants.py",
+                "import re",
+                "for item in items:",
+                "    pure_a(config, re.IGNORECASE)",
+                "    pure_b(item)",
+                "    pure_c(total)",
+                "    total += 1",
+                "    pure_d(seen)",
+                "    seen.add(item)",
+                "    pure_e(cache)",
+                "    cache[item] = 1",
+                "    pure_f(buffer)",
+                "    fill(buffer)",
+                "    pure_g(pure_h(config))",
+                "    pure_i(impure(other))",
+                "    pure_j([x for x in values])",
+                "    pure_k(shared)",
+                "    pure_l(shared)",
+                "    del removed[0]",
+                "    pure_m(removed)");
+        List<CallExpression> calls = PythonTestFiles.calls(fileInput);
+        LoopContextIndex index = LoopContextIndex.of(fileInput);
+        LoopInvariants invariants = LoopInvariants.newInstance();
+        Tree loop = index.enclosingLoop(calls.get(0));
+
+        assertThat(calls.stream()
+                .filter(call -> call.callee() instanceof Name name && name.name().startsWith("pure"))
+                .filter(call -> invariants.isInvariant(call, loop, PURE))
+                .map(call -> ((Name) call.callee()).name()))
+                .containsExactly("pure_a", "pure_g", "pure_h", "pure_k", "pure_l");
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.greencodeinitiative.creedengo.python.checks.AvoidListComprehensionInIterations;
+import org.greencodeinitiative.creedengo.python.checks.AvoidSqrtInLoop;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Name;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoopWeightTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void countsEnclosingLoopsAndLargeRanges() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "loops.py",
+                "a()",
+                "for i in range(10):",
+                "    b()",
+                "    while i:",
+                "        for j in range(5_000):",
+                "            c()",
+                "for k in range(0, 10_000, 5):",
+                "    d()",
+                "    for m in range(1_000, 1_500):",
+                "        e()",
+                "for n in range(n_max):",
+                "    f()",
+                "for p in range(2_000, 0, -1):",
+                "    g()",
+                "for q in items(1_000):",
+                "    h()");
+        Map<String, CallExpression> calls = callsByName(fileInput);
+        LoopContextIndex index = LoopContextIndex.of(fileInput);
+
+        assertThat(LoopWeight.of(index, calls.get("a"))).isEqualTo(new LoopWeight(0, 0));
+        assertThat(LoopWeight.of(index, calls.get("b"))).isEqualTo(new LoopWeight(1, 0));
+        assertThat(LoopWeight.of(index, calls.get("c"))).isEqualTo(new LoopWeight(3, 1));
+        assertThat(LoopWeight.of(index, calls.get("c")).cost()).isEqualTo(3);
+        assertThat(LoopWeight.of(index, calls.get("b")).cost()).isZero();
+        assertThat(LoopWeight.of(index, calls.get("d"))).isEqualTo(new LoopWeight(1, 1));
+        assertThat(LoopWeight.of(index, calls.get("e"))).isEqualTo(new LoopWeight(2, 1));
+        // unknown bound, negative step, not a range
+        assertThat(LoopWeight.of(index, calls.get("f"))).isEqualTo(new LoopWeight(1, 0));
+        assertThat(LoopWeight.of(index, calls.get("g"))).isEqualTo(new LoopWeight(1, 0));
+        assertThat(LoopWeight.of(index, calls.get("h"))).isEqualTo(new LoopWeight(1, 0));
+    }
+
+    @Test
+    void setsTheCostOfIssuesRaisedInLoops() {
+        List<PreciseIssue> issues = PythonTestFiles.analyze(PythonTestFiles.context(tempDir, "sqrt.py",
+                "import math",
+                "for i in range(10):",
+                "    math.sqrt(i)",
+                "    for j in range(100_000):",
+                "        for k in range(3):",
+                "            math.sqrt(j)"), new AvoidSqrtInLoop());
+
+        assertThat(issues).extracting(PreciseIssue::cost).containsExactly(0, 3);
+    }
+
+    @Test
+    void weighsTheIssuesRaisedOnLoopsWithTheirBody() {
+        List<PreciseIssue> issues = PythonTestFiles.analyze(PythonTestFiles.context(tempDir, "comprehensions.py",
+                "for i in [x for x in values]:",
+                "    print(i)",
+                "while running:",
+                "    for j in [x for x in values]:",
+                "        print(j)"), new AvoidListComprehensionInIterations());
+
+        assertThat(issues).extracting(PreciseIssue::cost).containsExactly(0, 1);
+    }
+
+    private static Map<String, CallExpression> callsByName(FileInput fileInput) {
+        Map<String, CallExpression> calls = new HashMap<>();
+        PythonTestFiles.calls(fileInput).stream()
+                .filter(call -> call.callee() instanceof Name)
+                .forEach(call -> calls.put(((Name) call.callee()).name(), call));
+        return calls;
+    }
+}
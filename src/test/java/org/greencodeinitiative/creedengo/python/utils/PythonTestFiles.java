@@ -0,0 +1,80 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.TestPythonVisitorRunner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers to parse and analyse Python sources generated by tests.
+ */
+public final class PythonTestFiles {
+
+    private PythonTestFiles() {
+        // Utility class - prevent instantiation
+    }
+
+    public static PythonVisitorContext context(Path directory, String fileName, String... lines) {
+        return context(directory, fileName, String.join("\n", lines) + "\n");
+    }
+
+    public static PythonVisitorContext context(Path directory, String fileName, String source) {
+        try {
+            Path file = directory.resolve(fileName);
+            Files.writeString(file, source, StandardCharsets.UTF_8);
+            return TestPythonVisitorRunner.createContext(file.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static FileInput parse(Path directory, String fileName, String... lines) {
+        return context(directory, fileName, lines).rootTree();
+    }
+
+    public static List<PreciseIssue> analyze(PythonVisitorContext context, PythonSubscriptionCheck... checks) {
+        SubscriptionVisitor.analyze(List.of(checks), context);
+        return context.getIssues();
+    }
+
+    public static List<CallExpression> calls(FileInput fileInput) {
+        List<CallExpression> calls = new ArrayList<>();
+        fileInput.accept(new BaseTreeVisitor() {
+            @Override
+            public void visitCallExpression(CallExpression callExpression) {
+                calls.add(callExpression);
+                super.visitCallExpression(callExpression);
+            }
+        });
+        return calls;
+    }
+}
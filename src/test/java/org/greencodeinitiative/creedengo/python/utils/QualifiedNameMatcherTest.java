@@ -0,0 +1,97 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.tree.CallExpression;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QualifiedNameMatcherTest {
+
+    private static final QualifiedNameMatcher<String> MATCHER = QualifiedNameMatcher.<String>builder()
+            .add("torch.nn.**.Conv2d", "conv")
+            .add("torch.nn.Module", "module")
+            .add("torch.nn.modules.Module", "detailed module")
+            .add("numpy.zeros", "zeros")
+            .add("logging.**", "logging")
+            .build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void matchesWholeSegments() {
+        assertThat(MATCHER.match("numpy.zeros")).isEqualTo("zeros");
+        assertThat(MATCHER.match("numpy.zeros_like")).isNull();
+        assertThat(MATCHER.match("numpy.zero")).isNull();
+        assertThat(MATCHER.match("numpy")).isNull();
+        assertThat(MATCHER.match("numpy.zeros.x")).isNull();
+        assertThat(MATCHER.match("")).isNull();
+        assertThat(MATCHER.match((String) null)).isNull();
+    }
+
+    @Test
+    void anySegmentsMatchAliasesOfTheSameName() {
+        assertThat(MATCHER.match("torch.nn.Conv2d")).isEqualTo("conv");
+        assertThat(MATCHER.match("torch.nn.modules.conv.Conv2d")).isEqualTo("conv");
+        assertThat(MATCHER.match("torch.Conv2d")).isNull();
+        assertThat(MATCHER.match("torch.nn.modules.conv.Conv2d.weight")).isNull();
+        assertThat(MATCHER.match("logging")).isEqualTo("logging");
+        assertThat(MATCHER.match("logging.handlers.RotatingFileHandler")).isEqualTo("logging");
+    }
+
+    @Test
+    void prefersExactSegments() {
+        assertThat(MATCHER.match("torch.nn.Module")).isEqualTo("module");
+        assertThat(MATCHER.match("torch.nn.modules.Module")).isEqualTo("detailed module");
+        assertThat(MATCHER.matches("torch.nn.modules.module.Module")).isFalse();
+    }
+
+    @Test
+    void matchesTheCalleeOfCalls() {
+        List<CallExpression> calls = PythonTestFiles.calls(PythonTestFiles.parse(tempDir,
+                "calls.py", "import numpy as np", "np.zeros(3)", "np.ones(3)", "unknown(3)"));
+
+        assertThat(MATCHER.match(calls.get(0))).isEqualTo("zeros");
+        assertThat(QualifiedNameMatcher.calleeName(calls.get(0))).isEqualTo("numpy.zeros");
+        assertThat(MATCHER.matches(calls.get(1))).isFalse();
+        assertThat(MATCHER.matches(calls.get(2))).isFalse();
+    }
+
+    @Test
+    void rejectsEmptySegments() {
+        QualifiedNameMatcher.Builder<String> builder = QualifiedNameMatcher.builder();
+
+        assertThatThrownBy(() -> builder.add("numpy..zeros", "zeros")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.add("", "empty")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void patternsWithoutValueDoNotMatch() {
+        QualifiedNameMatcher<String> matcher = QualifiedNameMatcher.of("a.b.c");
+
+        assertThat(matcher.match("a.b.c")).isEqualTo("a.b.c");
+        assertThat(matcher.match("a.b")).isNull();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlCallGraphTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void resolvesQueriesThroughCallsAtAnyDepth() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "graph.py",
+                "import sqlite3",
+                "def query(cursor):",
+                "    cursor.execute('SELECT 1')",
+                "def helper(cursor):",
+                "    return query(cursor)",
+                "def service(cursor):",
+                "    return helper(cursor)",
+                "def pure(x):",
+                "    return len(x)",
+                "def factory(cursor):",
+                "    def inner():",
+                "        cursor.execute('SELECT 2')",
+                "    return inner",
+                "def ping(cursor):",
+                "    return pong(cursor)",
+                "def pong(cursor):",
+                "    return ping(cursor)",
+                "service(c)",
+                "pure(c)",
+                "factory(c)",
+                "ping(c)",
+                "unknown(c)");
+        Map<String, CallExpression> calls = callsByName(fileInput);
+        SqlCallGraph graph = SqlCallGraph.of(fileInput);
+
+        CallExpression query = graph.queryExecutedBy(calls.get("service"));
+        assertThat(query).isNotNull();
+        assertThat(query.firstToken().line()).isEqualTo(3);
+        assertThat(graph.queryExecutedBy(calls.get("pure"))).isNull();
+        assertThat(graph.queryExecutedBy(calls.get("factory"))).isNull();
+        assertThat(graph.queryExecutedBy(calls.get("ping"))).isNull();
+        assertThat(graph.queryExecutedBy(calls.get("unknown"))).isNull();
+    }
+
+    @Test
+    void ignoresExecuteCallsWithoutDatabaseImport() {
+        FileInput fileInput = PythonTestFiles.parse(tempDir, "no_import.py",
+                "def query(cursor):",
+                "    cursor.execute('SELECT 1')",
+                "query(c)");
+
+        assertThat(SqlCallGraph.of(fileInput).queryExecutedBy(callsByName(fileInput).get("query"))).isNull();
+    }
+
+    @Test
+    void scalesLinearlyWithTheNumberOfFunctions() {
+        FileInput small = PythonTestFiles.parse(tempDir, "small.py", callChain(2_000));
+        FileInput large = PythonTestFiles.parse(tempDir, "large.py", callChain(8_000));
+
+        // warm-up
+        buildAndQuery(small);
+
+        long smallNanos = bestOf(small);
+        long largeNanos = bestOf(large);
+
+        // 4 times more functions: a walk of the chain from every function would be ~16 times slower
+        assertThat(largeNanos).isLessThan(smallNanos * 10);
+    }
+
+    private static long bestOf(FileInput fileInput) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            buildAndQuery(fileInput);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void buildAndQuery(FileInput fileInput) {
+        SqlCallGraph graph = SqlCallGraph.of(fileInput);
+        List<CallExpression> calls = PythonTestFiles.calls(fileInput);
+        int callsExecutingQueries = 0;
+        for (CallExpression call : calls) {
+            if (call.callee().is(Tree.Kind.NAME) && graph.queryExecutedBy(call) != null) {
+                callsExecutingQueries++;
+            }
+        }
+        // every function but the last one is called
+        assertThat(callsExecutingQueries).isEqualTo(calls.size() - 1);
+    }
+
+    /**
+     * Functions {@code f1} to {@code fn}, each one calling the previous one, {@code f0} executing the query.
+     */
+    private static String[] callChain(int functions) {
+        String[] lines = new String[2 * functions + 3];
+        lines[0] = "import sqlite3";
+        lines[1] = "def f0(cursor):";
+        lines[2] = "    cursor.execute('SELECT 1')";
+        for (int i = 1; i <= functions; i++) {
+            lines[2 * i + 1] = "def f" + i + "(cursor):";
+            lines[2 * i + 2] = "    return f" + (i - 1) + "(cursor)";
+        }
+        return lines;
+    }
+
+    private static Map<String, CallExpression> callsByName(FileInput fileInput) {
+        Map<String, CallExpression> calls = new HashMap<>();
+        for (CallExpression call : PythonTestFiles.calls(fileInput)) {
+            if (call.callee().is(Tree.Kind.NAME)) {
+                calls.put(((Name) call.callee()).name(), call);
+            }
+        }
+        return calls;
+    }
+}
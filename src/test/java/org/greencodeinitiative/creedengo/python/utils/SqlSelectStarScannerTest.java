@@ -0,0 +1,119 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class SqlSelectStarScannerTest {
+
+    private static final int ONE_MB = 1 << 20;
+
+    private static final String[] SELECT_STAR = {
+            "SELECT * FROM users",
+            "  sElEcT * fRoM users",
+            "SELECT\n*\nFROM users",
+            "SELECT u.* FROM users u",
+            "SELECT id, u.* FROM users u",
+            "SELECT DISTINCT * FROM users",
+            "SELECT ALL * FROM users",
+            "SELECT TOP 10 * FROM users",
+            "SELECT /* comment */ * FROM users",
+            "SELECT name FROM (SELECT * FROM users) AS u",
+            "SELECT *, (SELECT max(id) FROM orders) FROM users",
+            "INSERT INTO archive SELECT * FROM users",
+    };
+
+    private static final String[] OTHER_STARS = {
+            "",
+            "*",
+            "SELECT id FROM users",
+            "SELECT count(*) FROM users",
+            "SELECT price * quantity FROM orders",
+            "SELECT id /* * */ FROM users",
+            "SELECT id FROM users -- SELECT * FROM users",
+            "SELECT \"*\" FROM users",
+            "SELECT `*` FROM users",
+            "SELECT [*] FROM users",
+            "SELECT id FROM users WHERE note = 'select * from'",
+            "selection * from",
+            "SELECT *",
+            "DELETE FROM users WHERE id = 1 * 2",
+            "SELECT id FROM (SELECT id FROM users) AS u WHERE 1 * 1",
+    };
+
+    @Test
+    void detectsSelectStar() {
+        SoftAssertions assertions = new SoftAssertions();
+        for (String sql : SELECT_STAR) {
+            assertions.assertThat(SqlSelectStarScanner.containsSelectStar(sql)).as(sql).isTrue();
+        }
+        assertions.assertAll();
+    }
+
+    @Test
+    void ignoresOtherStars() {
+        SoftAssertions assertions = new SoftAssertions();
+        for (String sql : OTHER_STARS) {
+            assertions.assertThat(SqlSelectStarScanner.containsSelectStar(sql)).as(sql).isFalse();
+        }
+        assertions.assertAll();
+    }
+
+    @Test
+    void scansRange() {
+        String value = "'SELECT * FROM users'";
+
+        assertThat(SqlSelectStarScanner.containsSelectStar(value, 1, value.length() - 1)).isTrue();
+        assertThat(SqlSelectStarScanner.containsSelectStar(value, 1, 9)).isFalse();
+    }
+
+    @Test
+    void tracksNestedQueriesUpToMaxDepth() {
+        String nested = "(".repeat(SqlSelectStarScanner.MAX_TRACKED_DEPTH) + "SELECT * FROM users" + ")".repeat(SqlSelectStarScanner.MAX_TRACKED_DEPTH);
+        String tooDeep = "(" + nested + ")";
+
+        assertThat(SqlSelectStarScanner.containsSelectStar(nested)).isTrue();
+        assertThat(SqlSelectStarScanner.containsSelectStar(tooDeep)).isFalse();
+        assertThat(SqlSelectStarScanner.containsSelectStar("SELECT * FROM " + tooDeep)).isTrue();
+    }
+
+    @Test
+    void runsInLinearTimeOnAdversarialInputs() {
+        // inputs that make "(?i).*select.*\*.*from.*" backtrack
+        String[] inputs = {
+                "select " + "* ".repeat(ONE_MB / 2),
+                "select * ".repeat(ONE_MB / 9) + "fro",
+                "select " + "*".repeat(ONE_MB) + " fro",
+                "a".repeat(ONE_MB),
+                "select /*" + "*".repeat(ONE_MB),
+        };
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (String input : inputs) {
+                SqlSelectStarScanner.containsSelectStar(input);
+            }
+        });
+        assertThat(SqlSelectStarScanner.containsSelectStar(inputs[0])).isFalse();
+        assertThat(SqlSelectStarScanner.containsSelectStar(inputs[1] + "m")).isTrue();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.greencodeinitiative.creedengo.python.utils.StringConcatenationFlow.Kind;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.AssignmentStatement;
+import org.sonar.plugins.python.api.tree.CompoundAssignmentStatement;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringConcatenationFlowTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findsAppendsToNamesDefinitelyHoldingStrings() {
+        PythonVisitorContext context = PythonTestFiles.context(tempDir, "flow.py",
+                "def f(flag, items, other):",
+                "    text = ''",
+                "    data = b'' + other",
+                "    mixed = ''",
+                "    if flag:",
+                "        mixed = 0",
+                "    for item in items:",
+                "        text += item",
+                "        data += item",
+                "        mixed += item",
+                "        other += item",
+                "    while flag:",
+                "        text += '.'",
+                "        flag = False",
+                "    text += '!'",
+                "    return text, data, mixed");
+        FunctionDef function = (FunctionDef) context.rootTree().statements().statements().get(0);
+
+        List<CompoundAssignmentStatement> concatenations =
+                StringConcatenationFlow.concatenations(ControlFlowGraph.build(function, context.pythonFile()));
+
+        assertThat(concatenations).extracting(concatenation -> concatenation.firstToken().line())
+                .containsExactly(8, 9, 13, 15);
+    }
+
+    @Test
+    void infersTheKindOfExpressions() {
+        PythonVisitorContext context = PythonTestFiles.context(tempDir, "kinds.py",
+                "a = 'x' 'y'",
+                "a = b'x'",
+                "a = f'{x}' + y",
+                "a = y + (s)",
+                "a = '%s' % y",
+                "a = s.upper()",
+                "a = s.encode()",
+                "a = str(y) if y else repr(y)",
+                "a = '' if y else []",
+                "a = y + z",
+                "a = [s]",
+                "a = s.split()",
+                "a = bytes(y).decode()");
+        Map<String, Kind> state = Map.of("s", Kind.STR);
+
+        List<Kind> kinds = context.rootTree().statements().statements().stream()
+                .map(statement -> StringConcatenationFlow.kindOf(((AssignmentStatement) statement).assignedValue(), state))
+                .toList();
+
+        assertThat(kinds).containsExactly(Kind.STR, Kind.BYTES, Kind.STR, Kind.STR, Kind.STR, Kind.STR, Kind.BYTES,
+                Kind.STR, Kind.UNKNOWN, Kind.UNKNOWN, Kind.UNKNOWN, Kind.UNKNOWN, Kind.UNKNOWN);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.StringElement;
+import org.sonar.plugins.python.api.tree.StringLiteral;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.greencodeinitiative.creedengo.python.utils.StringKeywords.CSV_EXTENSION;
+import static org.greencodeinitiative.creedengo.python.utils.StringKeywords.IMAGE_EXTENSION;
+import static org.greencodeinitiative.creedengo.python.utils.StringKeywords.SQL_FROM;
+import static org.greencodeinitiative.creedengo.python.utils.StringKeywords.SQL_SELECT;
+import static org.greencodeinitiative.creedengo.python.utils.StringKeywords.STAR;
+import static org.greencodeinitiative.creedengo.python.utils.StringKeywords.SVG_END_TAG;
+
+class StringKeywordsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findsKeywordsCaseInsensitively() {
+        assertThat(StringKeywords.scan("")).isZero();
+        assertThat(StringKeywords.scan("nothing to see")).isZero();
+        assertThat(StringKeywords.scan("SeLeCt * FrOm t")).isEqualTo(SQL_SELECT | STAR | SQL_FROM);
+        assertThat(StringKeywords.scan("data.CSV")).isEqualTo(CSV_EXTENSION);
+        assertThat(StringKeywords.scan("<svg></svg>")).isEqualTo(SVG_END_TAG);
+        assertThat(StringKeywords.scan("€ é ✓ <SVG/></Svg>")).isEqualTo(SVG_END_TAG);
+    }
+
+    @Test
+    void findsOverlappingKeywords() {
+        assertThat(StringKeywords.scan("image.pjpeg")).isEqualTo(IMAGE_EXTENSION);
+        assertThat(StringKeywords.scan("image.pjp")).isEqualTo(IMAGE_EXTENSION);
+        assertThat(StringKeywords.scan("image.jpe")).isZero();
+        assertThat(StringKeywords.scan("..csv")).isEqualTo(CSV_EXTENSION);
+        assertThat(StringKeywords.scan(".cs.csv")).isEqualTo(CSV_EXTENSION);
+        assertThat(StringKeywords.scan("selselect")).isEqualTo(SQL_SELECT);
+        assertThat(StringKeywords.scan("<</svg>")).isEqualTo(SVG_END_TAG);
+        assertThat(StringKeywords.scan("fromage.gif*")).isEqualTo(SQL_FROM | IMAGE_EXTENSION | STAR);
+    }
+
+    @Test
+    void combinesMasksOfLiteralElements() {
+        PythonVisitorContext context = PythonTestFiles.context(tempDir, "strings.py",
+                "a = 'select * ' 'from t'",
+                "b = 'logo.png'");
+        List<Integer> masks = new ArrayList<>();
+        List<Integer> memoized = new ArrayList<>();
+        PythonTestFiles.analyze(context, new PythonSubscriptionCheck() {
+            @Override
+            public void initialize(Context ctx) {
+                ctx.registerSyntaxNodeConsumer(Tree.Kind.STRING_LITERAL, c -> masks.add(StringKeywords.of(c, (StringLiteral) c.syntaxNode())));
+                ctx.registerSyntaxNodeConsumer(Tree.Kind.STRING_ELEMENT, c -> {
+                    StringElement element = (StringElement) c.syntaxNode();
+                    int mask = StringKeywords.of(c, element);
+                    memoized.add(mask == StringKeywords.scan(element.value()) ? 1 : 0);
+                });
+            }
+        });
+
+        assertThat(masks).containsExactly(SQL_SELECT | STAR | SQL_FROM, IMAGE_EXTENSION);
+        assertThat(memoized).containsOnly(1).hasSize(3);
+    }
+}
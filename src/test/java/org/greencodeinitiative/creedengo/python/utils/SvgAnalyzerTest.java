@@ -0,0 +1,76 @@
+/*
+ * creedengo - Python language - Provides rules to reduce the environmental footprint of your Python programs
+ * Copyright © 2024 Green Code Initiative (https://green-code-initiative.org)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.greencodeinitiative.creedengo.python.utils;
+
+import org.greencodeinitiative.creedengo.python.utils.SvgAnalyzer.Finding;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class SvgAnalyzerTest {
+
+    @Test
+    void reportsNothingOutsideOfSvgDocuments() {
+        assertThat(SvgAnalyzer.analyze("")).isEmpty();
+        assertThat(SvgAnalyzer.analyze("a < b")).isEmpty();
+        assertThat(SvgAnalyzer.analyze("<svg><!-- comment --><metadata/>")).isEmpty();
+        assertThat(SvgAnalyzer.analyze("<html><!-- comment --></html>")).isEmpty();
+    }
+
+    @Test
+    void acceptsOptimizedDocuments() {
+        assertThat(SvgAnalyzer.analyze("<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\">"
+                + "<g><path d=\"M 1.125 2.5 L 3 4\"/></g><use xlink:href=\"#a\"/></svg>")).isEmpty();
+        assertThat(SvgAnalyzer.analyze("<?xml version=\"1.0\"?><!DOCTYPE svg><svg xmlns:svg=\"http://www.w3.org/2000/svg\"></svg>")).isEmpty();
+    }
+
+    @Test
+    void collectsEveryFindingInOnePass() {
+        assertThat(SvgAnalyzer.analyze("<svg><!-- x --></svg>")).containsExactly(Finding.COMMENTS);
+        assertThat(SvgAnalyzer.analyze("<svg><g></g><G></G></svg>")).containsExactly(Finding.LAYERS);
+        assertThat(SvgAnalyzer.analyze("<svg xmlns:sketch=\"http://www.bohemiancoding.com/sketch/ns\"></svg>")).containsExactly(Finding.FOREIGN_NAMESPACES);
+        assertThat(SvgAnalyzer.analyze("<svg><metadata><rdf/></metadata></svg>")).containsExactly(Finding.METADATA);
+        assertThat(SvgAnalyzer.analyze("<svg><sodipodi:namedview/></svg>")).containsExactly(Finding.EDITOR_DATA);
+        assertThat(SvgAnalyzer.analyze("<svg><path inkscape:connector-curvature=\"0\"/></svg>")).containsExactly(Finding.EDITOR_DATA);
+        assertThat(SvgAnalyzer.analyze("<svg><path d='M.12345 1'/></svg>")).containsExactly(Finding.NUMERIC_PRECISION);
+
+        assertThat(SvgAnalyzer.analyze("<svg xmlns:inkscape=\"x\"><!-- a --><metadata/><g inkscape:label=\"l\">"
+                + "<path d=\"M 0.000001 0\"/></g><g></g></svg>"))
+                .containsExactly(Finding.values());
+    }
+
+    @Test
+    void ignoresTextAndEscapedQuotes() {
+        assertThat(SvgAnalyzer.analyze("<svg><text>1.23456 inkscape:label metadata</text></svg>")).isEmpty();
+        assertThat(SvgAnalyzer.analyze("\"<svg width=\\\"1.23456\\\"></svg>\"")).containsExactly(Finding.NUMERIC_PRECISION);
+    }
+
+    @Test
+    void scalesLinearly() {
+        String icons = "<svg><g><path d=\"M 1.5 2.5\"/></g></svg>".repeat(50_000);
+        String unterminated = "<svg " + "'".repeat(1) + "<!--".repeat(100_000);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThat(SvgAnalyzer.analyze(icons)).containsExactly(Finding.LAYERS);
+            assertThat(SvgAnalyzer.analyze(unterminated)).isEmpty();
+        });
+    }
+}
@@ -234,70 +234,4 @@ class UtilsASTTest {
         when(context.syntaxNode()).thenReturn(null);
         assertNull(UtilsAST.getVariableName(context));
     }
-
-    @Test
-    void testNthArgumentOrKeyword_byKeyword() {
-        RegularArgument argWithoutKeyword = mock(RegularArgument.class);
-        when(argWithoutKeyword.is(Tree.Kind.REGULAR_ARGUMENT)).thenReturn(true);
-        when(argWithoutKeyword.keywordArgument()).thenReturn(null);
-
-        RegularArgument argWithKeywordWithNameNull = mock(RegularArgument.class);
-        when(argWithKeywordWithNameNull.is(Tree.Kind.REGULAR_ARGUMENT)).thenReturn(true);
-        Name keywordWithNameNull = mock(Name.class);
-        when(keywordWithNameNull.name()).thenReturn(null);
-        when(argWithKeywordWithNameNull.keywordArgument()).thenReturn(keywordWithNameNull);
-
-        RegularArgument argWithKeyword = mock(RegularArgument.class);
-        when(argWithKeyword.is(Tree.Kind.REGULAR_ARGUMENT)).thenReturn(true);
-        Name keyword = mock(Name.class);
-        when(keyword.name()).thenReturn("kw");
-        when(argWithKeyword.keywordArgument()).thenReturn(keyword);
-
-        List<Argument> args = List.of(argWithoutKeyword, argWithKeywordWithNameNull, argWithKeyword);
-
-        assertSame(argWithKeyword,
-                UtilsAST.nthArgumentOrKeyword(2, "kw", args));
-
-    }
-
-    @Test
-    void testNthArgumentOrKeyword_byPosition() {
-        RegularArgument arg1 = mock(RegularArgument.class);
-        when(arg1.is(Tree.Kind.REGULAR_ARGUMENT)).thenReturn(true);
-        when(arg1.keywordArgument()).thenReturn(null);
-
-        List<Argument> args = List.of(arg1);
-
-        assertSame(arg1, UtilsAST.nthArgumentOrKeyword(0, "notfound", args));
-    }
-
-    @Test
-    void testNthArgumentOrKeyword_notFound() {
-        Argument arg = mock(Argument.class);
-        when(arg.is(Tree.Kind.REGULAR_ARGUMENT)).thenReturn(false);
-
-        List<Argument> args = List.of(arg);
-
-        assertNull(UtilsAST.nthArgumentOrKeyword(0, "kw", args));
-    }
-
-    @Test
-    void testNthArgumentOrKeyword_regularArgumentWithKeywordButNotNameMatching() {
-        RegularArgument arg = mock(RegularArgument.class);
-        Name keyword = mock(Name.class);
-        when(arg.is(Tree.Kind.REGULAR_ARGUMENT)).thenReturn(true);
-        when(arg.keywordArgument()).thenReturn(keyword);
-        when(keyword.name()).thenReturn("other");
-
-        List<Argument> args = List.of(arg);
-
-        assertNull(UtilsAST.nthArgumentOrKeyword(0, "kw", args));
-    }
-
-    @Test
-    void testNthArgumentOrKeyword_emptyArguments() {
-        List<Argument> args = List.of();
-        assertNull(UtilsAST.nthArgumentOrKeyword(0, "kw", args));
-    }
-
-}
\ No newline at end of file
+}
@@ -234,3 +234,22 @@ class CompliantNetWithSequential(nn.Module):
 
 
 
+
+
+class NetWithUnpackedConvArguments(nn.Module):
+    def __init__(self, conv_options, conv_arguments):
+        super(NetWithUnpackedConvArguments, self).__init__()
+        self.encoder = nn.Sequential(
+                        nn.Conv2d(10, 20, kernel_size=5, **conv_options),
+                        nn.BatchNorm2d(20),
+                        nn.Conv2d(20, 20, 5, *conv_arguments),
+                        nn.BatchNorm2d(20),
+                        nn.Conv2d(20, 20, 5, 1, 0, 1, 1, *conv_arguments),
+                        nn.BatchNorm2d(20),
+                        nn.Conv2d(20, 20, 5, *conv_arguments, bias=True), # Noncompliant {{Remove bias for convolutions before batch norm layers to save time and memory.}}
+                        nn.BatchNorm2d(20),
+                        nn.Conv2d(20, 20, 5, 1, 0, 1, 1, False, *conv_arguments),
+                        nn.BatchNorm2d(20)
+            )
+    def forward(self, x):
+        return self.encoder(x)
@@ -22,3 +22,7 @@ def non_compliant_ones():
     import numpy
     from torch import FloatTensor
     tensor = FloatTensor(data=np.ones(shape=(1, 5))) # Noncompliant {{Directly create tensors as torch.Tensor instead of using numpy functions.}}
+
+def compliant_typed_constructor_sizes():
+    tensor = torch.FloatTensor(2, 3)
+    print(tensor)
@@ -8,3 +8,18 @@ requestNonCompiliant = '   SeLeCt * FrOm myTable' # Noncompliant {{Don't use the
 requestCompiliant = '   SeLeCt user FrOm myTable' 
 display_message(requestNonCompiliant)
 display_message(requestCompiliant)
+
+qualifiedStar = "SELECT u.* FROM users u" # Noncompliant {{Don't use the query SELECT * FROM}}
+distinctStar = "select distinct * from users" # Noncompliant {{Don't use the query SELECT * FROM}}
+# Noncompliant@+1 {{Don't use the query SELECT * FROM}}
+multiLine = """
+    SELECT *
+    FROM users
+"""
+subQuery = "SELECT name FROM (SELECT * FROM users) AS u" # Noncompliant {{Don't use the query SELECT * FROM}}
+countStar = "SELECT count(*) FROM users"
+product = "SELECT price * quantity FROM orders"
+commented = "SELECT id /* , * */ FROM users -- SELECT * FROM users"
+quotedIdentifier = 'SELECT "*" FROM users'
+stringLiteral = "SELECT id FROM users WHERE note = 'select * from'"
+notSql = "selection * from"
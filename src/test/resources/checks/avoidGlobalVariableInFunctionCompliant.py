@@ -7,4 +7,25 @@ U = TypeVar('U')                    # Declare type variable "U"
 
 def second(l: Sequence[U]) -> U:    # Function is generic over the TypeVar "U"
     print(U)
-    return l[1]
\ No newline at end of file
+    return l[1]
+
+def decorate(value):
+    return lambda function: function
+
+V = 'global'
+
+@decorate(V)
+def with_default(value=V) -> type(V):
+    return value
+
+def outer():
+    V = 'local'
+    def closure():
+        return V # reads the variable of outer, not the global one
+    return [V for _ in range(3)], lambda: V, closure
+
+def shadowing_parameters(V):
+    return [v for v in V], lambda V: V
+
+class Holder:
+    value = V # class body at module level is not a function
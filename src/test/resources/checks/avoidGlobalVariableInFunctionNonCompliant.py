@@ -41,3 +41,25 @@ def print_var_length(local_var = global_var):
 
 print_global_var_details()
 print_var_length(global_var)
+
+def read_global_var_in_nested_scopes():
+    lengths = [len(global_var) for _ in range(3)] # Noncompliant
+    by_char = {c: global_var for c in 'abc'} # Noncompliant
+    getter = lambda: global_var # Noncompliant
+
+    class Holder:
+        value = global_var # Noncompliant
+
+        def get(self):
+            return global_var # Noncompliant
+
+    def inner():
+        def innermost():
+            return global_var # Noncompliant
+        return innermost()
+
+    return lengths, by_char, getter, Holder, inner
+
+def update_global_var():
+    global global_var
+    global_var = global_var + '!' # Noncompliant
@@ -0,0 +1,128 @@
+import numpy as np
+import math
+
+a = [1.0, 2.0, 3.0, 4.0]
+b = [5.0, 6.0, 7.0, 8.0]
+idx = [3, 0, 2, 1]
+n = len(a)
+
+# Test 1: Element-wise operations
+c = [0.0] * n
+for i in range(n):  # Noncompliant {{Avoid iterative element-wise operations over arrays, use whole-array operators and ufuncs (a + b, np.sqrt(a), torch.sqrt(t)) instead}}
+    c[i] = 2 * a[i] + b[i]
+
+for i in range(n):  # Noncompliant {{Avoid iterative element-wise operations over arrays, use whole-array operators and ufuncs (a + b, np.sqrt(a), torch.sqrt(t)) instead}}
+    c[i] = math.sqrt(abs(a[i] - b[i]))
+
+for i in range(n):  # Noncompliant {{Avoid iterative element-wise operations over arrays, use whole-array operators and ufuncs (a + b, np.sqrt(a), torch.sqrt(t)) instead}}
+    c[i] += 1
+
+m = [[1.0, 2.0], [3.0, 4.0]]
+p = [[0.0, 0.0], [0.0, 0.0]]
+for i in range(2):  # Noncompliant {{Avoid iterative element-wise operations over arrays, use whole-array operators and ufuncs (a + b, np.sqrt(a), torch.sqrt(t)) instead}}
+    for j in range(2):  # Compliant: reported on the outermost loop
+        p[i][j] = m[i][j] * 0.5
+
+for i in range(2):  # Noncompliant {{Avoid iterative element-wise operations over arrays, use whole-array operators and ufuncs (a + b, np.sqrt(a), torch.sqrt(t)) instead}}
+    for j in range(2):
+        p[i, j] = m[i, j] - 1
+
+# Test 2: Reductions
+total = 0.0
+for i in range(n):  # Noncompliant {{Avoid iterative sum over arrays, use np.sum or torch.sum instead}}
+    total += a[i]
+
+total = 0.0
+for i in range(n):  # Noncompliant {{Avoid iterative sum over arrays, use np.sum or torch.sum instead}}
+    total = total + a[i] * 2
+
+total = 0.0
+for i in range(2):  # Noncompliant {{Avoid iterative sum over arrays, use np.sum or torch.sum instead}}
+    for j in range(2):
+        total += m[i][j]
+
+prod = 1.0
+for i in range(n):  # Noncompliant {{Avoid iterative product over arrays, use np.prod or torch.prod instead}}
+    prod *= a[i]
+
+largest = a[0]
+for i in range(n):  # Noncompliant {{Avoid iterative max search over arrays, use np.max or torch.max instead}}
+    largest = max(largest, a[i])
+
+largest = a[0]
+for i in range(n):  # Noncompliant {{Avoid iterative max search over arrays, use np.max or torch.max instead}}
+    if largest < a[i]:
+        largest = a[i]
+
+smallest = a[0]
+for i in range(n):  # Noncompliant {{Avoid iterative min search over arrays, use np.min or torch.min instead}}
+    if a[i] < smallest:
+        smallest = a[i]
+
+# Test 3: Prefix scans
+prefix = [0.0] * n
+prefix[0] = a[0]
+for i in range(1, n):  # Noncompliant {{Avoid iterative prefix sum over arrays, use np.cumsum or torch.cumsum instead}}
+    prefix[i] = prefix[i - 1] + a[i]
+
+for i in range(1, n):  # Noncompliant {{Avoid iterative prefix product over arrays, use np.cumprod or torch.cumprod instead}}
+    prefix[i] *= prefix[i - 1]
+
+running = 0.0
+for i in range(n):  # Noncompliant {{Avoid iterative prefix sum over arrays, use np.cumsum or torch.cumsum instead}}
+    running += a[i]
+    prefix[i] = running
+
+# Test 4: Gather and scatter
+gathered = [0.0] * n
+for i in range(n):  # Noncompliant {{Avoid iterative gather over arrays, use fancy indexing a[idx] or torch.index_select instead}}
+    gathered[i] = a[idx[i]]
+
+scattered = [0.0] * n
+for i in range(n):  # Noncompliant {{Avoid iterative scatter over arrays, use fancy indexing out[idx] = a or torch.Tensor.index_copy_ instead}}
+    scattered[idx[i]] = a[i]
+
+counts = [0] * n
+for i in range(n):  # Noncompliant {{Avoid iterative scatter-add over arrays, use np.add.at or torch.Tensor.index_add_ instead}}
+    counts[idx[i]] += 1
+
+# Test 5: Recurrence on the written array
+fib = [0, 1] + [0] * 8
+for i in range(2, 10):  # Compliant
+    fib[i] = fib[i - 1] + fib[i - 2]
+
+# Test 6: Loop over the items, not over the indices
+for value in a:  # Compliant
+    total += value
+
+# Test 7: Other statements in the body
+for i in range(n):  # Compliant
+    total += a[i]
+    print(total)
+
+# Test 8: Index which is not the loop variable
+for i in range(n):  # Compliant
+    c[i] = a[n - 1 - i]
+
+# Test 9: Function which is not element-wise
+def compute(x):
+    return x * x
+
+for i in range(n):  # Compliant
+    c[i] = compute(a[i])
+
+# Test 10: Loop with an else clause
+for i in range(n):  # Compliant
+    total += a[i]
+else:
+    print(total)
+
+# Test 11: Product of two arrays, left to the dot product detection
+dot = 0.0
+for i in range(n):
+    for j in range(n):  # Noncompliant {{Avoid iterative matrix operations, use numpy dot or outer function instead}}
+        dot += a[j] * b[j]
+
+# Test 12: Reading the written array through an index array
+for i in range(n):  # Compliant
+    c[i] = c[idx[i]]
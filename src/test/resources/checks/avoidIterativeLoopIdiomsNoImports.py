@@ -0,0 +1,16 @@
+import math
+
+a = [1.0, 2.0, 3.0, 4.0]
+b = [5.0, 6.0, 7.0, 8.0]
+n = len(a)
+
+c = [0.0] * n
+for i in range(n):  # Compliant: plain lists, neither NumPy nor Torch is imported
+    c[i] = math.sqrt(abs(a[i] - b[i]))
+
+total = 0.0
+for i in range(n):  # Compliant
+    total += a[i]
+
+for i in range(1, n):  # Compliant
+    c[i] = c[i - 1] + a[i]
@@ -0,0 +1,106 @@
+import re
+import json
+import numpy as np
+from datetime import datetime
+
+CONFIG = '{"retries": 3}'
+LIMITS = [10, 20, 30]
+
+
+def scaled(items, other):
+    total = 0
+    for item in items:
+#   ^^^> {{Loop evaluating the call at every iteration}}
+        total += item * len(other)  # Noncompliant {{Move this call out of the loop: it is evaluated with the same arguments at every iteration}}
+#                       ^^^^^^^^^^
+    return total
+
+
+def matches(lines, pattern):
+    found = []
+    for line in lines:
+        if re.compile(pattern).match(line):  # Noncompliant
+            found.append(line)
+    return found
+
+
+def parse(records):
+    for record in records:
+        settings = json.loads(CONFIG)  # Noncompliant
+        record.update(settings)
+
+
+def weights(values):
+    for value in values:
+        print(value * np.array([1, 2, 3]))  # Noncompliant
+
+
+def nested_calls(rows, values):
+    for row in rows:
+        row.append(sorted(tuple(values)))  # Noncompliant
+
+
+def nested_loops(matrix, names):
+    for row in matrix:
+        for cell in sorted(names):  # Noncompliant
+            print(row, cell)
+
+
+def bounded(queue, limit):
+    i = 0
+    while i < min(limit, 10):  # Noncompliant
+        queue.pop()
+        i += 1
+
+
+for limit in LIMITS:
+    print(max(LIMITS) - limit)  # Noncompliant
+
+
+def iterables(matrix):
+    for row in sorted(matrix):  # Compliant: evaluated once
+        print(row)
+    else:
+        print(len(matrix))  # Compliant: evaluated once
+
+
+def growing(items):
+    for item in items:
+        if len(items) > 10:  # Compliant: items changes in the loop
+            items.pop()
+
+
+def stored(counts, keys):
+    for key in keys:
+        counts[key] = len(counts)  # Compliant: counts changes in the loop
+
+
+def rebound(values):
+    size = 0
+    for value in values:
+        size = len(value)  # Compliant: value changes at every iteration
+        values = values[1:]
+        print(abs(size), len(values))  # Compliant: size and values change in the loop
+
+
+def passed(buffer, chunks):
+    for chunk in chunks:
+        process(buffer, chunk)
+        print(len(buffer))  # Compliant: buffer may be changed by process
+
+
+def impure(events):
+    for event in events:
+        event.stamp = datetime.now().date()  # Compliant: datetime.now is not pure
+        print(abs(len(event.name)))  # Compliant: event changes at every iteration
+
+
+def deferred(values):
+    for value in values:
+        def inner():
+            return len(values)  # Compliant: evaluated when inner is called
+        inner()
+
+
+def outside(values):
+    return len(values)  # Compliant: not in a loop
@@ -0,0 +1,9 @@
+from mylib import checksum
+
+
+def verify(blocks, key):
+    for block in blocks:
+        if checksum(key) != block:  # Noncompliant
+            return False
+        print(len(blocks))  # Compliant: len is not listed
+    return True
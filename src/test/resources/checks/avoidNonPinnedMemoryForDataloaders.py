@@ -24,3 +24,10 @@ dl = DL(dataset, pin_memory=True)
 
 dl = nottorch.utils.data.DataLoader(dataset, pin_memory=True)
 dl = nottorch.utils.data.DataLoader(dataset, pin_memory=False)
+
+dl = DataLoader(dataset, **loader_options)
+dl = DataLoader(dataset, *loader_arguments)
+dl = DataLoader(dataset, 1, False, None, None, 0, None, *loader_arguments)
+dl = DataLoader(dataset, 1, False, None, None, 0, None, False, *loader_arguments) # Noncompliant {{Use pinned memory to reduce data transfer in RAM.}}
+dl = DataLoader(dataset, *loader_arguments, pin_memory=False) # Noncompliant {{Use pinned memory to reduce data transfer in RAM.}}
+dl = DataLoader(dataset, pin_memory=False, **loader_options) # Noncompliant {{Use pinned memory to reduce data transfer in RAM.}}
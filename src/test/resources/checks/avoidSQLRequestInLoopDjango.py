@@ -0,0 +1,59 @@
+from django.db import models
+
+class Author(models.Model):
+    name = models.CharField(max_length=100)
+
+class Book(models.Model):
+    title = models.CharField(max_length=100)
+    author = models.ForeignKey(Author, on_delete=models.CASCADE)
+    published = models.DateTimeField()
+
+class Registry:
+    objects = {}
+
+def books_of(author_ids):
+    books = []
+    for author_id in author_ids:
+        books.extend(Book.objects.filter(author_id=author_id)) # Noncompliant {{Avoid performing SQL queries within a loop}}
+    return books
+
+def author_names(author_ids):
+    names = []
+    for author_id in author_ids:
+        names.append(Author.objects.get(pk=author_id).name) # Noncompliant {{Avoid performing SQL queries within a loop}}
+    count = 0
+    while count < len(names):
+        count += Book.objects.filter(title=names[count]).count() # Noncompliant {{Avoid performing SQL queries within a loop}}
+    return names
+
+def queries_outside_loops(author_ids):
+    authors = Author.objects.filter(pk__in=author_ids)
+    for author in Author.objects.filter(pk__in=author_ids):
+        print(author.name)
+    return {author.pk: author for author in authors}
+
+CACHE = {}
+SETTINGS = {}
+
+def not_queries(author_ids):
+    for author_id in author_ids:
+        CACHE.get(author_id)
+        SETTINGS.get("authors", author_id)
+        Registry.objects.get(author_id)
+
+def book_authors():
+    for book in Book.objects.all():
+        print(book.author.name) # Noncompliant {{Avoid performing SQL queries within a loop: load this relation along with the iterated objects}}
+        print(book.author.name)
+        print(book.author.email.lower())
+        print(book.title.upper())
+        print(book.title)
+        print(book.published.year)
+
+def book_authors_loaded_with_the_books():
+    for book in Book.objects.select_related("author"):
+        print(book.author.name)
+    for book in Book.objects.filter(title="x").prefetch_related("author"):
+        print(book.author.name)
+    for title in Book.objects.values_list("title", flat=True):
+        print(title)
@@ -0,0 +1,12 @@
+from .models import Book
+from shop.models import Order
+from cache import Store
+
+CACHE = {}
+
+def books_of(author_ids):
+    for author_id in author_ids:
+        Book.objects.filter(author_id=author_id).first() # Noncompliant {{Avoid performing SQL queries within a loop}}
+        Order.objects.get(author_id=author_id) # Noncompliant {{Avoid performing SQL queries within a loop}}
+        Store.objects.get(author_id=author_id)
+        CACHE.get(author_id)
@@ -0,0 +1,41 @@
+from peewee import CharField, DateTimeField, ForeignKeyField, Model
+
+SETTINGS = {}
+
+class User(Model):
+    username = CharField()
+
+class Tweet(Model):
+    user = ForeignKeyField(User, backref='tweets')
+    created = DateTimeField()
+
+def users(names):
+    for name in names:
+        User.get(User.username == name) # Noncompliant {{Avoid performing SQL queries within a loop}}
+        User.get_or_none(User.username == name) # Noncompliant {{Avoid performing SQL queries within a loop}}
+        User.select().where(User.username == name).first() # Noncompliant {{Avoid performing SQL queries within a loop}}
+        User.update(active=False).where(User.username == name).execute() # Noncompliant {{Avoid performing SQL queries within a loop}}
+        User.create(username=name) # Noncompliant {{Avoid performing SQL queries within a loop}}
+
+def queries_outside_loops(names):
+    query = Tweet.select()
+    for name in names:
+        query = query.where(Tweet.user == name)
+    found = {}
+    for name in names:
+        found.get(name)
+        SETTINGS.get(name)
+        Settings.get(name)
+        cursor.execute(name)
+    return query.count()
+
+def timeline():
+    for tweet in Tweet.select():
+        print(tweet.user.username) # Noncompliant {{Avoid performing SQL queries within a loop: load this relation along with the iterated objects}}
+        print(tweet.created.year)
+
+def timeline_loaded_with_the_users():
+    for tweet in Tweet.select(Tweet, User).join(User):
+        print(tweet.user.username)
+    for tweet in Tweet.select().dicts():
+        print(tweet.user.username)
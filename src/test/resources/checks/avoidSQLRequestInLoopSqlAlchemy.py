@@ -0,0 +1,73 @@
+from flask_sqlalchemy import SQLAlchemy
+from sqlalchemy import DateTime, create_engine, select
+from sqlalchemy.orm import DeclarativeBase, Mapped, Session, joinedload, mapped_column, relationship, sessionmaker
+
+engine = create_engine("sqlite://")
+SessionFactory = sessionmaker(engine)
+db = SQLAlchemy()
+
+class Base(DeclarativeBase):
+    pass
+
+class User(Base):
+    __tablename__ = "users"
+    address: Mapped["Address"] = relationship(back_populates="user")
+    created = mapped_column(DateTime)
+
+class Account(db.Model):
+    owner = db.relationship("User")
+
+def users_by_id(session: Session, user_ids):
+    users = []
+    for user_id in user_ids:
+        users.append(session.query(User).filter(User.id == user_id).first()) # Noncompliant {{Avoid performing SQL queries within a loop}}
+        users.append(session.get(User, user_id)) # Noncompliant {{Avoid performing SQL queries within a loop}}
+        users.append(session.execute(select(User).where(User.id == user_id)).scalar_one()) # Noncompliant {{Avoid performing SQL queries within a loop}}
+        users.append(session.scalars(select(User).where(User.id == user_id)).first()) # Noncompliant {{Avoid performing SQL queries within a loop}}
+        users.append(Account.query.filter_by(id=user_id).one()) # Noncompliant {{Avoid performing SQL queries within a loop}}
+        users.append(db.session.get(Account, user_id)) # Noncompliant {{Avoid performing SQL queries within a loop}}
+    return users
+
+def sessions_built_in_the_file(user_ids):
+    with Session(engine) as session:
+        for user_id in user_ids:
+            session.get(User, user_id) # Noncompliant {{Avoid performing SQL queries within a loop}}
+    factory_session = SessionFactory()
+    for user_id in user_ids:
+        factory_session.execute(select(User).where(User.id == user_id)) # Noncompliant {{Avoid performing SQL queries within a loop}}
+
+CACHE = {}
+
+def not_sessions(session, connection, results, user_ids):
+    for user_id in user_ids:
+        session.execute(user_id)
+        connection.execute(user_id)
+        results.scalars()
+        results.scalar()
+        CACHE.get(user_id)
+
+def queries_outside_loops(session: Session, user_ids):
+    query = session.query(User)
+    for user_id in user_ids:
+        query = query.filter(User.id != user_id)
+    cache = {}
+    for user_id in user_ids:
+        cache.get(user_id)
+    for user in session.execute(select(User)).scalars():
+        print(user.name)
+    return query.all()
+
+def addresses(session: Session):
+    for user in session.query(User).all():
+        print(user.address.city) # Noncompliant {{Avoid performing SQL queries within a loop: load this relation along with the iterated objects}}
+        print(user.created.year)
+    for user in session.scalars(select(User)):
+        print(user.address.city) # Noncompliant {{Avoid performing SQL queries within a loop: load this relation along with the iterated objects}}
+    for account in Account.query.all():
+        print(account.owner.name) # Noncompliant {{Avoid performing SQL queries within a loop: load this relation along with the iterated objects}}
+
+def addresses_loaded_with_the_users(session: Session):
+    for user in session.query(User).options(joinedload(User.address)).all():
+        print(user.address.city)
+    for user in session.scalars(select(User).options(joinedload(User.address))):
+        print(user.address.city)
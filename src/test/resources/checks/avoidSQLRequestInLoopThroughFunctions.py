@@ -0,0 +1,75 @@
+import sqlite3
+
+def fetch_user(cursor, user_id):
+    return cursor.execute("SELECT name FROM user WHERE id = ?", (user_id,)).fetchone()
+#          ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^> {{SQL query executed in the loop}}
+
+def users(cursor, user_ids):
+    names = []
+    for user_id in user_ids:
+        names.append(fetch_user(cursor, user_id)) # Noncompliant {{Avoid performing SQL queries within a loop}}
+#                    ^^^^^^^^^^^^^^^^^^^^^^^^^^^
+    return names
+
+def fetch_orders(cursor, user_id):
+    cursor.execute("SELECT * FROM orders WHERE user_id = ?", (user_id,))
+#   ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^> {{SQL query executed in the loop}}
+    return cursor.fetchall()
+
+def count_orders(cursor, user_id):
+    return len(fetch_orders(cursor, user_id))
+
+def total_orders(cursor, user_id):
+    return count_orders(cursor, user_id)
+
+def orders_by_user(cursor, user_ids):
+    user_id = 0
+    while user_id < len(user_ids):
+        print(total_orders(cursor, user_id)) # Noncompliant {{Avoid performing SQL queries within a loop}}
+#             ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^
+        user_id += 1
+
+def is_even(cursor, n):
+    return n == 0 or is_odd(cursor, n - 1)
+
+def is_odd(cursor, n):
+    cursor.execute("INSERT INTO parity VALUES (?)", (n,))
+#   ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^> {{SQL query executed in the loop}}
+    return n != 0 and is_even(cursor, n - 1)
+
+def parities(cursor, numbers):
+    return [is_even(cursor, n) for n in numbers]
+
+def parities_in_loop(cursor, numbers):
+    for n in numbers:
+        is_even(cursor, n) # Noncompliant {{Avoid performing SQL queries within a loop}}
+#       ^^^^^^^^^^^^^^^^^^
+
+def direct_query(cursor, user_ids):
+    for user_id in user_ids:
+        cursor.execute("DELETE FROM user WHERE id = ?", (user_id,)) # Noncompliant {{Avoid performing SQL queries within a loop}}
+
+def fetch_all(cursor):
+    cursor.execute("SELECT name FROM user")
+    return cursor.fetchall()
+
+def all_users(cursor):
+    return fetch_all(cursor)
+
+def no_loop(cursor):
+    return all_users(cursor)
+
+def countdown(n):
+    return n if n <= 0 else countdown(n - 1)
+
+def query_factory(cursor):
+    def query():
+        cursor.execute("SELECT 1")
+    return query
+
+def compliant_loops(cursor, user_ids):
+    for user_id in user_ids:
+        countdown(user_id)
+        query_factory(cursor)
+        len(user_ids)
+    return no_loop(cursor)
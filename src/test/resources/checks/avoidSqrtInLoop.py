@@ -72,4 +72,17 @@ def compliant_list_comprehension_with_vectorized_operation():
 
 def compliant_math_sqrt_outside_loop():
     value = 16
-    return math.sqrt(value)
\ No newline at end of file
+    return math.sqrt(value)
+def noncompliant_aliased_module_sqrt():
+    import numpy as xp
+    results = []
+    for n in [1, 2, 3]:
+        results.append(xp.sqrt(n))  # Noncompliant {{Avoid using scalar sqrt functions in loops. Apply vectorized sqrt operations on arrays directly.}}
+    return results
+
+def compliant_other_module_sqrt():
+    import cupy as cp
+    results = []
+    for n in [1, 2, 3]:
+        results.append(cp.sqrt(n))
+    return results
@@ -40,3 +40,7 @@ log.error(f"Hello {name}") # Noncompliant {{For logging format, prefer using %s
 LOGGER = Logger(__name__)
 LOGGER.info("Hello {}".format(name)) # Noncompliant {{For logging format, prefer using %s with kwargs instead of builtin formatter "".format() or f""}}
 LOGGER.critical(F"Hello {name}") # Noncompliant {{For logging format, prefer using %s with kwargs instead of builtin formatter "".format() or f""}}
+
+# Aliased logging module
+import logging as logging_module
+logging_module.info("Hello {}".format(name)) # Noncompliant {{For logging format, prefer using %s with kwargs instead of builtin formatter "".format() or f""}}
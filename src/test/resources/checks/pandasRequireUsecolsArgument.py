@@ -20,4 +20,16 @@ df16 = pd.read_csv('data.csv', sep=',', header=0)  # Noncompliant {{Specify 'use
 df17 = pd.read_csv('data.csv', sep=',', header=0, usecols=['col1', 'col2'])
 
 cols_to_use = ['col1', 'col2', 'col3']
-df18 = pd.read_parquet('data.parquet', columns=cols_to_use)
\ No newline at end of file
+df18 = pd.read_parquet('data.parquet', columns=cols_to_use)
+df19 = pd.read_parquet('data.parquet', 'pyarrow', ['col1', 'col2'])
+df20 = pd.read_feather('data.feather', ['col1', 'col2'])
+df21 = pd.read_csv('data.csv', **read_options)
+df22 = pd.read_json(*read_arguments)  # Noncompliant {{Specify 'usecols' or 'columns' when reading a DataFrame using Pandas to load only necessary columns}}
+df23 = pd.read_parquet(*read_arguments)
+df24 = pd.read_parquet('data.parquet', 'pyarrow')  # Noncompliant {{Specify 'usecols' or 'columns' when reading a DataFrame using Pandas to load only necessary columns}}
+df25 = pd.read_csv(*read_arguments)
+
+from pandas import read_csv
+df26 = read_csv('data.csv')  # Noncompliant {{Specify 'usecols' or 'columns' when reading a DataFrame using Pandas to load only necessary columns}}
+df27 = reader.read_csv('data.csv')
+df28 = pd.read_html('page.html')
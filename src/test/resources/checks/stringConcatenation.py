@@ -5,9 +5,9 @@ for word in following_words:
     text += word  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
 
 text = "init"
-text += " add this"  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+text += " add this"  # Compliant: out of any loop
 
-text += [word for word in following_words]  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+text += [word for word in following_words]  # Compliant: out of any loop
 
 text = 0
 text +=1 
@@ -32,10 +32,122 @@ count += 1  # Compliant
 
 msg = "start"
 if True:
-    msg += " continued"  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+    msg += " continued"  # Compliant: out of any loop
 
 
 def get_text():
     return "function text"
 
-text += get_text()  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+text += get_text()  # Compliant: out of any loop
+
+
+def build_report(lines):
+    report = ""
+    for line in lines:
+        report += line + "\n"  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+    return report
+
+
+def build_payload(chunks):
+    payload = b""
+    while chunks:
+        payload += chunks.pop()  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+    return payload
+
+
+def build_table(rows):
+    out = str()
+    for row in rows:
+        for cell in row:
+            out += cell  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+    return out
+
+
+def redefined_after_loop(items):
+    acc = "-".join(items)
+    for item in items:
+        acc += item  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+    acc = 0
+    acc += 1
+    return acc
+
+
+def string_or_list(flag, items):
+    acc = "" if flag else []
+    for item in items:
+        acc += item  # Compliant: a list on some paths
+    return acc
+
+
+def list_on_one_path(flag, items):
+    acc = ""
+    if flag:
+        acc = []
+    for item in items:
+        acc += item  # Compliant: a list on some paths
+    return acc
+
+
+def rebound_in_loop(items):
+    text = ""
+    for item in items:
+        text += item  # Compliant: a list from the second iteration
+        text = []
+    return text
+
+
+def list_builder(items):
+    parts = []
+    for item in items:
+        parts += [item]  # Compliant: list builder
+        parts.append(item)
+    return "".join(parts)
+
+
+def string_io_builder(items):
+    import io
+    buffer = io.StringIO()
+    for item in items:
+        buffer.write(item)
+    buffer += "end"  # Compliant: not a string
+    return buffer.getvalue()
+
+
+def parameter(prefix, items):
+    for item in items:
+        prefix += item  # Compliant: the type of the parameter is unknown
+    return prefix
+
+
+def loop_variable(words):
+    for word in words:
+        word += "!"  # Compliant: the loop variable may be of any type
+        print(word)
+
+
+def counter(items):
+    total = 0
+    for item in items:
+        total += item  # Compliant
+    return total
+
+
+def handlers(names):
+    callbacks = []
+    for name in names:
+        def greet():
+            message = ""
+            message += name  # Compliant: the function is only defined in the loop
+            return message
+        callbacks.append(greet)
+    return callbacks
+
+
+def nested_handlers(names):
+    for name in names:
+        def join(words):
+            text = ""
+            for word in words:
+                text += word  # Noncompliant {{Concatenation of strings should be done using f-strings or str.join()}}
+            return text
+        print(join(name))
@@ -0,0 +1,23 @@
+import math
+
+
+def traced(function):
+    return function
+
+
+def slow(values):
+    total = 0
+    for value in values:
+        total += math.sqrt(value)
+    return total
+
+
+@traced
+def fast():
+    return math.sqrt(4)
+
+
+def main():
+    slow(range(200_000))
+    for _ in range(10):
+        fast()